@@ -17,6 +17,7 @@ import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingsReader;
 import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.FlatEntryTree;
 import org.tinylog.Logger;
 
 import java.io.BufferedWriter;
@@ -157,6 +158,9 @@ public abstract class Command {
 
 			EntryTree<EntryMapping> mappings = readMappings(enigma, fileMappings, progress);
 
+			// commands read the mappings far more than they change them,
+			// and never while iterating over them, which flat trees don't allow
+			project.setProposedTreeFactory(FlatEntryTree::new);
 			project.setMappings(mappings, new ConsoleProgressListener());
 		}
 
@@ -165,7 +169,7 @@ public abstract class Command {
 
 	protected static EntryTree<EntryMapping> readMappings(Enigma enigma, Path path, ProgressListener progress) throws MappingParseException, IOException {
 		MappingsReader reader = CommandsUtil.getReader(enigma, path);
-		return reader.read(path, progress);
+		return reader.readLazily(path, progress);
 	}
 
 	protected static File getWritableFile(String path) {
@@ -54,7 +54,7 @@ public class PacketHelper {
 					throw new IOException("Field requires class parent");
 				}
 
-				TypeDescriptor desc = new TypeDescriptor(readString(input));
+				TypeDescriptor desc = TypeDescriptor.parse(readString(input));
 				return new FieldEntry(parentClass, name, desc, javadocs);
 			}
 			case ENTRY_METHOD -> {
@@ -62,7 +62,7 @@ public class PacketHelper {
 					throw new IOException("Method requires class parent");
 				}
 
-				MethodDescriptor desc = new MethodDescriptor(readString(input));
+				MethodDescriptor desc = MethodDescriptor.parse(readString(input));
 				return new MethodEntry(parentClass, name, desc, javadocs);
 			}
 			case ENTRY_LOCAL_VAR -> {
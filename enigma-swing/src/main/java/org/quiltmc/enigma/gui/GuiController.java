@@ -58,6 +58,7 @@ import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
@@ -125,7 +126,12 @@ public class GuiController implements ClientPacketHandler {
 		this.gui.onStartOpenJar();
 
 		return ProgressDialog.runOffThread(this.gui, progress -> {
+			EnigmaProject previous = this.project;
 			this.project = this.enigma.openJar(jarPath, new ClasspathClassProvider(), progress);
+			if (previous != null) {
+				previous.close();
+			}
+
 			this.indexTreeBuilder = new IndexTreeBuilder(this.project.getJarIndex());
 			this.chp = new ClassHandleProvider(this.project, Config.decompiler().activeDecompiler.value().service);
 			this.statsGenerator = new StatsGenerator(this.project);
@@ -140,6 +146,7 @@ public class GuiController implements ClientPacketHandler {
 	public void closeJar() {
 		this.chp.destroy();
 		this.chp = null;
+		this.project.close();
 		this.project = null;
 		this.statsGenerator = null;
 		this.gui.onCloseJar();
@@ -166,7 +173,8 @@ public class GuiController implements ClientPacketHandler {
 
 		return ProgressDialog.runOffThread(this.gui, progress -> {
 			try {
-				EntryTree<EntryMapping> mappings = readWriteService.read(path);
+				// read into a persistent tree, so that delta tracking can snapshot it in constant time
+				EntryTree<EntryMapping> mappings = readWriteService.readLazily(path, ProgressListener.createEmpty(), PersistentEntryTree::new);
 				this.project.setMappings(mappings, progress);
 
 				this.readWriteService = readWriteService;
@@ -7,15 +7,16 @@ import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
 import org.quiltmc.enigma.api.analysis.index.mapping.MappingsIndex;
 import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
 import org.quiltmc.enigma.impl.analysis.ClassLoaderClassProvider;
+import org.quiltmc.enigma.impl.analysis.index.AbstractJarIndex;
 import org.quiltmc.enigma.api.service.EnigmaService;
 import org.quiltmc.enigma.api.service.EnigmaServiceContext;
 import org.quiltmc.enigma.api.service.EnigmaServiceFactory;
 import org.quiltmc.enigma.api.service.EnigmaServiceType;
 import org.quiltmc.enigma.api.service.JarIndexerService;
-import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
 import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.class_provider.CombiningClassProvider;
 import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.MappedJarClassProvider;
 import org.quiltmc.enigma.api.class_provider.ObfuscationFixClassProvider;
 import org.quiltmc.enigma.api.service.NameProposalService;
 import org.quiltmc.enigma.api.service.ReadWriteService;
@@ -23,13 +24,14 @@ import org.quiltmc.enigma.api.source.TokenType;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.serde.FileType;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
-import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.util.Either;
 import org.quiltmc.enigma.util.I18n;
 import org.quiltmc.enigma.util.Utils;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.io.BaseEncoding;
 import org.objectweb.asm.Opcodes;
 import org.tinylog.Logger;
 
@@ -79,13 +81,37 @@ public class Enigma {
 	}
 
 	public EnigmaProject openJar(Path path, ClassProvider libraryClassProvider, ProgressListener progress) throws IOException {
-		JarClassProvider jarClassProvider = new JarClassProvider(path);
-		JarIndex index = MainJarIndex.empty();
-		JarIndex libIndex = LibrariesJarIndex.empty();
+		ClassProvider jarClassProvider = this.openJarClassProvider(path);
+		try {
+			return this.openJar(path, jarClassProvider, libraryClassProvider, progress);
+		} catch (IOException | RuntimeException e) {
+			EnigmaProject.closeClassProvider(jarClassProvider);
+			throw e;
+		}
+	}
+
+	private ClassProvider openJarClassProvider(Path path) throws IOException {
+		// mapping is opt-in, and a mapping can't address more than 2 GiB
+		if (this.profile.getJarIndexingParameters().mapJar() && Files.size(path) <= Integer.MAX_VALUE) {
+			return new MappedJarClassProvider(path);
+		}
+
+		return new JarClassProvider(path);
+	}
+
+	private EnigmaProject openJar(Path path, ClassProvider jarClassProvider, ClassProvider libraryClassProvider, ProgressListener progress) throws IOException {
+		JarIndex index = MainJarIndex.empty(this.profile.getJarIndexingParameters().compactReferences());
+		JarIndex libIndex = this.profile.getJarIndexingParameters().lazyLibraries() ? LibrariesJarIndex.onDemand(index) : LibrariesJarIndex.empty();
+		byte[] jarChecksum = Utils.zipSha1(path);
+
+		if (index instanceof AbstractJarIndex abstractIndex && this.profile.getJarIndexingParameters().cacheSnapshots()) {
+			abstractIndex.setSnapshot(this.getIndexSnapshotPath(path, jarChecksum), jarChecksum, this.getIndexSnapshotConfiguration());
+		}
 
 		ClassLoaderClassProvider jreProvider = new ClassLoaderClassProvider(DriverManager.class.getClassLoader());
 		CombiningClassProvider librariesProvider = new CombiningClassProvider(jreProvider, libraryClassProvider);
-		ClassProvider mainProjectProvider = new ObfuscationFixClassProvider(new CachingClassProvider(jarClassProvider), index);
+		// the fixing provider caches the jar's classes once they're fixed, so they aren't cached beneath it as well
+		ClassProvider mainProjectProvider = new ObfuscationFixClassProvider(jarClassProvider, index, this.profile.getClassCacheParameters());
 		ProjectClassProvider projectClassProvider = new ProjectClassProvider(mainProjectProvider, librariesProvider);
 
 		// main index
@@ -98,7 +124,7 @@ public class Enigma {
 		var nameProposalServices = this.getNameProposalServices();
 		progress.init(nameProposalServices.size(), I18n.translate("progress.jar.name_proposal"));
 
-		EntryTree<EntryMapping> proposedNames = new HashEntryTree<>();
+		EntryTree<EntryMapping> proposedNames = new PersistentEntryTree<>();
 
 		int j = 1;
 		for (var service : nameProposalServices) {
@@ -121,12 +147,39 @@ public class Enigma {
 		MappingsIndex mappingsIndex = MappingsIndex.empty();
 		mappingsIndex.indexMappings(proposedNames, progress);
 
-		return new EnigmaProject(this, path, mainProjectProvider, index, libIndex, mappingsIndex, proposedNames, Utils.zipSha1(path));
+		return new EnigmaProject(this, path, mainProjectProvider, index, libIndex, mappingsIndex, proposedNames, jarChecksum, jarClassProvider);
+	}
+
+	private Path getIndexSnapshotPath(Path jar, byte[] jarChecksum) {
+		String directory = this.profile.getJarIndexingParameters().snapshotDirectory();
+		if (directory == null) {
+			return jar.resolveSibling(jar.getFileName() + ".enigma-index");
+		}
+
+		return this.profile.resolvePath(Path.of(directory)).resolve(BaseEncoding.base16().lowerCase().encode(jarChecksum) + ".enigma-index");
+	}
+
+	/**
+	 * Describes everything about this instance that changes what a jar's index contains, other than the indexers of the index itself.
+	 */
+	private List<String> getIndexSnapshotConfiguration() {
+		List<String> configuration = new ArrayList<>();
+		configuration.add("compact_references=" + this.profile.getJarIndexingParameters().compactReferences());
+		for (JarIndexerService service : this.services.get(JarIndexerService.TYPE)) {
+			configuration.add("jar_indexer=" + service.getId());
+		}
+
+		return configuration;
 	}
 
 	private void index(JarIndex index, ProjectClassProvider classProvider, ProgressListener progress) {
 		boolean libraries = index instanceof LibrariesJarIndex;
 		String progressKey = libraries ? "libs" : "jar";
+
+		if (index instanceof AbstractJarIndex abstractIndex) {
+			abstractIndex.setParallel(this.profile.getJarIndexingParameters().parallel());
+		}
+
 		index.indexJar(classProvider, progress);
 
 		List<JarIndexerService> indexers = this.services.get(JarIndexerService.TYPE);
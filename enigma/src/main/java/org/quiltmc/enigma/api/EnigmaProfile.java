@@ -10,6 +10,9 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndexingParameters;
+import org.quiltmc.enigma.api.class_provider.ClassCacheParameters;
+import org.quiltmc.enigma.api.class_provider.ObfuscationFixClassProvider;
 import org.quiltmc.enigma.api.service.EnigmaServiceType;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingFileNameFormat;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
@@ -34,6 +37,7 @@ public final class EnigmaProfile {
 	public static final EnigmaProfile EMPTY = new EnigmaProfile(new ServiceContainer(Map.of()));
 
 	private static final MappingSaveParameters DEFAULT_MAPPING_SAVE_PARAMETERS = new MappingSaveParameters(MappingFileNameFormat.BY_DEOBF, false, null, null);
+	private static final JarIndexingParameters DEFAULT_JAR_INDEXING_PARAMETERS = new JarIndexingParameters(false, false, null, false, false, false);
 	private static final Gson GSON = new GsonBuilder()
 			.registerTypeAdapter(ServiceContainer.class, (JsonDeserializer<ServiceContainer>) EnigmaProfile::loadServiceContainer)
 			.create();
@@ -46,6 +50,12 @@ public final class EnigmaProfile {
 	@SerializedName("mapping_save_parameters")
 	private final MappingSaveParameters mappingSaveParameters = null;
 
+	@SerializedName("jar_indexing_parameters")
+	private final JarIndexingParameters jarIndexingParameters = null;
+
+	@SerializedName("class_cache_parameters")
+	private final ClassCacheParameters classCacheParameters = null;
+
 	@Nullable
 	private Path sourcePath;
 
@@ -104,6 +114,20 @@ public final class EnigmaProfile {
 		return this.mappingSaveParameters == null ? EnigmaProfile.DEFAULT_MAPPING_SAVE_PARAMETERS : this.mappingSaveParameters;
 	}
 
+	public JarIndexingParameters getJarIndexingParameters() {
+		//noinspection ConstantConditions - this field is parsed by GSON
+		return this.jarIndexingParameters == null ? EnigmaProfile.DEFAULT_JAR_INDEXING_PARAMETERS : this.jarIndexingParameters;
+	}
+
+	/**
+	 * {@return the cache policy for the main jar's classes, which are cached once fixed by the {@link ObfuscationFixClassProvider}}
+	 * By default, the cache is bounded by the size of its classes.
+	 */
+	public ClassCacheParameters getClassCacheParameters() {
+		//noinspection ConstantConditions - this field is parsed by GSON
+		return this.classCacheParameters == null ? ObfuscationFixClassProvider.DEFAULT_PARAMETERS : this.classCacheParameters;
+	}
+
 	private EnigmaProfile withSourcePath(Path sourcePath) {
 		this.sourcePath = sourcePath;
 		return this;
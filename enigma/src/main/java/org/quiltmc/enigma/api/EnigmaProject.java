@@ -10,7 +10,7 @@ import org.quiltmc.enigma.api.analysis.index.mapping.MappingsIndex;
 import org.quiltmc.enigma.api.service.ObfuscationTestService;
 import org.quiltmc.enigma.api.source.TokenType;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeUtil;
-import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
 import org.quiltmc.enigma.impl.bytecode.translator.TranslationClassVisitor;
 import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.class_provider.ObfuscationFixClassProvider;
@@ -29,6 +29,7 @@ import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma.util.I18n;
+import org.quiltmc.enigma.util.Utils;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.tree.ClassNode;
 import org.tinylog.Logger;
@@ -45,24 +46,37 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class EnigmaProject {
+public class EnigmaProject implements AutoCloseable {
 	private final Enigma enigma;
 	private final Path jarPath;
 	private final ClassProvider classProvider;
 	private final JarIndex jarIndex;
 	private final JarIndex libIndex;
 	private final byte[] jarChecksum;
+	@Nullable
+	private final ClassProvider jarClassProvider;
 
 	private EntryRemapper remapper;
 	private MappingsIndex mappingsIndex;
+	@Nullable
+	private Supplier<? extends EntryTree<EntryMapping>> proposedTreeFactory;
 
 	public EnigmaProject(Enigma enigma, Path jarPath, ClassProvider classProvider, JarIndex jarIndex, JarIndex libIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> proposedNames, byte[] jarChecksum) {
+		this(enigma, jarPath, classProvider, jarIndex, libIndex, mappingsIndex, proposedNames, jarChecksum, null);
+	}
+
+	/**
+	 * @param jarClassProvider the provider reading the jar, which is closed along with this project, or {@code null} if nothing needs closing
+	 */
+	public EnigmaProject(Enigma enigma, Path jarPath, ClassProvider classProvider, JarIndex jarIndex, JarIndex libIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> proposedNames, byte[] jarChecksum, @Nullable ClassProvider jarClassProvider) {
 		Preconditions.checkArgument(jarChecksum.length == 20);
 		this.enigma = enigma;
 		this.jarPath = jarPath;
@@ -70,20 +84,27 @@ public class EnigmaProject {
 		this.jarIndex = jarIndex;
 		this.libIndex = libIndex;
 		this.jarChecksum = jarChecksum;
+		this.jarClassProvider = jarClassProvider;
 
 		this.mappingsIndex = mappingsIndex;
-		this.remapper = EntryRemapper.mapped(jarIndex, this.mappingsIndex, proposedNames, new HashEntryTree<>(), this.enigma.getNameProposalServices());
+		this.remapper = EntryRemapper.mapped(jarIndex, this.mappingsIndex, proposedNames, new PersistentEntryTree<>(), this.enigma.getNameProposalServices());
 	}
 
 	/**
 	 * Sets the current mappings of this project.
 	 * Note that this triggers both an index of the mappings and dynamic name proposal, which may be expensive.
+	 * When mappings are already loaded, only the entries that differ from them are reindexed and passed to name proposal instead.
 	 * @param mappings the new mappings
 	 * @param progress a progress listener for indexing
 	 */
 	public void setMappings(@Nullable EntryTree<EntryMapping> mappings, ProgressListener progress) {
+		if (mappings != null && this.remapper != null && !this.remapper.getDeobfMappings().isEmpty()) {
+			this.remapper = this.remapper.withDeobfMappings(mappings, this.proposedTreeFactory, progress);
+			return;
+		}
+
 		// keep bytecode-based proposed names, to avoid unnecessary recalculation
-		EntryTree<EntryMapping> jarProposedMappings = this.remapper != null ? this.remapper.getJarProposedMappings() : new HashEntryTree<>();
+		EntryTree<EntryMapping> jarProposedMappings = this.remapper != null ? this.remapper.getJarProposedMappings() : new PersistentEntryTree<>();
 
 		this.mappingsIndex = MappingsIndex.empty();
 
@@ -91,10 +112,10 @@ public class EnigmaProject {
 			EntryTree<EntryMapping> mergedTree = EntryTreeUtil.merge(jarProposedMappings, mappings);
 
 			this.mappingsIndex.indexMappings(mergedTree, progress);
-			this.remapper = EntryRemapper.mapped(this.jarIndex, this.mappingsIndex, jarProposedMappings, mappings, this.enigma.getNameProposalServices());
+			this.remapper = EntryRemapper.mapped(this.jarIndex, this.mappingsIndex, jarProposedMappings, mappings, this.enigma.getNameProposalServices(), this.proposedTreeFactory);
 		} else if (!jarProposedMappings.isEmpty()) {
 			this.mappingsIndex.indexMappings(jarProposedMappings, progress);
-			this.remapper = EntryRemapper.mapped(this.jarIndex, this.mappingsIndex, jarProposedMappings, new HashEntryTree<>(), this.enigma.getNameProposalServices());
+			this.remapper = EntryRemapper.mapped(this.jarIndex, this.mappingsIndex, jarProposedMappings, new PersistentEntryTree<>(), this.enigma.getNameProposalServices(), this.proposedTreeFactory);
 		} else {
 			this.remapper = EntryRemapper.empty(this.jarIndex, this.enigma.getNameProposalServices());
 		}
@@ -103,6 +124,37 @@ public class EnigmaProject {
 		this.remapper.insertDynamicallyProposedMappings(null, null, null);
 	}
 
+	/**
+	 * Sets the factory for the tree that holds the proposed mappings of remappers created by {@link #setMappings(EntryTree, ProgressListener)}.
+	 * By default, they share a snapshot of the jar-proposed mappings, which is the better choice when mappings are edited and reloaded.
+	 * @param proposedTreeFactory the tree factory, or {@code null} to use snapshots
+	 * @see EntryRemapper#mapped(JarIndex, MappingsIndex, EntryTree, EntryTree, List, Supplier)
+	 */
+	public void setProposedTreeFactory(@Nullable Supplier<? extends EntryTree<EntryMapping>> proposedTreeFactory) {
+		this.proposedTreeFactory = proposedTreeFactory;
+	}
+
+	/**
+	 * Closes the jar this project reads its classes from.
+	 * Classes that aren't cached can no longer be read once the project is closed.
+	 */
+	@Override
+	public void close() {
+		if (this.jarClassProvider != null) {
+			closeClassProvider(this.jarClassProvider);
+		}
+	}
+
+	static void closeClassProvider(ClassProvider classProvider) {
+		if (classProvider instanceof AutoCloseable closeable) {
+			try {
+				closeable.close();
+			} catch (Exception e) {
+				Logger.warn(e, "Failed to close class provider");
+			}
+		}
+	}
+
 	public Enigma getEnigma() {
 		return this.enigma;
 	}
@@ -143,16 +195,14 @@ public class EnigmaProject {
 	private Collection<Entry<?>> dropMappings(EntryTree<EntryMapping> mappings, ProgressListener progress) {
 		// drop mappings that don't match the jar
 		MappingsChecker checker = new MappingsChecker(this.jarIndex, mappings);
-		MappingsChecker.Dropped droppedBroken = checker.dropBrokenMappings(progress);
+		MappingsChecker.DroppedMappings dropped = checker.dropInvalidMappings(progress);
 
-		Map<Entry<?>, String> droppedBrokenMappings = droppedBroken.getDroppedMappings();
+		Map<Entry<?>, String> droppedBrokenMappings = dropped.broken().getDroppedMappings();
 		for (Map.Entry<Entry<?>, String> mapping : droppedBrokenMappings.entrySet()) {
 			Logger.warn("Couldn't find {} ({}) in jar. Mapping was dropped.", mapping.getKey(), mapping.getValue());
 		}
 
-		MappingsChecker.Dropped droppedEmpty = checker.dropEmptyMappings(progress);
-
-		Map<Entry<?>, String> droppedEmptyMappings = droppedEmpty.getDroppedMappings();
+		Map<Entry<?>, String> droppedEmptyMappings = dropped.empty().getDroppedMappings();
 		for (Map.Entry<Entry<?>, String> mapping : droppedEmptyMappings.entrySet()) {
 			Logger.warn("{} ({}) was empty. Mapping was dropped.", mapping.getKey(), mapping.getValue());
 		}
@@ -184,8 +234,8 @@ public class EnigmaProject {
 
 			// methods declared in object and record are not renamable
 			// note: compareTo ignores parent, we want that
-			if (this.libIndex.getChildrenByClass().get(new ClassEntry("java/lang/Object")).stream().anyMatch(c -> c instanceof MethodEntry m && m.compareTo(obfMethodEntry) == 0)
-					|| this.libIndex.getChildrenByClass().get(new ClassEntry("java/lang/Record")).stream().anyMatch(c -> c instanceof MethodEntry m && m.compareTo(obfMethodEntry) == 0)) {
+			if (this.isLibraryMethod(new ClassEntry("java/lang/Object"), obfMethodEntry)
+					|| this.isLibraryMethod(new ClassEntry("java/lang/Record"), obfMethodEntry)) {
 				return false;
 			}
 
@@ -212,6 +262,22 @@ public class EnigmaProject {
 		return this.jarIndex.getIndex(EntryIndex.class).hasEntry(obfEntry);
 	}
 
+	private boolean isLibraryMethod(ClassEntry libraryClass, MethodEntry method) {
+		// the library index may only index classes once they're needed
+		this.libIndex.ensureIndexed(libraryClass);
+
+		Lock lock = this.libIndex.getReadLock();
+		if (lock == null) {
+			return this.hasLibraryMethod(libraryClass, method);
+		}
+
+		return Utils.withLock(lock, () -> this.hasLibraryMethod(libraryClass, method));
+	}
+
+	private boolean hasLibraryMethod(ClassEntry libraryClass, MethodEntry method) {
+		return this.libIndex.getChildrenByClass().get(libraryClass).stream().anyMatch(c -> c instanceof MethodEntry m && m.compareTo(method) == 0);
+	}
+
 	private static boolean isEnumValueOfMethod(ClassDefEntry parent, MethodEntry method) {
 		return parent != null && parent.isEnum() && method.getName().equals("valueOf") && method.getDesc().toString().equals("(Ljava/lang/String;)L" + parent.getFullName() + ";");
 	}
@@ -246,7 +312,7 @@ public class EnigmaProject {
 
 	public JarExport exportRemappedJar(ProgressListener progress) {
 		Collection<ClassEntry> classEntries = this.jarIndex.getIndex(EntryIndex.class).getClasses();
-		ClassProvider fixingClassProvider = new ObfuscationFixClassProvider(this.classProvider, this.jarIndex);
+		ClassProvider fixingClassProvider = ObfuscationFixClassProvider.of(this.classProvider, this.jarIndex);
 		Translator deobfuscator = this.remapper.getDeobfuscator();
 
 		AtomicInteger count = new AtomicInteger();
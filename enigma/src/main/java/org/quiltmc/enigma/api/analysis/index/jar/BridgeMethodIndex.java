@@ -15,14 +15,19 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-public class BridgeMethodIndex implements JarIndexer {
+public class BridgeMethodIndex implements ConcurrentJarIndexer<BridgeMethodIndex> {
 	private final EntryIndex entryIndex;
 	private final InheritanceIndex inheritanceIndex;
 	private final ReferenceIndex referenceIndex;
 
 	private final Map<MethodEntry, MethodEntry> bridgeToSpecialized = Maps.newHashMap();
 	private final Map<MethodEntry, MethodEntry> specializedToBridge = Maps.newHashMap();
+	/**
+	 * The number of indexed methods that have already been searched for bridges.
+	 */
+	private int searchedMethods;
 
 	public BridgeMethodIndex(EntryIndex entryIndex, InheritanceIndex inheritanceIndex, ReferenceIndex referenceIndex) {
 		this.entryIndex = entryIndex;
@@ -30,9 +35,28 @@ public class BridgeMethodIndex implements JarIndexer {
 		this.referenceIndex = referenceIndex;
 	}
 
+	@Override
+	public BridgeMethodIndex fork() {
+		return new BridgeMethodIndex(this.entryIndex, this.inheritanceIndex, this.referenceIndex);
+	}
+
+	@Override
+	public void merge(BridgeMethodIndex fork) {
+		// bridge methods are only collected once indexing is complete, in findBridgeMethods
+	}
+
+	/**
+	 * Looks for bridge methods among the methods indexed since this was last called.
+	 */
 	public void findBridgeMethods() {
+		this.findBridgeMethods(this.entryIndex.getMethodsAfter(this.searchedMethods));
+	}
+
+	private void findBridgeMethods(List<MethodEntry> methods) {
+		this.searchedMethods += methods.size();
+
 		// look for access and bridged methods
-		for (MethodEntry methodEntry : this.entryIndex.getMethods()) {
+		for (MethodEntry methodEntry : methods) {
 			MethodDefEntry methodDefEntry = (MethodDefEntry) methodEntry;
 
 			AccessFlags access = methodDefEntry.getAccess();
@@ -49,15 +73,25 @@ public class BridgeMethodIndex implements JarIndexer {
 		Map<MethodEntry, MethodEntry> copiedAccessToBridge = new HashMap<>(this.specializedToBridge);
 
 		for (Map.Entry<MethodEntry, MethodEntry> entry : copiedAccessToBridge.entrySet()) {
-			MethodEntry specializedEntry = entry.getKey();
-			MethodEntry bridgeEntry = entry.getValue();
-			if (bridgeEntry.getName().equals(specializedEntry.getName())) {
-				continue;
-			}
+			this.addRenamedSpecializedMethod(entry.getKey(), entry.getValue());
+		}
+	}
 
-			MethodEntry renamedSpecializedEntry = specializedEntry.withName(bridgeEntry.getName());
-			this.specializedToBridge.put(renamedSpecializedEntry, this.specializedToBridge.get(specializedEntry));
+	@Override
+	public void processClasses(JarIndex index, Set<ClassEntry> classes) {
+		// the new bridges are all methods of the new classes, which are the only methods that haven't been searched yet
+		// classes are only indexed on their own when they're library classes, whose bridges are never renamed,
+		// so unlike processIndex there's no renamed specialized method to add
+		this.findBridgeMethods();
+	}
+
+	private void addRenamedSpecializedMethod(MethodEntry specializedEntry, MethodEntry bridgeEntry) {
+		if (bridgeEntry.getName().equals(specializedEntry.getName())) {
+			return;
 		}
+
+		MethodEntry renamedSpecializedEntry = specializedEntry.withName(bridgeEntry.getName());
+		this.specializedToBridge.put(renamedSpecializedEntry, this.specializedToBridge.get(specializedEntry));
 	}
 
 	private void indexSyntheticMethod(MethodDefEntry syntheticMethod, AccessFlags access) {
@@ -143,7 +177,7 @@ public class BridgeMethodIndex implements JarIndexer {
 	private MethodEntry getHigherMethod(MethodEntry bridgeMethod1, MethodEntry bridgeMethod2) {
 		ClassEntry parent1 = bridgeMethod1.getParent();
 		ClassEntry parent2 = bridgeMethod2.getParent();
-		return this.inheritanceIndex.getDescendants(parent1).contains(parent2) ? bridgeMethod1 : bridgeMethod2;
+		return this.inheritanceIndex.isAncestor(parent2, parent1) ? bridgeMethod1 : bridgeMethod2;
 	}
 
 	public boolean isBridgeMethod(MethodEntry entry) {
@@ -0,0 +1,31 @@
+package org.quiltmc.enigma.api.analysis.index.jar;
+
+/**
+ * A {@link JarIndexer} that can take part in parallel indexing.
+ * <br>
+ * During a parallel index, each worker thread receives its own {@link #fork() fork} of this indexer, which is fed the
+ * index callbacks for a contiguous run of classes. Once a phase is complete, the forks are {@link #merge(ConcurrentJarIndexer) merged}
+ * back into the original indexer in class order, which means the merged state is the same as if the jar had been indexed on a single thread.
+ * <br>
+ * Indexers that don't implement this interface are still supported by parallel indexing:
+ * their callbacks are recorded by the workers and replayed in class order on the indexing thread.
+ *
+ * @param <T> the type of this indexer
+ */
+public interface ConcurrentJarIndexer<T extends ConcurrentJarIndexer<T>> extends JarIndexer {
+	/**
+	 * Creates an empty copy of this indexer to collect the results of a single worker.
+	 * The fork will only ever be accessed by one thread at a time, and will never have {@link #processIndex(JarIndex)} called on it.
+	 *
+	 * @return the new fork
+	 */
+	T fork();
+
+	/**
+	 * Merges all state collected by the provided fork into this indexer.
+	 * Forks are merged in the same order as the classes they indexed.
+	 *
+	 * @param fork a fork created by {@link #fork()}
+	 */
+	void merge(T fork);
+}
@@ -7,7 +7,7 @@ import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 
-public class EnclosingMethodIndex implements JarIndexer {
+public class EnclosingMethodIndex implements ConcurrentJarIndexer<EnclosingMethodIndex> {
 	private final Map<ClassDefEntry, EnclosingMethodData> enclosingMethodData = new HashMap<>();
 
 	@Override
@@ -15,6 +15,16 @@ public class EnclosingMethodIndex implements JarIndexer {
 		this.enclosingMethodData.put(classEntry, enclosingMethodData);
 	}
 
+	@Override
+	public EnclosingMethodIndex fork() {
+		return new EnclosingMethodIndex();
+	}
+
+	@Override
+	public void merge(EnclosingMethodIndex fork) {
+		this.enclosingMethodData.putAll(fork.enclosingMethodData);
+	}
+
 	@Nullable
 	public EnclosingMethodData getEnclosingMethodData(ClassEntry entry) {
 		return this.enclosingMethodData.get(entry);
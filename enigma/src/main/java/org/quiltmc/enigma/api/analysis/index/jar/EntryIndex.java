@@ -4,6 +4,8 @@ import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
 import org.quiltmc.enigma.api.translation.representation.AccessFlags;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.Signature;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
@@ -12,32 +14,85 @@ import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.index.InternedEntryTable;
 
 import javax.annotation.Nullable;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
-public class EntryIndex implements JarIndexer {
+/**
+ * Indexes the definitions of all classes, methods and fields in a jar.
+ * <br>
+ * Definitions are stored in {@link InternedEntryTable interned tables}, which give every entry a dense id,
+ * and are looked up by equality with plain entries. The collections returned by {@link #getClasses()},
+ * {@link #getMethods()} and {@link #getFields()} are read-only views over those tables.
+ * <br>
+ * Methods and fields are by far the most common definitions, so only their plain entries are kept, with pooled descriptors
+ * where possible, alongside arrays of their access flags and signatures. Their definition entries are built when they're
+ * asked for, and so aren't the same instances from one call to the next.
+ */
+public class EntryIndex implements ConcurrentJarIndexer<EntryIndex> {
 	private final EntryTree<EntryMapping> tree = new HashEntryTree<>();
 
-	private final Map<FieldEntry, FieldDefEntry> fieldDefinitions = new HashMap<>();
-	private final Map<MethodEntry, MethodDefEntry> methodDefinitions = new HashMap<>();
-	private final Map<ClassEntry, ClassDefEntry> classDefinitions = new HashMap<>();
+	private final MemberTable<FieldEntry, FieldDefEntry> fieldDefinitions = new MemberTable<>(
+			(field, access, signature) -> new FieldDefEntry(field.getParent(), field.getName(), field.getDesc(), Signature.createTypedSignature(signature), new AccessFlags(access))
+	);
+	private final MemberTable<MethodEntry, MethodDefEntry> methodDefinitions = new MemberTable<>(
+			(method, access, signature) -> new MethodDefEntry(method.getParent(), method.getName(), method.getDesc(), Signature.createSignature(signature), new AccessFlags(access))
+	);
+	private final InternedEntryTable<ClassDefEntry> classDefinitions = new InternedEntryTable<>();
+
+	private final Collection<FieldEntry> fields = Collections.unmodifiableCollection(this.fieldDefinitions);
+	private final Collection<MethodEntry> methods = Collections.unmodifiableCollection(this.methodDefinitions);
+	private final Collection<ClassEntry> classes = Collections.unmodifiableCollection(this.classDefinitions);
+
+	/**
+	 * The number of definitions of each kind that were in the tables when the index was last processed.
+	 * Definitions keep their ids when redefined, so the ones with higher ids were indexed since.
+	 */
+	private int processedClasses;
+	private int processedFields;
+	private int processedMethods;
 
 	@Override
 	public void indexClass(ClassDefEntry classEntry) {
-		this.classDefinitions.put(classEntry, classEntry);
+		this.classDefinitions.put(classEntry);
 	}
 
 	@Override
 	public void indexMethod(MethodDefEntry methodEntry) {
-		this.methodDefinitions.put(methodEntry, methodEntry);
+		MethodDescriptor desc = methodEntry.getDesc();
+		if (desc.getArgumentDescs().stream().allMatch(argument -> argument.getAccess().getFlags() == 0)) {
+			// only descriptors with parameter flags need their own copy
+			desc = MethodDescriptor.parse(desc.toString());
+		}
+
+		MethodEntry entry = new MethodEntry(methodEntry.getParent(), methodEntry.getName(), desc);
+		this.methodDefinitions.put(entry, methodEntry.getAccess().getFlags(), methodEntry.getSignature().getSignature());
 	}
 
 	@Override
 	public void indexField(FieldDefEntry fieldEntry) {
-		this.fieldDefinitions.put(fieldEntry, fieldEntry);
+		FieldEntry entry = new FieldEntry(fieldEntry.getParent(), fieldEntry.getName(), fieldEntry.getDesc());
+		this.fieldDefinitions.put(entry, fieldEntry.getAccess().getFlags(), fieldEntry.getSignature().getSignature());
+	}
+
+	@Override
+	public EntryIndex fork() {
+		return new EntryIndex();
+	}
+
+	@Override
+	public void merge(EntryIndex fork) {
+		fork.classDefinitions.forEach(this.classDefinitions::put);
+		this.methodDefinitions.putAll(fork.methodDefinitions);
+		this.fieldDefinitions.putAll(fork.fieldDefinitions);
 	}
 
 	@Override
@@ -46,25 +101,68 @@ public class EntryIndex implements JarIndexer {
 			this.tree.insert(entry, null);
 		}
 
-		for (FieldEntry entry : this.getFields()) {
-			this.tree.insert(entry, null);
+		this.insertMembers(this.fieldDefinitions, 0);
+		this.insertMembers(this.methodDefinitions, 0);
+
+		this.processedClasses = this.classDefinitions.size();
+		this.processedFields = this.fieldDefinitions.size();
+		this.processedMethods = this.methodDefinitions.size();
+	}
+
+	@Override
+	public void processClasses(JarIndex index, Set<ClassEntry> classes) {
+		this.getAfter(this.classDefinitions, this.processedClasses).forEach(entry -> this.tree.insert(entry, null));
+		this.insertMembers(this.fieldDefinitions, this.processedFields);
+		this.insertMembers(this.methodDefinitions, this.processedMethods);
+
+		this.processedClasses = this.classDefinitions.size();
+		this.processedFields = this.fieldDefinitions.size();
+		this.processedMethods = this.methodDefinitions.size();
+	}
+
+	/**
+	 * Gets the methods indexed after the first {@code count} methods, in the order they were indexed.
+	 * Since methods keep their position when redefined, these are the methods indexed since there were {@code count} methods.
+	 */
+	List<MethodEntry> getMethodsAfter(int count) {
+		return this.getAfter(this.methodDefinitions, count);
+	}
+
+	private void insertMembers(MemberTable<?, ?> table, int count) {
+		// the tree gets the plain entries, rather than building a definition for each of them
+		for (int id = count; id < table.size(); id++) {
+			this.tree.insert(table.getEntry(id), null);
 		}
+	}
 
-		for (MethodEntry entry : this.getMethods()) {
-			this.tree.insert(entry, null);
+	private <E extends Entry<?>> List<E> getAfter(InternedEntryTable<? extends E> table, int count) {
+		List<E> entries = new ArrayList<>(table.size() - count);
+		for (int id = count; id < table.size(); id++) {
+			entries.add(table.get(id));
+		}
+
+		return entries;
+	}
+
+	private <E extends Entry<?>> List<E> getAfter(MemberTable<E, ?> table, int count) {
+		List<E> entries = new ArrayList<>(table.size() - count);
+		for (int id = count; id < table.size(); id++) {
+			entries.add(table.get(id));
 		}
+
+		return entries;
 	}
 
 	public boolean hasClass(ClassEntry entry) {
-		return this.classDefinitions.containsKey(entry);
+		return this.classDefinitions.contains(entry);
 	}
 
 	public boolean hasMethod(MethodEntry entry) {
-		return this.methodDefinitions.containsKey(entry);
+		return this.methodDefinitions.contains(entry);
 	}
 
 	public boolean hasField(FieldEntry entry) {
-		return this.fieldDefinitions.containsKey(entry);
+		return this.fieldDefinitions.contains(entry);
 	}
 
 	public boolean hasEntry(Entry<?> entry) {
@@ -89,19 +187,37 @@ public class EntryIndex implements JarIndexer {
 
 	@Nullable
 	public AccessFlags getMethodAccess(MethodEntry entry) {
-		var def = this.methodDefinitions.get(entry);
+		var def = this.methodDefinitions.find(entry);
 		return def == null ? null : def.getAccess();
 	}
 
 	@Nullable
 	public AccessFlags getFieldAccess(FieldEntry entry) {
-		var def = this.fieldDefinitions.get(entry);
+		var def = this.fieldDefinitions.find(entry);
 		return def == null ? null : def.getAccess();
 	}
 
+	/**
+	 * {@return the raw access flags of the given method, or {@code -1} if it isn't indexed}
+	 * Unlike {@link #getMethodAccess(MethodEntry)}, this never builds the method's definition,
+	 * so it suits loops that test the flags of every method.
+	 */
+	public int getMethodAccessFlags(MethodEntry entry) {
+		return this.methodDefinitions.getAccessFlags(entry);
+	}
+
+	/**
+	 * {@return the raw access flags of the given field, or {@code -1} if it isn't indexed}
+	 * Unlike {@link #getFieldAccess(FieldEntry)}, this never builds the field's definition,
+	 * so it suits loops that test the flags of every field.
+	 */
+	public int getFieldAccessFlags(FieldEntry entry) {
+		return this.fieldDefinitions.getAccessFlags(entry);
+	}
+
 	@Nullable
 	public AccessFlags getClassAccess(ClassEntry entry) {
-		var def = this.classDefinitions.get(entry);
+		var def = this.classDefinitions.find(entry);
 		return def == null ? null : def.getAccess();
 	}
 
@@ -122,29 +238,29 @@ public class EntryIndex implements JarIndexer {
 
 	@Nullable
 	public ClassDefEntry getDefinition(ClassEntry entry) {
-		return this.classDefinitions.get(entry);
+		return this.classDefinitions.find(entry);
 	}
 
 	@Nullable
 	public MethodDefEntry getDefinition(MethodEntry entry) {
-		return this.methodDefinitions.get(entry);
+		return this.methodDefinitions.find(entry);
 	}
 
 	@Nullable
 	public FieldDefEntry getDefinition(FieldEntry entry) {
-		return this.fieldDefinitions.get(entry);
+		return this.fieldDefinitions.find(entry);
 	}
 
 	public Collection<ClassEntry> getClasses() {
-		return this.classDefinitions.keySet();
+		return this.classes;
 	}
 
 	public Collection<MethodEntry> getMethods() {
-		return this.methodDefinitions.keySet();
+		return this.methods;
 	}
 
 	public Collection<FieldEntry> getFields() {
-		return this.fieldDefinitions.keySet();
+		return this.fields;
 	}
 
 	/**
@@ -160,4 +276,104 @@ public class EntryIndex implements JarIndexer {
 	public String getTranslationKey() {
 		return "progress.jar.indexing.process.entries";
 	}
+
+	/**
+	 * A table of member entries, which stores their access flags and signatures next to the plain entries,
+	 * and exposes them as a collection of definitions.
+	 */
+	private static final class MemberTable<E extends Entry<?>, D extends E> extends AbstractCollection<E> {
+		private final InternedEntryTable<E> entries = new InternedEntryTable<>();
+		private final DefinitionFactory<E, D> factory;
+		private int[] access = new int[16];
+		private String[] signatures = new String[16];
+		/**
+		 * The definitions built so far, which are only built once they're first needed.
+		 */
+		private Object[] definitions = new Object[16];
+
+		private MemberTable(DefinitionFactory<E, D> factory) {
+			this.factory = factory;
+		}
+
+		void put(E entry, int access, @Nullable String signature) {
+			int id = this.entries.put(entry);
+			if (id == this.access.length) {
+				this.access = Arrays.copyOf(this.access, id * 2);
+				this.signatures = Arrays.copyOf(this.signatures, id * 2);
+				this.definitions = Arrays.copyOf(this.definitions, id * 2);
+			}
+
+			this.access[id] = access;
+			this.signatures[id] = signature;
+			this.definitions[id] = null;
+		}
+
+		void putAll(MemberTable<E, D> table) {
+			for (int id = 0; id < table.size(); id++) {
+				this.put(table.getEntry(id), table.access[id], table.signatures[id]);
+			}
+		}
+
+		E getEntry(int id) {
+			return this.entries.get(id);
+		}
+
+		@SuppressWarnings("unchecked")
+		D get(int id) {
+			// threads racing to build the same definition build equal ones, so either can be kept
+			D definition = (D) this.definitions[id];
+			if (definition == null) {
+				definition = this.factory.create(this.entries.get(id), this.access[id], this.signatures[id]);
+				this.definitions[id] = definition;
+			}
+
+			return definition;
+		}
+
+		@Nullable
+		D find(Object entry) {
+			int id = this.entries.indexOf(entry);
+			return id == -1 ? null : this.get(id);
+		}
+
+		int getAccessFlags(Object entry) {
+			int id = this.entries.indexOf(entry);
+			return id == -1 ? -1 : this.access[id];
+		}
+
+		@Override
+		public boolean contains(Object entry) {
+			return this.entries.contains(entry);
+		}
+
+		@Override
+		public int size() {
+			return this.entries.size();
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			Iterator<E> entries = this.entries.iterator();
+			return new Iterator<>() {
+				private int next;
+
+				@Override
+				public boolean hasNext() {
+					return entries.hasNext();
+				}
+
+				@Override
+				public E next() {
+					// checks for concurrent modification
+					entries.next();
+					return MemberTable.this.get(this.next++);
+				}
+			};
+		}
+	}
+
+	@FunctionalInterface
+	private interface DefinitionFactory<E extends Entry<?>, D extends E> {
+		D create(E entry, int access, @Nullable String signature);
+	}
 }
@@ -1,21 +1,35 @@
 package org.quiltmc.enigma.api.analysis.index.jar;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Sets;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.impl.analysis.index.InternedEntryTable;
 
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Indexes the direct parents and children of all non-JRE classes in a jar.
+ * <br>
+ * Classes are interned into dense ids, and each inheritance edge is stored as a pair of {@code int}s.
+ * Once queried, the edges are compacted into sorted adjacency arrays, which are rebuilt if more classes are indexed later on.
+ */
+public class InheritanceIndex implements ConcurrentJarIndexer<InheritanceIndex> {
+	private static final int[] NO_EDGES = new int[0];
 
-public class InheritanceIndex implements JarIndexer {
 	private final EntryIndex entryIndex;
 
-	private final Multimap<ClassEntry, ClassEntry> classParents = HashMultimap.create();
-	private final Multimap<ClassEntry, ClassEntry> classChildren = HashMultimap.create();
+	private final InternedEntryTable<ClassEntry> classes = new InternedEntryTable<>();
+	private int[] edgeChildren = NO_EDGES;
+	private int[] edgeParents = NO_EDGES;
+	private int edgeCount;
+
+	private volatile Adjacency adjacency = Adjacency.EMPTY;
 
 	public InheritanceIndex(EntryIndex entryIndex) {
 		this.entryIndex = entryIndex;
@@ -37,61 +51,91 @@ public class InheritanceIndex implements JarIndexer {
 		}
 	}
 
-	private void indexParent(ClassEntry childEntry, ClassEntry parentEntry) {
-		this.classParents.put(childEntry, parentEntry);
-		this.classChildren.put(parentEntry, childEntry);
+	@Override
+	public InheritanceIndex fork() {
+		return new InheritanceIndex(this.entryIndex);
 	}
 
-	public Collection<ClassEntry> getParents(ClassEntry classEntry) {
-		return this.classParents.get(classEntry);
+	@Override
+	public void merge(InheritanceIndex fork) {
+		for (int i = 0; i < fork.edgeCount; i++) {
+			this.indexParent(fork.classes.get(fork.edgeChildren[i]), fork.classes.get(fork.edgeParents[i]));
+		}
 	}
 
-	public Collection<ClassEntry> getChildren(ClassEntry classEntry) {
-		return this.classChildren.get(classEntry);
-	}
+	private synchronized void indexParent(ClassEntry childEntry, ClassEntry parentEntry) {
+		if (this.edgeCount == this.edgeChildren.length) {
+			int capacity = Math.max(16, this.edgeCount * 2);
+			this.edgeChildren = Arrays.copyOf(this.edgeChildren, capacity);
+			this.edgeParents = Arrays.copyOf(this.edgeParents, capacity);
+		}
 
-	public Collection<ClassEntry> getDescendants(ClassEntry classEntry) {
-		Collection<ClassEntry> descendants = new HashSet<>();
+		this.edgeChildren[this.edgeCount] = this.classes.intern(childEntry);
+		this.edgeParents[this.edgeCount] = this.classes.intern(parentEntry);
+		this.edgeCount++;
+	}
 
-		LinkedList<ClassEntry> descendantQueue = new LinkedList<>();
-		descendantQueue.push(classEntry);
+	private Adjacency getAdjacency() {
+		Adjacency adjacency = this.adjacency;
+		if (adjacency.edgeCount == this.edgeCount) {
+			return adjacency;
+		}
 
-		while (!descendantQueue.isEmpty()) {
-			ClassEntry descendant = descendantQueue.pop();
-			Collection<ClassEntry> children = this.getChildren(descendant);
+		synchronized (this) {
+			if (this.adjacency.edgeCount != this.edgeCount) {
+				this.adjacency = Adjacency.build(this.classes.size(), this.edgeChildren, this.edgeParents, this.edgeCount);
+			}
 
-			children.forEach(descendantQueue::push);
-			descendants.addAll(children);
+			return this.adjacency;
 		}
+	}
 
-		return descendants;
+	public Collection<ClassEntry> getParents(ClassEntry classEntry) {
+		return this.getAdjacency().parents.get(this.classes, this.classes.indexOf(classEntry));
 	}
 
-	public Set<ClassEntry> getAncestors(ClassEntry classEntry) {
-		Set<ClassEntry> ancestors = Sets.newHashSet();
+	public Collection<ClassEntry> getChildren(ClassEntry classEntry) {
+		return this.getAdjacency().children.get(this.classes, this.classes.indexOf(classEntry));
+	}
 
-		LinkedList<ClassEntry> ancestorQueue = new LinkedList<>();
-		ancestorQueue.push(classEntry);
+	public Collection<ClassEntry> getDescendants(ClassEntry classEntry) {
+		return this.collect(this.getAdjacency().children, classEntry);
+	}
 
-		while (!ancestorQueue.isEmpty()) {
-			ClassEntry ancestor = ancestorQueue.pop();
-			Collection<ClassEntry> parents = this.getParents(ancestor);
+	public Set<ClassEntry> getAncestors(ClassEntry classEntry) {
+		return this.collect(this.getAdjacency().parents, classEntry);
+	}
 
-			parents.forEach(ancestorQueue::push);
-			ancestors.addAll(parents);
+	private Set<ClassEntry> collect(Edges edges, ClassEntry classEntry) {
+		int[] closure = edges.getClosure(this.classes.indexOf(classEntry));
+		Set<ClassEntry> collected = new HashSet<>(Math.max(16, closure.length * 2));
+		for (int id : closure) {
+			collected.add(this.classes.get(id));
 		}
 
-		return ancestors;
+		return collected;
+	}
+
+	/**
+	 * Checks whether a class directly or indirectly extends or implements another class,
+	 * without collecting all of its ancestors.
+	 *
+	 * @param classEntry the class to check
+	 * @param potentialAncestor the class that may be an ancestor of {@code classEntry}
+	 * @return whether {@code potentialAncestor} is one of {@link #getAncestors(ClassEntry) the ancestors} of {@code classEntry}
+	 */
+	public boolean isAncestor(ClassEntry classEntry, ClassEntry potentialAncestor) {
+		int ancestorId = this.classes.indexOf(potentialAncestor);
+		return ancestorId >= 0 && Arrays.binarySearch(this.getAdjacency().parents.getClosure(this.classes.indexOf(classEntry)), ancestorId) >= 0;
 	}
 
 	public Relation computeClassRelation(ClassEntry classEntry, ClassEntry potentialAncestor) {
 		if (potentialAncestor.getName().equals("java/lang/Object")) return Relation.RELATED;
 		if (!this.entryIndex.hasClass(classEntry)) return Relation.UNKNOWN;
+		if (this.isAncestor(classEntry, potentialAncestor)) return Relation.RELATED;
 
-		for (ClassEntry ancestor : this.getAncestors(classEntry)) {
-			if (potentialAncestor.equals(ancestor)) {
-				return Relation.RELATED;
-			} else if (!this.entryIndex.hasClass(ancestor)) {
+		for (int id : this.getAdjacency().parents.getClosure(this.classes.indexOf(classEntry))) {
+			if (!this.entryIndex.hasClass(this.classes.get(id))) {
 				return Relation.UNKNOWN;
 			}
 		}
@@ -100,12 +144,11 @@ public class InheritanceIndex implements JarIndexer {
 	}
 
 	public boolean isParent(ClassEntry classEntry) {
-		return this.classChildren.containsKey(classEntry);
+		return this.getAdjacency().children.count(this.classes.indexOf(classEntry)) > 0;
 	}
 
 	public boolean hasParents(ClassEntry classEntry) {
-		Collection<ClassEntry> parents = this.classParents.get(classEntry);
-		return !parents.isEmpty();
+		return this.getAdjacency().parents.count(this.classes.indexOf(classEntry)) > 0;
 	}
 
 	@Override
@@ -113,6 +156,138 @@ public class InheritanceIndex implements JarIndexer {
 		return "progress.jar.indexing.process.inheritance";
 	}
 
+	/**
+	 * Compressed adjacency arrays for one direction of the inheritance graph:
+	 * the targets of class {@code id} are stored in {@code targets[offsets[id]]} up to {@code targets[offsets[id + 1]]}.
+	 * <br>
+	 * The transitive closure of each class is computed the first time it's queried, and kept until the graph is rebuilt.
+	 */
+	private record Edges(int[] offsets, int[] targets, AtomicReferenceArray<int[]> closures) {
+		Edges(int[] offsets, int[] targets) {
+			this(offsets, targets, new AtomicReferenceArray<>(offsets.length - 1));
+		}
+
+		int count(int id) {
+			return id < 0 || id + 1 >= this.offsets.length ? 0 : this.offsets[id + 1] - this.offsets[id];
+		}
+
+		List<ClassEntry> get(InternedEntryTable<ClassEntry> classes, int id) {
+			int start = id < 0 || id + 1 >= this.offsets.length ? 0 : this.offsets[id];
+			int count = this.count(id);
+			return new AbstractList<>() {
+				@Override
+				public ClassEntry get(int index) {
+					return classes.get(Edges.this.targets[start + index]);
+				}
+
+				@Override
+				public int size() {
+					return count;
+				}
+			};
+		}
+
+		/**
+		 * @return the sorted ids of all classes reachable from class {@code id}
+		 */
+		int[] getClosure(int id) {
+			if (id < 0 || id + 1 >= this.offsets.length) {
+				return NO_EDGES;
+			}
+
+			int[] closure = this.closures.get(id);
+			if (closure == null) {
+				closure = this.computeClosure(id);
+				this.closures.set(id, closure);
+			}
+
+			return closure;
+		}
+
+		private int[] computeClosure(int id) {
+			BitSet reached = new BitSet();
+			int[] stack = new int[16];
+			int size = 0;
+			stack[size++] = id;
+
+			while (size > 0) {
+				int current = stack[--size];
+				for (int i = this.offsets[current]; i < this.offsets[current + 1]; i++) {
+					int next = this.targets[i];
+					if (reached.get(next)) {
+						continue;
+					}
+
+					reached.set(next);
+
+					// reuse closures that are already known instead of walking them again
+					int[] known = this.closures.get(next);
+					if (known != null) {
+						for (int reachable : known) {
+							reached.set(reachable);
+						}
+					} else {
+						if (size == stack.length) {
+							stack = Arrays.copyOf(stack, size * 2);
+						}
+
+						stack[size++] = next;
+					}
+				}
+			}
+
+			return reached.stream().toArray();
+		}
+
+		static Edges build(int classCount, int[] sources, int[] targets, int edgeCount) {
+			int[] offsets = new int[classCount + 1];
+			for (int i = 0; i < edgeCount; i++) {
+				offsets[sources[i] + 1]++;
+			}
+
+			for (int id = 0; id < classCount; id++) {
+				offsets[id + 1] += offsets[id];
+			}
+
+			int[] sorted = new int[edgeCount];
+			int[] positions = Arrays.copyOf(offsets, classCount);
+			for (int i = 0; i < edgeCount; i++) {
+				sorted[positions[sources[i]]++] = targets[i];
+			}
+
+			// drop duplicate edges, which occur when a class is indexed more than once
+			int size = 0;
+			int[] compacted = new int[classCount + 1];
+			for (int id = 0; id < classCount; id++) {
+				int start = offsets[id];
+				int end = offsets[id + 1];
+				Arrays.sort(sorted, start, end);
+
+				compacted[id] = size;
+				for (int i = start; i < end; i++) {
+					if (i == start || sorted[i] != sorted[i - 1]) {
+						sorted[size++] = sorted[i];
+					}
+				}
+			}
+
+			compacted[classCount] = size;
+			return new Edges(compacted, size == edgeCount ? sorted : Arrays.copyOf(sorted, size));
+		}
+	}
+
+	private record Adjacency(int edgeCount, Edges parents, Edges children) {
+		static final Adjacency EMPTY = new Adjacency(0, new Edges(new int[1], NO_EDGES), new Edges(new int[1], NO_EDGES));
+
+		static Adjacency build(int classCount, int[] edgeChildren, int[] edgeParents, int edgeCount) {
+			return new Adjacency(
+					edgeCount,
+					Edges.build(classCount, edgeChildren, edgeParents, edgeCount),
+					Edges.build(classCount, edgeParents, edgeChildren, edgeCount)
+			);
+		}
+	}
+
 	public enum Relation {
 		RELATED,
 		UNRELATED,
@@ -7,6 +7,9 @@ import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
 
+import javax.annotation.Nullable;
+import java.util.concurrent.locks.Lock;
+
 public interface JarIndex extends JarIndexer {
 	/**
 	 * Gets the index associated with the provided class.
@@ -15,6 +18,20 @@ public interface JarIndex extends JarIndexer {
 	 */
 	<T extends JarIndexer> T getIndex(Class<T> clazz);
 
+	/**
+	 * Checks whether an index of the provided class is registered, for indexes that aren't always present.
+	 * @param clazz the class of the index
+	 * @return whether {@link #getIndex(Class)} will return an index for the class
+	 */
+	default boolean hasIndex(Class<? extends JarIndexer> clazz) {
+		try {
+			this.getIndex(clazz);
+			return true;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
 	/**
 	 * Runs every configured indexer over the provided jar.
 	 * @param classProvider a class provider containing all classes in the jar and libraries
@@ -37,4 +54,40 @@ public interface JarIndex extends JarIndexer {
 	 * {@return whether this class is included in this index}
 	 */
 	boolean isIndexed(String internalName);
+
+	/**
+	 * Gets a counter that changes whenever the contents of this index change, for example when more classes are indexed.
+	 * This can be used to invalidate data derived from the index.
+	 * @return the modification count
+	 */
+	default long getModificationCount() {
+		return 0;
+	}
+
+	/**
+	 * Makes sure the provided class is included in this index, if it's available to it.
+	 * Indexes that visit all of their classes up front only check whether the class {@link #isIndexed(String) is indexed},
+	 * while {@link LibrariesJarIndex#onDemand(JarIndex) on-demand library indexes} will index the class and its ancestors on the spot.
+	 * @param classEntry the class to look up
+	 * @return whether the class is now included in this index
+	 * @throws IllegalStateException if the class would have to be indexed while the current thread holds the {@link #getReadLock() read lock}
+	 */
+	default boolean ensureIndexed(ClassEntry classEntry) {
+		return this.isIndexed(classEntry.getFullName());
+	}
+
+	/**
+	 * Gets the lock to hold while reading this index's indexers, when classes may be {@link #ensureIndexed(ClassEntry) indexed}
+	 * into it from another thread at the same time. Classes are only indexed while no other thread holds this lock.
+	 * <br>
+	 * A thread holding this lock can't index any more classes itself, so any class that will be read
+	 * must be ensured to be indexed before acquiring it.
+	 * <br>
+	 * Indexes that never index classes once they've been built don't need to be locked, and have no read lock.
+	 * @return the read lock, or {@code null} if this index doesn't index classes on demand
+	 */
+	@Nullable
+	default Lock getReadLock() {
+		return null;
+	}
 }
@@ -9,6 +9,8 @@ import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
+import java.util.Set;
+
 public interface JarIndexer {
 	default void indexClass(ClassDefEntry classEntry) {
 	}
@@ -37,6 +39,16 @@ public interface JarIndexer {
 	default void processIndex(JarIndex index) {
 	}
 
+	/**
+	 * Processes an index that was already processed once more classes have been indexed into it.
+	 * By default, the whole index is processed again.
+	 * @param index the index
+	 * @param classes the classes indexed since the index was last processed
+	 */
+	default void processClasses(JarIndex index, Set<ClassEntry> classes) {
+		this.processIndex(index);
+	}
+
 	String getTranslationKey();
 
 	record EnclosingMethodData(String owner, String name, String descriptor) {
@@ -0,0 +1,25 @@
+package org.quiltmc.enigma.api.analysis.index.jar;
+
+import com.google.gson.annotations.SerializedName;
+
+import javax.annotation.Nullable;
+
+/**
+ * Controls how jars are indexed.
+ *
+ * @param parallel controls whether classes are indexed in parallel. If set to {@code true}, the built-in indexers will visit the jar's classes across the common fork-join pool, merging the results in class order so that the finished index is identical to a single-threaded one.
+ * @param cacheSnapshots controls whether the main jar's index is cached on disk. If set to {@code true}, the results of indexing are written to a snapshot file keyed by the jar's checksum and the Enigma version, and reopening the same jar will load that snapshot instead of visiting its classes again.
+ * @param snapshotDirectory the directory to store index snapshots in, resolved relative to the profile. If {@code null}, each snapshot is stored next to its jar.
+ * @param lazyLibraries controls whether library classes are indexed on demand, see {@link LibrariesJarIndex#onDemand(JarIndex)}. If set to {@code true}, only the library classes that the main jar extends or references are indexed up front, and any other library class is indexed the first time it's looked up.
+ * @param compactReferences controls whether the main jar's references are stored compactly, see {@link ReferenceIndex#compact()}. If set to {@code true}, references are kept as rows of interned entry ids and only turned into {@link org.quiltmc.enigma.api.analysis.EntryReference EntryReference} objects when looked up, which greatly reduces the memory retained by large jars.
+ * @param mapJar controls whether the main jar is memory-mapped, see {@link org.quiltmc.enigma.api.class_provider.MappedJarClassProvider}. If set to {@code true}, classes are read straight out of the mapped jar instead of through a zip file system, unless the jar is larger than 2 GiB, which can't be mapped.
+ */
+public record JarIndexingParameters(
+		@SerializedName("parallel") boolean parallel,
+		@SerializedName("cache_snapshots") boolean cacheSnapshots,
+		@SerializedName("snapshot_directory") @Nullable String snapshotDirectory,
+		@SerializedName("lazy_libraries") boolean lazyLibraries,
+		@SerializedName("compact_references") boolean compactReferences,
+		@SerializedName("map_jar") boolean mapJar
+) {
+}
@@ -12,7 +12,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class LambdaIndex implements JarIndexer {
+public class LambdaIndex implements ConcurrentJarIndexer<LambdaIndex> {
 	private final Map<MethodEntry, MethodDefEntry> callers = new HashMap<>();
 	private ImmutableListMultimap<MethodEntry, MethodEntry> lambdas = null;
 	private final ImmutableListMultimap.Builder<MethodEntry, MethodEntry> lambdasBuilder = ImmutableListMultimap.builder();
@@ -25,6 +25,17 @@ public class LambdaIndex implements JarIndexer {
 		this.lambdasBuilder.put(callerEntry, implMethod);
 	}
 
+	@Override
+	public LambdaIndex fork() {
+		return new LambdaIndex();
+	}
+
+	@Override
+	public void merge(LambdaIndex fork) {
+		this.callers.putAll(fork.callers);
+		this.lambdasBuilder.putAll(fork.lambdasBuilder.build());
+	}
+
 	@Override
 	public void processIndex(JarIndex index) {
 		var nestedLambdas = this.lambdasBuilder.build();
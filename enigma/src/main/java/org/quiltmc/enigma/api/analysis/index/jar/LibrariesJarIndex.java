@@ -1,12 +1,47 @@
 package org.quiltmc.enigma.api.analysis.index.jar;
 
+import org.objectweb.asm.tree.ClassNode;
 import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.impl.analysis.index.AbstractJarIndex;
 
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class LibrariesJarIndex extends AbstractJarIndex {
+	/**
+	 * Classes that are always indexed by on-demand indexes, since they're needed to check whether methods are renamable.
+	 */
+	private static final List<String> REQUIRED_CLASSES = List.of("java/lang/Object", "java/lang/Record");
+
+	@Nullable
+	private final JarIndex mainIndex;
+	private final Set<String> unavailableClasses = ConcurrentHashMap.newKeySet();
+	@Nullable
+	private volatile ProjectClassProvider classProvider;
+	private boolean indexing;
+	/**
+	 * Whether the index was already processed once, after which classes are indexed incrementally.
+	 */
+	private boolean processed;
+
 	public LibrariesJarIndex(JarIndexer... indexers) {
+		this(null, indexers);
+	}
+
+	private LibrariesJarIndex(@Nullable JarIndex mainIndex, JarIndexer... indexers) {
 		super(indexers);
+		this.mainIndex = mainIndex;
 	}
 
 	/**
@@ -17,7 +52,26 @@ public class LibrariesJarIndex extends AbstractJarIndex {
 		EntryIndex entryIndex = new EntryIndex();
 		ReferenceIndex referenceIndex = new ReferenceIndex();
 		InheritanceIndex inheritanceIndex = new InheritanceIndex(entryIndex);
-		return new LibrariesJarIndex(entryIndex, inheritanceIndex, referenceIndex, new BridgeMethodIndex(entryIndex, inheritanceIndex, referenceIndex));
+		BridgeMethodIndex bridgeMethodIndex = new BridgeMethodIndex(entryIndex, inheritanceIndex, referenceIndex);
+		return new LibrariesJarIndex(entryIndex, inheritanceIndex, referenceIndex, bridgeMethodIndex, new MethodFamilyIndex(entryIndex, inheritanceIndex, bridgeMethodIndex));
+	}
+
+	/**
+	 * Creates an empty index, configured to use all built-in indexers, that only indexes the library classes it needs.
+	 * <br>
+	 * Instead of indexing every library class, {@link #indexJar(ProjectClassProvider, ProgressListener)} only indexes the library classes
+	 * that are supertypes of, or referenced by, the classes in the already indexed main jar, along with all of their ancestors.
+	 * Any other library class is indexed the first time it's asked for through {@link #ensureIndexed(ClassEntry)}.
+	 * JRE classes other than {@code Object} and {@code Record} are never indexed, since they're looked up through reflection instead.
+	 * @param mainIndex the index of the main jar, which must be fully indexed before this index is
+	 * @return the newly created index
+	 */
+	public static JarIndex onDemand(JarIndex mainIndex) {
+		EntryIndex entryIndex = new EntryIndex();
+		ReferenceIndex referenceIndex = new ReferenceIndex();
+		InheritanceIndex inheritanceIndex = new InheritanceIndex(entryIndex);
+		BridgeMethodIndex bridgeMethodIndex = new BridgeMethodIndex(entryIndex, inheritanceIndex, referenceIndex);
+		return new LibrariesJarIndex(mainIndex, entryIndex, inheritanceIndex, referenceIndex, bridgeMethodIndex, new MethodFamilyIndex(entryIndex, inheritanceIndex, bridgeMethodIndex));
 	}
 
 	@Override
@@ -27,6 +81,137 @@ public class LibrariesJarIndex extends AbstractJarIndex {
 
 	@Override
 	public void indexJar(ProjectClassProvider classProvider, ProgressListener progress) {
-		this.indexJar(classProvider.getLibraryClassNames(), classProvider, progress);
+		if (this.mainIndex == null) {
+			this.indexJar(classProvider.getLibraryClassNames(), classProvider, progress);
+			return;
+		}
+
+		Set<String> reachableClasses = new HashSet<>(REQUIRED_CLASSES);
+		InheritanceIndex mainInheritance = this.mainIndex.getIndex(InheritanceIndex.class);
+		for (ClassEntry classEntry : this.mainIndex.getIndex(EntryIndex.class).getClasses()) {
+			mainInheritance.getParents(classEntry).forEach(parent -> reachableClasses.add(parent.getFullName()));
+		}
+
+		this.mainIndex.getIndex(ReferenceIndex.class).getReferencedClasses().forEach(classEntry -> reachableClasses.add(classEntry.getFullName()));
+
+		this.classProvider = classProvider;
+		this.indexClasses(reachableClasses, progress);
+	}
+
+	@Override
+	protected boolean indexesOnDemand() {
+		return this.mainIndex != null;
+	}
+
+	@Override
+	public boolean ensureIndexed(ClassEntry classEntry) {
+		String name = classEntry.getFullName();
+		if (this.isIndexed(name)) {
+			return true;
+		} else if (this.classProvider == null || this.unavailableClasses.contains(name) || (!REQUIRED_CLASSES.contains(name) && classEntry.isJre())) {
+			return false;
+		} else if (this.isReading()) {
+			// the write lock can't be acquired while this thread is reading, and the class would be missing from what it reads
+			throw new IllegalStateException("Can't index " + name + " while the current thread holds the read lock");
+		}
+
+		this.getWriteLock().lock();
+		try {
+			if (this.isIndexed(name)) {
+				return true;
+			} else if (this.indexing || this.unavailableClasses.contains(name)) {
+				// classes aren't faulted in while processing, since that would pull in everything referenced by the libraries
+				return false;
+			}
+
+			this.indexClasses(List.of(name), ProgressListener.createEmpty());
+			return this.isIndexed(name);
+		} finally {
+			this.getWriteLock().unlock();
+		}
+	}
+
+	@Nullable
+	private ClassNode getLibraryClass(String name) {
+		ClassNode node = this.classProvider.getLibraryClass(name);
+		if (node == null && REQUIRED_CLASSES.contains(name)) {
+			// the jre's class provider loads classes by their binary name
+			node = this.classProvider.getLibraryClass(name.replace('/', '.'));
+		}
+
+		return node;
+	}
+
+	/**
+	 * Indexes the provided library classes and all of their ancestors that aren't indexed yet, then processes them.
+	 * Once the index was processed, only the new classes are processed, instead of the whole index.
+	 * Readers are kept out by the write lock, so they never see a class that's only partially indexed.
+	 */
+	private void indexClasses(Collection<String> rootClasses, ProgressListener progress) {
+		this.getWriteLock().lock();
+		try {
+			this.indexClassesLocked(rootClasses, progress);
+		} finally {
+			this.getWriteLock().unlock();
+		}
+	}
+
+	private void indexClassesLocked(Collection<String> rootClasses, ProgressListener progress) {
+		Map<String, ClassNode> nodes = new LinkedHashMap<>();
+		Deque<String> queue = new ArrayDeque<>(rootClasses);
+		while (!queue.isEmpty()) {
+			String name = queue.pop();
+			if (nodes.containsKey(name) || this.isIndexed(name) || this.unavailableClasses.contains(name)) {
+				continue;
+			}
+
+			// like the inheritance index, everything else looks up jre classes through reflection
+			if (!REQUIRED_CLASSES.contains(name) && new ClassEntry(name).isJre()) {
+				continue;
+			}
+
+			ClassNode node = this.getLibraryClass(name);
+			if (node == null) {
+				this.unavailableClasses.add(name);
+				continue;
+			}
+
+			nodes.put(name, node);
+			if (node.superName != null) {
+				queue.add(node.superName);
+			}
+
+			queue.addAll(node.interfaces);
+		}
+
+		if (nodes.isEmpty()) {
+			return;
+		}
+
+		this.indexing = true;
+		try {
+			// every node was already read to find the ancestors, no need to read them again
+			ClassProvider nodeProvider = new ClassProvider() {
+				@Nullable
+				@Override
+				public ClassNode get(String name) {
+					return nodes.get(name);
+				}
+
+				@Override
+				public Collection<String> getClassNames() {
+					return nodes.keySet();
+				}
+			};
+
+			if (this.processed) {
+				this.indexMoreClasses(nodes.keySet(), nodeProvider);
+			} else {
+				this.indexJar(nodes.keySet(), nodeProvider, progress);
+				this.processed = true;
+			}
+		} finally {
+			this.indexing = false;
+		}
 	}
 }
@@ -14,14 +14,24 @@ public class MainJarIndex extends AbstractJarIndex {
 	 * @return the newly created index
 	 */
 	public static JarIndex empty() {
+		return empty(false);
+	}
+
+	/**
+	 * Creates an empty index, configured to use all built-in indexers.
+	 * @param compactReferences whether to use a {@link ReferenceIndex#compact() compact} reference index
+	 * @return the newly created index
+	 */
+	public static JarIndex empty(boolean compactReferences) {
 		EntryIndex entryIndex = new EntryIndex();
 		InheritanceIndex inheritanceIndex = new InheritanceIndex(entryIndex);
-		ReferenceIndex referenceIndex = new ReferenceIndex();
+		ReferenceIndex referenceIndex = compactReferences ? ReferenceIndex.compact() : new ReferenceIndex();
 		BridgeMethodIndex bridgeMethodIndex = new BridgeMethodIndex(entryIndex, inheritanceIndex, referenceIndex);
 		PackageVisibilityIndex packageVisibilityIndex = new PackageVisibilityIndex();
 		EnclosingMethodIndex enclosingMethodIndex = new EnclosingMethodIndex();
 		LambdaIndex lambdaIndex = new LambdaIndex();
-		return new MainJarIndex(entryIndex, inheritanceIndex, referenceIndex, bridgeMethodIndex, packageVisibilityIndex, enclosingMethodIndex, lambdaIndex);
+		MethodFamilyIndex methodFamilyIndex = new MethodFamilyIndex(entryIndex, inheritanceIndex, bridgeMethodIndex);
+		return new MainJarIndex(entryIndex, inheritanceIndex, referenceIndex, bridgeMethodIndex, packageVisibilityIndex, enclosingMethodIndex, lambdaIndex, methodFamilyIndex);
 	}
 
 	@Override
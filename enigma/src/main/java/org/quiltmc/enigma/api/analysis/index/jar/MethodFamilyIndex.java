@@ -0,0 +1,296 @@
+package org.quiltmc.enigma.api.analysis.index.jar;
+
+import org.objectweb.asm.Opcodes;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Groups methods into families of methods that override each other, and so must always share a name.
+ * <br>
+ * Two methods are in the same family when one overrides the other, when a class inherits both of them from
+ * different ancestors and so joins them into a single method, or when one is a bridge to the other.
+ * Families are computed once, when the index is processed, so looking one up doesn't walk the hierarchy.
+ * <br>
+ * Only methods that can be overridden are part of a family: constructors, as well as private, static and final methods,
+ * are always on their own.
+ */
+public class MethodFamilyIndex implements JarIndexer {
+	private final EntryIndex entryIndex;
+	private final InheritanceIndex inheritanceIndex;
+	private final BridgeMethodIndex bridgeMethodIndex;
+
+	/**
+	 * The family of each method that isn't on its own.
+	 * Classes processed on demand join families while other threads look them up, so this is a concurrent map.
+	 */
+	private volatile Map<MethodEntry, Set<MethodEntry>> families = new ConcurrentHashMap<>();
+	/**
+	 * The number of indexed methods when the index was last processed.
+	 */
+	private int processedMethods;
+
+	public MethodFamilyIndex(EntryIndex entryIndex, InheritanceIndex inheritanceIndex, BridgeMethodIndex bridgeMethodIndex) {
+		this.entryIndex = entryIndex;
+		this.inheritanceIndex = inheritanceIndex;
+		this.bridgeMethodIndex = bridgeMethodIndex;
+	}
+
+	/**
+	 * Tests the raw access flags, so that checking every method doesn't build their definitions.
+	 */
+	private static boolean canOverride(MethodEntry method, int access) {
+		return access != -1 && !method.isConstructor() && (access & (Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL)) == 0;
+	}
+
+	@Override
+	public void processIndex(JarIndex index) {
+		List<MethodEntry> methods = new ArrayList<>();
+		Map<MethodEntry, Integer> ids = new HashMap<>();
+		Map<ClassEntry, Map<Signature, Integer>> classMethods = new HashMap<>();
+		for (MethodEntry method : this.entryIndex.getMethods()) {
+			if (canOverride(method, this.entryIndex.getMethodAccessFlags(method))) {
+				int id = methods.size();
+				methods.add(method);
+				ids.put(method, id);
+				classMethods.computeIfAbsent(method.getParent(), c -> new HashMap<>()).put(new Signature(method.getName(), method.getDesc()), id);
+			}
+		}
+
+		UnionFind families = new UnionFind(methods.size());
+		for (Map.Entry<ClassEntry, Map<Signature, Integer>> entry : classMethods.entrySet()) {
+			Map<Signature, Integer> ownMethods = entry.getValue();
+			for (ClassEntry ancestor : this.inheritanceIndex.getAncestors(entry.getKey())) {
+				Map<Signature, Integer> ancestorMethods = classMethods.get(ancestor);
+				if (ancestorMethods == null) {
+					continue;
+				}
+
+				// a method overrides every method with the same name and descriptor in its ancestors
+				Map<Signature, Integer> smaller = ownMethods.size() <= ancestorMethods.size() ? ownMethods : ancestorMethods;
+				Map<Signature, Integer> larger = smaller == ownMethods ? ancestorMethods : ownMethods;
+				smaller.forEach((signature, id) -> {
+					Integer other = larger.get(signature);
+					if (other != null) {
+						families.union(id, other);
+					}
+				});
+			}
+		}
+
+		for (ClassEntry classEntry : this.entryIndex.getClasses()) {
+			if (this.inheritanceIndex.getParents(classEntry).size() > 1) {
+				this.joinInheritedMethods(classEntry, classMethods, families);
+			}
+		}
+
+		for (Map.Entry<MethodEntry, MethodEntry> bridge : this.bridgeMethodIndex.getBridgeToSpecialized().entrySet()) {
+			Integer bridgeId = ids.get(bridge.getKey());
+			Integer specializedId = ids.get(bridge.getValue());
+			if (bridgeId != null && specializedId != null) {
+				families.union(bridgeId, specializedId);
+			}
+		}
+
+		Map<Integer, Set<MethodEntry>> members = new HashMap<>();
+		for (int id = 0; id < methods.size(); id++) {
+			if (families.size(id) > 1) {
+				members.computeIfAbsent(families.find(id), root -> new HashSet<>()).add(methods.get(id));
+			}
+		}
+
+		Map<MethodEntry, Set<MethodEntry>> familyByMethod = new ConcurrentHashMap<>();
+		for (Set<MethodEntry> family : members.values()) {
+			Set<MethodEntry> unmodifiableFamily = Collections.unmodifiableSet(family);
+			for (MethodEntry method : family) {
+				familyByMethod.put(method, unmodifiableFamily);
+			}
+		}
+
+		this.families = familyByMethod;
+		this.processedMethods = this.entryIndex.getMethods().size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * Classes are always indexed along with their ancestors, so a new class is never an ancestor of a class indexed before it.
+	 * The families of the methods indexed before are then only joined with the families of the new methods.
+	 */
+	@Override
+	public void processClasses(JarIndex index, Set<ClassEntry> classes) {
+		List<MethodEntry> newMethods = this.entryIndex.getMethodsAfter(this.processedMethods);
+		this.processedMethods += newMethods.size();
+
+		Map<ClassEntry, Map<Signature, MethodEntry>> classMethods = new HashMap<>();
+		for (MethodEntry method : newMethods) {
+			if (canOverride(method, this.entryIndex.getMethodAccessFlags(method))) {
+				classMethods.computeIfAbsent(method.getParent(), c -> new HashMap<>()).put(new Signature(method.getName(), method.getDesc()), method);
+			}
+		}
+
+		for (ClassEntry classEntry : classes) {
+			classMethods.computeIfAbsent(classEntry, c -> new HashMap<>());
+		}
+
+		for (ClassEntry classEntry : classes) {
+			Map<Signature, MethodEntry> ownMethods = classMethods.get(classEntry);
+			Map<Signature, MethodEntry> inherited = this.inheritanceIndex.getParents(classEntry).size() > 1 ? new HashMap<>() : null;
+			for (ClassEntry ancestor : this.inheritanceIndex.getAncestors(classEntry)) {
+				Map<Signature, MethodEntry> ancestorMethods = classMethods.computeIfAbsent(ancestor, c -> this.collectMethods(index, c));
+				ancestorMethods.forEach((signature, method) -> {
+					MethodEntry ownMethod = ownMethods.get(signature);
+					if (ownMethod != null) {
+						this.join(ownMethod, method);
+					}
+
+					if (inherited != null) {
+						MethodEntry other = inherited.putIfAbsent(signature, method);
+						if (other != null) {
+							this.join(other, method);
+						}
+					}
+				});
+			}
+		}
+
+		for (MethodEntry method : newMethods) {
+			MethodEntry specialized = this.bridgeMethodIndex.getSpecializedFromBridge(method);
+			if (specialized != null && this.isOverridable(method) && this.isOverridable(specialized)) {
+				this.join(method, specialized);
+			}
+		}
+	}
+
+	/**
+	 * Collects the methods of a class that was indexed before the index was last processed.
+	 */
+	private Map<Signature, MethodEntry> collectMethods(JarIndex index, ClassEntry classEntry) {
+		Map<Signature, MethodEntry> methods = new HashMap<>();
+		for (ParentedEntry<?> child : index.getChildrenByClass().get(classEntry)) {
+			if (child instanceof MethodEntry method && this.isOverridable(method)) {
+				methods.put(new Signature(method.getName(), method.getDesc()), method);
+			}
+		}
+
+		return methods;
+	}
+
+	private boolean isOverridable(MethodEntry method) {
+		return canOverride(method, this.entryIndex.getMethodAccessFlags(method));
+	}
+
+	/**
+	 * Joins the families of two methods, replacing both with a new family so that the families handed out before don't change.
+	 */
+	private void join(MethodEntry a, MethodEntry b) {
+		Set<MethodEntry> familyA = this.getFamily(a);
+		if (familyA.contains(b)) {
+			return;
+		}
+
+		Set<MethodEntry> joined = new HashSet<>(familyA);
+		joined.addAll(this.getFamily(b));
+
+		Set<MethodEntry> unmodifiableFamily = Collections.unmodifiableSet(joined);
+		for (MethodEntry method : joined) {
+			this.families.put(method, unmodifiableFamily);
+		}
+	}
+
+	/**
+	 * A class with several parents may inherit methods with the same name and descriptor from more than one of them,
+	 * without declaring the method itself. These methods are then joined into one: if interfaces {@code A} and {@code B}
+	 * both declare {@code void foo()}, a class {@code C} implementing both has a single {@code foo} for the two of them.
+	 */
+	private void joinInheritedMethods(ClassEntry classEntry, Map<ClassEntry, Map<Signature, Integer>> classMethods, UnionFind families) {
+		Map<Signature, Integer> inherited = new HashMap<>();
+		for (ClassEntry ancestor : this.inheritanceIndex.getAncestors(classEntry)) {
+			Map<Signature, Integer> ancestorMethods = classMethods.get(ancestor);
+			if (ancestorMethods != null) {
+				ancestorMethods.forEach((signature, id) -> {
+					Integer other = inherited.putIfAbsent(signature, id);
+					if (other != null) {
+						families.union(id, other);
+					}
+				});
+			}
+		}
+	}
+
+	/**
+	 * Gets all methods in the same family as the provided method, including the method itself.
+	 *
+	 * @param method the method to look up
+	 * @return the family of the method, which only contains the method if it's on its own or isn't indexed
+	 */
+	public Set<MethodEntry> getFamily(MethodEntry method) {
+		Set<MethodEntry> family = this.families.get(method);
+		return family != null ? family : Set.of(method);
+	}
+
+	@Override
+	public String getTranslationKey() {
+		return "progress.jar.indexing.process.method_families";
+	}
+
+	private record Signature(String name, MethodDescriptor descriptor) {
+	}
+
+	/**
+	 * A disjoint set forest over method ids, using union by size and path halving.
+	 */
+	private static final class UnionFind {
+		private final int[] parents;
+		private final int[] sizes;
+
+		private UnionFind(int size) {
+			this.parents = new int[size];
+			this.sizes = new int[size];
+			for (int i = 0; i < size; i++) {
+				this.parents[i] = i;
+				this.sizes[i] = 1;
+			}
+		}
+
+		private int find(int id) {
+			while (this.parents[id] != id) {
+				this.parents[id] = this.parents[this.parents[id]];
+				id = this.parents[id];
+			}
+
+			return id;
+		}
+
+		private int size(int id) {
+			return this.sizes[this.find(id)];
+		}
+
+		private void union(int a, int b) {
+			int rootA = this.find(a);
+			int rootB = this.find(b);
+			if (rootA == rootB) {
+				return;
+			}
+
+			if (this.sizes[rootA] < this.sizes[rootB]) {
+				int swap = rootA;
+				rootA = rootB;
+				rootB = swap;
+			}
+
+			this.parents[rootB] = rootA;
+			this.sizes[rootA] += this.sizes[rootB];
+		}
+	}
+}
@@ -20,7 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class PackageVisibilityIndex implements JarIndexer {
+public class PackageVisibilityIndex implements ConcurrentJarIndexer<PackageVisibilityIndex> {
 	private static boolean requiresSamePackage(AccessFlags entryAcc, EntryReference<?, ?> ref, InheritanceIndex inheritanceIndex) {
 		if (entryAcc.isPublic()) {
 			return false;
@@ -30,7 +30,7 @@ public class PackageVisibilityIndex implements JarIndexer {
 			ClassEntry contextClass = ref.context.getContainingClass();
 			ClassEntry referencedClass = ref.entry.getContainingClass();
 
-			if (!inheritanceIndex.getAncestors(contextClass).contains(referencedClass)) {
+			if (!inheritanceIndex.isAncestor(contextClass, referencedClass)) {
 				return true; // access to protected member not in superclass
 			}
 
@@ -41,7 +41,7 @@ public class PackageVisibilityIndex implements JarIndexer {
 			// access to instance member only valid if target's class assignable to context class
 			return !(ref.targetType.getKind() == ReferenceTargetType.Kind.UNINITIALIZED
 					|| ((ReferenceTargetType.ClassType) ref.targetType).getEntry().equals(contextClass)
-					|| inheritanceIndex.getAncestors(((ReferenceTargetType.ClassType) ref.targetType).getEntry()).contains(contextClass));
+					|| inheritanceIndex.isAncestor(((ReferenceTargetType.ClassType) ref.targetType).getEntry(), contextClass));
 		}
 
 		return true;
@@ -137,6 +137,16 @@ public class PackageVisibilityIndex implements JarIndexer {
 		}
 	}
 
+	@Override
+	public PackageVisibilityIndex fork() {
+		return new PackageVisibilityIndex();
+	}
+
+	@Override
+	public void merge(PackageVisibilityIndex fork) {
+		// partitions are only built from the other indexes, in processIndex
+	}
+
 	public Collection<Set<ClassEntry>> getPartitions() {
 		return this.partitions;
 	}
@@ -1,31 +1,43 @@
 package org.quiltmc.enigma.api.analysis.index.jar;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
 import org.quiltmc.enigma.api.analysis.EntryReference;
 import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
-import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
 import org.quiltmc.enigma.api.translation.representation.Lambda;
 import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
 import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
-import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.index.CompactReferenceStore;
+import org.quiltmc.enigma.impl.analysis.index.MultimapReferenceStore;
+import org.quiltmc.enigma.impl.analysis.index.ReferenceStore;
 
 import java.util.Collection;
-import java.util.Map;
+import java.util.Set;
 
-public class ReferenceIndex implements JarIndexer {
-	private Multimap<MethodEntry, MethodEntry> methodReferences = HashMultimap.create();
+public class ReferenceIndex implements ConcurrentJarIndexer<ReferenceIndex> {
+	private final ReferenceStore store;
 
-	private Multimap<MethodEntry, EntryReference<MethodEntry, MethodDefEntry>> referencesToMethods = HashMultimap.create();
-	private Multimap<ClassEntry, EntryReference<ClassEntry, MethodDefEntry>> referencesToClasses = HashMultimap.create();
-	private Multimap<FieldEntry, EntryReference<FieldEntry, MethodDefEntry>> referencesToFields = HashMultimap.create();
-	private Multimap<ClassEntry, EntryReference<ClassEntry, FieldDefEntry>> fieldTypeReferences = HashMultimap.create();
-	private Multimap<ClassEntry, EntryReference<ClassEntry, MethodDefEntry>> methodTypeReferences = HashMultimap.create();
+	public ReferenceIndex() {
+		this(new MultimapReferenceStore());
+	}
+
+	private ReferenceIndex(ReferenceStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Creates a reference index that stores its references as compressed rows of interned entry ids, instead of
+	 * as {@link EntryReference} objects. References are resolved once while processing the index, and the
+	 * {@link EntryReference} objects returned by its getters are created on each call.
+	 * This takes a fraction of the memory of the default index, at the cost of slightly slower lookups.
+	 * @return the new index
+	 */
+	public static ReferenceIndex compact() {
+		return new ReferenceIndex(new CompactReferenceStore());
+	}
 
 	@Override
 	public void indexMethod(MethodDefEntry methodEntry) {
@@ -43,7 +55,7 @@ public class ReferenceIndex implements JarIndexer {
 	private void indexMethodTypeDescriptor(MethodDefEntry method, TypeDescriptor typeDescriptor) {
 		if (typeDescriptor.isType()) {
 			ClassEntry referencedClass = typeDescriptor.getTypeEntry();
-			this.methodTypeReferences.put(referencedClass, new EntryReference<>(referencedClass, referencedClass.getName(), method));
+			this.store.addMethodTypeReference(method, referencedClass);
 		} else if (typeDescriptor.isArray()) {
 			this.indexMethodTypeDescriptor(method, typeDescriptor.getArrayType());
 		}
@@ -57,7 +69,7 @@ public class ReferenceIndex implements JarIndexer {
 	private void indexFieldTypeDescriptor(FieldDefEntry field, TypeDescriptor typeDescriptor) {
 		if (typeDescriptor.isType()) {
 			ClassEntry referencedClass = typeDescriptor.getTypeEntry();
-			this.fieldTypeReferences.put(referencedClass, new EntryReference<>(referencedClass, referencedClass.getName(), field));
+			this.store.addFieldTypeReference(field, referencedClass);
 		} else if (typeDescriptor.isArray()) {
 			this.indexFieldTypeDescriptor(field, typeDescriptor.getArrayType());
 		}
@@ -65,23 +77,21 @@ public class ReferenceIndex implements JarIndexer {
 
 	@Override
 	public void indexClassReference(MethodDefEntry callerEntry, ClassEntry referencedEntry, ReferenceTargetType targetType) {
-		this.referencesToClasses.put(referencedEntry, new EntryReference<>(referencedEntry, referencedEntry.getName(), callerEntry, targetType));
+		this.store.addClassReference(callerEntry, referencedEntry, targetType);
 	}
 
 	@Override
 	public void indexMethodReference(MethodDefEntry callerEntry, MethodEntry referencedEntry, ReferenceTargetType targetType) {
-		this.referencesToMethods.put(referencedEntry, new EntryReference<>(referencedEntry, referencedEntry.getName(), callerEntry, targetType));
-		this.methodReferences.put(callerEntry, referencedEntry);
+		this.store.addMethodReference(callerEntry, referencedEntry, targetType);
 
 		if (referencedEntry.isConstructor()) {
-			ClassEntry referencedClass = referencedEntry.getParent();
-			this.referencesToClasses.put(referencedClass, new EntryReference<>(referencedClass, referencedEntry.getName(), callerEntry, targetType));
+			this.store.addClassReference(callerEntry, referencedEntry.getParent(), targetType);
 		}
 	}
 
 	@Override
 	public void indexFieldReference(MethodDefEntry callerEntry, FieldEntry referencedEntry, ReferenceTargetType targetType) {
-		this.referencesToFields.put(referencedEntry, new EntryReference<>(referencedEntry, referencedEntry.getName(), callerEntry, targetType));
+		this.store.addFieldReference(callerEntry, referencedEntry, targetType);
 	}
 
 	@Override
@@ -98,65 +108,56 @@ public class ReferenceIndex implements JarIndexer {
 	}
 
 	@Override
-	public void processIndex(JarIndex index) {
-		this.methodReferences = this.remapReferences(index, this.methodReferences);
-		this.referencesToMethods = this.remapReferencesTo(index, this.referencesToMethods);
-		this.referencesToClasses = this.remapReferencesTo(index, this.referencesToClasses);
-		this.referencesToFields = this.remapReferencesTo(index, this.referencesToFields);
-		this.fieldTypeReferences = this.remapReferencesTo(index, this.fieldTypeReferences);
-		this.methodTypeReferences = this.remapReferencesTo(index, this.methodTypeReferences);
-	}
-
-	private <K extends Entry<?>, V extends Entry<?>> Multimap<K, V> remapReferences(JarIndex index, Multimap<K, V> multimap) {
-		final int keySetSize = multimap.keySet().size();
-		Multimap<K, V> resolved = HashMultimap.create(multimap.keySet().size(), keySetSize == 0 ? 0 : multimap.size() / keySetSize);
-		for (Map.Entry<K, V> entry : multimap.entries()) {
-			resolved.put(this.remap(index, entry.getKey()), this.remap(index, entry.getValue()));
-		}
-
-		return resolved;
+	public ReferenceIndex fork() {
+		return new ReferenceIndex(this.store.fork());
 	}
 
-	private <E extends Entry<?>, C extends Entry<?>> Multimap<E, EntryReference<E, C>> remapReferencesTo(JarIndex index, Multimap<E, EntryReference<E, C>> multimap) {
-		final int keySetSize = multimap.keySet().size();
-		Multimap<E, EntryReference<E, C>> resolved = HashMultimap.create(keySetSize, keySetSize == 0 ? 0 : multimap.size() / keySetSize);
-		for (Map.Entry<E, EntryReference<E, C>> entry : multimap.entries()) {
-			resolved.put(this.remap(index, entry.getKey()), this.remap(index, entry.getValue()));
-		}
-
-		return resolved;
+	@Override
+	public void merge(ReferenceIndex fork) {
+		this.store.merge(fork.store);
 	}
 
-	private <E extends Entry<?>> E remap(JarIndex index, E entry) {
-		return index.getEntryResolver().resolveFirstEntry(entry, ResolutionStrategy.RESOLVE_CLOSEST);
+	@Override
+	public void processIndex(JarIndex index) {
+		this.store.resolve(index.getEntryResolver());
 	}
 
-	private <E extends Entry<?>, C extends Entry<?>> EntryReference<E, C> remap(JarIndex index, EntryReference<E, C> reference) {
-		return index.getEntryResolver().resolveFirstReference(reference, ResolutionStrategy.RESOLVE_CLOSEST);
+	@Override
+	public void processClasses(JarIndex index, Set<ClassEntry> classes) {
+		this.store.resolve(index.getEntryResolver(), classes);
 	}
 
 	public Collection<MethodEntry> getMethodsReferencedBy(MethodEntry entry) {
-		return this.methodReferences.get(entry);
+		return this.store.getMethodsReferencedBy(entry);
 	}
 
 	public Collection<EntryReference<FieldEntry, MethodDefEntry>> getReferencesToField(FieldEntry entry) {
-		return this.referencesToFields.get(entry);
+		return this.store.getReferencesToField(entry);
 	}
 
 	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getReferencesToClass(ClassEntry entry) {
-		return this.referencesToClasses.get(entry);
+		return this.store.getReferencesToClass(entry);
 	}
 
 	public Collection<EntryReference<MethodEntry, MethodDefEntry>> getReferencesToMethod(MethodEntry entry) {
-		return this.referencesToMethods.get(entry);
+		return this.store.getReferencesToMethod(entry);
 	}
 
 	public Collection<EntryReference<ClassEntry, FieldDefEntry>> getFieldTypeReferencesToClass(ClassEntry entry) {
-		return this.fieldTypeReferences.get(entry);
+		return this.store.getFieldTypeReferencesToClass(entry);
 	}
 
 	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getMethodTypeReferencesToClass(ClassEntry entry) {
-		return this.methodTypeReferences.get(entry);
+		return this.store.getMethodTypeReferencesToClass(entry);
+	}
+
+	/**
+	 * Collects every class that is referenced by the indexed code, either directly, through a type descriptor,
+	 * or as the owner of a referenced field or method.
+	 * @return the referenced classes
+	 */
+	public Set<ClassEntry> getReferencedClasses() {
+		return this.store.getReferencedClasses();
 	}
 
 	@Override
@@ -0,0 +1,61 @@
+package org.quiltmc.enigma.api.analysis.index.mapping;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An indexer that looks up top-level classes by their deobfuscated names.
+ * <br>
+ * Only classes that are mapped to a name are indexed, since every other class keeps its obfuscated name.
+ */
+public class ClassNameIndex implements MappingsIndexer {
+	private final Map<ClassEntry, String> names = new HashMap<>();
+	private final Multimap<String, ClassEntry> classes = HashMultimap.create();
+
+	@Override
+	public void indexClassMapping(EntryMapping mapping, ClassEntry entry) {
+		// only index for top-level classes
+		if (entry.isInnerClass()) {
+			return;
+		}
+
+		String name = mapping.targetName();
+		if (name != null) {
+			this.names.put(entry, name);
+			this.classes.put(name, entry);
+		}
+	}
+
+	@Override
+	public void reindexEntry(EntryMapping newMapping, Entry<?> entry) {
+		if (entry instanceof ClassEntry classEntry) {
+			String oldName = this.names.remove(classEntry);
+			if (oldName != null) {
+				this.classes.remove(oldName, classEntry);
+			}
+
+			this.indexClassMapping(newMapping, classEntry);
+		}
+	}
+
+	/**
+	 * Gets the top-level classes that are mapped to the provided name.
+	 * @param name the full deobfuscated name
+	 * @return the obfuscated classes with that name
+	 */
+	public Collection<ClassEntry> getClasses(String name) {
+		return this.classes.get(name);
+	}
+
+	@Override
+	public String getTranslationKey() {
+		return "progress.mappings.indexing.class_names";
+	}
+}
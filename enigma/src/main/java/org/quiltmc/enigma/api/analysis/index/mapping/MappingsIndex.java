@@ -41,7 +41,7 @@ public class MappingsIndex implements MappingsIndexer {
 	 * @return the newly created index
 	 */
 	public static MappingsIndex empty() {
-		return new MappingsIndex(new PackageIndex());
+		return new MappingsIndex(new PackageIndex(), new ClassNameIndex());
 	}
 
 	/**
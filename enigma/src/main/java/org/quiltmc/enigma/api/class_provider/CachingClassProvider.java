@@ -2,7 +2,10 @@ package org.quiltmc.enigma.api.class_provider;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
 import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.util.AsmUtil;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
@@ -12,29 +15,81 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Wraps a ClassProvider to provide caching and synchronization.
+ * <br>
+ * Class nodes and class bytes are kept in the same cache, so they share one size or weight budget.
  */
 public class CachingClassProvider implements ClassProvider {
+	/**
+	 * The cache policy used when none is provided: 128 classes, kept for a minute after their last access.
+	 */
+	public static final ClassCacheParameters DEFAULT_PARAMETERS = new ClassCacheParameters(128, 0, 60, 1);
+
 	private final ClassProvider classProvider;
-	private final Cache<String, Optional<ClassNode>> cache = CacheBuilder.newBuilder()
-			.maximumSize(128)
-			.expireAfterAccess(1, TimeUnit.MINUTES)
-			.concurrencyLevel(1)
-			.build();
+	private final Cache<Key, Optional<?>> cache;
 
 	public CachingClassProvider(ClassProvider classProvider) {
+		this(classProvider, DEFAULT_PARAMETERS);
+	}
+
+	public CachingClassProvider(ClassProvider classProvider, ClassCacheParameters parameters) {
 		this.classProvider = classProvider;
+		this.cache = buildCache(parameters, (key, value) -> value.map(CachingClassProvider::estimateSize).orElse(1));
+	}
+
+	private static int estimateSize(Object value) {
+		return value instanceof byte[] bytes ? bytes.length : AsmUtil.estimateSize((ClassNode) value);
+	}
+
+	static <K, V> Cache<K, V> buildCache(ClassCacheParameters parameters, Weigher<K, V> weigher) {
+		CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+
+		if (parameters.maximumWeight() > 0) {
+			builder.maximumWeight(parameters.maximumWeight());
+		} else {
+			builder.maximumSize(parameters.maximumSize() > 0 ? parameters.maximumSize() : DEFAULT_PARAMETERS.maximumSize());
+		}
+
+		if (parameters.expireAfterAccessSeconds() > 0) {
+			builder.expireAfterAccess(parameters.expireAfterAccessSeconds(), TimeUnit.SECONDS);
+		}
+
+		if (parameters.concurrencyLevel() > 0) {
+			builder.concurrencyLevel(parameters.concurrencyLevel());
+		}
+
+		return parameters.maximumWeight() > 0 ? builder.weigher(weigher).build() : builder.build();
 	}
 
 	@Override
 	@Nullable
 	public ClassNode get(String name) {
 		try {
-			return this.cache.get(name, () -> Optional.ofNullable(this.classProvider.get(name))).orElse(null);
+			return (ClassNode) this.cache.get(new Key(name, false), () -> Optional.ofNullable(this.classProvider.get(name))).orElse(null);
 		} catch (ExecutionException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	@Override
+	@Nullable
+	public byte[] getClassBytes(String name) {
+		try {
+			return (byte[]) this.cache.get(new Key(name, true), () -> Optional.ofNullable(this.classProvider.getClassBytes(name))).orElse(null);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Gets the statistics of this provider's cache, including hit rate, load times and eviction counts.
+	 * Lookups of class nodes and of class bytes are counted together.
+	 *
+	 * @return the cache statistics
+	 */
+	public CacheStats getCacheStats() {
+		return this.cache.stats();
+	}
+
 	@Override
 	public Collection<String> getClassNames() {
 		return this.classProvider.getClassNames();
@@ -44,4 +99,7 @@ public class CachingClassProvider implements ClassProvider {
 	public Collection<String> getClasses(String className) {
 		return this.classProvider.getClasses(className);
 	}
+
+	private record Key(String name, boolean bytes) {
+	}
 }
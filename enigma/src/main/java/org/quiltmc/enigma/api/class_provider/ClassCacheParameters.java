@@ -0,0 +1,19 @@
+package org.quiltmc.enigma.api.class_provider;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Controls how classes are cached.
+ *
+ * @param maximumSize the maximum amount of classes to keep cached. Ignored if {@code maximumWeight} is set, and if neither is set, 128 classes will be kept.
+ * @param maximumWeight the maximum estimated size of all cached classes, in bytes. If set to a positive value, the cache is bounded by the size of the classes it contains instead of their amount.
+ * @param expireAfterAccessSeconds how long a class stays cached after it was last accessed, in seconds. If set to {@code 0} or less, classes are only evicted when the cache is full.
+ * @param concurrencyLevel the amount of threads expected to access the cache at the same time. If set to {@code 0} or less, the cache's default concurrency level is used.
+ */
+public record ClassCacheParameters(
+		@SerializedName("maximum_size") long maximumSize,
+		@SerializedName("maximum_weight") long maximumWeight,
+		@SerializedName("expire_after_access_seconds") long expireAfterAccessSeconds,
+		@SerializedName("concurrency_level") int concurrencyLevel
+) {
+}
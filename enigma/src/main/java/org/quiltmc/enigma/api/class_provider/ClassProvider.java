@@ -1,6 +1,7 @@
 package org.quiltmc.enigma.api.class_provider;
 
 import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.util.AsmUtil;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
@@ -18,6 +19,20 @@ public interface ClassProvider {
 	@Nullable
 	ClassNode get(String name);
 
+	/**
+	 * Gets the class file for a class, for consumers that don't need a {@linkplain ClassNode}.
+	 * By default, this writes the result of {@link #get(String)} back to bytes, but providers that read class files directly
+	 * should override it to skip building the node. The array may be shared with other callers, so it's important to not mutate it.
+	 *
+	 * @param name the internal name of the class
+	 * @return the bytes of that class's class file, or {@code null} if it was not found
+	 */
+	@Nullable
+	default byte[] getClassBytes(String name) {
+		ClassNode node = this.get(name);
+		return node != null ? AsmUtil.nodeToBytes(node) : null;
+	}
+
 	Collection<String> getClassNames();
 
 	/**
@@ -1,7 +1,7 @@
 package org.quiltmc.enigma.api.class_provider;
 
-import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.util.AsmUtil;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
@@ -16,14 +16,15 @@ public class ClasspathClassProvider implements ClassProvider {
 	@Nullable
 	@Override
 	public ClassNode get(String name) {
-		try (InputStream in = ClasspathClassProvider.class.getResourceAsStream("/" + name + ".class")) {
-			if (in == null) {
-				return null;
-			}
+		byte[] bytes = this.getClassBytes(name);
+		return bytes != null ? AsmUtil.bytesToNode(bytes) : null;
+	}
 
-			ClassNode node = new ClassNode();
-			new ClassReader(in).accept(node, 0);
-			return node;
+	@Nullable
+	@Override
+	public byte[] getClassBytes(String name) {
+		try (InputStream in = ClasspathClassProvider.class.getResourceAsStream("/" + name + ".class")) {
+			return in != null ? in.readAllBytes() : null;
 		} catch (IOException e) {
 			return null;
 		}
@@ -33,6 +33,20 @@ public class CombiningClassProvider implements ClassProvider {
 		return null;
 	}
 
+	@Override
+	@Nullable
+	public byte[] getClassBytes(String name) {
+		for (ClassProvider cp : this.classProviders) {
+			byte[] bytes = cp.getClassBytes(name);
+
+			if (bytes != null) {
+				return bytes;
+			}
+		}
+
+		return null;
+	}
+
 	@Override
 	public Collection<String> getClassNames() {
 		return Arrays.stream(this.classProviders).flatMap(c -> c.getClassNames().stream()).toList();
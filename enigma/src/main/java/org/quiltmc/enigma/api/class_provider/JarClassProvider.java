@@ -47,12 +47,19 @@ public class JarClassProvider implements AutoCloseable, ClassProvider {
 	@Nullable
 	@Override
 	public ClassNode get(String name) {
+		byte[] bytes = this.getClassBytes(name);
+		return bytes != null ? AsmUtil.bytesToNode(bytes) : null;
+	}
+
+	@Nullable
+	@Override
+	public byte[] getClassBytes(String name) {
 		if (!this.classNames.contains(name)) {
 			return null;
 		}
 
 		try {
-			return AsmUtil.bytesToNode(Files.readAllBytes(this.fileSystem.getPath(name + ".class")));
+			return Files.readAllBytes(this.fileSystem.getPath(name + ".class"));
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
@@ -0,0 +1,304 @@
+package org.quiltmc.enigma.api.class_provider;
+
+import com.google.common.collect.ImmutableMap;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.util.AsmUtil;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Provides classes by loading them from a memory-mapped JAR file.
+ * <br>
+ * Unlike {@link JarClassProvider}, the JAR is not opened as a file system: its central directory is parsed once
+ * into a table of class names and entry offsets, and class files are read straight out of the mapped file.
+ * Stored entries are handed out as zero-copy slices of the mapping, while deflated entries are inflated on every read.
+ * Sizes and offsets that don't fit the regular headers are read from their zip64 extra fields.
+ * This provider is safe to use from multiple threads.
+ * <br>
+ * The JAR stays open until this provider is {@link #close() closed}, after which classes can no longer be read.
+ */
+public class MappedJarClassProvider implements AutoCloseable, ClassProvider {
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+	private static final int END_SIGNATURE = 0x06054b50;
+	private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+	private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+
+	private static final int END_SIZE = 22;
+	private static final int ZIP64_LOCATOR_SIZE = 20;
+	private static final int MAX_COMMENT_SIZE = 0xFFFF;
+	private static final int ZIP64_EXTRA_ID = 0x0001;
+	private static final long ZIP64_MAGIC_VALUE = 0xFFFFFFFFL;
+
+	private static final int METHOD_STORED = 0;
+	private static final int METHOD_DEFLATED = 8;
+
+	private final FileChannel channel;
+	/**
+	 * The mapped JAR, or {@code null} once this provider is closed.
+	 */
+	@Nullable
+	private volatile ByteBuffer buffer;
+	/**
+	 * The location of each class in the JAR, keyed by internal class name.
+	 */
+	private final ImmutableMap<String, ZipEntry> entries;
+
+	public MappedJarClassProvider(Path jarPath) throws IOException {
+		this.channel = FileChannel.open(jarPath, StandardOpenOption.READ);
+		try {
+			if (this.channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Cannot map jar larger than 2 GiB: " + jarPath);
+			}
+
+			ByteBuffer buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+			this.entries = readCentralDirectory(buffer, jarPath);
+			this.buffer = buffer;
+		} catch (IOException | RuntimeException e) {
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	private static ImmutableMap<String, ZipEntry> readCentralDirectory(ByteBuffer buffer, Path jarPath) throws IOException {
+		int end = findEndOfCentralDirectory(buffer);
+		if (end < 0) {
+			throw new IOException("Not a zip file: " + jarPath);
+		}
+
+		long entryCount = Short.toUnsignedLong(buffer.getShort(end + 10));
+		long directoryOffset = Integer.toUnsignedLong(buffer.getInt(end + 16));
+
+		// large jars keep the real values in the zip64 end of central directory record
+		int locator = end - ZIP64_LOCATOR_SIZE;
+		if (locator >= 0 && buffer.getInt(locator) == ZIP64_LOCATOR_SIGNATURE) {
+			int zip64End = checkOffset(buffer, buffer.getLong(locator + 8), jarPath);
+			if (buffer.getInt(zip64End) != ZIP64_END_SIGNATURE) {
+				throw new IOException("Invalid zip64 end of central directory in " + jarPath);
+			}
+
+			entryCount = buffer.getLong(zip64End + 32);
+			directoryOffset = buffer.getLong(zip64End + 48);
+		}
+
+		Map<String, ZipEntry> entries = new LinkedHashMap<>();
+		int offset = checkOffset(buffer, directoryOffset, jarPath);
+		for (long i = 0; i < entryCount; i++) {
+			if (buffer.getInt(offset) != CENTRAL_HEADER_SIGNATURE) {
+				throw new IOException("Invalid central directory entry at " + offset + " in " + jarPath);
+			}
+
+			int nameLength = Short.toUnsignedInt(buffer.getShort(offset + 28));
+			int extraLength = Short.toUnsignedInt(buffer.getShort(offset + 30));
+			int commentLength = Short.toUnsignedInt(buffer.getShort(offset + 32));
+
+			String name = readString(buffer, offset + 46, nameLength);
+			if (name.endsWith(".class")) {
+				entries.put(name.substring(0, name.length() - ".class".length()), readEntry(buffer, offset, offset + 46 + nameLength, extraLength, jarPath));
+			}
+
+			offset += 46 + nameLength + extraLength + commentLength;
+		}
+
+		return ImmutableMap.copyOf(entries);
+	}
+
+	private static ZipEntry readEntry(ByteBuffer buffer, int header, int extra, int extraLength, Path jarPath) throws IOException {
+		long compressedSize = Integer.toUnsignedLong(buffer.getInt(header + 20));
+		long size = Integer.toUnsignedLong(buffer.getInt(header + 24));
+		long localHeader = Integer.toUnsignedLong(buffer.getInt(header + 42));
+
+		// the zip64 extra field holds the real value of each field that's set to the magic value, in this order
+		if (size == ZIP64_MAGIC_VALUE || compressedSize == ZIP64_MAGIC_VALUE || localHeader == ZIP64_MAGIC_VALUE) {
+			int end = extra + extraLength;
+			int field = extra;
+			while (field + 4 <= end) {
+				int id = Short.toUnsignedInt(buffer.getShort(field));
+				int position = field + 4;
+				int fieldEnd = position + Short.toUnsignedInt(buffer.getShort(field + 2));
+				if (id == ZIP64_EXTRA_ID && fieldEnd <= end) {
+					if (size == ZIP64_MAGIC_VALUE && position + 8 <= fieldEnd) {
+						size = buffer.getLong(position);
+						position += 8;
+					}
+
+					if (compressedSize == ZIP64_MAGIC_VALUE && position + 8 <= fieldEnd) {
+						compressedSize = buffer.getLong(position);
+						position += 8;
+					}
+
+					if (localHeader == ZIP64_MAGIC_VALUE && position + 8 <= fieldEnd) {
+						localHeader = buffer.getLong(position);
+					}
+
+					break;
+				}
+
+				field = fieldEnd;
+			}
+		}
+
+		int method = Short.toUnsignedInt(buffer.getShort(header + 10));
+		if (size > Integer.MAX_VALUE || compressedSize > Integer.MAX_VALUE || compressedSize < 0 || size < 0) {
+			throw new IOException("Invalid or unsupported entry size at " + header + " in " + jarPath);
+		}
+
+		return new ZipEntry(method, (int) compressedSize, (int) size, checkOffset(buffer, localHeader, jarPath));
+	}
+
+	private static int findEndOfCentralDirectory(ByteBuffer buffer) {
+		int min = Math.max(0, buffer.limit() - END_SIZE - MAX_COMMENT_SIZE);
+		for (int offset = buffer.limit() - END_SIZE; offset >= min; offset--) {
+			if (buffer.getInt(offset) == END_SIGNATURE) {
+				return offset;
+			}
+		}
+
+		return -1;
+	}
+
+	private static int checkOffset(ByteBuffer buffer, long offset, Path jarPath) throws IOException {
+		if (offset < 0 || offset >= buffer.limit()) {
+			throw new IOException("Invalid offset " + offset + " in " + jarPath);
+		}
+
+		return (int) offset;
+	}
+
+	private static String readString(ByteBuffer buffer, int offset, int length) {
+		byte[] bytes = new byte[length];
+		buffer.get(offset, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public Set<String> getClassNames() {
+		return this.entries.keySet();
+	}
+
+	@Nullable
+	@Override
+	public ClassNode get(String name) {
+		byte[] bytes = this.getClassBytes(name);
+		return bytes != null ? AsmUtil.bytesToNode(bytes) : null;
+	}
+
+	/**
+	 * Gets the contents of a class file in the JAR, without parsing them.
+	 *
+	 * @param name the internal name of the class
+	 * @return a copy of the class file's bytes, or {@code null} if the class was not found
+	 */
+	@Nullable
+	@Override
+	public byte[] getClassBytes(String name) {
+		ByteBuffer buffer = this.read(name);
+		if (buffer == null) {
+			return null;
+		} else if (buffer.hasArray()) {
+			// inflated entries already have their own array, while the mapping itself is read-only
+			return buffer.array();
+		}
+
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Gets the contents of a class file in the JAR as a read-only buffer.
+	 * For classes that are stored without compression, the buffer is a slice of the mapped JAR, so no bytes are copied.
+	 *
+	 * @param name the internal name of the class
+	 * @return the class file's contents, or {@code null} if the class was not found
+	 */
+	@Nullable
+	public ByteBuffer getClassBuffer(String name) {
+		ByteBuffer buffer = this.read(name);
+		return buffer != null ? buffer.asReadOnlyBuffer() : null;
+	}
+
+	@Nullable
+	private ByteBuffer read(String name) {
+		ZipEntry entry = this.entries.get(name);
+		if (entry == null) {
+			return null;
+		}
+
+		ByteBuffer buffer = this.buffer;
+		if (buffer == null) {
+			throw new IllegalStateException("Provider is closed");
+		}
+
+		int localHeader = entry.localHeader();
+		if (localHeader > buffer.limit() - 30 || buffer.getInt(localHeader) != LOCAL_HEADER_SIGNATURE) {
+			throw new IllegalStateException("Invalid zip entry for class " + name);
+		}
+
+		int dataOffset = localHeader + 30 + Short.toUnsignedInt(buffer.getShort(localHeader + 26)) + Short.toUnsignedInt(buffer.getShort(localHeader + 28));
+		if (entry.compressedSize() > buffer.limit() - dataOffset) {
+			throw new IllegalStateException("Truncated zip entry for class " + name);
+		}
+
+		ByteBuffer data = buffer.slice(dataOffset, entry.compressedSize());
+
+		return switch (entry.method()) {
+			case METHOD_STORED -> data;
+			case METHOD_DEFLATED -> inflate(data, entry.size(), name);
+			default -> throw new IllegalStateException("Unsupported compression method " + entry.method() + " for class " + name);
+		};
+	}
+
+	private static ByteBuffer inflate(ByteBuffer data, int size, String name) {
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(data);
+			byte[] bytes = new byte[size];
+			int read = 0;
+			while (read < size && !inflater.finished()) {
+				int inflated = inflater.inflate(bytes, read, size - read);
+				if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+
+				read += inflated;
+			}
+
+			if (read != size) {
+				throw new IllegalStateException("Truncated zip entry for class " + name);
+			}
+
+			return ByteBuffer.wrap(bytes);
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Corrupt zip entry for class " + name, e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Closes the JAR and drops this provider's reference to the mapping.
+	 * The mapping itself is only unmapped once no buffers handed out by {@link #getClassBuffer(String)} are reachable,
+	 * since Java 17 has no way to unmap it explicitly.
+	 */
+	@Override
+	public void close() throws IOException {
+		this.buffer = null;
+		this.channel.close();
+	}
+
+	private record ZipEntry(int method, int compressedSize, int size, int localHeader) {
+	}
+}
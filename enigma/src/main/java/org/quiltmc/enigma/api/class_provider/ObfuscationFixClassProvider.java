@@ -1,9 +1,12 @@
 package org.quiltmc.enigma.api.class_provider;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
 import org.quiltmc.enigma.api.Enigma;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.impl.bytecode.translator.LocalVariableFixVisitor;
 import org.quiltmc.enigma.impl.bytecode.translator.SourceFixVisitor;
+import org.quiltmc.enigma.util.AsmUtil;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.AbstractInsnNode;
@@ -30,23 +33,97 @@ import javax.annotation.Nullable;
  *
  * <p>
  * These fixes are only applied to classes that were indexed by the JarIndex provided, and not library classes.
+ *
+ * <p>Fixed classes are kept in a single cache, bounded by their {@linkplain AsmUtil#estimateSize(ClassNode) estimated size},
+ * which is cleared whenever the {@link JarIndex#getModificationCount() index changes}.
+ * This provider should therefore be shared instead of wrapped in other caches, see {@link #of(ClassProvider, JarIndex)}.
  */
 public class ObfuscationFixClassProvider implements ClassProvider {
+	/**
+	 * The default maximum estimated size of all cached classes, in bytes.
+	 */
+	public static final long DEFAULT_MAXIMUM_WEIGHT = 64L * 1024 * 1024;
+	/**
+	 * The cache policy used when none is provided: classes are bounded by {@link #DEFAULT_MAXIMUM_WEIGHT}.
+	 */
+	public static final ClassCacheParameters DEFAULT_PARAMETERS = new ClassCacheParameters(0, DEFAULT_MAXIMUM_WEIGHT, 0, 0);
+
 	private final ClassProvider classProvider;
 	private final JarIndex jarIndex;
+	private final Cache<String, FixedClass> cache;
+	private volatile long cachedModificationCount;
 
 	public ObfuscationFixClassProvider(ClassProvider classProvider, JarIndex jarIndex) {
+		this(classProvider, jarIndex, DEFAULT_PARAMETERS);
+	}
+
+	/**
+	 * @param classProvider the provider of the classes to fix
+	 * @param jarIndex the index of the classes to fix
+	 * @param parameters the policy of the cache of fixed classes, which are weighed by their estimated size
+	 */
+	public ObfuscationFixClassProvider(ClassProvider classProvider, JarIndex jarIndex, ClassCacheParameters parameters) {
 		this.classProvider = classProvider;
 		this.jarIndex = jarIndex;
+		this.cache = CachingClassProvider.buildCache(parameters, (String name, FixedClass fixed) -> fixed.weight);
+		this.cachedModificationCount = jarIndex.getModificationCount();
+	}
+
+	/**
+	 * Gets a provider that applies fixes for the provided index, reusing the provided one if it already does so.
+	 *
+	 * @param classProvider the provider of the classes to fix
+	 * @param jarIndex the index of the classes to fix
+	 * @return a fixing class provider
+	 */
+	public static ClassProvider of(ClassProvider classProvider, JarIndex jarIndex) {
+		if (classProvider instanceof ObfuscationFixClassProvider fixingProvider && fixingProvider.jarIndex == jarIndex) {
+			return fixingProvider;
+		}
+
+		return new ObfuscationFixClassProvider(classProvider, jarIndex);
 	}
 
 	@Override
 	@Nullable
 	public ClassNode get(String name) {
-		ClassNode node = this.classProvider.get(name);
+		if (!this.jarIndex.isIndexed(name)) {
+			return this.classProvider.get(name);
+		}
+
+		FixedClass fixed = this.getFixed(name);
+		return fixed != null ? fixed.node : null;
+	}
+
+	@Override
+	@Nullable
+	public byte[] getClassBytes(String name) {
+		if (!this.jarIndex.isIndexed(name)) {
+			// library classes aren't fixed, so their bytes can be passed through untouched
+			return this.classProvider.getClassBytes(name);
+		}
+
+		FixedClass fixed = this.getFixed(name);
+		return fixed != null ? fixed.getBytes() : null;
+	}
 
-		if (!this.jarIndex.isIndexed(name) || node == null) {
-			return node;
+	@Nullable
+	private FixedClass getFixed(String name) {
+		long modificationCount = this.jarIndex.getModificationCount();
+		if (modificationCount != this.cachedModificationCount) {
+			// the fixes depend on the index, so every cached class may be outdated
+			this.cachedModificationCount = modificationCount;
+			this.cache.invalidateAll();
+		}
+
+		FixedClass fixed = this.cache.getIfPresent(name);
+		if (fixed != null && fixed.modificationCount == modificationCount) {
+			return fixed;
+		}
+
+		ClassNode node = this.classProvider.get(name);
+		if (node == null) {
+			return null;
 		}
 
 		ClassNode fixedNode = new ClassNode();
@@ -56,7 +133,16 @@ public class ObfuscationFixClassProvider implements ClassProvider {
 		node.accept(visitor);
 		this.removeRedundantClassCalls(fixedNode);
 
-		return fixedNode;
+		fixed = new FixedClass(fixedNode, modificationCount);
+		this.cache.put(name, fixed);
+		return fixed;
+	}
+
+	/**
+	 * {@return the hit, miss and eviction counts of the fixed class cache}
+	 */
+	public CacheStats getCacheStats() {
+		return this.cache.stats();
 	}
 
 	@Override
@@ -94,4 +180,28 @@ public class ObfuscationFixClassProvider implements ClassProvider {
 			}
 		}
 	}
+
+	private static final class FixedClass {
+		private final ClassNode node;
+		private final long modificationCount;
+		private final int weight;
+		@Nullable
+		private volatile byte[] bytes;
+
+		FixedClass(ClassNode node, long modificationCount) {
+			this.node = node;
+			this.modificationCount = modificationCount;
+			this.weight = AsmUtil.estimateSize(node);
+		}
+
+		byte[] getBytes() {
+			byte[] bytes = this.bytes;
+			if (bytes == null) {
+				bytes = AsmUtil.nodeToBytes(this.node);
+				this.bytes = bytes;
+			}
+
+			return bytes;
+		}
+	}
 }
@@ -51,6 +51,19 @@ public class ProjectClassProvider implements ClassProvider {
 		return null;
 	}
 
+	@Nullable
+	@Override
+	public byte[] getClassBytes(String name) {
+		if (this.main != null) {
+			byte[] mainBytes = this.main.getClassBytes(name);
+			if (mainBytes != null) {
+				return mainBytes;
+			}
+		}
+
+		return this.libraries != null ? this.libraries.getClassBytes(name) : null;
+	}
+
 	/**
 	 * Gets the {@linkplain ClassNode} for a class in the main JAR file. The class provider may return a cached result,
 	 * so it's important to not mutate it.
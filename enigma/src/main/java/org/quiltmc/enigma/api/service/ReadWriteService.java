@@ -13,6 +13,7 @@ import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.function.Supplier;
 
 /**
  * A read/write service defines a reader and/or a writer for mappings.
@@ -61,6 +62,24 @@ public interface ReadWriteService extends EnigmaService, MappingsWriter, Mapping
 				return reader.read(path, progress);
 			}
 
+			@Override
+			public EntryTree<EntryMapping> read(Path path, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws MappingParseException, IOException {
+				if (reader == null) {
+					throw new UnsupportedOperationException("This service does not support reading!");
+				}
+
+				return reader.read(path, progress, treeFactory);
+			}
+
+			@Override
+			public EntryTree<EntryMapping> readLazily(Path path, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws MappingParseException, IOException {
+				if (reader == null) {
+					throw new UnsupportedOperationException("This service does not support reading!");
+				}
+
+				return reader.readLazily(path, progress, treeFactory);
+			}
+
 			@Override
 			public boolean supportsReading() {
 				return reader != null;
@@ -22,6 +22,7 @@ import org.tinylog.Logger;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -173,19 +174,27 @@ public class StatsGenerator {
 
 		entries.add(classEntry);
 
+		List<MethodEntry> methods = new ArrayList<>();
+		for (Entry<?> entry : entries) {
+			if (entry instanceof MethodEntry method) {
+				methods.add(method);
+			}
+		}
+
+		Map<MethodEntry, Collection<MethodEntry>> resolvedMethods = this.entryResolver.resolveAll(methods, ResolutionStrategy.RESOLVE_ROOT);
+
 		for (Entry<?> entry : entries) {
 			if (entry instanceof FieldEntry field && includedTypes.contains(StatType.FIELDS)) {
 				if (!((FieldDefEntry) field).getAccess().isSynthetic()) {
 					this.update(StatType.FIELDS, mappableCounts, unmappedCounts, field);
 				}
 			} else if (entry instanceof MethodEntry method) {
-				MethodEntry root = this.entryResolver
-						.resolveEntry(method, ResolutionStrategy.RESOLVE_ROOT)
+				MethodEntry root = resolvedMethods.get(method)
 						.stream()
 						.findFirst()
 						.orElseThrow(AssertionError::new);
 
-				if (root == method) {
+				if (root.equals(method)) {
 					if (includedTypes.contains(StatType.METHODS) && !((MethodDefEntry) method).getAccess().isSynthetic()) {
 						this.update(StatType.METHODS, mappableCounts, unmappedCounts, method);
 					}
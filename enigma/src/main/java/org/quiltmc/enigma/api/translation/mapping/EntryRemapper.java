@@ -1,20 +1,25 @@
 package org.quiltmc.enigma.api.translation.mapping;
 
+import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MethodFamilyIndex;
 import org.quiltmc.enigma.api.analysis.index.mapping.MappingsIndex;
 import org.quiltmc.enigma.api.service.NameProposalService;
-import org.quiltmc.enigma.api.translation.MappingTranslator;
 import org.quiltmc.enigma.api.translation.Translatable;
 import org.quiltmc.enigma.api.translation.TranslateResult;
 import org.quiltmc.enigma.api.translation.Translator;
 import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
-import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.FlatEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.MergedEntryMappingTree;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.translation.CachingTranslator;
+import org.quiltmc.enigma.util.I18n;
 import org.quiltmc.enigma.util.validation.ValidationContext;
 
 import java.util.ArrayList;
@@ -23,6 +28,7 @@ import java.util.HashSet;
 import java.util.Objects;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -34,22 +40,28 @@ public class EntryRemapper {
 	private final DeltaTrackingTree<EntryMapping> mappings;
 
 	private final EntryResolver obfResolver;
-	private final Translator deobfuscator;
+	private final CachingTranslator deobfuscator;
 	private final JarIndex jarIndex;
 	private final MappingsIndex mappingsIndex;
 
 	private final MappingValidator validator;
 	private final List<NameProposalService> proposalServices;
 
-	private EntryRemapper(JarIndex jarIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> jarProposedMappings, EntryTree<EntryMapping> deobfMappings, List<NameProposalService> proposalServices) {
+	private EntryRemapper(JarIndex jarIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> jarProposedMappings, EntryTree<EntryMapping> proposedMappings, EntryTree<EntryMapping> deobfMappings, List<NameProposalService> proposalServices) {
 		this.deobfMappings = deobfMappings;
 		this.jarProposedMappings = jarProposedMappings;
-		this.proposedMappings = new HashEntryTree<>(jarProposedMappings);
-		this.mappings = new DeltaTrackingTree<>(new MergedEntryMappingTree(deobfMappings, this.proposedMappings));
+		this.proposedMappings = proposedMappings;
+		this.mappings = new DeltaTrackingTree<>(new MergedEntryMappingTree(deobfMappings, this.proposedMappings)) {
+			@Override
+			public void trackChange(Entry<?> entry) {
+				super.trackChange(entry);
+				EntryRemapper.this.deobfuscator.invalidate(entry);
+			}
+		};
 
 		this.obfResolver = jarIndex.getEntryResolver();
 
-		this.deobfuscator = new MappingTranslator(this.mappings, this.obfResolver);
+		this.deobfuscator = new CachingTranslator(this.mappings, this.obfResolver);
 		this.jarIndex = jarIndex;
 		this.mappingsIndex = mappingsIndex;
 
@@ -58,11 +70,40 @@ public class EntryRemapper {
 	}
 
 	public static EntryRemapper mapped(JarIndex jarIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> proposedMappings, EntryTree<EntryMapping> deobfMappings, List<NameProposalService> proposalServices) {
-		return new EntryRemapper(jarIndex, mappingsIndex, proposedMappings, deobfMappings, proposalServices);
+		return mapped(jarIndex, mappingsIndex, proposedMappings, deobfMappings, proposalServices, null);
+	}
+
+	/**
+	 * Creates a remapper whose proposed mappings are kept in a tree from the provided factory,
+	 * instead of a {@link EntryTree#snapshot() snapshot} of the jar-proposed mappings.
+	 * <br>
+	 * The jar-proposed mappings are copied into the new tree, so this suits trees tuned for reading,
+	 * such as a {@link FlatEntryTree}, when the remapper is created once and then mostly read.
+	 *
+	 * @param proposedTreeFactory a factory for the tree holding the proposed mappings, or {@code null} to snapshot the jar-proposed mappings
+	 */
+	public static EntryRemapper mapped(JarIndex jarIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> proposedMappings, EntryTree<EntryMapping> deobfMappings, List<NameProposalService> proposalServices, @Nullable Supplier<? extends EntryTree<EntryMapping>> proposedTreeFactory) {
+		return new EntryRemapper(jarIndex, mappingsIndex, proposedMappings, copyProposed(proposedMappings, proposedTreeFactory), deobfMappings, proposalServices);
 	}
 
 	public static EntryRemapper empty(JarIndex index, List<NameProposalService> proposalServices) {
-		return new EntryRemapper(index, MappingsIndex.empty(), new HashEntryTree<>(), new HashEntryTree<>(), proposalServices);
+		EntryTree<EntryMapping> proposedMappings = new PersistentEntryTree<>();
+		return new EntryRemapper(index, MappingsIndex.empty(), proposedMappings, proposedMappings.snapshot(), new PersistentEntryTree<>(), proposalServices);
+	}
+
+	private static EntryTree<EntryMapping> copyProposed(EntryTree<EntryMapping> mappings, @Nullable Supplier<? extends EntryTree<EntryMapping>> treeFactory) {
+		if (treeFactory == null) {
+			return mappings.snapshot();
+		}
+
+		EntryTree<EntryMapping> tree = treeFactory.get();
+		for (EntryTreeNode<EntryMapping> node : mappings) {
+			if (node.hasValue()) {
+				tree.insert(node.getEntry(), node.getValue());
+			}
+		}
+
+		return tree;
 	}
 
 	public void validatePutMapping(ValidationContext vc, Entry<?> obfuscatedEntry, @Nonnull EntryMapping deobfMapping) {
@@ -96,14 +137,33 @@ public class EntryRemapper {
 		}
 
 		this.insertDynamicallyProposedMappings(obfuscatedEntry, oldMapping, deobfMapping);
-		this.mappingsIndex.reindexEntry(deobfMapping, obfuscatedEntry);
+		// reindex with the mapping that's now in effect, which falls back to a proposed name when the manual one is removed
+		this.mappingsIndex.reindexEntry(this.getMapping(obfuscatedEntry), obfuscatedEntry);
 	}
 
 	private Collection<Entry<?>> resolveAllRoots(Entry<?> obfuscatedEntry) {
+		Collection<Entry<?>> roots = this.obfResolver.resolveEntry(obfuscatedEntry, ResolutionStrategy.RESOLVE_ROOT);
 		if (!(obfuscatedEntry instanceof MethodEntry methodEntry)) {
-			return this.obfResolver.resolveEntry(obfuscatedEntry, ResolutionStrategy.RESOLVE_ROOT);
+			return roots;
+		} else if (!this.jarIndex.hasIndex(MethodFamilyIndex.class)) {
+			return this.resolveJoinedRoots(methodEntry, roots);
 		}
 
+		// every method in the family must keep the same name, so all of their roots are renamed together
+		MethodFamilyIndex methodFamilyIndex = this.jarIndex.getIndex(MethodFamilyIndex.class);
+		Set<Entry<?>> resolution = new HashSet<>(roots);
+		for (Entry<?> root : roots) {
+			for (MethodEntry member : methodFamilyIndex.getFamily((MethodEntry) root)) {
+				if (!member.equals(root)) {
+					resolution.addAll(this.obfResolver.resolveEntry(member, ResolutionStrategy.RESOLVE_ROOT));
+				}
+			}
+		}
+
+		return resolution;
+	}
+
+	private Collection<Entry<?>> resolveJoinedRoots(MethodEntry methodEntry, Collection<Entry<?>> roots) {
 		InheritanceIndex inheritanceIndex = this.jarIndex.getIndex(InheritanceIndex.class);
 		var owner = methodEntry.getParent();
 		var descendants = inheritanceIndex.getDescendants(owner);
@@ -126,7 +186,7 @@ public class EntryRemapper {
 			}
 		}
 
-		Set<Entry<?>> resolution = new HashSet<>(this.obfResolver.resolveEntry(obfuscatedEntry, ResolutionStrategy.RESOLVE_ROOT));
+		Set<Entry<?>> resolution = new HashSet<>(roots);
 		for (ClassEntry clazz : classes) {
 			resolution.addAll(this.obfResolver.resolveEntry(methodEntry.withParent(clazz), ResolutionStrategy.RESOLVE_ROOT));
 		}
@@ -142,11 +202,44 @@ public class EntryRemapper {
 		for (var service : this.proposalServices) {
 			var proposedNames = service.getDynamicProposedNames(this, obfEntry, oldMapping, newMapping);
 			if (proposedNames != null) {
-				proposedNames.forEach(this.proposedMappings::insert);
+				proposedNames.forEach((entry, mapping) -> {
+					this.proposedMappings.insert(entry, mapping);
+					this.deobfuscator.invalidate(entry);
+					this.mappingsIndex.reindexEntry(this.getMapping(entry), entry);
+				});
 			}
 		}
 	}
 
+	/**
+	 * Creates a remapper around the provided manually inserted mappings, which keeps this remapper's proposed names and mappings index.
+	 * Only the entries whose mappings differ from this remapper's are reindexed and passed to dynamic name proposal,
+	 * as if they had been renamed, and the new remapper has no changes to save.
+	 * <br>
+	 * Since both remappers share the mappings index, this remapper shouldn't be used anymore afterwards.
+	 *
+	 * @param newMappings the new manually inserted mappings, which the new remapper uses directly
+	 * @param proposedTreeFactory a factory for the tree holding the proposed mappings, or {@code null} to snapshot them
+	 * @param progress a progress listener, stepped once per changed entry
+	 * @return the new remapper
+	 */
+	public EntryRemapper withDeobfMappings(EntryTree<EntryMapping> newMappings, @Nullable Supplier<? extends EntryTree<EntryMapping>> proposedTreeFactory, ProgressListener progress) {
+		List<Entry<?>> changes = MappingDelta.between(this.deobfMappings, newMappings).getChanges().getAllEntries().toList();
+		EntryRemapper remapper = new EntryRemapper(this.jarIndex, this.mappingsIndex, this.jarProposedMappings, copyProposed(this.proposedMappings, proposedTreeFactory), newMappings, this.proposalServices);
+
+		progress.init(changes.size(), I18n.translate("progress.mappings.updating"));
+		int steps = 0;
+		for (Entry<?> entry : changes) {
+			progress.step(steps++, entry.toString());
+
+			EntryMapping newMapping = remapper.getMapping(entry);
+			this.mappingsIndex.reindexEntry(newMapping, entry);
+			remapper.insertDynamicallyProposedMappings(entry, this.getMapping(entry), newMapping);
+		}
+
+		return remapper;
+	}
+
 	@Nonnull
 	public EntryMapping getMapping(Entry<?> entry) {
 		EntryMapping entryMapping = this.mappings.get(entry);
@@ -6,6 +6,8 @@ import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 public interface EntryResolver {
@@ -15,6 +17,22 @@ public interface EntryResolver {
 		return this.resolveEntry(entry, strategy).stream().findFirst().orElse(entry);
 	}
 
+	/**
+	 * Resolves many entries at once, as with {@link #resolveEntry(Entry, ResolutionStrategy)}.
+	 *
+	 * @param entries the entries to resolve
+	 * @param strategy the strategy to resolve them with
+	 * @return each distinct entry, in the order given, mapped to what it resolves to
+	 */
+	default <E extends Entry<?>> Map<E, Collection<E>> resolveAll(Collection<? extends E> entries, ResolutionStrategy strategy) {
+		Map<E, Collection<E>> resolved = new LinkedHashMap<>();
+		for (E entry : entries) {
+			resolved.computeIfAbsent(entry, e -> this.resolveEntry(e, strategy));
+		}
+
+		return resolved;
+	}
+
 	default <E extends Entry<?>, C extends Entry<?>> Collection<EntryReference<E, C>> resolveReference(EntryReference<E, C> reference, ResolutionStrategy strategy) {
 		Collection<E> entry = this.resolveEntry(reference.entry, strategy);
 		if (reference.context != null) {
@@ -8,30 +8,60 @@ import org.quiltmc.enigma.api.analysis.index.jar.BridgeMethodIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MethodFamilyIndex;
 import org.quiltmc.enigma.api.translation.VoidTranslator;
 import org.quiltmc.enigma.api.translation.representation.AccessFlags;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.util.Utils;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
+/**
+ * Resolves entries against a jar index.
+ * <br>
+ * The results of walking up the class hierarchy are remembered until the {@link JarIndex#getModificationCount() index changes},
+ * since the index stays the same once it's been processed, and the same ancestors are visited again and again
+ * when resolving the members of sibling classes.
+ * <br>
+ * When the index has a {@link JarIndex#getReadLock() read lock}, it's only read while holding it, after making sure the class
+ * of the entry being resolved is indexed, so resolving doesn't overlap with classes being indexed on demand.
+ * Other indexes don't change once they've been built, and are read without locking.
+ */
 public class IndexEntryResolver implements EntryResolver {
+	private final JarIndex index;
 	private final EntryIndex entryIndex;
 	private final InheritanceIndex inheritanceIndex;
 	private final BridgeMethodIndex bridgeMethodIndex;
+	@Nullable
+	private final MethodFamilyIndex methodFamilyIndex;
 
 	private final IndexTreeBuilder treeBuilder;
 
+	private final Map<AncestryKey, Resolved> resolvedAncestry = new ConcurrentHashMap<>();
+	private volatile long resolvedModificationCount;
+
 	public IndexEntryResolver(JarIndex index) {
+		this.index = index;
 		this.entryIndex = index.getIndex(EntryIndex.class);
 		this.inheritanceIndex = index.getIndex(InheritanceIndex.class);
 		this.bridgeMethodIndex = index.getIndex(BridgeMethodIndex.class);
+		this.methodFamilyIndex = index.hasIndex(MethodFamilyIndex.class) ? index.getIndex(MethodFamilyIndex.class) : null;
 
 		this.treeBuilder = new IndexTreeBuilder(index);
 	}
@@ -56,7 +86,6 @@ public class IndexEntryResolver implements EntryResolver {
 	 * will be returned.
 	 */
 	@Override
-	@SuppressWarnings("unchecked")
 	public <E extends Entry<?>> Collection<E> resolveEntry(E entry, ResolutionStrategy strategy) {
 		if (entry == null) {
 			return Collections.emptySet();
@@ -64,28 +93,52 @@ public class IndexEntryResolver implements EntryResolver {
 
 		Entry<ClassEntry> entryAsClassChild = this.getClassChild(entry);
 		if (entryAsClassChild != null && !(entryAsClassChild instanceof ClassEntry)) {
-			AccessFlags access = this.entryIndex.getEntryAccess(entryAsClassChild);
+			return this.read(entryAsClassChild.getParent(), () -> this.resolveClassChild(entry, entryAsClassChild, strategy));
+		}
 
-			// If we're looking for the closest and this entry exists, we're done looking
-			if (strategy == ResolutionStrategy.RESOLVE_CLOSEST && access != null) {
-				return Collections.singleton(entry);
-			}
+		return Collections.singleton(entry);
+	}
 
-			// Don't search existing private and/or static entries up the hierarchy
-			// Fields and classes can't be redefined, don't search them up the hierarchy
-			if (access != null && (access.isPrivate() || access.isStatic() || entry instanceof FieldEntry || entry instanceof ClassEntry)) {
-				return Collections.singleton(entry);
-			} else {
-				// Search the entry up the hierarchy; if the entry exists we can skip static entries, since this one isn't static
-				Collection<Entry<ClassEntry>> resolvedChildren = this.resolveEntryInAncestry(entryAsClassChild, strategy, access != null);
-				if (!resolvedChildren.isEmpty()) {
-					return resolvedChildren.stream()
-						.map(resolvedChild -> (E) entry.replaceAncestor(entryAsClassChild, resolvedChild))
-						.toList();
-				} else if (access == null) {
-					// No matching entry was found, and this one doesn't exist
-					return Collections.emptySet();
-				}
+	/**
+	 * Reads the index while holding its read lock, after making sure the provided class is indexed,
+	 * or simply reads it if the index doesn't index classes on demand.
+	 */
+	private <T> T read(@Nullable ClassEntry classEntry, Supplier<T> reader) {
+		Lock lock = this.index.getReadLock();
+		if (lock == null) {
+			return reader.get();
+		}
+
+		if (classEntry != null) {
+			this.index.ensureIndexed(classEntry);
+		}
+
+		return Utils.withLock(lock, reader);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <E extends Entry<?>> Collection<E> resolveClassChild(E entry, Entry<ClassEntry> entryAsClassChild, ResolutionStrategy strategy) {
+		AccessFlags access = this.entryIndex.getEntryAccess(entryAsClassChild);
+
+		// If we're looking for the closest and this entry exists, we're done looking
+		if (strategy == ResolutionStrategy.RESOLVE_CLOSEST && access != null) {
+			return Collections.singleton(entry);
+		}
+
+		// Don't search existing private and/or static entries up the hierarchy
+		// Fields and classes can't be redefined, don't search them up the hierarchy
+		if (access != null && (access.isPrivate() || access.isStatic() || entry instanceof FieldEntry || entry instanceof ClassEntry)) {
+			return Collections.singleton(entry);
+		} else {
+			// Search the entry up the hierarchy; if the entry exists we can skip static entries, since this one isn't static
+			Collection<Entry<ClassEntry>> resolvedChildren = this.resolveEntryInAncestry(entryAsClassChild, strategy, access != null);
+			if (!resolvedChildren.isEmpty()) {
+				return resolvedChildren.stream()
+					.map(resolvedChild -> (E) entry.replaceAncestor(entryAsClassChild, resolvedChild))
+					.toList();
+			} else if (access == null) {
+				// No matching entry was found, and this one doesn't exist
+				return Collections.emptySet();
 			}
 		}
 
@@ -118,7 +171,51 @@ public class IndexEntryResolver implements EntryResolver {
 		return null;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * The classes of all entries are indexed up front, after which the entries are resolved in parallel.
+	 */
+	@Override
+	public <E extends Entry<?>> Map<E, Collection<E>> resolveAll(Collection<? extends E> entries, ResolutionStrategy strategy) {
+		Set<ClassEntry> classes = new LinkedHashSet<>();
+		for (E entry : entries) {
+			Entry<ClassEntry> classChild = entry == null ? null : this.getClassChild(entry);
+			if (classChild != null) {
+				classes.add(classChild.getParent());
+			}
+		}
+
+		// lazily indexed classes must not be indexed while other threads are reading the index
+		if (this.index.getReadLock() != null) {
+			classes.forEach(this.index::ensureIndexed);
+		}
+
+		return new ArrayList<E>(entries).parallelStream()
+				.distinct()
+				.collect(Collectors.toMap(Function.identity(), entry -> this.resolveEntry(entry, strategy), (a, b) -> a, LinkedHashMap::new));
+	}
+
 	private Set<Entry<ClassEntry>> resolveEntryInAncestry(Entry<ClassEntry> entry, ResolutionStrategy strategy, boolean skipStatic) {
+		long modificationCount = this.index.getModificationCount();
+		if (modificationCount != this.resolvedModificationCount) {
+			this.resolvedAncestry.clear();
+			this.resolvedModificationCount = modificationCount;
+		}
+
+		// definitions are equal to plain entries, but resolve to definitions
+		AncestryKey key = new AncestryKey(entry.getClass(), entry, strategy, skipStatic);
+		Resolved resolved = this.resolvedAncestry.get(key);
+		if (resolved != null && resolved.modificationCount == modificationCount) {
+			return resolved.entries;
+		}
+
+		Set<Entry<ClassEntry>> entries = Collections.unmodifiableSet(this.walkAncestry(entry, strategy, skipStatic));
+		this.resolvedAncestry.put(key, new Resolved(modificationCount, entries));
+		return entries;
+	}
+
+	private Set<Entry<ClassEntry>> walkAncestry(Entry<ClassEntry> entry, ResolutionStrategy strategy, boolean skipStatic) {
 		ClassEntry ownerClass = entry.getParent();
 
 		// Resolve specialized methods using their bridges
@@ -176,11 +273,15 @@ public class IndexEntryResolver implements EntryResolver {
 	@Override
 	public Set<Entry<?>> resolveEquivalentEntries(Entry<?> entry) {
 		MethodEntry relevantMethod = entry.findAncestor(MethodEntry.class);
-		if (relevantMethod == null || !this.entryIndex.hasMethod(relevantMethod)) {
+		if (relevantMethod == null) {
+			return Collections.singleton(entry);
+		}
+
+		Set<MethodEntry> equivalentMethods = this.read(relevantMethod.getParent(), () -> this.entryIndex.hasMethod(relevantMethod) ? this.resolveEquivalentMethods(relevantMethod) : null);
+		if (equivalentMethods == null) {
 			return Collections.singleton(entry);
 		}
 
-		Set<MethodEntry> equivalentMethods = this.resolveEquivalentMethods(relevantMethod);
 		Set<Entry<?>> equivalentEntries = new HashSet<>(equivalentMethods.size());
 
 		for (MethodEntry equivalentMethod : equivalentMethods) {
@@ -191,8 +292,26 @@ public class IndexEntryResolver implements EntryResolver {
 		return equivalentEntries;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * When the index has a {@link MethodFamilyIndex}, this is the precomputed family of the method,
+	 * which can't be modified. Otherwise, the inheritance and implementation trees of the method are walked.
+	 */
 	@Override
 	public Set<MethodEntry> resolveEquivalentMethods(MethodEntry methodEntry) {
+		return this.read(null, () -> this.resolveEquivalentMethodsLocked(methodEntry));
+	}
+
+	private Set<MethodEntry> resolveEquivalentMethodsLocked(MethodEntry methodEntry) {
+		if (this.methodFamilyIndex != null) {
+			if (this.entryIndex.getMethodAccess(methodEntry) == null) {
+				throw new IllegalArgumentException("Could not find method " + methodEntry);
+			}
+
+			return this.methodFamilyIndex.getFamily(methodEntry);
+		}
+
 		Set<MethodEntry> set = new HashSet<>();
 		this.resolveEquivalentMethods(set, methodEntry);
 		return set;
@@ -266,4 +385,13 @@ public class IndexEntryResolver implements EntryResolver {
 	private boolean canInherit(MethodEntry entry, AccessFlags access) {
 		return !entry.isConstructor() && !access.isPrivate() && !access.isStatic() && !access.isFinal();
 	}
+
+	private record AncestryKey(Class<?> type, Entry<ClassEntry> entry, ResolutionStrategy strategy, boolean skipStatic) {
+	}
+
+	/**
+	 * A resolution, along with the {@link JarIndex#getModificationCount() state of the index} it was made against.
+	 */
+	private record Resolved(long modificationCount, Set<Entry<ClassEntry>> entries) {
+	}
 }
@@ -5,9 +5,11 @@ import org.quiltmc.enigma.api.translation.TranslateResult;
 import org.quiltmc.enigma.api.translation.Translator;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.FilteredEntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 
+import java.util.Objects;
 import java.util.stream.Stream;
 
 public class MappingDelta<T> implements Translatable {
@@ -26,11 +28,46 @@ public class MappingDelta<T> implements Translatable {
 		this(baseMappings, new HashEntryTree<>());
 	}
 
+	/**
+	 * Creates a delta adding every entry of the given mappings.
+	 * <br>
+	 * The changes are a live view of the mappings rather than a copy of them, so they follow later changes to the mappings.
+	 * The delta is meant to be used right away, such as when {@link org.quiltmc.enigma.api.translation.mapping.serde.MappingsWriter writing}
+	 * every mapping; to keep a delta that doesn't change, pass a {@link EntryTree#snapshot() snapshot} of the mappings instead.
+	 *
+	 * @param mappings the added mappings
+	 * @return a delta with empty base mappings, changing every entry with a value in the mappings
+	 */
 	public static <T> MappingDelta<T> added(EntryTree<T> mappings) {
+		return new MappingDelta<>(new HashEntryTree<>(), new FilteredEntryTree<>(mappings, value -> PLACEHOLDER));
+	}
+
+	/**
+	 * Computes the changes that turn one tree of mappings into another.
+	 *
+	 * <br>
+	 * The original mappings become the base mappings of the delta as they are, without being copied,
+	 * so they must not be changed while the delta is in use.
+	 *
+	 * @param from the original mappings, which become the base mappings of the delta
+	 * @param to the updated mappings
+	 * @return a delta holding every entry whose value differs between the two trees
+	 */
+	public static <T> MappingDelta<T> between(EntryTree<T> from, EntryTree<T> to) {
 		EntryTree<Object> changes = new HashEntryTree<>();
-		mappings.getAllEntries().forEach(entry -> changes.insert(entry, PLACEHOLDER));
+		for (EntryTreeNode<T> node : to) {
+			if (node.hasValue() && !Objects.equals(node.getValue(), from.get(node.getEntry()))) {
+				changes.insert(node.getEntry(), PLACEHOLDER);
+			}
+		}
+
+		for (EntryTreeNode<T> node : from) {
+			if (node.hasValue() && to.get(node.getEntry()) == null) {
+				changes.insert(node.getEntry(), PLACEHOLDER);
+			}
+		}
 
-		return new MappingDelta<>(new HashEntryTree<>(), changes);
+		return new MappingDelta<>(from, changes);
 	}
 
 	public EntryTree<T> getBaseMappings() {
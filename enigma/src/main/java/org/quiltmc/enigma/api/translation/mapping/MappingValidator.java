@@ -4,6 +4,7 @@ import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.LambdaIndex;
+import org.quiltmc.enigma.api.analysis.index.mapping.ClassNameIndex;
 import org.quiltmc.enigma.api.analysis.index.mapping.MappingsIndex;
 import org.quiltmc.enigma.api.analysis.index.mapping.PackageIndex;
 import org.quiltmc.enigma.api.translation.Translator;
@@ -74,20 +75,9 @@ public class MappingValidator {
 
 		List<ParentedEntry<?>> siblings = new ArrayList<>(this.jarIndex.getChildrenByClass().get(containingClass));
 
-		// add sibling classes
-		if (entry instanceof ClassEntry classEntry) {
-			siblings.addAll(this.jarIndex.getIndex(EntryIndex.class).getClasses().stream().filter(e -> {
-				if (e.isInnerClass()) {
-					return false;
-				}
-
-				// filter by package
-				String packageName = e.getPackageName();
-				String originalPackageName = classEntry.getPackageName();
-
-				return (originalPackageName == null && packageName == null)
-					|| (packageName != null && packageName.equals(originalPackageName));
-			}).toList());
+		// add classes that already have the name, either obfuscated or mapped
+		if (entry instanceof ClassEntry) {
+			siblings.addAll(this.getClassesNamed(name));
 		}
 
 		// add all ancestors
@@ -121,6 +111,24 @@ public class MappingValidator {
 		return false;
 	}
 
+	/**
+	 * Finds the top-level classes whose obfuscated or deobfuscated name is the provided name,
+	 * which are the only classes a class renamed to it could conflict with.
+	 */
+	private Collection<ClassEntry> getClassesNamed(String name) {
+		Collection<ClassEntry> classes = new ArrayList<>(this.mappingsIndex.getIndex(ClassNameIndex.class).getClasses(name));
+
+		// invalid names are reported while validating the name itself
+		if (name.indexOf('.') < 0) {
+			ClassEntry obfClass = new ClassEntry(name);
+			if (!obfClass.isInnerClass() && this.jarIndex.getIndex(EntryIndex.class).hasClass(obfClass)) {
+				classes.add(obfClass);
+			}
+		}
+
+		return classes;
+	}
+
 	/**
 	 * Ensures that the parameter's new name is not used by any other parameter of its parent method.
 	 * @implNote currently, we cannot check against obfuscated parameter names, since parameters are not indexed
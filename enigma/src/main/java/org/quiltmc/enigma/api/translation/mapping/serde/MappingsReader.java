@@ -3,9 +3,12 @@ package org.quiltmc.enigma.api.translation.mapping.serde;
 import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.function.Supplier;
 
 public interface MappingsReader {
 	EntryTree<EntryMapping> read(Path path, ProgressListener progress) throws MappingParseException, IOException;
@@ -13,4 +16,48 @@ public interface MappingsReader {
 	default EntryTree<EntryMapping> read(Path path) throws MappingParseException, IOException {
 		return this.read(path, ProgressListener.createEmpty());
 	}
+
+	/**
+	 * Reads mappings into a tree created by the given factory, allowing callers to pick the tree implementation
+	 * that best suits how the mappings will be used, such as a {@link org.quiltmc.enigma.api.translation.mapping.tree.FlatEntryTree}
+	 * for mappings that are only read after loading.
+	 * <br>
+	 * By default, this reads the mappings normally and then copies them into the new tree.
+	 * Readers should override this to read directly into the new tree instead.
+	 *
+	 * @param path the path to read from
+	 * @param progress the progress listener
+	 * @param treeFactory creates the empty tree to read into
+	 * @return the tree created by the factory, containing the read mappings
+	 */
+	default EntryTree<EntryMapping> read(Path path, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws MappingParseException, IOException {
+		EntryTree<EntryMapping> mappings = treeFactory.get();
+		for (EntryTreeNode<EntryMapping> node : this.read(path, progress)) {
+			if (node.hasValue()) {
+				mappings.insert(node.getEntry(), node.getValue());
+			}
+		}
+
+		return mappings;
+	}
+
+	default EntryTree<EntryMapping> readLazily(Path path, ProgressListener progress) throws MappingParseException, IOException {
+		return this.readLazily(path, progress, HashEntryTree::new);
+	}
+
+	/**
+	 * Reads mappings so that they're only parsed once they're needed, if this reader supports it.
+	 * This suits mappings that may never be read whole, but mappings that are fully iterated right away
+	 * are still parsed in parallel.
+	 * <br>
+	 * By default, this reads the mappings eagerly with {@link #read(Path, ProgressListener, Supplier)}.
+	 *
+	 * @param path the path to read from
+	 * @param progress the progress listener
+	 * @param treeFactory creates the empty tree holding the mappings once they're parsed
+	 * @return the mappings
+	 */
+	default EntryTree<EntryMapping> readLazily(Path path, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws MappingParseException, IOException {
+		return this.read(path, progress, treeFactory);
+	}
 }
@@ -5,8 +5,7 @@ import org.quiltmc.enigma.api.source.TokenType;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.MappingDelta;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
-import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
-import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.FilteredEntryTree;
 
 import java.nio.file.Path;
 
@@ -22,28 +21,23 @@ public interface MappingsWriter {
 	}
 
 	/**
-	 * Filters the mappings according to the provided parameters, removing entries that should not be saved. Does not modify the original tree.
+	 * Filters the mappings according to the provided parameters, hiding entries that should not be saved.
+	 * The mappings aren't copied: the result is a read-only view of the original tree, which is left unmodified.
 	 * @param mappings the mappings to filter
 	 * @param saveParameters the save parameters to use
-	 * @return a new tree with only mappings that should be written
+	 * @return a tree with only mappings that should be written
 	 */
 	static EntryTree<EntryMapping> filterMappings(EntryTree<EntryMapping> mappings, MappingSaveParameters saveParameters) {
 		if (!saveParameters.writeProposedNames()) {
-			EntryTree<EntryMapping> newMappings = new HashEntryTree<>();
-
-			for (EntryTreeNode<EntryMapping> node : mappings) {
-				EntryMapping mapping = node.getValue();
-
-				if (mapping != null) {
-					if (mapping.tokenType().isProposed() && mapping.javadoc() != null) {
-						newMappings.insert(node.getEntry(), mapping.withName(null, TokenType.OBFUSCATED, null));
-					} else if (!mapping.tokenType().isProposed()) {
-						newMappings.insert(node);
-					}
+			return new FilteredEntryTree<>(mappings, mapping -> {
+				if (!mapping.tokenType().isProposed()) {
+					return mapping;
+				} else if (mapping.javadoc() != null) {
+					return mapping.withName(null, TokenType.OBFUSCATED, null);
 				}
-			}
 
-			return newMappings;
+				return null;
+			});
 		}
 
 		return mappings;
@@ -0,0 +1,309 @@
+package org.quiltmc.enigma.api.translation.mapping.serde.binary;
+
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.source.TokenType;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.util.I18n;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A file in the {@link BinaryMappingsFormat binary format}, whose nodes are only decoded when they're read.
+ * <br>
+ * When opened with {@link #open(Path)}, the file is mapped into memory rather than read up front, so its pages are only
+ * loaded from disk once they're used. The mapping is only released once the file is garbage collected.
+ * Opening a file only reads its header, the offsets of its strings and its class index. When the file has a class index,
+ * single top-level classes can then be read with {@link #readClass(ClassEntry, EntryTree)} without decoding the rest of the file.
+ * Strings are decoded the first time they're used. Reading from several threads at once is safe.
+ */
+public final class BinaryMappingsFile {
+	private final Path path;
+	private final ByteBuffer bytes;
+	private final int[] stringOffsets;
+	private final int[] stringLengths;
+	private final String[] strings;
+	@Nullable
+	private final Map<ClassEntry, Integer> classOffsets;
+	private final int nodesStart;
+
+	private BinaryMappingsFile(Path path, ByteBuffer bytes, int[] stringOffsets, int[] stringLengths, @Nullable Map<ClassEntry, Integer> classOffsets, int nodesStart) {
+		this.path = path;
+		this.bytes = bytes;
+		this.stringOffsets = stringOffsets;
+		this.stringLengths = stringLengths;
+		this.strings = new String[stringOffsets.length];
+		this.classOffsets = classOffsets;
+		this.nodesStart = nodesStart;
+	}
+
+	/**
+	 * Opens a binary mappings file, mapping it into memory and reading its header.
+	 *
+	 * @param path the file to open
+	 * @return the opened file
+	 * @throws IOException if the file couldn't be read
+	 * @throws MappingParseException if the file isn't a supported binary mappings file
+	 */
+	public static BinaryMappingsFile open(Path path) throws IOException, MappingParseException {
+		return open(path, true);
+	}
+
+	/**
+	 * Opens a binary mappings file, either mapping it or reading it whole onto the heap.
+	 * A file that's read whole doesn't hold on to the file once it's opened, so it can be replaced right away.
+	 */
+	static BinaryMappingsFile open(Path path, boolean map) throws IOException, MappingParseException {
+		ByteBuffer bytes;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new MappingParseException(path, 0, "Binary mappings file is too large");
+			}
+
+			if (map) {
+				// the mapping stays valid after the channel is closed
+				bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			} else {
+				bytes = ByteBuffer.allocate((int) channel.size());
+				while (bytes.hasRemaining()) {
+					if (channel.read(bytes) < 0) {
+						throw new MappingParseException(path, 0, "Unexpected end of file");
+					}
+				}
+
+				bytes.flip();
+			}
+		}
+
+		if (bytes.limit() < BinaryMappingsFormat.MAGIC.length || !bytes.slice(0, BinaryMappingsFormat.MAGIC.length).equals(ByteBuffer.wrap(BinaryMappingsFormat.MAGIC))) {
+			throw new MappingParseException(path, 0, "Not a binary mappings file");
+		}
+
+		Cursor cursor = new Cursor(path, bytes, BinaryMappingsFormat.MAGIC.length);
+		int version = cursor.readVarInt();
+		if (version != BinaryMappingsFormat.VERSION) {
+			throw new MappingParseException(path, 0, "Unsupported binary mappings version " + version + ", requires " + BinaryMappingsFormat.VERSION);
+		}
+
+		int flags = cursor.readVarInt();
+
+		int stringCount = cursor.readVarInt();
+		int[] stringOffsets = new int[stringCount];
+		int[] stringLengths = new int[stringCount];
+		for (int i = 0; i < stringCount; i++) {
+			stringLengths[i] = cursor.readVarInt();
+			stringOffsets[i] = cursor.position;
+			cursor.skip(stringLengths[i]);
+		}
+
+		Map<ClassEntry, Integer> classOffsets = null;
+		if ((flags & BinaryMappingsFormat.FLAG_CLASS_INDEX) != 0) {
+			int classCount = cursor.readVarInt();
+			classOffsets = new HashMap<>(classCount);
+			for (int i = 0; i < classCount; i++) {
+				int id = cursor.readVarInt();
+				if (id < 0 || id >= stringCount) {
+					throw cursor.error("Invalid string " + id);
+				}
+
+				ClassEntry classEntry = new ClassEntry(decode(bytes, stringOffsets[id], stringLengths[id]));
+				classOffsets.put(classEntry, cursor.readVarInt());
+			}
+		}
+
+		return new BinaryMappingsFile(path, bytes, stringOffsets, stringLengths, classOffsets, cursor.position);
+	}
+
+	/**
+	 * {@return whether this file has an index of its top-level classes, allowing them to be read one at a time}
+	 */
+	public boolean hasClassIndex() {
+		return this.classOffsets != null;
+	}
+
+	/**
+	 * Gets the top-level classes in this file's class index.
+	 *
+	 * @return the indexed classes
+	 * @throws IllegalStateException if this file has no class index
+	 */
+	public Set<ClassEntry> getClasses() {
+		if (this.classOffsets == null) {
+			throw new IllegalStateException("File has no class index");
+		}
+
+		return Collections.unmodifiableSet(this.classOffsets.keySet());
+	}
+
+	/**
+	 * Reads the mappings of a single top-level class and all of its members into the provided tree.
+	 *
+	 * @param classEntry the top-level class to read
+	 * @param mappings the tree to read into
+	 * @return whether the class was in the file
+	 * @throws MappingParseException if the class's mappings are malformed
+	 * @throws IllegalStateException if this file has no class index
+	 */
+	public boolean readClass(ClassEntry classEntry, EntryTree<EntryMapping> mappings) throws MappingParseException {
+		if (this.classOffsets == null) {
+			throw new IllegalStateException("File has no class index");
+		}
+
+		Integer offset = this.classOffsets.get(classEntry);
+		if (offset == null) {
+			return false;
+		} else if (offset < 0 || offset >= this.bytes.limit() - this.nodesStart) {
+			throw new MappingParseException(this.path, 0, "Invalid offset " + offset + " for class " + classEntry);
+		}
+
+		this.readNode(new Cursor(this.path, this.bytes, this.nodesStart + offset), null, mappings);
+		return true;
+	}
+
+	/**
+	 * Reads all mappings in this file into the provided tree.
+	 *
+	 * @param mappings the tree to read into
+	 * @param progress a progress listener, stepped once per top-level class
+	 * @throws MappingParseException if the mappings are malformed
+	 */
+	public void readAll(EntryTree<EntryMapping> mappings, ProgressListener progress) throws MappingParseException {
+		Cursor cursor = new Cursor(this.path, this.bytes, this.nodesStart);
+		int rootCount = cursor.readVarInt();
+
+		progress.init(rootCount, I18n.translate("progress.mappings.binary.loading"));
+		for (int i = 0; i < rootCount; i++) {
+			progress.step(i, "");
+			this.readNode(cursor, null, mappings);
+		}
+	}
+
+	private void readNode(Cursor cursor, @Nullable Entry<?> parent, EntryTree<EntryMapping> mappings) throws MappingParseException {
+		int kind = cursor.readVarInt();
+		Entry<?> entry;
+		if (kind == BinaryMappingsFormat.CLASS && (parent == null || parent instanceof ClassEntry)) {
+			entry = new ClassEntry((ClassEntry) parent, this.string(cursor, cursor.readVarInt()));
+		} else if (kind == BinaryMappingsFormat.FIELD && parent instanceof ClassEntry owner) {
+			entry = new FieldEntry(owner, this.string(cursor, cursor.readVarInt()), TypeDescriptor.parse(this.string(cursor, cursor.readVarInt())));
+		} else if (kind == BinaryMappingsFormat.METHOD && parent instanceof ClassEntry owner) {
+			entry = new MethodEntry(owner, this.string(cursor, cursor.readVarInt()), MethodDescriptor.parse(this.string(cursor, cursor.readVarInt())));
+		} else if (kind == BinaryMappingsFormat.LOCAL_VARIABLE && parent instanceof MethodEntry owner) {
+			entry = new LocalVariableEntry(owner, cursor.readVarInt());
+		} else {
+			throw cursor.error("Unexpected node kind " + kind + " under " + parent);
+		}
+
+		EntryMapping mapping = this.readMapping(cursor);
+		if (mapping != null) {
+			mappings.insert(entry, mapping);
+		}
+
+		int childCount = cursor.readVarInt();
+		for (int i = 0; i < childCount; i++) {
+			this.readNode(cursor, entry, mappings);
+		}
+	}
+
+	@Nullable
+	private EntryMapping readMapping(Cursor cursor) throws MappingParseException {
+		int flags = cursor.readVarInt();
+		if ((flags & BinaryMappingsFormat.MAPPING_PRESENT) == 0) {
+			return null;
+		}
+
+		TokenType tokenType;
+		try {
+			tokenType = TokenType.valueOf(this.string(cursor, cursor.readVarInt()));
+		} catch (IllegalArgumentException e) {
+			throw cursor.error("Unknown token type");
+		}
+
+		String targetName = (flags & BinaryMappingsFormat.MAPPING_TARGET_NAME) != 0 ? this.string(cursor, cursor.readVarInt()) : null;
+		String javadoc = (flags & BinaryMappingsFormat.MAPPING_JAVADOC) != 0 ? this.string(cursor, cursor.readVarInt()) : null;
+		String sourcePluginId = (flags & BinaryMappingsFormat.MAPPING_SOURCE_PLUGIN) != 0 ? this.string(cursor, cursor.readVarInt()) : null;
+		return new EntryMapping(targetName, javadoc, tokenType, sourcePluginId);
+	}
+
+	private String string(Cursor cursor, int id) throws MappingParseException {
+		if (id < 0 || id >= this.strings.length) {
+			throw cursor.error("Invalid string " + id);
+		}
+
+		// strings are immutable, so another thread decoding the same string at the same time is harmless
+		String string = this.strings[id];
+		if (string == null) {
+			string = decode(this.bytes, this.stringOffsets[id], this.stringLengths[id]);
+			this.strings[id] = string;
+		}
+
+		return string;
+	}
+
+	private static String decode(ByteBuffer bytes, int offset, int length) {
+		byte[] string = new byte[length];
+		bytes.get(offset, string);
+		return new String(string, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * A position in the file, so that each read has its own.
+	 */
+	private static final class Cursor {
+		private final Path path;
+		private final ByteBuffer bytes;
+		private int position;
+
+		private Cursor(Path path, ByteBuffer bytes, int position) {
+			this.path = path;
+			this.bytes = bytes;
+			this.position = position;
+		}
+
+		private int readVarInt() throws MappingParseException {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				if (this.position >= this.bytes.limit()) {
+					throw this.error("Unexpected end of file");
+				}
+
+				byte b = this.bytes.get(this.position++);
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+
+			throw this.error("Malformed variable-length integer");
+		}
+
+		private void skip(int length) throws MappingParseException {
+			if (length < 0 || length > this.bytes.limit() - this.position) {
+				throw this.error("Unexpected end of file");
+			}
+
+			this.position += length;
+		}
+
+		private MappingParseException error(String message) {
+			return new MappingParseException(this.path, 0, message + " at byte " + this.position);
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package org.quiltmc.enigma.api.translation.mapping.serde.binary;
+
+/**
+ * Constants of the binary mapping format, a compact format meant for caching mappings rather than for editing them.
+ * <br>
+ * A file holds, in order:
+ * <ul>
+ *     <li>the {@link #MAGIC magic} bytes, followed by the format {@link #VERSION version} and the file's flags</li>
+ *     <li>a table of every string in the file, so that each name, descriptor and comment is stored only once</li>
+ *     <li>if {@link #FLAG_CLASS_INDEX} is set, an index of where each top-level class's node starts, relative to the first node</li>
+ *     <li>the nodes of the mapping tree, each followed by its children, starting with the number of top-level classes</li>
+ * </ul>
+ * A node holds its {@link #CLASS kind}, its entry's name and descriptor or index, its mapping, and the number of its children.
+ * <br>
+ * Every number is written as an unsigned variable-length integer, and every string as the index of its entry in the table.
+ */
+public final class BinaryMappingsFormat {
+	public static final byte[] MAGIC = {'E', 'N', 'B', 'M'};
+	public static final int VERSION = 1;
+
+	public static final int FLAG_CLASS_INDEX = 1;
+
+	public static final int CLASS = 0;
+	public static final int FIELD = 1;
+	public static final int METHOD = 2;
+	public static final int LOCAL_VARIABLE = 3;
+
+	public static final int MAPPING_PRESENT = 1;
+	public static final int MAPPING_TARGET_NAME = 1 << 1;
+	public static final int MAPPING_JAVADOC = 1 << 2;
+	public static final int MAPPING_SOURCE_PLUGIN = 1 << 3;
+
+	private BinaryMappingsFormat() {
+	}
+}
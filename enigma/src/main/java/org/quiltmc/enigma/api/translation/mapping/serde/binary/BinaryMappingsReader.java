@@ -0,0 +1,37 @@
+package org.quiltmc.enigma.api.translation.mapping.serde.binary;
+
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingsReader;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+/**
+ * Reads mappings in the {@link BinaryMappingsFormat binary format}.
+ * <br>
+ * The file is read whole onto the heap rather than mapped, since all of it is decoded anyway, and so that it isn't
+ * kept open after reading. To only read some classes of a file, open it as a {@link BinaryMappingsFile} instead.
+ */
+public final class BinaryMappingsReader implements MappingsReader {
+	public static final MappingsReader INSTANCE = new BinaryMappingsReader();
+
+	private BinaryMappingsReader() {
+	}
+
+	@Override
+	public EntryTree<EntryMapping> read(Path path, ProgressListener progress) throws MappingParseException, IOException {
+		return this.read(path, progress, HashEntryTree::new);
+	}
+
+	@Override
+	public EntryTree<EntryMapping> read(Path path, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws MappingParseException, IOException {
+		EntryTree<EntryMapping> mappings = treeFactory.get();
+		BinaryMappingsFile.open(path, false).readAll(mappings, progress);
+		return mappings;
+	}
+}
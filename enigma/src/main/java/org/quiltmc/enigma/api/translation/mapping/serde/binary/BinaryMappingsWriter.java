@@ -0,0 +1,222 @@
+package org.quiltmc.enigma.api.translation.mapping.serde.binary;
+
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.MappingDelta;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingsWriter;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.util.I18n;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes mappings in the {@link BinaryMappingsFormat binary format}.
+ * <br>
+ * The whole tree is always written, since the format can't be updated in place. Nodes are sorted,
+ * so that writing the same mappings always gives the same file.
+ * <br>
+ * The file is first written next to the target and then moved over it, so a failed write never leaves a truncated file
+ * behind. Failures are thrown as an {@link UncheckedIOException}, so that callers know the mappings weren't saved.
+ */
+public final class BinaryMappingsWriter implements MappingsWriter {
+	public static final MappingsWriter INSTANCE = new BinaryMappingsWriter();
+
+	private static final Comparator<EntryTreeNode<EntryMapping>> NODE_ORDER = Comparator.<EntryTreeNode<EntryMapping>>comparingInt(node -> getKind(node.getEntry()))
+			.thenComparing(node -> node.getEntry().getName())
+			.thenComparing(node -> getDescriptor(node.getEntry()))
+			.thenComparingInt(node -> node.getEntry() instanceof LocalVariableEntry variable ? variable.getIndex() : 0);
+
+	private BinaryMappingsWriter() {
+	}
+
+	private static int getKind(Entry<?> entry) {
+		if (entry instanceof ClassEntry) {
+			return BinaryMappingsFormat.CLASS;
+		} else if (entry instanceof FieldEntry) {
+			return BinaryMappingsFormat.FIELD;
+		} else if (entry instanceof MethodEntry) {
+			return BinaryMappingsFormat.METHOD;
+		} else if (entry instanceof LocalVariableEntry) {
+			return BinaryMappingsFormat.LOCAL_VARIABLE;
+		}
+
+		throw new IllegalArgumentException("Unsupported entry " + entry);
+	}
+
+	private static String getDescriptor(Entry<?> entry) {
+		if (entry instanceof FieldEntry field) {
+			return field.getDesc().toString();
+		} else if (entry instanceof MethodEntry method) {
+			return method.getDesc().toString();
+		}
+
+		return "";
+	}
+
+	@Override
+	public void write(EntryTree<EntryMapping> mappings, MappingDelta<EntryMapping> delta, Path path, ProgressListener progress, MappingSaveParameters saveParameters) {
+		List<EntryTreeNode<EntryMapping>> roots = mappings.getRootNodes().sorted(NODE_ORDER).toList();
+		progress.init(roots.size(), I18n.translate("progress.mappings.binary.writing"));
+
+		Output output = new Output();
+		List<ClassEntry> indexedClasses = new ArrayList<>();
+		List<Integer> offsets = new ArrayList<>();
+
+		output.nodes.writeVarInt(roots.size());
+		int steps = 0;
+		for (EntryTreeNode<EntryMapping> root : roots) {
+			progress.step(steps++, root.getEntry().toString());
+
+			if (root.getEntry() instanceof ClassEntry classEntry) {
+				indexedClasses.add(classEntry);
+				offsets.add(output.nodes.size());
+			}
+
+			output.writeNode(root);
+		}
+
+		// strings used by the index have to be in the table before it's written
+		List<Integer> names = indexedClasses.stream().map(classEntry -> output.string(classEntry.getFullName())).toList();
+
+		VarIntOutputStream header = new VarIntOutputStream();
+		header.writeBytes(BinaryMappingsFormat.MAGIC);
+		header.writeVarInt(BinaryMappingsFormat.VERSION);
+		header.writeVarInt(BinaryMappingsFormat.FLAG_CLASS_INDEX);
+
+		header.writeVarInt(output.strings.size());
+		for (String string : output.strings) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			header.writeVarInt(bytes.length);
+			header.writeBytes(bytes);
+		}
+
+		header.writeVarInt(names.size());
+		for (int i = 0; i < names.size(); i++) {
+			header.writeVarInt(names.get(i));
+			header.writeVarInt(offsets.get(i));
+		}
+
+		try {
+			Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+			try {
+				try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(temp))) {
+					header.writeTo(stream);
+					output.nodes.writeTo(stream);
+				}
+
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write mappings to " + path, e);
+		}
+	}
+
+	/**
+	 * The nodes written so far, along with the table of the strings they use.
+	 */
+	private static final class Output {
+		private final VarIntOutputStream nodes = new VarIntOutputStream();
+		private final List<String> strings = new ArrayList<>();
+		private final Map<String, Integer> stringIds = new HashMap<>();
+
+		private int string(String string) {
+			return this.stringIds.computeIfAbsent(string, s -> {
+				this.strings.add(s);
+				return this.strings.size() - 1;
+			});
+		}
+
+		private void writeNode(EntryTreeNode<EntryMapping> node) {
+			Entry<?> entry = node.getEntry();
+			int kind = getKind(entry);
+			this.nodes.writeVarInt(kind);
+			if (kind == BinaryMappingsFormat.LOCAL_VARIABLE) {
+				this.nodes.writeVarInt(((LocalVariableEntry) entry).getIndex());
+			} else {
+				this.nodes.writeVarInt(this.string(entry.getName()));
+				if (kind != BinaryMappingsFormat.CLASS) {
+					this.nodes.writeVarInt(this.string(getDescriptor(entry)));
+				}
+			}
+
+			this.writeMapping(node.getValue());
+
+			List<? extends EntryTreeNode<EntryMapping>> children = node.getChildNodes().stream().sorted(NODE_ORDER).toList();
+			this.nodes.writeVarInt(children.size());
+			for (EntryTreeNode<EntryMapping> child : children) {
+				this.writeNode(child);
+			}
+		}
+
+		private void writeMapping(EntryMapping mapping) {
+			if (mapping == null) {
+				this.nodes.writeVarInt(0);
+				return;
+			}
+
+			int flags = BinaryMappingsFormat.MAPPING_PRESENT;
+			if (mapping.targetName() != null) {
+				flags |= BinaryMappingsFormat.MAPPING_TARGET_NAME;
+			}
+
+			if (mapping.javadoc() != null) {
+				flags |= BinaryMappingsFormat.MAPPING_JAVADOC;
+			}
+
+			if (mapping.sourcePluginId() != null) {
+				flags |= BinaryMappingsFormat.MAPPING_SOURCE_PLUGIN;
+			}
+
+			this.nodes.writeVarInt(flags);
+			this.nodes.writeVarInt(this.string(mapping.tokenType().name()));
+			if (mapping.targetName() != null) {
+				this.nodes.writeVarInt(this.string(mapping.targetName()));
+			}
+
+			if (mapping.javadoc() != null) {
+				this.nodes.writeVarInt(this.string(mapping.javadoc()));
+			}
+
+			if (mapping.sourcePluginId() != null) {
+				this.nodes.writeVarInt(this.string(mapping.sourcePluginId()));
+			}
+		}
+	}
+
+	private static final class VarIntOutputStream extends ByteArrayOutputStream {
+		private VarIntOutputStream() {
+			super(1 << 16);
+		}
+
+		private void writeVarInt(int value) {
+			while ((value & ~0x7F) != 0) {
+				this.write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+
+			this.write(value);
+		}
+	}
+}
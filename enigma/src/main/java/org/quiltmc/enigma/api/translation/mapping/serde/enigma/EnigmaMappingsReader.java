@@ -8,7 +8,9 @@ import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingsReader;
 import org.quiltmc.enigma.impl.translation.mapping.serde.RawEntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
 import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.LazyEntryTree;
 import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
 import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
@@ -19,7 +21,9 @@ import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma.util.I18n;
 
 import javax.annotation.Nullable;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
@@ -29,17 +33,26 @@ import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 public enum EnigmaMappingsReader implements MappingsReader {
 	FILE {
 		@Override
-		public EntryTree<EntryMapping> read(Path path, ProgressListener progress) throws IOException, MappingParseException {
+		public EntryTree<EntryMapping> read(Path path, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws IOException, MappingParseException {
 			progress.init(1, I18n.translate("progress.mappings.enigma_file.loading"));
 
-			EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+			EntryTree<EntryMapping> mappings = treeFactory.get();
 			readFile(path, mappings);
 
 			progress.step(1, I18n.translate("progress.mappings.enigma_file.done"));
@@ -49,44 +62,211 @@ public enum EnigmaMappingsReader implements MappingsReader {
 	},
 	DIRECTORY {
 		@Override
-		public EntryTree<EntryMapping> read(Path root, ProgressListener progress) throws IOException, MappingParseException {
-			if (!Files.isDirectory(root)) {
-				throw new NotDirectoryException(root.toString());
+		public EntryTree<EntryMapping> read(Path root, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws IOException, MappingParseException {
+			List<Path> files = findFiles(root);
+
+			EntryTree<EntryMapping> mappings = treeFactory.get();
+			readFilesInParallel(files, root, progress, mappings);
+			return mappings;
+		}
+
+		@Override
+		public EntryTree<EntryMapping> readLazily(Path root, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws IOException, MappingParseException {
+			List<Path> files = findFiles(root);
+
+			LazyEntryTree<EntryMapping> mappings = new LazyEntryTree<>(treeFactory);
+			readHeadersInParallel(files, root, progress, mappings, file -> Files.newBufferedReader(file, StandardCharsets.UTF_8));
+			return mappings;
+		}
+	},
+	ZIP {
+		@Override
+		public EntryTree<EntryMapping> read(Path zip, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws MappingParseException, IOException {
+			try (FileSystem fs = FileSystems.newFileSystem(zip, (ClassLoader) null)) {
+				return DIRECTORY.read(fs.getPath("/"), progress, treeFactory);
+			}
+		}
+
+		@Override
+		public EntryTree<EntryMapping> readLazily(Path zip, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws IOException, MappingParseException {
+			// the zip stays open until every class is loaded, so that each file is only read once it's needed
+			ZipFile zipFile = new ZipFile(zip.toFile());
+			try {
+				// the paths only identify the files, and are shown in the progress
+				Map<Path, ZipEntry> entries = new LinkedHashMap<>();
+				zipFile.stream()
+						.filter(e -> !e.isDirectory() && e.getName().endsWith(".mapping"))
+						.forEach(e -> entries.put(zip.resolve(e.getName()), e));
+
+				LazyEntryTree<EntryMapping> mappings = new LazyEntryTree<>(treeFactory);
+				readHeadersInParallel(List.copyOf(entries.keySet()), null, progress, mappings, file -> new BufferedReader(new InputStreamReader(zipFile.getInputStream(entries.get(file)), StandardCharsets.UTF_8)));
+				mappings.closeWhenLoaded(zipFile);
+				return mappings;
+			} catch (IOException | MappingParseException | RuntimeException e) {
+				zipFile.close();
+				throw e;
+			}
+		}
+	};
+
+	@Override
+	public EntryTree<EntryMapping> read(Path path, ProgressListener progress) throws MappingParseException, IOException {
+		return this.read(path, progress, HashEntryTree::new);
+	}
+
+	@Override
+	public abstract EntryTree<EntryMapping> read(Path path, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws MappingParseException, IOException;
+
+	/**
+	 * Reads mappings so that each top-level class is only parsed the first time it's needed.
+	 * <br>
+	 * For directories and zips, only the first class declaration and its comment are read from each file up front,
+	 * and the rest of the file is parsed once its class is looked up in the returned {@link LazyEntryTree}.
+	 * This relies on each file holding a single top-level class, as written by {@link EnigmaMappingsWriter#DIRECTORY}.
+	 * A zip is kept open until every class has been loaded.
+	 * A single file has to be parsed whole, so it's read eagerly.
+	 *
+	 * @param path the mappings to read
+	 * @param progress the progress listener
+	 * @param treeFactory creates the empty tree holding the loaded classes
+	 * @return the mappings
+	 * @throws MappingParseException if a class declaration cannot be parsed
+	 * @throws IOException if an IO error occurs
+	 */
+	@Override
+	public EntryTree<EntryMapping> readLazily(Path path, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws IOException, MappingParseException {
+		return this.read(path, progress, treeFactory);
+	}
+
+	private static List<Path> findFiles(Path root) throws IOException {
+		if (!Files.isDirectory(root)) {
+			throw new NotDirectoryException(root.toString());
+		}
+
+		try (Stream<Path> fileStream = Files.walk(root)) {
+			return fileStream
+				.filter(f -> !Files.isDirectory(f))
+				.filter(f -> f.toString().endsWith(".mapping"))
+				.toList();
+		}
+	}
+
+	/**
+	 * Reads the class declaration at the start of each file in parallel, and adds each class to the tree
+	 * with a loader parsing the whole file. Files that don't start with a class declaration are read eagerly.
+	 */
+	private static void readHeadersInParallel(List<Path> files, @Nullable Path root, ProgressListener progress, LazyEntryTree<EntryMapping> mappings, FileOpener opener) throws IOException, MappingParseException {
+		parseInParallel(files, root, progress, file -> {
+			try {
+				if (root != null && Files.isHidden(file)) {
+					return null;
+				}
+
+				try (BufferedReader reader = opener.open(file)) {
+					return new FileHeader(file, readHeader(file, reader), null);
+				}
+			} catch (IOException | MappingParseException e) {
+				return new FileHeader(file, null, e);
 			}
+		}, result -> {
+			if (result == null) {
+				return;
+			} else if (result.failure instanceof IOException e) {
+				throw e;
+			} else if (result.failure instanceof MappingParseException e) {
+				throw e;
+			}
+
+			LazyEntryTree.Loader<EntryMapping> loader = tree -> {
+				try (BufferedReader reader = opener.open(result.file)) {
+					readLines(result.file, reader, tree);
+				}
+			};
 
-			EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+			if (result.header != null) {
+				RawEntryMapping mapping = result.header.getMapping();
+				mappings.addClass(result.header.getEntry(), mapping != null ? mapping.bake() : null, loader);
+			} else {
+				loader.load(mappings);
+			}
+		});
+	}
 
-			List<Path> files;
-			try (Stream<Path> fileStream = Files.walk(root)) {
-				files = fileStream
-					.filter(f -> !Files.isDirectory(f))
-					.filter(f -> f.toString().endsWith(".mapping"))
-					.toList();
+	/**
+	 * Parses files on the common pool, handing each result to the calling thread in the order of the files
+	 * as soon as it's ready. Only a few files are parsed ahead of the one being handed over, so that the results
+	 * don't pile up, and progress is reported from the calling thread.
+	 */
+	private static <R> void parseInParallel(List<Path> files, @Nullable Path root, ProgressListener progress, Function<Path, R> parser, ResultConsumer<R> consumer) throws IOException, MappingParseException {
+		progress.init(files.size(), I18n.translate("progress.mappings.enigma_directory.loading"));
+
+		int window = ForkJoinPool.getCommonPoolParallelism() * 2;
+		Deque<CompletableFuture<R>> pending = new ArrayDeque<>();
+		int submitted = 0;
+		for (int i = 0; i < files.size(); i++) {
+			while (submitted < files.size() && submitted <= i + window) {
+				Path file = files.get(submitted++);
+				pending.add(CompletableFuture.supplyAsync(() -> parser.apply(file)));
 			}
 
-			progress.init(files.size(), I18n.translate("progress.mappings.enigma_directory.loading"));
-			int step = 0;
+			Path file = files.get(i);
+			progress.step(i, (root != null ? root.relativize(file) : file).toString());
 
-			for (Path file : files) {
-				progress.step(step++, root.relativize(file).toString());
-				if (Files.isHidden(file)) {
-					continue;
+			R result;
+			try {
+				result = pending.remove().join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException cause) {
+					throw cause;
+				} else if (e.getCause() instanceof Error cause) {
+					throw cause;
 				}
 
-				readFile(file, mappings);
+				throw e;
 			}
 
-			return mappings;
+			consumer.accept(result);
 		}
-	},
-	ZIP {
-		@Override
-		public EntryTree<EntryMapping> read(Path zip, ProgressListener progress) throws MappingParseException, IOException {
-			try (FileSystem fs = FileSystems.newFileSystem(zip, (ClassLoader) null)) {
-				return DIRECTORY.read(fs.getPath("/"), progress);
+	}
+
+	/**
+	 * Reads the top-level class declared on the first line of a file, along with the comment that follows it,
+	 * without parsing the rest of the file.
+	 *
+	 * @return the class and its mapping, or {@code null} if the file doesn't start with a top-level class
+	 */
+	@Nullable
+	private static MappingPair<ClassEntry, RawEntryMapping> readHeader(Path path, BufferedReader reader) throws IOException, MappingParseException {
+		MappingPair<ClassEntry, RawEntryMapping> header = null;
+		int lineNumber = 0;
+		for (String line = reader.readLine(); line != null; line = reader.readLine(), lineNumber++) {
+			int indentation = countIndentation(line);
+
+			line = formatLine(line);
+			if (line == null) {
+				continue;
+			}
+
+			String[] tokens = line.split("\\s");
+			try {
+				if (header == null) {
+					if (indentation != 0 || !tokens[0].equalsIgnoreCase(EnigmaFormat.CLASS)) {
+						return null;
+					}
+
+					header = parseClass(null, tokens);
+				} else if (indentation == 1 && tokens[0].equalsIgnoreCase(EnigmaFormat.COMMENT)) {
+					readJavadoc(header, tokens);
+				} else {
+					break;
+				}
+			} catch (Exception e) {
+				throw new MappingParseException(path, lineNumber, e);
 			}
 		}
-	};
+
+		return header;
+	}
 
 	/**
 	 * Reads multiple Enigma mapping files.
@@ -105,23 +285,55 @@ public enum EnigmaMappingsReader implements MappingsReader {
 			throw new IllegalArgumentException("No paths to read mappings from");
 		}
 
-		progress.init(paths.length, I18n.translate("progress.mappings.enigma_directory.loading"));
-		int step = 0;
+		readFilesInParallel(Arrays.asList(paths), null, progress, mappings);
+		return mappings;
+	}
 
-		for (Path file : paths) {
-			progress.step(step++, paths.toString());
-			readFile(file, mappings);
-		}
+	/**
+	 * Parses each file into its own tree in parallel, merging each tree as soon as it's parsed, in the order of the files,
+	 * so that later files override earlier ones just like when reading them one after another.
+	 * <br>
+	 * If any file fails to read, the failure of the first such file is thrown.
+	 */
+	private static void readFilesInParallel(List<Path> files, @Nullable Path root, ProgressListener progress, EntryTree<EntryMapping> mappings) throws IOException, MappingParseException {
+		parseInParallel(files, root, progress, file -> {
+			EntryTree<EntryMapping> fileMappings = new HashEntryTree<>();
+			try {
+				// hidden files are only skipped in directories
+				if (root == null || !Files.isHidden(file)) {
+					readFile(file, fileMappings);
+				}
 
-		return mappings;
+				return new FileMappings(fileMappings, null);
+			} catch (IOException | MappingParseException e) {
+				return new FileMappings(fileMappings, e);
+			}
+		}, result -> {
+			if (result.failure instanceof IOException e) {
+				throw e;
+			} else if (result.failure instanceof MappingParseException e) {
+				throw e;
+			}
+
+			for (EntryTreeNode<EntryMapping> node : result.mappings) {
+				if (node.hasValue()) {
+					mappings.insert(node.getEntry(), node.getValue());
+				}
+			}
+		});
 	}
 
 	private static void readFile(Path path, EntryTree<EntryMapping> mappings) throws IOException, MappingParseException {
-		List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			readLines(path, reader, mappings);
+		}
+	}
+
+	private static void readLines(Path path, BufferedReader reader, EntryTree<EntryMapping> mappings) throws IOException, MappingParseException {
 		Deque<MappingPair<?, RawEntryMapping>> mappingStack = new ArrayDeque<>();
 
-		for (int lineNumber = 0; lineNumber < lines.size(); lineNumber++) {
-			String line = lines.get(lineNumber);
+		int lineNumber = 0;
+		for (String line = reader.readLine(); line != null; line = reader.readLine(), lineNumber++) {
 			int indentation = countIndentation(line);
 
 			line = formatLine(line);
@@ -268,13 +480,13 @@ public enum EnigmaMappingsReader implements MappingsReader {
 		TypeDescriptor descriptor;
 
 		if (tokens.length == 3) {
-			descriptor = new TypeDescriptor(tokens[2]);
+			descriptor = TypeDescriptor.parse(tokens[2]);
 		} else if (tokens.length == 4) {
 			mapping = tokens[2];
-			descriptor = new TypeDescriptor(tokens[3]);
+			descriptor = TypeDescriptor.parse(tokens[3]);
 		} else if (tokens.length == 5) {
 			mapping = tokens[2];
-			descriptor = new TypeDescriptor(tokens[4]);
+			descriptor = TypeDescriptor.parse(tokens[4]);
 		} else {
 			throw new RuntimeException("Invalid field declaration");
 		}
@@ -293,10 +505,10 @@ public enum EnigmaMappingsReader implements MappingsReader {
 		MethodDescriptor descriptor;
 
 		if (tokens.length == 3) {
-			descriptor = new MethodDescriptor(tokens[2]);
+			descriptor = MethodDescriptor.parse(tokens[2]);
 		} else if (tokens.length == 4 || tokens.length == 5) {
 			mapping = tokens[2];
-			descriptor = new MethodDescriptor(tokens[3]);
+			descriptor = MethodDescriptor.parse(tokens[3]);
 		} else {
 			throw new RuntimeException("Invalid method declaration");
 		}
@@ -318,4 +530,20 @@ public enum EnigmaMappingsReader implements MappingsReader {
 
 		return new MappingPair<>(obfuscatedEntry, new RawEntryMapping(mapping));
 	}
+
+	private record FileMappings(EntryTree<EntryMapping> mappings, @Nullable Exception failure) {
+	}
+
+	private record FileHeader(Path file, @Nullable MappingPair<ClassEntry, RawEntryMapping> header, @Nullable Exception failure) {
+	}
+
+	@FunctionalInterface
+	private interface FileOpener {
+		BufferedReader open(Path file) throws IOException;
+	}
+
+	@FunctionalInterface
+	private interface ResultConsumer<R> {
+		void accept(R result) throws IOException, MappingParseException;
+	}
 }
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,7 +32,12 @@ public class ProguardMappingsReader implements MappingsReader {
 
 	@Override
 	public EntryTree<EntryMapping> read(Path path, ProgressListener progress) throws MappingParseException, IOException {
-		EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+		return this.read(path, progress, HashEntryTree::new);
+	}
+
+	@Override
+	public EntryTree<EntryMapping> read(Path path, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws MappingParseException, IOException {
+		EntryTree<EntryMapping> mappings = treeFactory.get();
 
 		int lineNumber = 0;
 		ClassEntry currentClass = null;
@@ -61,7 +67,7 @@ public class ProguardMappingsReader implements MappingsReader {
 					throw new MappingParseException(path, lineNumber, "field mapping not inside class: " + line);
 				}
 
-				mappings.insert(new FieldEntry(currentClass, name, new TypeDescriptor(this.getDescriptor(type))), new EntryMapping(targetName));
+				mappings.insert(new FieldEntry(currentClass, name, TypeDescriptor.parse(this.getDescriptor(type))), new EntryMapping(targetName));
 			} else if (methodMatcher.matches()) {
 				String returnType = methodMatcher.group(1);
 				String name = methodMatcher.group(2);
@@ -72,7 +78,7 @@ public class ProguardMappingsReader implements MappingsReader {
 					throw new MappingParseException(path, lineNumber, "method mapping not inside class: " + line);
 				}
 
-				mappings.insert(new MethodEntry(currentClass, name, new MethodDescriptor(this.getDescriptor(returnType, parameterTypes))), new EntryMapping(targetName));
+				mappings.insert(new MethodEntry(currentClass, name, MethodDescriptor.parse(this.getDescriptor(returnType, parameterTypes))), new EntryMapping(targetName));
 			} else {
 				throw new MappingParseException(path, lineNumber, "invalid mapping line: " + line);
 			}
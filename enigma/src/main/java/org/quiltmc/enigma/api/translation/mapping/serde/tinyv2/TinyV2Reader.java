@@ -1,5 +1,6 @@
 package org.quiltmc.enigma.api.translation.mapping.serde.tinyv2;
 
+import com.google.common.io.CountingInputStream;
 import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.impl.translation.mapping.serde.MappingHelper;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
@@ -7,6 +8,7 @@ import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.MappingPair;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingsReader;
 import org.quiltmc.enigma.impl.translation.mapping.serde.RawEntryMapping;
+import org.quiltmc.enigma.impl.translation.mapping.serde.TabSeparatedLineReader;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
 import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
@@ -19,15 +21,21 @@ import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma.util.I18n;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.BitSet;
-import java.util.List;
+import java.util.function.Supplier;
 
 public final class TinyV2Reader implements MappingsReader {
 	public static final MappingsReader INSTANCE = new TinyV2Reader();
 	private static final String MINOR_VERSION = "0";
+	/**
+	 * The number of lines read between progress updates.
+	 */
+	private static final int PROGRESS_INTERVAL = 4096;
 	// 0 indent
 	private static final int IN_HEADER = 0;
 	private static final int IN_CLASS = IN_HEADER + 1;
@@ -42,31 +50,37 @@ public final class TinyV2Reader implements MappingsReader {
 
 	@Override
 	public EntryTree<EntryMapping> read(Path path, ProgressListener progress) throws IOException, MappingParseException {
-		return this.read(path, Files.readAllLines(path, StandardCharsets.UTF_8), progress);
+		return this.read(path, progress, HashEntryTree::new);
 	}
 
-	private EntryTree<EntryMapping> read(Path path, List<String> lines, ProgressListener progress) throws MappingParseException {
-		EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+	@Override
+	public EntryTree<EntryMapping> read(Path path, ProgressListener progress, Supplier<? extends EntryTree<EntryMapping>> treeFactory) throws IOException, MappingParseException {
+		// progress counts the bytes read from the file, which is what its size is measured in
+		CountingInputStream input = new CountingInputStream(Files.newInputStream(path));
+
+		// unlike a plain reader, the decoder fails on malformed input
+		try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8.newDecoder())) {
+			return this.read(path, new TabSeparatedLineReader(reader), input, Files.size(path), progress, treeFactory.get());
+		}
+	}
 
-		progress.init(lines.size(), I18n.translate("progress.mappings.tiny_v2.loading"));
+	private EntryTree<EntryMapping> read(Path path, TabSeparatedLineReader line, CountingInputStream input, long size, ProgressListener progress, EntryTree<EntryMapping> mappings) throws IOException, MappingParseException {
+		// progress is measured in kibibytes, since files can be larger than an int can count in bytes
+		progress.init((int) Math.min(Integer.MAX_VALUE, size / 1024), I18n.translate("progress.mappings.tiny_v2.loading"));
 
 		BitSet state = new BitSet(STATE_SIZE);
 		@SuppressWarnings("unchecked")
 		MappingPair<? extends Entry<?>, RawEntryMapping>[] holds = new MappingPair[STATE_SIZE];
 		boolean escapeNames = false;
 
-		for (int lineNumber = 0; lineNumber < lines.size(); lineNumber++) {
+		for (int lineNumber = 0; line.nextLine(); lineNumber++) {
 			try {
-				progress.step(lineNumber, "");
-				String line = lines.get(lineNumber);
-
-				int indent = 0;
-				while (line.charAt(indent) == '\t') {
-					indent++;
+				if (lineNumber % PROGRESS_INTERVAL == 0) {
+					progress.step((int) Math.min(Integer.MAX_VALUE, input.getCount() / 1024), "");
 				}
 
-				String[] parts = line.substring(indent).split("\t", -1);
-				if (parts.length == 0 || indent >= INDENT_CLEAR_START.length) {
+				int indent = line.getIndentation();
+				if (line.getColumnCount() == 0 || indent >= INDENT_CLEAR_START.length) {
 					throw new IllegalArgumentException("Invalid format");
 				}
 
@@ -81,33 +95,31 @@ public final class TinyV2Reader implements MappingsReader {
 
 				switch (indent) {
 					case 0:
-						switch (parts[0]) {
-							case "tiny" -> { // header
-								if (lineNumber != 0) {
-									throw new IllegalArgumentException("Header can only be on the first line");
-								}
-
-								if (parts.length < 5) {
-									throw new IllegalArgumentException("Not enough header columns, needs at least 5");
-								}
-
-								if (!"2".equals(parts[1]) || !MINOR_VERSION.equals(parts[2])) {
-									throw new IllegalArgumentException("Unsupported TinyV2 version, requires major " + "2" + " and minor " + MINOR_VERSION);
-								}
+						if (line.columnEquals(0, "tiny")) { // header
+							if (lineNumber != 0) {
+								throw new IllegalArgumentException("Header can only be on the first line");
+							}
 
-								state.set(IN_HEADER);
+							if (line.getColumnCount() < 5) {
+								throw new IllegalArgumentException("Not enough header columns, needs at least 5");
 							}
-							case "c" -> { // class
-								state.set(IN_CLASS);
-								holds[IN_CLASS] = this.parseClass(parts, escapeNames);
+
+							if (!line.columnEquals(1, "2") || !line.columnEquals(2, MINOR_VERSION)) {
+								throw new IllegalArgumentException("Unsupported TinyV2 version, requires major " + "2" + " and minor " + MINOR_VERSION);
 							}
-							default -> this.unsupportKey(parts);
+
+							state.set(IN_HEADER);
+						} else if (line.columnEquals(0, "c")) { // class
+							state.set(IN_CLASS);
+							holds[IN_CLASS] = this.parseClass(line, escapeNames);
+						} else {
+							this.unsupportKey(line);
 						}
 
 						break;
 					case 1:
 						if (state.get(IN_HEADER)) {
-							if (parts[0].equals("esacpe-names")) {
+							if (line.columnEquals(0, "esacpe-names")) {
 								escapeNames = true;
 							}
 
@@ -115,69 +127,63 @@ public final class TinyV2Reader implements MappingsReader {
 						}
 
 						if (state.get(IN_CLASS)) {
-							switch (parts[0]) {
-								case "m" -> { // method
-									state.set(IN_METHOD);
-									holds[IN_METHOD] = this.parseMethod(holds[IN_CLASS], parts, escapeNames);
-								}
-								case "f" -> { // field
-									state.set(IN_FIELD);
-									holds[IN_FIELD] = this.parseField(holds[IN_CLASS], parts, escapeNames);
-								}
-								case "c" -> // class javadoc
-										this.addJavadoc(holds[IN_CLASS], parts);
-								default -> this.unsupportKey(parts);
+							if (line.columnEquals(0, "m")) { // method
+								state.set(IN_METHOD);
+								holds[IN_METHOD] = this.parseMethod(holds[IN_CLASS], line, escapeNames);
+							} else if (line.columnEquals(0, "f")) { // field
+								state.set(IN_FIELD);
+								holds[IN_FIELD] = this.parseField(holds[IN_CLASS], line, escapeNames);
+							} else if (line.columnEquals(0, "c")) { // class javadoc
+								this.addJavadoc(holds[IN_CLASS], line);
+							} else {
+								this.unsupportKey(line);
 							}
 
 							break;
 						}
 
-						this.unsupportKey(parts);
+						this.unsupportKey(line);
 					case 2:
 						if (state.get(IN_METHOD)) {
-							switch (parts[0]) {
-								case "p": // parameter
-									state.set(IN_PARAMETER);
-									holds[IN_PARAMETER] = this.parseArgument(holds[IN_METHOD], parts, escapeNames);
-									break;
-								case "v": // local variable
-									// TODO add local var mapping
-									break;
-								case "c": // method javadoc
-									this.addJavadoc(holds[IN_METHOD], parts);
-									break;
-								default:
-									this.unsupportKey(parts);
+							if (line.columnEquals(0, "p")) { // parameter
+								state.set(IN_PARAMETER);
+								holds[IN_PARAMETER] = this.parseArgument(holds[IN_METHOD], line, escapeNames);
+							} else if (line.columnEquals(0, "v")) { // local variable
+								// TODO add local var mapping
+							} else if (line.columnEquals(0, "c")) { // method javadoc
+								this.addJavadoc(holds[IN_METHOD], line);
+							} else {
+								this.unsupportKey(line);
 							}
 
 							break;
 						}
 
 						if (state.get(IN_FIELD)) {
-							if (parts[0].equals("c")) { // field javadoc
-								this.addJavadoc(holds[IN_FIELD], parts);
+							if (line.columnEquals(0, "c")) { // field javadoc
+								this.addJavadoc(holds[IN_FIELD], line);
 							} else {
-								this.unsupportKey(parts);
+								this.unsupportKey(line);
 							}
 
 							break;
 						}
 
-						this.unsupportKey(parts);
+						this.unsupportKey(line);
 					case 3:
 						if (state.get(IN_PARAMETER)) {
-							if (parts[0].equals("c")) {
-								this.addJavadoc(holds[IN_PARAMETER], parts);
+							if (line.columnEquals(0, "c")) {
+								this.addJavadoc(holds[IN_PARAMETER], line);
 							} else {
-								this.unsupportKey(parts);
+								this.unsupportKey(line);
 							}
 
 							break;
 						}
 
-						this.unsupportKey(parts);
+						this.unsupportKey(line);
 					default:
-						this.unsupportKey(parts);
+						this.unsupportKey(line);
 				}
 			} catch (Exception e) {
 				throw new MappingParseException(path, lineNumber + 1, e);
@@ -202,52 +208,52 @@ public final class TinyV2Reader implements MappingsReader {
 		}
 	}
 
-	private void unsupportKey(String[] parts) {
-		throw new IllegalArgumentException("Unsupported key " + parts[0]);
+	private void unsupportKey(TabSeparatedLineReader line) {
+		throw new IllegalArgumentException("Unsupported key " + line.text(0));
 	}
 
-	private void addJavadoc(MappingPair<? extends Entry<?>, RawEntryMapping> pair, String[] parts) {
-		if (parts.length != 2) {
+	private void addJavadoc(MappingPair<? extends Entry<?>, RawEntryMapping> pair, TabSeparatedLineReader line) {
+		if (line.getColumnCount() != 2) {
 			throw new IllegalArgumentException("Invalid javadoc declaration");
 		}
 
-		this.addJavadoc(pair, parts[1]);
+		this.addJavadoc(pair, line.text(1));
 	}
 
-	private MappingPair<ClassEntry, RawEntryMapping> parseClass(String[] tokens, boolean escapeNames) {
-		ClassEntry obfuscatedEntry = new ClassEntry(unescapeOpt(tokens[1], escapeNames));
-		if (tokens.length <= 2) {
+	private MappingPair<ClassEntry, RawEntryMapping> parseClass(TabSeparatedLineReader line, boolean escapeNames) {
+		ClassEntry obfuscatedEntry = new ClassEntry(unescapeOpt(line.column(1), escapeNames));
+		if (line.getColumnCount() <= 2) {
 			return new MappingPair<>(obfuscatedEntry);
 		}
 
-		String token2 = unescapeOpt(tokens[2], escapeNames);
+		String token2 = unescapeOpt(line.column(2), escapeNames);
 		String mapping = token2.substring(token2.lastIndexOf('$') + 1);
 		return new MappingPair<>(obfuscatedEntry, new RawEntryMapping(mapping));
 	}
 
-	private MappingPair<FieldEntry, RawEntryMapping> parseField(MappingPair<? extends Entry<?>, RawEntryMapping> parent, String[] tokens, boolean escapeNames) {
+	private MappingPair<FieldEntry, RawEntryMapping> parseField(MappingPair<? extends Entry<?>, RawEntryMapping> parent, TabSeparatedLineReader line, boolean escapeNames) {
 		ClassEntry ownerClass = (ClassEntry) parent.getEntry();
-		TypeDescriptor descriptor = new TypeDescriptor(unescapeOpt(tokens[1], escapeNames));
+		TypeDescriptor descriptor = TypeDescriptor.parse(unescapeOpt(line.column(1), escapeNames));
 
-		FieldEntry obfuscatedEntry = new FieldEntry(ownerClass, unescapeOpt(tokens[2], escapeNames), descriptor);
-		if (tokens.length <= 3) {
+		FieldEntry obfuscatedEntry = new FieldEntry(ownerClass, unescapeOpt(line.column(2), escapeNames), descriptor);
+		if (line.getColumnCount() <= 3) {
 			return new MappingPair<>(obfuscatedEntry);
 		}
 
-		String mapping = unescapeOpt(tokens[3], escapeNames);
+		String mapping = unescapeOpt(line.column(3), escapeNames);
 		return new MappingPair<>(obfuscatedEntry, new RawEntryMapping(mapping));
 	}
 
-	private MappingPair<MethodEntry, RawEntryMapping> parseMethod(MappingPair<? extends Entry<?>, RawEntryMapping> parent, String[] tokens, boolean escapeNames) {
+	private MappingPair<MethodEntry, RawEntryMapping> parseMethod(MappingPair<? extends Entry<?>, RawEntryMapping> parent, TabSeparatedLineReader line, boolean escapeNames) {
 		ClassEntry ownerClass = (ClassEntry) parent.getEntry();
-		MethodDescriptor descriptor = new MethodDescriptor(unescapeOpt(tokens[1], escapeNames));
+		MethodDescriptor descriptor = MethodDescriptor.parse(unescapeOpt(line.column(1), escapeNames));
 
-		MethodEntry obfuscatedEntry = new MethodEntry(ownerClass, unescapeOpt(tokens[2], escapeNames), descriptor);
-		if (tokens.length <= 3) {
+		MethodEntry obfuscatedEntry = new MethodEntry(ownerClass, unescapeOpt(line.column(2), escapeNames), descriptor);
+		if (line.getColumnCount() <= 3) {
 			return new MappingPair<>(obfuscatedEntry);
 		}
 
-		String mapping = unescapeOpt(tokens[3], escapeNames);
+		String mapping = unescapeOpt(line.column(3), escapeNames);
 		return new MappingPair<>(obfuscatedEntry, new RawEntryMapping(mapping));
 	}
 
@@ -260,18 +266,18 @@ public final class TinyV2Reader implements MappingsReader {
 		mapping.addJavadocLine(MappingHelper.unescape(javadoc));
 	}
 
-	private MappingPair<LocalVariableEntry, RawEntryMapping> parseArgument(MappingPair<? extends Entry<?>, RawEntryMapping> parent, String[] tokens, boolean escapeNames) {
+	private MappingPair<LocalVariableEntry, RawEntryMapping> parseArgument(MappingPair<? extends Entry<?>, RawEntryMapping> parent, TabSeparatedLineReader line, boolean escapeNames) {
 		MethodEntry ownerMethod = (MethodEntry) parent.getEntry();
-		int variableIndex = Integer.parseInt(tokens[1]);
+		int variableIndex = Integer.parseInt(line.column(1));
 
-		// tokens[2] is the useless obf name
+		// column 2 is the useless obf name
 
 		LocalVariableEntry obfuscatedEntry = new LocalVariableEntry(ownerMethod, variableIndex);
-		if (tokens.length <= 3) {
+		if (line.getColumnCount() <= 3) {
 			return new MappingPair<>(obfuscatedEntry);
 		}
 
-		String mapping = unescapeOpt(tokens[3], escapeNames);
+		String mapping = unescapeOpt(line.column(3), escapeNames);
 		return new MappingPair<>(obfuscatedEntry, new RawEntryMapping(mapping));
 	}
 
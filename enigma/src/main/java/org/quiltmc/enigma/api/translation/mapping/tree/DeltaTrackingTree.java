@@ -20,11 +20,11 @@ public class DeltaTrackingTree<T> implements EntryTree<T> {
 
 	public DeltaTrackingTree(EntryTree<T> delegate) {
 		this.delegate = delegate;
-		this.deltaReference = new HashEntryTree<>(delegate);
+		this.deltaReference = delegate.snapshot();
 	}
 
 	public DeltaTrackingTree() {
-		this(new HashEntryTree<>());
+		this(new PersistentEntryTree<>());
 	}
 
 	@Override
@@ -41,7 +41,9 @@ public class DeltaTrackingTree<T> implements EntryTree<T> {
 	}
 
 	public void trackChange(Entry<?> entry) {
-		this.changes.insert(entry, MappingDelta.PLACEHOLDER);
+		if (!this.changes.contains(entry)) {
+			this.changes.insert(entry, MappingDelta.PLACEHOLDER);
+		}
 	}
 
 	@Nullable
@@ -71,6 +73,11 @@ public class DeltaTrackingTree<T> implements EntryTree<T> {
 		return this.delegate.getRootNodes();
 	}
 
+	@Override
+	public EntryTree<T> snapshot() {
+		return this.delegate.snapshot();
+	}
+
 	@Override
 	public DeltaTrackingTree<T> translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
 		DeltaTrackingTree<T> translatedTree = new DeltaTrackingTree<>(this.delegate.translate(translator, resolver, mappings));
@@ -100,7 +107,7 @@ public class DeltaTrackingTree<T> implements EntryTree<T> {
 	}
 
 	private void resetDelta() {
-		this.deltaReference = new HashEntryTree<>(this.delegate);
+		this.deltaReference = this.delegate.snapshot();
 		this.changes = new HashEntryTree<>();
 	}
 
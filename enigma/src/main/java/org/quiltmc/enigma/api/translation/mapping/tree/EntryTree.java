@@ -22,6 +22,17 @@ public interface EntryTree<T> extends EntryMap<T>, Iterable<EntryTreeNode<T>>, T
 
 	Stream<EntryTreeNode<T>> getRootNodes();
 
+	/**
+	 * Creates a copy of this tree's current contents, which isn't affected by later changes to this tree and vice versa.
+	 * <br>
+	 * By default this copies every node, but trees may share their structure with the snapshot instead.
+	 *
+	 * @return the snapshot
+	 */
+	default EntryTree<T> snapshot() {
+		return new HashEntryTree<>(this);
+	}
+
 	@Override
 	default TranslateResult<? extends EntryTree<T>> extendedTranslate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
 		return TranslateResult.ungrouped(this.translate(translator, resolver, mappings));
@@ -4,14 +4,14 @@ import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 
 public class EntryTreeUtil {
 	/**
-	 * Inserts all entries from both trees into a merged {@link HashEntryTree}, without performing any modifications on the original trees.
+	 * Inserts all entries from both trees into a merged tree, without performing any modifications on the original trees.
+	 * The merged tree starts out as a {@link EntryTree#snapshot() snapshot} of the right tree, so it shares its structure when possible.
 	 * In the case of a conflict, the mappings from the right tree will overwrite the left tree.
 	 * @return the merged tree
 	 */
 	public static EntryTree<EntryMapping> merge(EntryTree<EntryMapping> leftTree, EntryTree<EntryMapping> rightTree) {
-		EntryTree<EntryMapping> merged = new HashEntryTree<>();
+		EntryTree<EntryMapping> merged = rightTree.snapshot();
 
-		rightTree.iterator().forEachRemaining(merged::insert);
 		leftTree.iterator().forEachRemaining(node -> {
 			if (merged.contains(node.getEntry())) {
 				EntryMapping oldMapping = merged.get(node.getEntry());
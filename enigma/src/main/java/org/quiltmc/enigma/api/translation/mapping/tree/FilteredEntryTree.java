@@ -0,0 +1,117 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMap;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A read-only {@link EntryTree tree} that shows the values of another tree passed through a filter, without copying them.
+ * The filter is applied to each value when it's read, and values it maps to {@code null} are hidden,
+ * along with the nodes left without any visible value beneath them. Since the tree is used by reference,
+ * changes made to it are reflected in the view.
+ *
+ * @param tree the tree to view
+ * @param filter the function turning a value of the tree into the value to show, or {@code null} to hide it; never given {@code null}
+ * @param <S> the type of the values in the viewed tree
+ * @param <T> the type of the values shown
+ */
+public record FilteredEntryTree<S, T>(EntryTree<S> tree, Function<? super S, ? extends T> filter) implements EntryTree<T> {
+	@Override
+	public void insert(Entry<?> entry, T value) {
+		throw new UnsupportedOperationException("Filtered trees are read-only");
+	}
+
+	@Override
+	public T remove(Entry<?> entry) {
+		throw new UnsupportedOperationException("Filtered trees are read-only");
+	}
+
+	@Nullable
+	@Override
+	public T get(Entry<?> entry) {
+		S value = this.tree.get(entry);
+		return value != null ? this.filter.apply(value) : null;
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren(Entry<?> entry) {
+		var node = this.findNode(entry);
+		if (node == null) {
+			return Collections.emptyList();
+		}
+
+		return node.getChildren();
+	}
+
+	@Override
+	public Collection<Entry<?>> getSiblings(Entry<?> entry) {
+		Entry<?> parent = entry.getParent();
+		Collection<Entry<?>> generation = parent == null ? this.getRootNodes().map(EntryTreeNode::getEntry).collect(Collectors.toSet()) : this.getChildren(parent);
+
+		var siblings = new HashSet<>(generation);
+		siblings.remove(entry);
+		return siblings;
+	}
+
+	@Nullable
+	@Override
+	public EntryTreeNode<T> findNode(Entry<?> entry) {
+		EntryTreeNode<S> node = this.tree.findNode(entry);
+		if (node == null) {
+			return null;
+		}
+
+		var filtered = new FilteredTreeNode<S, T>(node, this.filter);
+		return filtered.isEmpty() ? null : filtered;
+	}
+
+	@Override
+	public Stream<EntryTreeNode<T>> getRootNodes() {
+		return this.tree.getRootNodes()
+				.<EntryTreeNode<T>>map(node -> new FilteredTreeNode<>(node, this.filter))
+				.filter(node -> !node.isEmpty());
+	}
+
+	/**
+	 * Streams every visible node, parents before their children, visiting the viewed tree as the stream is consumed.
+	 */
+	private static <T> Stream<EntryTreeNode<T>> streamRecursively(EntryTreeNode<T> node) {
+		return Stream.concat(Stream.of(node), node.getChildNodes().stream().flatMap(FilteredEntryTree::streamRecursively));
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<EntryTreeNode<T>> iterator() {
+		return this.getRootNodes().flatMap(FilteredEntryTree::streamRecursively).iterator();
+	}
+
+	@Override
+	public Stream<Entry<?>> getAllEntries() {
+		return this.getRootNodes()
+				.flatMap(FilteredEntryTree::streamRecursively)
+				.filter(EntryTreeNode::hasValue)
+				.map(EntryTreeNode::getEntry);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.getAllEntries().findAny().isEmpty();
+	}
+
+	@Override
+	public EntryTree<T> translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
+		return new HashEntryTree<>(this).translate(translator, resolver, mappings);
+	}
+}
@@ -0,0 +1,80 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A node of a {@link FilteredEntryTree}. Check the documentation of said class for details.
+ * <br>
+ * The filtered value and the visible children are computed the first time they're needed and then kept,
+ * so walking the node's subtree applies the filter to each value once. The node therefore shows the viewed node
+ * as it was when it was first read: look the node up again from its tree to see later changes.
+ */
+public class FilteredTreeNode<S, T> implements EntryTreeNode<T> {
+	private final EntryTreeNode<S> node;
+	private final Function<? super S, ? extends T> filter;
+
+	private boolean filtered;
+	@Nullable
+	private T value;
+	@Nullable
+	private List<FilteredTreeNode<S, T>> childNodes;
+
+	FilteredTreeNode(EntryTreeNode<S> node, Function<? super S, ? extends T> filter) {
+		this.node = node;
+		this.filter = filter;
+	}
+
+	@Nullable
+	@Override
+	public T getValue() {
+		if (!this.filtered) {
+			S value = this.node.getValue();
+			this.value = value != null ? this.filter.apply(value) : null;
+			this.filtered = true;
+		}
+
+		return this.value;
+	}
+
+	@Override
+	public Entry<?> getEntry() {
+		return this.node.getEntry();
+	}
+
+	/**
+	 * Checks whether this node is hidden, having no visible value in itself nor in any of its children.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return !this.hasValue() && this.getChildNodes().isEmpty();
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren() {
+		return this.getChildNodes().stream().<Entry<?>>map(EntryTreeNode::getEntry).toList();
+	}
+
+	@Override
+	public List<FilteredTreeNode<S, T>> getChildNodes() {
+		if (this.childNodes == null) {
+			List<FilteredTreeNode<S, T>> childNodes = new ArrayList<>();
+			for (EntryTreeNode<S> child : this.node.getChildNodes()) {
+				var filteredChild = new FilteredTreeNode<S, T>(child, this.filter);
+				if (!filteredChild.isEmpty()) {
+					childNodes.add(filteredChild);
+				}
+			}
+
+			this.childNodes = Collections.unmodifiableList(childNodes);
+		}
+
+		return this.childNodes;
+	}
+}
@@ -0,0 +1,451 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMap;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An entry tree that keeps all of its nodes in flat arrays, tuned for mappings that are loaded once and then mostly read.
+ * <br>
+ * Nodes are looked up directly by their entry through an open-addressed hash table, instead of descending from their root,
+ * and each node's parent, first child and siblings are stored as {@code int} indices into the arrays.
+ * Iterating the tree walks those links in place, without first collecting every node into a list.
+ * <br>
+ * Unlike {@link HashEntryTree}, this tree can't be modified while it's being iterated over:
+ * iterators, including those behind {@link #spliterator()} and {@link #getAllEntries()}, fail fast with a
+ * {@link ConcurrentModificationException} once the tree's structure changes. Collect the entries to change first instead.
+ * Nodes returned by {@link #findNode(Entry)} and by iteration are views, which reflect later changes to the tree.
+ *
+ * @param <T> the type of the values in the tree
+ */
+public class FlatEntryTree<T> implements EntryTree<T> {
+	private static final int NONE = -1;
+	private static final int INITIAL_CAPACITY = 16;
+
+	private Entry<?>[] entries = new Entry<?>[INITIAL_CAPACITY];
+	private Object[] values = new Object[INITIAL_CAPACITY];
+	private int[] hashes = new int[INITIAL_CAPACITY];
+	private int[] parents = new int[INITIAL_CAPACITY];
+	private int[] firstChildren = new int[INITIAL_CAPACITY];
+	private int[] nextSiblings = new int[INITIAL_CAPACITY];
+	private int[] previousSiblings = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Open-addressed table of node indices, using linear probing. Always at most half full.
+	 */
+	private int[] slots = newSlots(INITIAL_CAPACITY * 2);
+
+	private int firstRoot = NONE;
+	/**
+	 * The amount of node indices in use, including removed nodes waiting to be reused.
+	 */
+	private int nodeCount;
+	private int liveCount;
+	/**
+	 * The first removed node, whose next sibling is the next removed node.
+	 */
+	private int freeNode = NONE;
+	private int modifications;
+
+	public FlatEntryTree() {
+	}
+
+	public FlatEntryTree(EntryTree<T> tree) {
+		for (EntryTreeNode<T> node : tree) {
+			if (node.hasValue()) {
+				this.insert(node.getEntry(), node.getValue());
+			}
+		}
+	}
+
+	private static int[] newSlots(int capacity) {
+		int[] slots = new int[capacity];
+		Arrays.fill(slots, NONE);
+		return slots;
+	}
+
+	private static int hash(Entry<?> entry) {
+		int h = entry.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private int indexOf(Entry<?> entry) {
+		int hash = hash(entry);
+		int mask = this.slots.length - 1;
+		for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+			int node = this.slots[slot];
+			if (node == NONE || (this.hashes[node] == hash && entry.equals(this.entries[node]))) {
+				return node;
+			}
+		}
+	}
+
+	private int computeNode(Entry<?> entry) {
+		int node = this.indexOf(entry);
+		if (node != NONE) {
+			return node;
+		}
+
+		Entry<?> parentEntry = entry.getParent();
+		int parent = parentEntry == null ? NONE : this.computeNode(parentEntry);
+		return this.createNode(entry, parent);
+	}
+
+	private int createNode(Entry<?> entry, int parent) {
+		int node;
+		if (this.freeNode != NONE) {
+			node = this.freeNode;
+			this.freeNode = this.nextSiblings[node];
+		} else {
+			if (this.nodeCount == this.entries.length) {
+				this.grow(this.nodeCount * 2);
+			}
+
+			node = this.nodeCount++;
+		}
+
+		int firstSibling = parent == NONE ? this.firstRoot : this.firstChildren[parent];
+		this.entries[node] = entry;
+		this.values[node] = null;
+		this.hashes[node] = hash(entry);
+		this.parents[node] = parent;
+		this.firstChildren[node] = NONE;
+		this.nextSiblings[node] = firstSibling;
+		this.previousSiblings[node] = NONE;
+
+		if (firstSibling != NONE) {
+			this.previousSiblings[firstSibling] = node;
+		}
+
+		if (parent == NONE) {
+			this.firstRoot = node;
+		} else {
+			this.firstChildren[parent] = node;
+		}
+
+		this.liveCount++;
+		if (this.liveCount * 2 > this.slots.length) {
+			this.rehash(this.slots.length * 2);
+		} else {
+			this.insertSlot(node);
+		}
+
+		this.modifications++;
+		return node;
+	}
+
+	private void grow(int capacity) {
+		this.entries = Arrays.copyOf(this.entries, capacity);
+		this.values = Arrays.copyOf(this.values, capacity);
+		this.hashes = Arrays.copyOf(this.hashes, capacity);
+		this.parents = Arrays.copyOf(this.parents, capacity);
+		this.firstChildren = Arrays.copyOf(this.firstChildren, capacity);
+		this.nextSiblings = Arrays.copyOf(this.nextSiblings, capacity);
+		this.previousSiblings = Arrays.copyOf(this.previousSiblings, capacity);
+	}
+
+	private void insertSlot(int node) {
+		int mask = this.slots.length - 1;
+		int slot = this.hashes[node] & mask;
+		while (this.slots[slot] != NONE) {
+			slot = (slot + 1) & mask;
+		}
+
+		this.slots[slot] = node;
+	}
+
+	private void rehash(int capacity) {
+		this.slots = newSlots(capacity);
+		for (int node = 0; node < this.nodeCount; node++) {
+			if (this.entries[node] != null) {
+				this.insertSlot(node);
+			}
+		}
+	}
+
+	private void removeNode(int node) {
+		int next = this.nextSiblings[node];
+		int previous = this.previousSiblings[node];
+		if (next != NONE) {
+			this.previousSiblings[next] = previous;
+		}
+
+		if (previous != NONE) {
+			this.nextSiblings[previous] = next;
+		} else if (this.parents[node] == NONE) {
+			this.firstRoot = next;
+		} else {
+			this.firstChildren[this.parents[node]] = next;
+		}
+
+		this.removeSlot(node);
+
+		this.entries[node] = null;
+		this.values[node] = null;
+		this.nextSiblings[node] = this.freeNode;
+		this.freeNode = node;
+		this.liveCount--;
+		this.modifications++;
+	}
+
+	private void removeSlot(int node) {
+		int mask = this.slots.length - 1;
+		int hole = this.hashes[node] & mask;
+		while (this.slots[hole] != node) {
+			hole = (hole + 1) & mask;
+		}
+
+		// shift back any following nodes that would no longer be reachable from their ideal slot
+		for (int slot = (hole + 1) & mask; this.slots[slot] != NONE; slot = (slot + 1) & mask) {
+			int moved = this.slots[slot];
+			int ideal = this.hashes[moved] & mask;
+			if (((slot - ideal) & mask) >= ((slot - hole) & mask)) {
+				this.slots[hole] = moved;
+				hole = slot;
+			}
+		}
+
+		this.slots[hole] = NONE;
+	}
+
+	private void removeDeadAlong(int node) {
+		while (node != NONE && this.values[node] == null && this.firstChildren[node] == NONE) {
+			int parent = this.parents[node];
+			this.removeNode(node);
+			node = parent;
+		}
+	}
+
+	@Override
+	public void insert(Entry<?> entry, T value) {
+		if (value == null) {
+			this.remove(entry);
+			return;
+		}
+
+		// look up the node first, as creating it may grow the arrays
+		int node = this.computeNode(entry);
+		this.values[node] = value;
+	}
+
+	@Override
+	@Nullable
+	public T remove(Entry<?> entry) {
+		int node = this.indexOf(entry);
+		if (node == NONE) {
+			return null;
+		}
+
+		T value = this.valueAt(node);
+		this.values[node] = null;
+		this.removeDeadAlong(node);
+
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T valueAt(int node) {
+		return (T) this.values[node];
+	}
+
+	@Override
+	@Nullable
+	public T get(Entry<?> entry) {
+		int node = this.indexOf(entry);
+		return node == NONE ? null : this.valueAt(node);
+	}
+
+	@Override
+	public boolean contains(Entry<?> entry) {
+		return this.get(entry) != null;
+	}
+
+	private List<Entry<?>> getChildEntries(int firstChild) {
+		List<Entry<?>> children = new ArrayList<>();
+		for (int child = firstChild; child != NONE; child = this.nextSiblings[child]) {
+			children.add(this.entries[child]);
+		}
+
+		return children;
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren(Entry<?> entry) {
+		int node = this.indexOf(entry);
+		if (node == NONE) {
+			return Collections.emptyList();
+		}
+
+		return this.getChildEntries(this.firstChildren[node]);
+	}
+
+	@Override
+	public Collection<Entry<?>> getSiblings(Entry<?> entry) {
+		Entry<?> parent = entry.getParent();
+		Set<Entry<?>> siblings = new HashSet<>(parent == null ? this.getChildEntries(this.firstRoot) : this.getChildren(parent));
+		siblings.remove(entry);
+		return siblings;
+	}
+
+	@Override
+	@Nullable
+	public EntryTreeNode<T> findNode(Entry<?> entry) {
+		int node = this.indexOf(entry);
+		return node == NONE ? null : new Node(node);
+	}
+
+	@Override
+	@Nonnull
+	public Iterator<EntryTreeNode<T>> iterator() {
+		return new Iterator<>() {
+			private final int expectedModifications = FlatEntryTree.this.modifications;
+			private int next = FlatEntryTree.this.firstRoot;
+
+			@Override
+			public boolean hasNext() {
+				return this.next != NONE;
+			}
+
+			@Override
+			public EntryTreeNode<T> next() {
+				if (FlatEntryTree.this.modifications != this.expectedModifications) {
+					throw new ConcurrentModificationException();
+				} else if (this.next == NONE) {
+					throw new NoSuchElementException();
+				}
+
+				int node = this.next;
+				this.next = FlatEntryTree.this.nextInPreOrder(node);
+				return new Node(node);
+			}
+		};
+	}
+
+	private int nextInPreOrder(int node) {
+		if (this.firstChildren[node] != NONE) {
+			return this.firstChildren[node];
+		}
+
+		while (node != NONE && this.nextSiblings[node] == NONE) {
+			node = this.parents[node];
+		}
+
+		return node == NONE ? NONE : this.nextSiblings[node];
+	}
+
+	@Override
+	public Spliterator<EntryTreeNode<T>> spliterator() {
+		return Spliterators.spliterator(this.iterator(), this.liveCount, Spliterator.DISTINCT | Spliterator.NONNULL);
+	}
+
+	@Override
+	public Stream<Entry<?>> getAllEntries() {
+		return StreamSupport.stream(this.spliterator(), false)
+				.filter(EntryTreeNode::hasValue)
+				.map(EntryTreeNode::getEntry);
+	}
+
+	@Override
+	public Stream<EntryTreeNode<T>> getRootNodes() {
+		List<EntryTreeNode<T>> roots = new ArrayList<>();
+		for (int root = this.firstRoot; root != NONE; root = this.nextSiblings[root]) {
+			roots.add(new Node(root));
+		}
+
+		return roots.stream();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.firstRoot == NONE;
+	}
+
+	@Override
+	public FlatEntryTree<T> snapshot() {
+		return new FlatEntryTree<>(this);
+	}
+
+	@Override
+	public FlatEntryTree<T> translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
+		FlatEntryTree<T> translatedTree = new FlatEntryTree<>();
+		for (EntryTreeNode<T> node : this) {
+			translatedTree.insert(translator.translate(node.getEntry()), node.getValue());
+		}
+
+		return translatedTree;
+	}
+
+	private final class Node implements EntryTreeNode<T> {
+		private final int index;
+		private final Entry<?> entry;
+
+		private Node(int index) {
+			this.index = index;
+			this.entry = FlatEntryTree.this.entries[index];
+		}
+
+		private boolean isRemoved() {
+			// removed nodes may have had their index reused, possibly by an equal entry that was inserted again
+			return !this.entry.equals(FlatEntryTree.this.entries[this.index]);
+		}
+
+		@Override
+		@Nullable
+		public T getValue() {
+			return this.isRemoved() ? null : FlatEntryTree.this.valueAt(this.index);
+		}
+
+		@Override
+		public Entry<?> getEntry() {
+			return this.entry;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return this.isRemoved() || (FlatEntryTree.this.values[this.index] == null && FlatEntryTree.this.firstChildren[this.index] == NONE);
+		}
+
+		@Override
+		public Collection<Entry<?>> getChildren() {
+			return this.isRemoved() ? Collections.emptyList() : FlatEntryTree.this.getChildEntries(FlatEntryTree.this.firstChildren[this.index]);
+		}
+
+		@Override
+		public Collection<? extends EntryTreeNode<T>> getChildNodes() {
+			if (this.isRemoved()) {
+				return Collections.emptyList();
+			}
+
+			List<Node> children = new ArrayList<>();
+			for (int child = FlatEntryTree.this.firstChildren[this.index]; child != NONE; child = FlatEntryTree.this.nextSiblings[child]) {
+				children.add(new Node(child));
+			}
+
+			return children;
+		}
+
+		@Override
+		public String toString() {
+			return "FlatEntryTree.Node[" + this.entry + "]";
+		}
+	}
+}
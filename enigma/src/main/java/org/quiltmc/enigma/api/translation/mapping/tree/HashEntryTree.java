@@ -14,7 +14,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
@@ -35,24 +34,25 @@ public class HashEntryTree<T> implements EntryTree<T> {
 
 	@Override
 	public void insert(Entry<?> entry, T value) {
-		List<HashTreeNode<T>> path = this.computePath(entry, true);
-		path.get(path.size() - 1).putValue(value);
 		if (value == null) {
-			this.removeDeadAlong(path);
+			this.remove(entry);
+			return;
 		}
+
+		this.computeNode(entry).putValue(value);
 	}
 
 	@Override
 	@Nullable
 	public T remove(Entry<?> entry) {
-		List<HashTreeNode<T>> path = this.computePath(entry, false);
-		if (path.isEmpty()) {
+		HashTreeNode<T> node = this.findNode(entry);
+		if (node == null) {
 			return null;
 		}
 
-		T value = path.get(path.size() - 1).removeValue();
+		T value = node.removeValue();
 
-		this.removeDeadAlong(path);
+		this.removeDeadAlong(entry, node);
 
 		return value;
 	}
@@ -99,68 +99,46 @@ public class HashEntryTree<T> implements EntryTree<T> {
 		return siblings;
 	}
 
+	/**
+	 * Finds the node of an entry by descending from its root ancestor, without building its ancestry list.
+	 */
 	@Override
 	@Nullable
 	public HashTreeNode<T> findNode(Entry<?> target) {
-		List<Entry<?>> parentChain = target.getAncestry();
-		if (parentChain.isEmpty()) {
-			return null;
-		}
-
-		HashTreeNode<T> node = this.root.get(parentChain.get(0));
-		for (int i = 1; i < parentChain.size(); i++) {
-			if (node == null) {
-				return null;
-			}
-
-			node = node.getChild(parentChain.get(i));
+		Entry<?> parent = target.getParent();
+		if (parent == null) {
+			return this.root.get(target);
 		}
 
-		return node;
+		HashTreeNode<T> parentNode = this.findNode(parent);
+		return parentNode != null ? parentNode.getChild(target) : null;
 	}
 
-	private List<HashTreeNode<T>> computePath(Entry<?> target, boolean make) {
-		List<Entry<?>> ancestry = target.getAncestry();
-		if (ancestry.isEmpty()) {
-			return Collections.emptyList();
-		}
-
-		List<HashTreeNode<T>> path = new ArrayList<>(ancestry.size());
-
-		Entry<?> rootEntry = ancestry.get(0);
-		HashTreeNode<T> node = make ? this.root.computeIfAbsent(rootEntry, HashTreeNode::new) : this.root.get(rootEntry);
-		if (node == null) {
-			return Collections.emptyList();
+	private HashTreeNode<T> computeNode(Entry<?> target) {
+		Entry<?> parent = target.getParent();
+		if (parent == null) {
+			return this.root.computeIfAbsent(target, HashTreeNode::new);
 		}
 
-		path.add(node);
+		return this.computeNode(parent).computeChild(target);
+	}
 
-		for (int i = 1; i < ancestry.size(); i++) {
-			Entry<?> ancestor = ancestry.get(i);
-			node = make ? node.computeChild(ancestor) : node.getChild(ancestor);
-			if (node == null) {
-				return Collections.emptyList();
+	private void removeDeadAlong(Entry<?> entry, HashTreeNode<T> node) {
+		while (node.isEmpty()) {
+			Entry<?> parent = entry.getParent();
+			if (parent == null) {
+				this.root.remove(node.getEntry());
+				return;
 			}
 
-			path.add(node);
-		}
-
-		return path;
-	}
-
-	private void removeDeadAlong(List<HashTreeNode<T>> path) {
-		for (int i = path.size() - 1; i >= 0; i--) {
-			HashTreeNode<T> node = path.get(i);
-			if (node.isEmpty()) {
-				if (i > 0) {
-					HashTreeNode<T> parentNode = path.get(i - 1);
-					parentNode.remove(node.getEntry());
-				} else {
-					this.root.remove(node.getEntry());
-				}
-			} else {
-				break;
+			HashTreeNode<T> parentNode = this.findNode(parent);
+			if (parentNode == null) {
+				return;
 			}
+
+			parentNode.remove(node.getEntry());
+			entry = parent;
+			node = parentNode;
 		}
 	}
 
@@ -0,0 +1,432 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMap;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.tinylog.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * An entry tree whose top-level classes are only loaded the first time they're needed.
+ * <br>
+ * Each top-level class is added with a {@link Loader} that reads its mappings, and optionally with its own mapping
+ * if that's known without loading the rest of the class. Getting an entry, finding its node or getting its children
+ * only loads the top-level class containing it, while iterating over the whole tree loads every class that's left.
+ * Modifying an entry loads its class first, so that the loaded mappings never override the modification.
+ * <br>
+ * Since even lookups may modify the tree, all access is guarded by a lock, and the tree is safe to use from several threads.
+ * A class that fails to load stays pending, and its failure is thrown again whenever the class is needed.
+ * The nodes it returns are the loaded tree's own nodes, so reading them isn't guarded by the lock.
+ * <br>
+ * Classes are parsed into their own trees and only merged into the loaded tree once they've been read successfully,
+ * so {@link #loadAll()} parses the remaining classes in parallel.
+ *
+ * @param <T> the type of the values in the tree
+ */
+public class LazyEntryTree<T> implements EntryTree<T> {
+	private final EntryTree<T> loaded;
+	private final Map<ClassEntry, List<Loader<T>>> pending = new ConcurrentHashMap<>();
+	/**
+	 * The mappings of pending classes that are known without loading them.
+	 */
+	private final Map<ClassEntry, T> knownMappings = new ConcurrentHashMap<>();
+	/**
+	 * The failures of pending classes that couldn't be loaded, which are thrown again whenever the classes are needed.
+	 */
+	private final Map<ClassEntry, RuntimeException> failures = new ConcurrentHashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final List<Closeable> resources = new ArrayList<>();
+
+	public LazyEntryTree() {
+		this(HashEntryTree::new);
+	}
+
+	/**
+	 * Creates a lazy tree whose classes are loaded into a tree created by the given factory.
+	 *
+	 * @param treeFactory creates the empty tree holding the loaded classes
+	 */
+	public LazyEntryTree(Supplier<? extends EntryTree<T>> treeFactory) {
+		this.loaded = treeFactory.get();
+	}
+
+	/**
+	 * Adds a top-level class to be loaded the first time it's needed.
+	 * <br>
+	 * If the class already has a loader, both are run in the order they were added,
+	 * and its mapping is no longer known until they are.
+	 *
+	 * @param classEntry the top-level class
+	 * @param mapping the class's own mapping, if it's known without loading the class
+	 * @param loader the loader reading the class's mappings
+	 */
+	public void addClass(ClassEntry classEntry, @Nullable T mapping, Loader<T> loader) {
+		if (classEntry.getParent() != null) {
+			throw new IllegalArgumentException(classEntry + " isn't a top-level class");
+		}
+
+		this.lock.writeLock().lock();
+		try {
+			List<Loader<T>> loaders = this.pending.computeIfAbsent(classEntry, c -> new ArrayList<>());
+			if (loaders.isEmpty() && mapping != null) {
+				this.knownMappings.put(classEntry, mapping);
+			} else {
+				this.knownMappings.remove(classEntry);
+			}
+
+			loaders.add(loader);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Closes the given resource, such as the file the loaders read from, once every class has been loaded.
+	 * If no class is pending, it's closed right away.
+	 *
+	 * @param resource the resource to close
+	 */
+	public void closeWhenLoaded(Closeable resource) {
+		this.lock.writeLock().lock();
+		try {
+			this.resources.add(resource);
+			this.closeResourcesIfLoaded();
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * {@return whether the given top-level class has been loaded, or was never added}
+	 * A class that failed to load is never loaded, and throws its failure again each time it's needed.
+	 */
+	public boolean isLoaded(ClassEntry classEntry) {
+		return !this.pending.containsKey(classEntry);
+	}
+
+	/**
+	 * Loads every class that's still pending.
+	 */
+	public void loadAll() {
+		if (this.pending.isEmpty()) {
+			return;
+		}
+
+		this.lock.writeLock().lock();
+		try {
+			List<LoadResult<T>> results = new ArrayList<>(this.pending.keySet()).parallelStream()
+					.map(this::read)
+					.toList();
+
+			RuntimeException failure = null;
+			for (LoadResult<T> result : results) {
+				try {
+					this.finishLoading(result);
+				} catch (RuntimeException e) {
+					if (failure == null) {
+						failure = e;
+					}
+				}
+			}
+
+			if (failure != null) {
+				throw failure;
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void ensureLoaded(Entry<?> entry) {
+		ClassEntry classEntry = entry.getTopLevelClass();
+		if (!this.pending.containsKey(classEntry)) {
+			return;
+		}
+
+		this.lock.writeLock().lock();
+		try {
+			this.load(classEntry);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void load(ClassEntry classEntry) {
+		if (this.pending.containsKey(classEntry)) {
+			this.finishLoading(this.read(classEntry));
+		}
+	}
+
+	/**
+	 * Runs the loaders of a pending class into a tree of its own, which doesn't need the lock.
+	 */
+	private LoadResult<T> read(ClassEntry classEntry) {
+		// a class that failed to load stays pending, and is never read again
+		RuntimeException failure = this.failures.get(classEntry);
+		if (failure != null) {
+			return new LoadResult<>(classEntry, null, failure);
+		}
+
+		EntryTree<T> mappings = new HashEntryTree<>();
+		for (Loader<T> loader : this.pending.get(classEntry)) {
+			try {
+				loader.load(mappings);
+			} catch (IOException e) {
+				return new LoadResult<>(classEntry, null, new UncheckedIOException("Failed to load mappings of " + classEntry, e));
+			} catch (MappingParseException e) {
+				return new LoadResult<>(classEntry, null, new IllegalStateException("Failed to load mappings of " + classEntry, e));
+			}
+		}
+
+		return new LoadResult<>(classEntry, mappings, null);
+	}
+
+	private void finishLoading(LoadResult<T> result) {
+		if (result.failure != null) {
+			this.failures.put(result.classEntry, result.failure);
+			throw result.failure;
+		}
+
+		for (EntryTreeNode<T> node : result.mappings) {
+			if (node.hasValue()) {
+				this.loaded.insert(node.getEntry(), node.getValue());
+			}
+		}
+
+		this.pending.remove(result.classEntry);
+		this.knownMappings.remove(result.classEntry);
+		this.closeResourcesIfLoaded();
+	}
+
+	private void closeResourcesIfLoaded() {
+		if (!this.pending.isEmpty()) {
+			return;
+		}
+
+		for (Closeable resource : this.resources) {
+			try {
+				resource.close();
+			} catch (IOException e) {
+				Logger.warn(e, "Failed to close {} after loading every class", resource);
+			}
+		}
+
+		this.resources.clear();
+	}
+
+	@Override
+	public void insert(Entry<?> entry, T value) {
+		this.ensureLoaded(entry);
+		this.lock.writeLock().lock();
+		try {
+			this.loaded.insert(entry, value);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	@Nullable
+	public T remove(Entry<?> entry) {
+		this.ensureLoaded(entry);
+		this.lock.writeLock().lock();
+		try {
+			return this.loaded.remove(entry);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	@Nullable
+	public T get(Entry<?> entry) {
+		if (entry instanceof ClassEntry classEntry && classEntry.getParent() == null) {
+			T known = this.knownMappings.get(classEntry);
+			if (known != null) {
+				return known;
+			}
+		}
+
+		this.ensureLoaded(entry);
+		this.lock.readLock().lock();
+		try {
+			return this.loaded.get(entry);
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean contains(Entry<?> entry) {
+		return this.get(entry) != null;
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren(Entry<?> entry) {
+		this.ensureLoaded(entry);
+		this.lock.readLock().lock();
+		try {
+			return new ArrayList<>(this.loaded.getChildren(entry));
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Collection<Entry<?>> getSiblings(Entry<?> entry) {
+		if (entry.getParent() != null) {
+			this.ensureLoaded(entry);
+			this.lock.readLock().lock();
+			try {
+				return new ArrayList<>(this.loaded.getSiblings(entry));
+			} finally {
+				this.lock.readLock().unlock();
+			}
+		}
+
+		// the siblings of a top-level entry are known without loading anything
+		this.lock.readLock().lock();
+		try {
+			Set<Entry<?>> siblings = new HashSet<>(this.pending.keySet());
+			this.loaded.getRootNodes().forEach(node -> siblings.add(node.getEntry()));
+			siblings.remove(entry);
+			return siblings;
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	@Nullable
+	public EntryTreeNode<T> findNode(Entry<?> entry) {
+		this.ensureLoaded(entry);
+		this.lock.readLock().lock();
+		try {
+			return this.loaded.findNode(entry);
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Stream<EntryTreeNode<T>> getRootNodes() {
+		this.loadAll();
+		this.lock.readLock().lock();
+		try {
+			return this.loaded.getRootNodes();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	@Nonnull
+	public Iterator<EntryTreeNode<T>> iterator() {
+		this.loadAll();
+		this.lock.readLock().lock();
+		try {
+			return this.loaded.iterator();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Stream<Entry<?>> getAllEntries() {
+		this.loadAll();
+		this.lock.readLock().lock();
+		try {
+			return this.loaded.getAllEntries().toList().stream();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		// a known mapping means its class isn't empty, so the rest only has to be loaded when nothing is known
+		if (!this.knownMappings.isEmpty()) {
+			return false;
+		}
+
+		this.lock.readLock().lock();
+		try {
+			if (!this.loaded.isEmpty()) {
+				return false;
+			}
+		} finally {
+			this.lock.readLock().unlock();
+		}
+
+		this.loadAll();
+		this.lock.readLock().lock();
+		try {
+			return this.loaded.isEmpty();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EntryTree<T> translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
+		this.loadAll();
+		this.lock.readLock().lock();
+		try {
+			return this.loaded.translate(translator, resolver, mappings);
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EntryTree<T> snapshot() {
+		this.loadAll();
+		this.lock.readLock().lock();
+		try {
+			return this.loaded.snapshot();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private record LoadResult<T>(ClassEntry classEntry, @Nullable EntryTree<T> mappings, @Nullable RuntimeException failure) {
+	}
+
+	/**
+	 * Reads the mappings of a top-level class, and of all of its members, into a tree.
+	 *
+	 * @param <T> the type of the values in the tree
+	 */
+	@FunctionalInterface
+	public interface Loader<T> {
+		/**
+		 * Reads the mappings into the given tree.
+		 *
+		 * @param mappings the tree to read into
+		 * @throws IOException if the mappings couldn't be read
+		 * @throws MappingParseException if the mappings are malformed
+		 */
+		void load(EntryTree<T> mappings) throws IOException, MappingParseException;
+	}
+}
@@ -42,8 +42,12 @@ public record MergedEntryMappingTree(EntryTree<EntryMapping> mainTree, EntryTree
 	@Override
 	public EntryMapping get(Entry<?> entry) {
 		EntryMapping main = this.mainTree.get(entry);
-		if (main == null || (main.equals(EntryMapping.OBFUSCATED) && this.secondaryTree.contains(entry))) {
-			return this.secondaryTree.get(entry);
+		if (main == null || main.equals(EntryMapping.OBFUSCATED)) {
+			// look the secondary tree up once, instead of checking it contains the entry first
+			EntryMapping secondary = this.secondaryTree.get(entry);
+			if (main == null || secondary != null) {
+				return secondary;
+			}
 		}
 
 		return main;
@@ -126,6 +130,11 @@ public record MergedEntryMappingTree(EntryTree<EntryMapping> mainTree, EntryTree
 		return this.mainTree.isEmpty() && this.secondaryTree.isEmpty();
 	}
 
+	@Override
+	public MergedEntryMappingTree snapshot() {
+		return new MergedEntryMappingTree(this.mainTree.snapshot(), this.secondaryTree.snapshot());
+	}
+
 	@Override
 	public MergedEntryMappingTree translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
 		var main = this.mainTree.translate(translator, resolver, mappings);
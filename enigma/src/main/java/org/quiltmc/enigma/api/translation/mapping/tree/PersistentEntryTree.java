@@ -0,0 +1,314 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMap;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.impl.translation.mapping.tree.PersistentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An entry tree backed by persistent hash tries, so that copies of it share their structure.
+ * <br>
+ * {@link #snapshot()} takes constant time and memory, no matter the size of the tree: afterwards, each tree copies
+ * only the trie nodes it changes. This makes it cheap to keep earlier versions of the mappings around,
+ * such as the reference for tracking deltas, or a copy to save in the background while editing continues.
+ * <br>
+ * Nodes returned by {@link #findNode(Entry)} and by iteration show the tree as it was when they were returned,
+ * and the tree may be freely modified while it's being iterated over.
+ *
+ * @param <T> the type of the values in the tree
+ */
+public class PersistentEntryTree<T> implements EntryTree<T> {
+	private PersistentHashMap<Entry<?>, NodeData<T>> nodes;
+	private PersistentHashMap<Entry<?>, Entry<?>> roots;
+	/**
+	 * Token for the trie nodes only this tree can see, which it may modify in place.
+	 * Replaced on the first modification after the current tries were shared.
+	 */
+	private Object owner = new Object();
+	/**
+	 * Whether the current tries were handed out since the owner was last replaced.
+	 */
+	private boolean shared;
+
+	public PersistentEntryTree() {
+		this(PersistentHashMap.empty(), PersistentHashMap.empty());
+	}
+
+	public PersistentEntryTree(EntryTree<T> tree) {
+		this();
+		for (EntryTreeNode<T> node : tree) {
+			if (node.hasValue()) {
+				this.insert(node.getEntry(), node.getValue());
+			}
+		}
+	}
+
+	private PersistentEntryTree(PersistentHashMap<Entry<?>, NodeData<T>> nodes, PersistentHashMap<Entry<?>, Entry<?>> roots) {
+		this.nodes = nodes;
+		this.roots = roots;
+	}
+
+	/**
+	 * Shares the current tries, so that they aren't modified in place anymore.
+	 * Reading doesn't cost anything more, as the owner is only replaced once this tree is next modified.
+	 *
+	 * @return the current node trie
+	 */
+	private PersistentHashMap<Entry<?>, NodeData<T>> share() {
+		this.shared = true;
+		return this.nodes;
+	}
+
+	/**
+	 * {@return the token to modify the tries with}
+	 */
+	private Object owner() {
+		if (this.shared) {
+			this.owner = new Object();
+			this.shared = false;
+		}
+
+		return this.owner;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * This takes constant time, and the snapshot shares its structure with this tree.
+	 */
+	@Override
+	public PersistentEntryTree<T> snapshot() {
+		return new PersistentEntryTree<>(this.share(), this.roots);
+	}
+
+	private NodeData<T> computeNode(Entry<?> entry) {
+		NodeData<T> data = this.nodes.get(entry);
+		if (data != null) {
+			return data;
+		}
+
+		Entry<?> parent = entry.getParent();
+		if (parent == null) {
+			this.roots = this.roots.put(entry, entry, this.owner());
+		} else {
+			NodeData<T> parentData = this.computeNode(parent);
+			this.nodes = this.nodes.put(parent, parentData.withChildren(parentData.children.put(entry, entry, this.owner())), this.owner());
+		}
+
+		data = new NodeData<>(null, PersistentHashMap.empty());
+		this.nodes = this.nodes.put(entry, data, this.owner());
+		return data;
+	}
+
+	@Override
+	public void insert(Entry<?> entry, T value) {
+		if (value == null) {
+			this.remove(entry);
+			return;
+		}
+
+		NodeData<T> data = this.computeNode(entry);
+		this.nodes = this.nodes.put(entry, new NodeData<>(value, data.children), this.owner());
+	}
+
+	@Override
+	@Nullable
+	public T remove(Entry<?> entry) {
+		NodeData<T> data = this.nodes.get(entry);
+		if (data == null || data.value == null) {
+			return null;
+		}
+
+		this.nodes = this.nodes.put(entry, new NodeData<>(null, data.children), this.owner());
+		this.removeDeadAlong(entry);
+
+		return data.value;
+	}
+
+	private void removeDeadAlong(Entry<?> entry) {
+		while (entry != null) {
+			NodeData<T> data = this.nodes.get(entry);
+			if (data.value != null || !data.children.isEmpty()) {
+				return;
+			}
+
+			this.nodes = this.nodes.remove(entry, this.owner());
+
+			Entry<?> parent = entry.getParent();
+			if (parent == null) {
+				this.roots = this.roots.remove(entry, this.owner());
+			} else {
+				NodeData<T> parentData = this.nodes.get(parent);
+				this.nodes = this.nodes.put(parent, parentData.withChildren(parentData.children.remove(entry, this.owner())), this.owner());
+			}
+
+			entry = parent;
+		}
+	}
+
+	@Override
+	@Nullable
+	public T get(Entry<?> entry) {
+		NodeData<T> data = this.nodes.get(entry);
+		return data == null ? null : data.value;
+	}
+
+	@Override
+	public boolean contains(Entry<?> entry) {
+		return this.get(entry) != null;
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren(Entry<?> entry) {
+		NodeData<T> data = this.nodes.get(entry);
+		return data == null ? Collections.emptyList() : toList(data.children);
+	}
+
+	@Override
+	public Collection<Entry<?>> getSiblings(Entry<?> entry) {
+		Entry<?> parent = entry.getParent();
+		Set<Entry<?>> siblings = new HashSet<>(parent == null ? toList(this.roots) : this.getChildren(parent));
+		siblings.remove(entry);
+		return siblings;
+	}
+
+	private static List<Entry<?>> toList(PersistentHashMap<Entry<?>, Entry<?>> entries) {
+		List<Entry<?>> list = new ArrayList<>(entries.size());
+		entries.keyIterator().forEachRemaining(list::add);
+		return list;
+	}
+
+	@Override
+	@Nullable
+	public EntryTreeNode<T> findNode(Entry<?> entry) {
+		NodeData<T> data = this.nodes.get(entry);
+		return data == null ? null : new Node<>(this.share(), entry, data);
+	}
+
+	@Override
+	@Nonnull
+	public Iterator<EntryTreeNode<T>> iterator() {
+		PersistentHashMap<Entry<?>, NodeData<T>> nodes = this.share();
+		Deque<Iterator<Entry<?>>> stack = new ArrayDeque<>();
+		stack.push(this.roots.keyIterator());
+
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				while (!stack.isEmpty() && !stack.peek().hasNext()) {
+					stack.pop();
+				}
+
+				return !stack.isEmpty();
+			}
+
+			@Override
+			public EntryTreeNode<T> next() {
+				if (!this.hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				Entry<?> entry = stack.peek().next();
+				NodeData<T> data = nodes.get(entry);
+				if (!data.children.isEmpty()) {
+					stack.push(data.children.keyIterator());
+				}
+
+				return new Node<>(nodes, entry, data);
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<EntryTreeNode<T>> spliterator() {
+		return Spliterators.spliterator(this.iterator(), this.nodes.size(), Spliterator.DISTINCT | Spliterator.NONNULL);
+	}
+
+	@Override
+	public Stream<Entry<?>> getAllEntries() {
+		return StreamSupport.stream(this.spliterator(), false)
+				.filter(EntryTreeNode::hasValue)
+				.map(EntryTreeNode::getEntry);
+	}
+
+	@Override
+	public Stream<EntryTreeNode<T>> getRootNodes() {
+		PersistentHashMap<Entry<?>, NodeData<T>> nodes = this.share();
+		return toList(this.roots).stream().map(entry -> new Node<>(nodes, entry, nodes.get(entry)));
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.roots.isEmpty();
+	}
+
+	@Override
+	public PersistentEntryTree<T> translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
+		PersistentEntryTree<T> translatedTree = new PersistentEntryTree<>();
+		for (EntryTreeNode<T> node : this) {
+			translatedTree.insert(translator.translate(node.getEntry()), node.getValue());
+		}
+
+		return translatedTree;
+	}
+
+	private record NodeData<T>(@Nullable T value, PersistentHashMap<Entry<?>, Entry<?>> children) {
+		private NodeData<T> withChildren(PersistentHashMap<Entry<?>, Entry<?>> children) {
+			return children == this.children ? this : new NodeData<>(this.value, children);
+		}
+	}
+
+	private record Node<T>(PersistentHashMap<Entry<?>, NodeData<T>> nodes, Entry<?> entry, NodeData<T> data) implements EntryTreeNode<T> {
+		@Override
+		@Nullable
+		public T getValue() {
+			return this.data.value;
+		}
+
+		@Override
+		public Entry<?> getEntry() {
+			return this.entry;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return this.data.value == null && this.data.children.isEmpty();
+		}
+
+		@Override
+		public Collection<Entry<?>> getChildren() {
+			return toList(this.data.children);
+		}
+
+		@Override
+		public Collection<? extends EntryTreeNode<T>> getChildNodes() {
+			List<Node<T>> children = new ArrayList<>(this.data.children.size());
+			this.data.children.keyIterator().forEachRemaining(child -> children.add(new Node<>(this.nodes, child, this.nodes.get(child))));
+			return children;
+		}
+
+		@Override
+		public String toString() {
+			return "PersistentEntryTree.Node[" + this.entry + "]";
+		}
+	}
+}
@@ -10,6 +10,11 @@ public class ArgumentDescriptor extends TypeDescriptor {
 		this.access = access;
 	}
 
+	public ArgumentDescriptor(TypeDescriptor type, ParameterAccessFlags access) {
+		super(type);
+		this.access = access;
+	}
+
 	public ParameterAccessFlags getAccess() {
 		return this.access;
 	}
@@ -1,5 +1,6 @@
 package org.quiltmc.enigma.api.translation.representation;
 
+import com.google.common.cache.CacheBuilder;
 import org.quiltmc.enigma.api.translation.Translatable;
 import org.quiltmc.enigma.api.translation.TranslateResult;
 import org.quiltmc.enigma.api.translation.Translator;
@@ -9,38 +10,34 @@ import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.UnaryOperator;
 
 public class MethodDescriptor implements Translatable {
+	private static final ConcurrentMap<String, MethodDescriptor> POOL = CacheBuilder.newBuilder()
+			.weakValues()
+			.<String, MethodDescriptor>build()
+			.asMap();
+
 	private final List<ArgumentDescriptor> argumentDescs;
 	private TypeDescriptor returnDesc;
 
+	/**
+	 * Creates a descriptor with its own argument descriptors, whose access flags may be set.
+	 * The descriptor string itself is only parsed once, see {@link #parse(String)}.
+	 *
+	 * @param desc the descriptor string
+	 */
 	public MethodDescriptor(String desc) {
-		try {
-			this.argumentDescs = new ArrayList<>();
-			int i = 0;
-			while (i < desc.length()) {
-				char c = desc.charAt(i);
-				if (c == '(') {
-					assert (this.argumentDescs.isEmpty());
-					assert (this.returnDesc == null);
-					i++;
-				} else if (c == ')') {
-					i++;
-					break;
-				} else {
-					String type = TypeDescriptor.parseFirst(desc.substring(i));
-					this.argumentDescs.add(new ArgumentDescriptor(type, ParameterAccessFlags.DEFAULT));
-					i += type.length();
-				}
-			}
-
-			this.returnDesc = new TypeDescriptor(TypeDescriptor.parseFirst(desc.substring(i)));
-		} catch (Exception ex) {
-			throw new IllegalArgumentException("Unable to parse method descriptor: " + desc, ex);
+		MethodDescriptor pooled = parse(desc);
+		this.argumentDescs = new ArrayList<>(pooled.argumentDescs.size());
+		for (ArgumentDescriptor argument : pooled.argumentDescs) {
+			this.argumentDescs.add(new ArgumentDescriptor(argument, ParameterAccessFlags.DEFAULT));
 		}
+
+		this.returnDesc = pooled.returnDesc;
 	}
 
 	public MethodDescriptor(List<ArgumentDescriptor> argumentDescs, TypeDescriptor returnDesc) {
@@ -48,6 +45,44 @@ public class MethodDescriptor implements Translatable {
 		this.returnDesc = returnDesc;
 	}
 
+	/**
+	 * Gets the canonical descriptor for the given string, from a pool shared by all callers.
+	 * Descriptors stay pooled for as long as they're in use, so that repeated descriptors share one instance
+	 * along with their pooled {@link TypeDescriptor argument and return types}.
+	 * <br>
+	 * The argument descriptors of a pooled descriptor are shared, so their access flags must not be modified.
+	 * Use {@link #MethodDescriptor(String)} for a descriptor that can be modified.
+	 *
+	 * @param desc the descriptor string
+	 * @return the pooled descriptor
+	 */
+	public static MethodDescriptor parse(String desc) {
+		MethodDescriptor pooled = POOL.get(desc);
+		if (pooled == null) {
+			MethodDescriptor parsed = read(desc);
+			pooled = POOL.putIfAbsent(desc, parsed);
+			return pooled == null ? parsed : pooled;
+		}
+
+		return pooled;
+	}
+
+	private static MethodDescriptor read(String desc) {
+		try {
+			List<ArgumentDescriptor> arguments = new ArrayList<>();
+			int i = desc.charAt(0) == '(' ? 1 : 0;
+			while (desc.charAt(i) != ')') {
+				String type = TypeDescriptor.parseFirst(desc.substring(i));
+				arguments.add(new ArgumentDescriptor(TypeDescriptor.parse(type), ParameterAccessFlags.DEFAULT));
+				i += type.length();
+			}
+
+			return new MethodDescriptor(Collections.unmodifiableList(arguments), TypeDescriptor.parse(TypeDescriptor.parseFirst(desc.substring(i + 1))));
+		} catch (Exception ex) {
+			throw new IllegalArgumentException("Unable to parse method descriptor: " + desc, ex);
+		}
+	}
+
 	public List<ArgumentDescriptor> getArgumentDescs() {
 		return this.argumentDescs;
 	}
@@ -90,7 +125,8 @@ public class MethodDescriptor implements Translatable {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.argumentDescs.hashCode(), this.returnDesc.hashCode());
+		// same as Objects.hash(argumentDescs.hashCode(), returnDesc.hashCode()), without boxing
+		return 31 * (31 + this.argumentDescs.hashCode()) + this.returnDesc.hashCode();
 	}
 
 	public boolean hasClass(ClassEntry classEntry) {
@@ -11,6 +11,10 @@ public class ParameterAccessFlags {
 		this.flags = flags;
 	}
 
+	public int getFlags() {
+		return this.flags;
+	}
+
 	public boolean isSynthetic() {
 		return (this.flags & Opcodes.ACC_SYNTHETIC) != 0;
 	}
@@ -1,6 +1,7 @@
 package org.quiltmc.enigma.api.translation.representation;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Maps;
 import org.quiltmc.enigma.api.translation.Translatable;
 import org.quiltmc.enigma.api.translation.TranslateResult;
@@ -11,11 +12,21 @@ import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.UnaryOperator;
 
 public class TypeDescriptor implements Translatable {
+	private static final ConcurrentMap<String, TypeDescriptor> POOL = CacheBuilder.newBuilder()
+			.weakValues()
+			.<String, TypeDescriptor>build()
+			.asMap();
+
 	protected final String desc;
 
+	// derived lazily; racing threads compute equal values
+	private ClassEntry typeEntry;
+	private TypeDescriptor arrayType;
+
 	public TypeDescriptor(String desc) {
 		Preconditions.checkNotNull(desc, "Desc cannot be null");
 
@@ -28,6 +39,40 @@ public class TypeDescriptor implements Translatable {
 		this.desc = desc;
 	}
 
+	/**
+	 * Creates a descriptor with the same type as the given one, sharing its already parsed parts.
+	 *
+	 * @param type the descriptor to copy
+	 */
+	protected TypeDescriptor(TypeDescriptor type) {
+		this.desc = type.desc;
+		this.typeEntry = type.typeEntry;
+		this.arrayType = type.arrayType;
+	}
+
+	/**
+	 * Gets the canonical descriptor for the given string, from a pool shared by all callers.
+	 * Descriptors stay pooled for as long as they're in use, so that repeated descriptors share one instance,
+	 * along with its parsed class entry and array type.
+	 *
+	 * @param desc the descriptor string
+	 * @return the pooled descriptor
+	 */
+	public static TypeDescriptor parse(String desc) {
+		TypeDescriptor pooled = POOL.get(desc);
+		if (pooled == null) {
+			TypeDescriptor parsed = new TypeDescriptor(desc);
+			if (parsed.containsType()) {
+				parsed.getTypeEntry();
+			}
+
+			pooled = POOL.putIfAbsent(desc, parsed);
+			return pooled == null ? parsed : pooled;
+		}
+
+		return pooled;
+	}
+
 	public static String parseFirst(String in) {
 		if (in == null || in.length() <= 0) {
 			throw new IllegalArgumentException("No desc to parse, input is empty!");
@@ -99,7 +144,7 @@ public class TypeDescriptor implements Translatable {
 	}
 
 	public static TypeDescriptor of(String name) {
-		return new TypeDescriptor("L" + name + ";");
+		return parse("L" + name + ";");
 	}
 
 	@Override
@@ -128,6 +173,15 @@ public class TypeDescriptor implements Translatable {
 	}
 
 	public ClassEntry getTypeEntry() {
+		ClassEntry typeEntry = this.typeEntry;
+		if (typeEntry == null) {
+			typeEntry = this.typeEntry = this.readTypeEntry();
+		}
+
+		return typeEntry;
+	}
+
+	private ClassEntry readTypeEntry() {
 		if (this.isType()) {
 			String name = this.desc.substring(1, this.desc.length() - 1);
 
@@ -162,7 +216,12 @@ public class TypeDescriptor implements Translatable {
 			throw new IllegalStateException("not an array");
 		}
 
-		return new TypeDescriptor(this.desc.substring(this.getArrayDimension()));
+		TypeDescriptor arrayType = this.arrayType;
+		if (arrayType == null) {
+			arrayType = this.arrayType = parse(this.desc.substring(this.getArrayDimension()));
+		}
+
+		return arrayType;
 	}
 
 	public boolean containsType() {
@@ -196,7 +255,7 @@ public class TypeDescriptor implements Translatable {
 			}
 		}
 
-		return new TypeDescriptor(desc);
+		return parse(desc);
 	}
 
 	private static String getArrayPrefix(int dimension) {
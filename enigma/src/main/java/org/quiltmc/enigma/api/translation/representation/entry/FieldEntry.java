@@ -26,7 +26,7 @@ public class FieldEntry extends ParentedEntry<ClassEntry> implements Comparable<
 	}
 
 	public static FieldEntry parse(String owner, String name, String desc) {
-		return new FieldEntry(new ClassEntry(owner), name, new TypeDescriptor(desc), null);
+		return new FieldEntry(new ClassEntry(owner), name, TypeDescriptor.parse(desc), null);
 	}
 
 	@Override
@@ -60,7 +60,8 @@ public class FieldEntry extends ParentedEntry<ClassEntry> implements Comparable<
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.parent, this.name, this.desc);
+		// same as Objects.hash(parent, name, desc), without allocating a varargs array
+		return 31 * (31 * (31 + Objects.hashCode(this.parent)) + Objects.hashCode(this.name)) + Objects.hashCode(this.desc);
 	}
 
 	@Override
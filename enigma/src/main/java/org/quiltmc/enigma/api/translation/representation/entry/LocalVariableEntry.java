@@ -61,7 +61,8 @@ public class LocalVariableEntry extends ParentedEntry<MethodEntry> implements Co
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.parent, this.index);
+		// same as Objects.hash(parent, index), without allocating a varargs array or boxing the index
+		return 31 * (31 + Objects.hashCode(this.parent)) + Integer.hashCode(this.index);
 	}
 
 	@Override
@@ -33,7 +33,7 @@ public class MethodEntry extends ParentedEntry<ClassEntry> implements Comparable
 	}
 
 	public static MethodEntry parse(String owner, String name, String desc) {
-		return new MethodEntry(new ClassEntry(owner), name, new MethodDescriptor(desc), null);
+		return new MethodEntry(new ClassEntry(owner), name, MethodDescriptor.parse(desc), null);
 	}
 
 	@Override
@@ -114,7 +114,8 @@ public class MethodEntry extends ParentedEntry<ClassEntry> implements Comparable
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.parent, this.name, this.descriptor);
+		// same as Objects.hash(parent, name, descriptor), without allocating a varargs array
+		return 31 * (31 * (31 + Objects.hashCode(this.parent)) + Objects.hashCode(this.name)) + Objects.hashCode(this.descriptor);
 	}
 
 	@Override
@@ -21,8 +21,15 @@ public class ClassLoaderClassProvider implements ClassProvider {
 
 	@Nullable
 	@Override
-	@SuppressWarnings("ConstantConditions")
 	public ClassNode get(String name) {
+		byte[] bytes = this.getClassBytes(name);
+		return bytes != null ? AsmUtil.bytesToNode(bytes) : null;
+	}
+
+	@Nullable
+	@Override
+	@SuppressWarnings("ConstantConditions")
+	public byte[] getClassBytes(String name) {
 		try {
 			Class<?> clazz = this.loader.loadClass(name);
 			String className = clazz.getName();
@@ -30,7 +37,7 @@ public class ClassLoaderClassProvider implements ClassProvider {
 			String resourceName = className.substring(i != -1 ? i + 1 : 0) + ".class";
 
 			try (var resource = clazz.getResourceAsStream(resourceName)) {
-				return AsmUtil.bytesToNode(resource.readAllBytes());
+				return resource.readAllBytes();
 			} catch (IOException ignored) {
 				// ignored
 			}
@@ -107,7 +107,7 @@ public class IndexSimpleVerifier extends SimpleVerifier {
 			ClassEntry class2 = new ClassEntry(type2.getInternalName());
 
 			if (this.entryIndex.hasClass(class1) && this.entryIndex.hasClass(class2)) {
-				return this.inheritanceIndex.getAncestors(class2).contains(class1);
+				return this.inheritanceIndex.isAncestor(class2, class1);
 			}
 
 			Class<?> class1Class = this.getClass(Type.getType('L' + class1.getFullName() + ';'));
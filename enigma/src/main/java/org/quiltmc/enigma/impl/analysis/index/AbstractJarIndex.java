@@ -8,6 +8,7 @@ import org.quiltmc.enigma.api.Enigma;
 import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
 import org.quiltmc.enigma.api.analysis.index.jar.BridgeMethodIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ConcurrentJarIndexer;
 import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
@@ -24,23 +25,57 @@ import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
 import org.quiltmc.enigma.util.I18n;
+import org.tinylog.Logger;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public abstract class AbstractJarIndex implements JarIndex {
-	private final Set<String> indexedClasses = new HashSet<>();
+	/**
+	 * The maximum amount of classes indexed by a single worker during parallel indexing.
+	 */
+	private static final int PARALLEL_BATCH_SIZE = 64;
+
+	private final Set<String> indexedClasses = ConcurrentHashMap.newKeySet();
 	private final Map<Class<? extends JarIndexer>, JarIndexer> indexers = new LinkedHashMap<>();
+	/**
+	 * The indexers that receive the index callbacks made on this index.
+	 * While merging the results of parallel indexing, this only contains indexers that aren't {@link ConcurrentJarIndexer concurrent}.
+	 */
+	private Collection<JarIndexer> receivingIndexers;
 	private final IndexEntryResolver entryResolver;
 
 	private final Multimap<String, MethodDefEntry> methodImplementations = HashMultimap.create();
 	private final ListMultimap<ClassEntry, ParentedEntry<?>> childrenByClass;
+	/**
+	 * Held for writing while classes are indexed, see {@link #getReadLock()}.
+	 */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
 	private ProgressListener progress;
+	private volatile long modificationCount;
+	private boolean parallel;
+	@Nullable
+	private Path snapshotPath;
+	private byte[] snapshotChecksum;
+	private List<String> snapshotConfiguration = List.of();
 
 	/**
 	 * Creates a new empty index with all provided indexers.
@@ -52,6 +87,8 @@ public abstract class AbstractJarIndex implements JarIndex {
 			this.indexers.put(indexer.getClass(), indexer);
 		}
 
+		this.receivingIndexers = this.indexers.values();
+
 		this.entryResolver = new IndexEntryResolver(this);
 		this.childrenByClass = ArrayListMultimap.create();
 	}
@@ -71,40 +108,246 @@ public abstract class AbstractJarIndex implements JarIndex {
 		}
 	}
 
+	@Override
+	public boolean hasIndex(Class<? extends JarIndexer> clazz) {
+		return this.indexers.containsKey(clazz);
+	}
+
+	/**
+	 * Sets whether {@link #indexJar(Collection, ClassProvider, ProgressListener)} should visit classes in parallel.
+	 * When enabled, both the entry and reference phases are split across the {@link ForkJoinPool#commonPool() common pool},
+	 * and the class provider used for indexing must be safe to access from multiple threads.
+	 * @param parallel whether to index in parallel
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Sets a file to cache this index's contents in.
+	 * If the file holds a {@link JarIndexSnapshot snapshot} of a jar with the provided checksum,
+	 * {@link #indexJar(Collection, ClassProvider, ProgressListener)} will replay it instead of visiting any classes.
+	 * Otherwise, a new snapshot will be written to the file once the jar's classes have been visited.
+	 * @param snapshotPath the snapshot file, or {@code null} to disable snapshots
+	 * @param jarChecksum the {@link org.quiltmc.enigma.util.Utils#zipSha1(Path) checksum} of the jar that will be indexed
+	 */
+	public void setSnapshot(@Nullable Path snapshotPath, byte[] jarChecksum) {
+		this.setSnapshot(snapshotPath, jarChecksum, List.of());
+	}
+
+	/**
+	 * Sets a file to cache this index's contents in, like {@link #setSnapshot(Path, byte[])}.
+	 * The snapshot is only replayed if it was written with the same configuration, as well as the same indexers.
+	 * @param snapshotPath the snapshot file, or {@code null} to disable snapshots
+	 * @param jarChecksum the {@link org.quiltmc.enigma.util.Utils#zipSha1(Path) checksum} of the jar that will be indexed
+	 * @param configuration anything else that affects what the index contains, such as the jar indexer services in use
+	 */
+	public void setSnapshot(@Nullable Path snapshotPath, byte[] jarChecksum, List<String> configuration) {
+		this.snapshotPath = snapshotPath;
+		this.snapshotChecksum = jarChecksum;
+		this.snapshotConfiguration = List.copyOf(configuration);
+	}
+
+	/**
+	 * {@return the key snapshots of this index are stored under, made of the version of Enigma, the indexers and the snapshot configuration}
+	 */
+	public String getSnapshotKey() {
+		StringJoiner key = new StringJoiner("\n");
+		key.add(Enigma.VERSION);
+		for (JarIndexer indexer : this.indexers.values()) {
+			key.add(indexer.getClass().getName());
+		}
+
+		this.snapshotConfiguration.forEach(key::add);
+		return key.toString();
+	}
+
 	/**
 	 * Runs every configured indexer over the provided jar.
 	 * @param classProvider a class provider containing all classes in the jar
 	 * @param progress a progress listener to track index completion
 	 */
 	protected void indexJar(Collection<String> classNames, ClassProvider classProvider, ProgressListener progress) {
+		this.lock.writeLock().lock();
+		try {
+			this.indexJarLocked(classNames, classProvider, progress);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void indexJarLocked(Collection<String> classNames, ClassProvider classProvider, ProgressListener progress) {
 		// for use in processIndex
 		this.progress = progress;
+		this.modificationCount++;
 
 		this.indexedClasses.addAll(classNames);
 		this.progress.init(4, I18n.translate("progress.jar.indexing"));
 
+		JarIndexSnapshot snapshot = this.readSnapshot();
+		if (snapshot != null) {
+			this.progress.step(1, I18n.translate("progress.jar.indexing.snapshot"));
+			snapshot.replay(this);
+		} else if (this.snapshotPath != null) {
+			JarIndexSnapshot.Writer snapshotWriter = new JarIndexSnapshot.Writer();
+			List<JarIndexer> receivingIndexers = new ArrayList<>(this.indexers.values());
+			receivingIndexers.add(snapshotWriter);
+
+			this.receivingIndexers = receivingIndexers;
+			try {
+				this.visitClasses(classNames, classProvider);
+			} finally {
+				this.receivingIndexers = this.indexers.values();
+			}
+
+			this.writeSnapshot(snapshotWriter);
+		} else {
+			this.visitClasses(classNames, classProvider);
+		}
+
+		this.progress.step(3, I18n.translate("progress.jar.indexing.methods"));
+		this.getIndex(BridgeMethodIndex.class).findBridgeMethods();
+
+		// snapshots only hold callbacks, so processed state is always derived again, even when the classes weren't visited
+		this.processIndex(this);
+
+		this.progress = null;
+		this.modificationCount++;
+	}
+
+	/**
+	 * Indexes more classes into an index that was already indexed, only processing what the new classes change.
+	 * The classes must be indexed along with all of their ancestors that aren't indexed yet.
+	 * @param classNames the classes to index
+	 * @param classProvider a class provider containing the classes
+	 */
+	protected void indexMoreClasses(Collection<String> classNames, ClassProvider classProvider) {
+		this.lock.writeLock().lock();
+		try {
+			this.progress = ProgressListener.createEmpty();
+			this.modificationCount++;
+
+			this.indexedClasses.addAll(classNames);
+			this.visitClasses(classNames, classProvider);
+
+			Set<ClassEntry> classes = new HashSet<>();
+			classNames.forEach(name -> classes.add(new ClassEntry(name)));
+			this.processClasses(this, classes);
+
+			this.progress = null;
+			this.modificationCount++;
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	@Nullable
+	public Lock getReadLock() {
+		return this.indexesOnDemand() ? this.lock.readLock() : null;
+	}
+
+	/**
+	 * {@return whether classes may be indexed into this index after it was built, so that reading it needs the read lock}
+	 */
+	protected boolean indexesOnDemand() {
+		return false;
+	}
+
+	/**
+	 * {@return the lock held while classes are indexed}
+	 */
+	protected Lock getWriteLock() {
+		return this.lock.writeLock();
+	}
+
+	/**
+	 * {@return whether the current thread holds the read lock, and so can't index any classes without deadlocking}
+	 */
+	protected boolean isReading() {
+		return this.lock.getReadHoldCount() > 0 && !this.lock.isWriteLockedByCurrentThread();
+	}
+
+	@Nullable
+	private JarIndexSnapshot readSnapshot() {
+		if (this.snapshotPath == null) {
+			return null;
+		}
+
+		try {
+			JarIndexSnapshot snapshot = JarIndexSnapshot.read(this.snapshotPath, this.snapshotChecksum, this.getSnapshotKey());
+			if (snapshot != null) {
+				Logger.info("Loading index from snapshot {}", this.snapshotPath);
+			}
+
+			return snapshot;
+		} catch (IOException | RuntimeException e) {
+			Logger.warn(e, "Failed to read index snapshot {}, the jar will be indexed from scratch", this.snapshotPath);
+			return null;
+		}
+	}
+
+	private void writeSnapshot(JarIndexSnapshot.Writer snapshotWriter) {
+		try {
+			snapshotWriter.write(this.snapshotPath, this.snapshotChecksum, this.getSnapshotKey());
+		} catch (IOException e) {
+			Logger.warn(e, "Failed to write index snapshot {}", this.snapshotPath);
+		}
+	}
+
+	private void visitClasses(Collection<String> classNames, ClassProvider classProvider) {
 		this.progress.step(1, I18n.translate("progress.jar.indexing.entries"));
 
-		for (String className : classNames) {
-			Objects.requireNonNull(classProvider.get(className)).accept(new IndexClassVisitor(this, Enigma.ASM_VERSION));
+		BiConsumer<JarIndexer, String> entryVisitor = (indexer, className) ->
+				Objects.requireNonNull(classProvider.get(className)).accept(new IndexClassVisitor(indexer, Enigma.ASM_VERSION));
+		if (this.parallel) {
+			this.indexParallel(classNames, entryVisitor, true);
+		} else {
+			classNames.forEach(className -> entryVisitor.accept(this, className));
 		}
 
 		this.progress.step(2, I18n.translate("progress.jar.indexing.references"));
 
-		for (String className : classNames) {
+		EntryIndex entryIndex = this.getIndex(EntryIndex.class);
+		InheritanceIndex inheritanceIndex = this.getIndex(InheritanceIndex.class);
+		BiConsumer<JarIndexer, String> referenceVisitor = (indexer, className) -> {
 			try {
-				Objects.requireNonNull(classProvider.get(className)).accept(new IndexReferenceVisitor(this, this.getIndex(EntryIndex.class), this.getIndex(InheritanceIndex.class), Enigma.ASM_VERSION));
+				Objects.requireNonNull(classProvider.get(className)).accept(new IndexReferenceVisitor(indexer, entryIndex, inheritanceIndex, Enigma.ASM_VERSION));
 			} catch (Exception e) {
 				throw new RuntimeException("Exception while indexing class: " + className, e);
 			}
+		};
+		if (this.parallel) {
+			this.indexParallel(classNames, referenceVisitor, false);
+		} else {
+			classNames.forEach(className -> referenceVisitor.accept(this, className));
 		}
+	}
 
-		this.progress.step(3, I18n.translate("progress.jar.indexing.methods"));
-		this.getIndex(BridgeMethodIndex.class).findBridgeMethods();
-
-		this.processIndex(this);
-
-		this.progress = null;
+	/**
+	 * Splits the classes between workers on the common fork-join pool, then merges each worker's results into this index, in class order.
+	 * @param classNames the classes to index
+	 * @param visitor visits a single class, sending the results to the provided indexer
+	 * @param recordBookkeeping whether the callbacks need to be replayed on this index even if all indexers are concurrent
+	 */
+	private void indexParallel(Collection<String> classNames, BiConsumer<JarIndexer, String> visitor, boolean recordBookkeeping) {
+		List<JarIndexer> receivingIndexers = List.copyOf(this.receivingIndexers);
+		List<JarIndexer> sequentialIndexers = receivingIndexers.stream()
+				.filter(indexer -> !(indexer instanceof ConcurrentJarIndexer<?>))
+				.toList();
+		boolean record = recordBookkeeping || !sequentialIndexers.isEmpty();
+
+		List<String> names = List.copyOf(classNames);
+		List<IndexingWorker> workers = ForkJoinPool.commonPool().invoke(new IndexingTask(names, 0, names.size(), visitor, record));
+
+		this.receivingIndexers = sequentialIndexers;
+		try {
+			for (IndexingWorker worker : workers) {
+				worker.mergeInto(this);
+			}
+		} finally {
+			this.receivingIndexers = receivingIndexers;
+		}
 	}
 
 	@Override
@@ -119,6 +362,11 @@ public abstract class AbstractJarIndex implements JarIndex {
 		this.stepProcessingProgress("progress.jar.indexing.process.done");
 	}
 
+	@Override
+	public void processClasses(JarIndex index, Set<ClassEntry> classes) {
+		this.indexers.values().forEach(indexer -> indexer.processClasses(index, classes));
+	}
+
 	private void stepProcessingProgress(String key) {
 		if (this.progress != null) {
 			this.progress.step(4, I18n.translateFormatted("progress.jar.indexing.process", I18n.translate(key)));
@@ -133,7 +381,7 @@ public abstract class AbstractJarIndex implements JarIndex {
 			}
 		}
 
-		this.indexers.forEach((key, indexer) -> indexer.indexClass(classEntry));
+		this.receivingIndexers.forEach(indexer -> indexer.indexClass(classEntry));
 		if (classEntry.isInnerClass() && !classEntry.getAccess().isSynthetic()) {
 			this.childrenByClass.put(classEntry.getParent(), classEntry);
 		}
@@ -141,7 +389,7 @@ public abstract class AbstractJarIndex implements JarIndex {
 
 	@Override
 	public void indexField(FieldDefEntry fieldEntry) {
-		this.indexers.forEach((key, indexer) -> indexer.indexField(fieldEntry));
+		this.receivingIndexers.forEach(indexer -> indexer.indexField(fieldEntry));
 		if (!fieldEntry.getAccess().isSynthetic()) {
 			this.childrenByClass.put(fieldEntry.getParent(), fieldEntry);
 		}
@@ -149,7 +397,7 @@ public abstract class AbstractJarIndex implements JarIndex {
 
 	@Override
 	public void indexMethod(MethodDefEntry methodEntry) {
-		this.indexers.forEach((key, indexer) -> indexer.indexMethod(methodEntry));
+		this.receivingIndexers.forEach(indexer -> indexer.indexMethod(methodEntry));
 		if (!methodEntry.getAccess().isSynthetic() && !methodEntry.getName().equals("<clinit>")) {
 			this.childrenByClass.put(methodEntry.getParent(), methodEntry);
 		}
@@ -161,27 +409,27 @@ public abstract class AbstractJarIndex implements JarIndex {
 
 	@Override
 	public void indexClassReference(MethodDefEntry callerEntry, ClassEntry referencedEntry, ReferenceTargetType targetType) {
-		this.indexers.forEach((key, indexer) -> indexer.indexClassReference(callerEntry, referencedEntry, targetType));
+		this.receivingIndexers.forEach(indexer -> indexer.indexClassReference(callerEntry, referencedEntry, targetType));
 	}
 
 	@Override
 	public void indexMethodReference(MethodDefEntry callerEntry, MethodEntry referencedEntry, ReferenceTargetType targetType) {
-		this.indexers.forEach((key, indexer) -> indexer.indexMethodReference(callerEntry, referencedEntry, targetType));
+		this.receivingIndexers.forEach(indexer -> indexer.indexMethodReference(callerEntry, referencedEntry, targetType));
 	}
 
 	@Override
 	public void indexFieldReference(MethodDefEntry callerEntry, FieldEntry referencedEntry, ReferenceTargetType targetType) {
-		this.indexers.forEach((key, indexer) -> indexer.indexFieldReference(callerEntry, referencedEntry, targetType));
+		this.receivingIndexers.forEach(indexer -> indexer.indexFieldReference(callerEntry, referencedEntry, targetType));
 	}
 
 	@Override
 	public void indexLambda(MethodDefEntry callerEntry, Lambda lambda, ReferenceTargetType targetType) {
-		this.indexers.forEach((key, indexer) -> indexer.indexLambda(callerEntry, lambda, targetType));
+		this.receivingIndexers.forEach(indexer -> indexer.indexLambda(callerEntry, lambda, targetType));
 	}
 
 	@Override
 	public void indexEnclosingMethod(ClassDefEntry classEntry, EnclosingMethodData enclosingMethodData) {
-		this.indexers.forEach((key, indexer) -> indexer.indexEnclosingMethod(classEntry, enclosingMethodData));
+		this.receivingIndexers.forEach(indexer -> indexer.indexEnclosingMethod(classEntry, enclosingMethodData));
 	}
 
 	@Override
@@ -198,5 +446,128 @@ public abstract class AbstractJarIndex implements JarIndex {
 	public boolean isIndexed(String internalName) {
 		return this.indexedClasses.contains(internalName);
 	}
-}
 
+	@Override
+	public long getModificationCount() {
+		return this.modificationCount;
+	}
+
+	// tasks are never serialized, and the index they belong to isn't serializable
+	@SuppressWarnings("serial")
+	private final class IndexingTask extends RecursiveTask<List<IndexingWorker>> {
+		private final List<String> classNames;
+		private final int start;
+		private final int end;
+		private final BiConsumer<JarIndexer, String> visitor;
+		private final boolean record;
+
+		IndexingTask(List<String> classNames, int start, int end, BiConsumer<JarIndexer, String> visitor, boolean record) {
+			this.classNames = classNames;
+			this.start = start;
+			this.end = end;
+			this.visitor = visitor;
+			this.record = record;
+		}
+
+		@Override
+		protected List<IndexingWorker> compute() {
+			if (this.end - this.start <= PARALLEL_BATCH_SIZE) {
+				IndexingWorker worker = new IndexingWorker(this.record);
+				for (int i = this.start; i < this.end; i++) {
+					this.visitor.accept(worker, this.classNames.get(i));
+				}
+
+				List<IndexingWorker> workers = new ArrayList<>();
+				workers.add(worker);
+				return workers;
+			}
+
+			int middle = (this.start + this.end) >>> 1;
+			IndexingTask first = new IndexingTask(this.classNames, this.start, middle, this.visitor, this.record);
+			IndexingTask second = new IndexingTask(this.classNames, middle, this.end, this.visitor, this.record);
+			first.fork();
+
+			List<IndexingWorker> secondWorkers = second.compute();
+			List<IndexingWorker> workers = first.join();
+			workers.addAll(secondWorkers);
+			return workers;
+		}
+	}
+
+	/**
+	 * Collects the index callbacks for a batch of classes: concurrent indexers are fed directly through their forks,
+	 * while every other callback is recorded to be replayed on the index once all workers have finished.
+	 */
+	private final class IndexingWorker implements JarIndexer {
+		private final Map<JarIndexer, JarIndexer> forks = new LinkedHashMap<>();
+		private final List<Consumer<JarIndexer>> recorded = new ArrayList<>();
+		private final boolean record;
+
+		IndexingWorker(boolean record) {
+			this.record = record;
+			for (JarIndexer indexer : AbstractJarIndex.this.indexers.values()) {
+				if (indexer instanceof ConcurrentJarIndexer<?> concurrentIndexer) {
+					this.forks.put(indexer, concurrentIndexer.fork());
+				}
+			}
+		}
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		void mergeInto(AbstractJarIndex index) {
+			this.forks.forEach((indexer, fork) -> ((ConcurrentJarIndexer) indexer).merge((ConcurrentJarIndexer) fork));
+			this.recorded.forEach(callback -> callback.accept(index));
+		}
+
+		private void dispatch(Consumer<JarIndexer> callback) {
+			this.forks.values().forEach(callback);
+			if (this.record) {
+				this.recorded.add(callback);
+			}
+		}
+
+		@Override
+		public void indexClass(ClassDefEntry classEntry) {
+			this.dispatch(indexer -> indexer.indexClass(classEntry));
+		}
+
+		@Override
+		public void indexField(FieldDefEntry fieldEntry) {
+			this.dispatch(indexer -> indexer.indexField(fieldEntry));
+		}
+
+		@Override
+		public void indexMethod(MethodDefEntry methodEntry) {
+			this.dispatch(indexer -> indexer.indexMethod(methodEntry));
+		}
+
+		@Override
+		public void indexClassReference(MethodDefEntry callerEntry, ClassEntry referencedEntry, ReferenceTargetType targetType) {
+			this.dispatch(indexer -> indexer.indexClassReference(callerEntry, referencedEntry, targetType));
+		}
+
+		@Override
+		public void indexMethodReference(MethodDefEntry callerEntry, MethodEntry referencedEntry, ReferenceTargetType targetType) {
+			this.dispatch(indexer -> indexer.indexMethodReference(callerEntry, referencedEntry, targetType));
+		}
+
+		@Override
+		public void indexFieldReference(MethodDefEntry callerEntry, FieldEntry referencedEntry, ReferenceTargetType targetType) {
+			this.dispatch(indexer -> indexer.indexFieldReference(callerEntry, referencedEntry, targetType));
+		}
+
+		@Override
+		public void indexLambda(MethodDefEntry callerEntry, Lambda lambda, ReferenceTargetType targetType) {
+			this.dispatch(indexer -> indexer.indexLambda(callerEntry, lambda, targetType));
+		}
+
+		@Override
+		public void indexEnclosingMethod(ClassDefEntry classEntry, EnclosingMethodData enclosingMethodData) {
+			this.dispatch(indexer -> indexer.indexEnclosingMethod(classEntry, enclosingMethodData));
+		}
+
+		@Override
+		public String getTranslationKey() {
+			return AbstractJarIndex.this.getTranslationKey();
+		}
+	}
+}
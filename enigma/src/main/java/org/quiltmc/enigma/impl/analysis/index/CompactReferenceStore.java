@@ -0,0 +1,411 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stores references as rows of {@code int}s over interned entry ids.
+ * <br>
+ * Each kind of reference is a table of (key, value, target type) records. On the first query, the records are grouped by key
+ * into compressed sparse row arrays, which are only rebuilt once more references are added or resolved.
+ * Resolving maps every distinct entry through the resolver exactly once, and rewrites the records in place.
+ * {@link EntryReference} objects are only created when a row is queried, and aren't retained.
+ */
+public class CompactReferenceStore implements ReferenceStore {
+	private static final int TARGET_NONE = 0;
+	private static final int TARGET_UNINITIALIZED = 1;
+	private static final int TARGET_CLASS_TYPE = 2;
+
+	/**
+	 * The referenced entries, which are the keys of all tables, and the values of {@link #methodReferences}.
+	 */
+	private InternedEntryTable<Entry<?>> entries = new InternedEntryTable<>();
+	/**
+	 * The definitions that references are made from.
+	 */
+	private InternedEntryTable<Entry<?>> contexts = new InternedEntryTable<>();
+	private final InternedEntryTable<ClassEntry> targetClasses = new InternedEntryTable<>();
+	/**
+	 * The number of entries and contexts that were already resolved, which always come first in their tables.
+	 */
+	private int resolvedEntryCount;
+	private int resolvedContextCount;
+
+	private final Table methodReferences = new Table();
+	private final Table referencesToMethods = new Table();
+	private final Table referencesToClasses = new Table();
+	private final Table referencesToFields = new Table();
+	private final Table fieldTypeReferences = new Table();
+	private final Table methodTypeReferences = new Table();
+
+	@Override
+	public void addMethodReference(MethodDefEntry caller, MethodEntry referenced, ReferenceTargetType targetType) {
+		int referencedId = this.entries.intern(referenced);
+		this.referencesToMethods.add(referencedId, this.contexts.intern(caller), this.internTargetType(targetType));
+		this.methodReferences.add(this.entries.intern(caller), referencedId, TARGET_NONE);
+	}
+
+	@Override
+	public void addClassReference(MethodDefEntry caller, ClassEntry referenced, ReferenceTargetType targetType) {
+		this.referencesToClasses.add(this.entries.intern(referenced), this.contexts.intern(caller), this.internTargetType(targetType));
+	}
+
+	@Override
+	public void addFieldReference(MethodDefEntry caller, FieldEntry referenced, ReferenceTargetType targetType) {
+		this.referencesToFields.add(this.entries.intern(referenced), this.contexts.intern(caller), this.internTargetType(targetType));
+	}
+
+	@Override
+	public void addFieldTypeReference(FieldDefEntry field, ClassEntry referenced) {
+		this.fieldTypeReferences.add(this.entries.intern(referenced), this.contexts.intern(field), TARGET_NONE);
+	}
+
+	@Override
+	public void addMethodTypeReference(MethodDefEntry method, ClassEntry referenced) {
+		this.methodTypeReferences.add(this.entries.intern(referenced), this.contexts.intern(method), TARGET_NONE);
+	}
+
+	private int internTargetType(ReferenceTargetType targetType) {
+		return switch (targetType.getKind()) {
+			case NONE -> TARGET_NONE;
+			case UNINITIALIZED -> TARGET_UNINITIALIZED;
+			case CLASS_TYPE -> TARGET_CLASS_TYPE + this.targetClasses.intern(((ReferenceTargetType.ClassType) targetType).getEntry());
+		};
+	}
+
+	private ReferenceTargetType getTargetType(int targetType) {
+		return switch (targetType) {
+			case TARGET_NONE -> ReferenceTargetType.none();
+			case TARGET_UNINITIALIZED -> ReferenceTargetType.uninitialized();
+			default -> ReferenceTargetType.classType(this.targetClasses.get(targetType - TARGET_CLASS_TYPE));
+		};
+	}
+
+	@Override
+	public ReferenceStore fork() {
+		return new CompactReferenceStore();
+	}
+
+	@Override
+	public void merge(ReferenceStore fork) {
+		CompactReferenceStore store = (CompactReferenceStore) fork;
+		int[] entryIds = internAll(this.entries, store.entries);
+		int[] contextIds = internAll(this.contexts, store.contexts);
+		int[] targetClassIds = internAll(this.targetClasses, store.targetClasses);
+
+		int[] targetTypeIds = new int[TARGET_CLASS_TYPE + targetClassIds.length];
+		targetTypeIds[TARGET_UNINITIALIZED] = TARGET_UNINITIALIZED;
+		for (int i = 0; i < targetClassIds.length; i++) {
+			targetTypeIds[TARGET_CLASS_TYPE + i] = TARGET_CLASS_TYPE + targetClassIds[i];
+		}
+
+		this.methodReferences.addAll(store.methodReferences, entryIds, entryIds, targetTypeIds);
+		this.referencesToMethods.addAll(store.referencesToMethods, entryIds, contextIds, targetTypeIds);
+		this.referencesToClasses.addAll(store.referencesToClasses, entryIds, contextIds, targetTypeIds);
+		this.referencesToFields.addAll(store.referencesToFields, entryIds, contextIds, targetTypeIds);
+		this.fieldTypeReferences.addAll(store.fieldTypeReferences, entryIds, contextIds, targetTypeIds);
+		this.methodTypeReferences.addAll(store.methodTypeReferences, entryIds, contextIds, targetTypeIds);
+	}
+
+	private static <E extends Entry<?>> int[] internAll(InternedEntryTable<E> table, InternedEntryTable<E> from) {
+		int[] ids = new int[from.size()];
+		for (int id = 0; id < ids.length; id++) {
+			ids[id] = table.intern(from.get(id));
+		}
+
+		return ids;
+	}
+
+	@Override
+	public void resolve(EntryResolver resolver) {
+		InternedEntryTable<Entry<?>> resolvedEntries = new InternedEntryTable<>();
+		int[] entryIds = resolveAll(resolver, this.entries, resolvedEntries);
+		InternedEntryTable<Entry<?>> resolvedContexts = new InternedEntryTable<>();
+		int[] contextIds = resolveAll(resolver, this.contexts, resolvedContexts);
+
+		this.methodReferences.remap(entryIds, entryIds);
+		this.referencesToMethods.remap(entryIds, contextIds);
+		this.referencesToClasses.remap(entryIds, contextIds);
+		this.referencesToFields.remap(entryIds, contextIds);
+		this.fieldTypeReferences.remap(entryIds, contextIds);
+		this.methodTypeReferences.remap(entryIds, contextIds);
+
+		this.entries = resolvedEntries;
+		this.contexts = resolvedContexts;
+		this.resolvedEntryCount = resolvedEntries.size();
+		this.resolvedContextCount = resolvedContexts.size();
+	}
+
+	@Override
+	public void resolve(EntryResolver resolver, Set<ClassEntry> classes) {
+		int[] entryIds = resolveClasses(resolver, classes, this.entries, this.resolvedEntryCount);
+		int[] contextIds = resolveClasses(resolver, classes, this.contexts, this.resolvedContextCount);
+		this.resolvedEntryCount = this.entries.size();
+		this.resolvedContextCount = this.contexts.size();
+		if (entryIds == null && contextIds == null) {
+			return;
+		}
+
+		entryIds = entryIds != null ? entryIds : identity(this.entries.size());
+		contextIds = contextIds != null ? contextIds : identity(this.contexts.size());
+
+		this.methodReferences.remap(entryIds, entryIds);
+		this.referencesToMethods.remap(entryIds, contextIds);
+		this.referencesToClasses.remap(entryIds, contextIds);
+		this.referencesToFields.remap(entryIds, contextIds);
+		this.fieldTypeReferences.remap(entryIds, contextIds);
+		this.methodTypeReferences.remap(entryIds, contextIds);
+	}
+
+	/**
+	 * Resolves the entries of the provided classes, along with every entry that wasn't resolved yet,
+	 * interning the resolved entries into the same table.
+	 * The entries that were resolved stay in the table, but are no longer referenced by any record.
+	 *
+	 * @return the new id of every entry, or {@code null} if every entry resolved to itself
+	 */
+	@Nullable
+	private static int[] resolveClasses(EntryResolver resolver, Set<ClassEntry> classes, InternedEntryTable<Entry<?>> entries, int resolvedCount) {
+		int size = entries.size();
+		int[] ids = null;
+		for (int id = 0; id < size; id++) {
+			Entry<?> entry = entries.get(id);
+			if (id < resolvedCount && !classes.contains(entry.getContainingClass())) {
+				continue;
+			}
+
+			Entry<?> resolved = resolver.resolveFirstEntry(entry, ResolutionStrategy.RESOLVE_CLOSEST);
+			if (!resolved.equals(entry)) {
+				if (ids == null) {
+					ids = identity(size);
+				}
+
+				ids[id] = entries.intern(resolved);
+			}
+		}
+
+		return ids;
+	}
+
+	private static int[] identity(int size) {
+		int[] ids = new int[size];
+		Arrays.setAll(ids, id -> id);
+		return ids;
+	}
+
+	private static int[] resolveAll(EntryResolver resolver, InternedEntryTable<Entry<?>> entries, InternedEntryTable<Entry<?>> resolved) {
+		int[] ids = new int[entries.size()];
+		for (int id = 0; id < ids.length; id++) {
+			ids[id] = resolved.intern(resolver.resolveFirstEntry(entries.get(id), ResolutionStrategy.RESOLVE_CLOSEST));
+		}
+
+		return ids;
+	}
+
+	@Override
+	public Collection<MethodEntry> getMethodsReferencedBy(MethodEntry entry) {
+		int id = this.entries.indexOf(entry);
+		if (id < 0) {
+			return Collections.emptyList();
+		}
+
+		Rows rows = this.methodReferences.getRows(this.entries.size());
+		List<MethodEntry> methods = new ArrayList<>(rows.count(id));
+		for (int i = rows.start(id); i < rows.end(id); i++) {
+			methods.add((MethodEntry) this.entries.get(this.methodReferences.values[rows.records[i]]));
+		}
+
+		return methods;
+	}
+
+	@Override
+	public Collection<EntryReference<FieldEntry, MethodDefEntry>> getReferencesToField(FieldEntry entry) {
+		return this.getReferences(this.referencesToFields, entry);
+	}
+
+	@Override
+	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getReferencesToClass(ClassEntry entry) {
+		return this.getReferences(this.referencesToClasses, entry);
+	}
+
+	@Override
+	public Collection<EntryReference<MethodEntry, MethodDefEntry>> getReferencesToMethod(MethodEntry entry) {
+		return this.getReferences(this.referencesToMethods, entry);
+	}
+
+	@Override
+	public Collection<EntryReference<ClassEntry, FieldDefEntry>> getFieldTypeReferencesToClass(ClassEntry entry) {
+		return this.getReferences(this.fieldTypeReferences, entry);
+	}
+
+	@Override
+	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getMethodTypeReferencesToClass(ClassEntry entry) {
+		return this.getReferences(this.methodTypeReferences, entry);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <E extends Entry<?>, C extends Entry<?>> Collection<EntryReference<E, C>> getReferences(Table table, E entry) {
+		int id = this.entries.indexOf(entry);
+		if (id < 0) {
+			return Collections.emptyList();
+		}
+
+		Rows rows = table.getRows(this.entries.size());
+		E referenced = (E) this.entries.get(id);
+		List<EntryReference<E, C>> references = new ArrayList<>(rows.count(id));
+		for (int i = rows.start(id); i < rows.end(id); i++) {
+			int record = rows.records[i];
+			C context = (C) this.contexts.get(table.values[record]);
+			references.add(new EntryReference<>(referenced, referenced.getName(), context, this.getTargetType(table.targetTypes[record])));
+		}
+
+		return references;
+	}
+
+	@Override
+	public Set<ClassEntry> getReferencedClasses() {
+		Set<ClassEntry> classes = new HashSet<>();
+		for (Table table : List.of(this.referencesToClasses, this.fieldTypeReferences, this.methodTypeReferences)) {
+			for (int i = 0; i < table.size; i++) {
+				classes.add((ClassEntry) this.entries.get(table.keys[i]));
+			}
+		}
+
+		for (Table table : List.of(this.referencesToMethods, this.referencesToFields)) {
+			for (int i = 0; i < table.size; i++) {
+				classes.add(this.entries.get(table.keys[i]).getContainingClass());
+			}
+		}
+
+		return classes;
+	}
+
+	/**
+	 * The records of one kind of reference, in insertion order.
+	 */
+	private static final class Table {
+		private int[] keys = new int[0];
+		private int[] values = new int[0];
+		private int[] targetTypes = new int[0];
+		private int size;
+
+		private volatile Rows rows;
+
+		void add(int key, int value, int targetType) {
+			if (this.size == this.keys.length) {
+				int capacity = Math.max(16, this.size * 2);
+				this.keys = Arrays.copyOf(this.keys, capacity);
+				this.values = Arrays.copyOf(this.values, capacity);
+				this.targetTypes = Arrays.copyOf(this.targetTypes, capacity);
+			}
+
+			this.keys[this.size] = key;
+			this.values[this.size] = value;
+			this.targetTypes[this.size] = targetType;
+			this.size++;
+			this.rows = null;
+		}
+
+		void addAll(Table table, int[] keyIds, int[] valueIds, int[] targetTypeIds) {
+			for (int i = 0; i < table.size; i++) {
+				this.add(keyIds[table.keys[i]], valueIds[table.values[i]], targetTypeIds[table.targetTypes[i]]);
+			}
+		}
+
+		void remap(int[] keyIds, int[] valueIds) {
+			for (int i = 0; i < this.size; i++) {
+				this.keys[i] = keyIds[this.keys[i]];
+				this.values[i] = valueIds[this.values[i]];
+			}
+
+			this.rows = null;
+		}
+
+		Rows getRows(int keyCount) {
+			Rows rows = this.rows;
+			if (rows != null) {
+				return rows;
+			}
+
+			synchronized (this) {
+				if (this.rows == null) {
+					this.rows = Rows.build(this, keyCount);
+				}
+
+				return this.rows;
+			}
+		}
+	}
+
+	/**
+	 * The records of a table, grouped by key: the records for key {@code id} are {@code records[offsets[id]]} up to
+	 * {@code records[offsets[id + 1]]}. Records with the same key and value are only included once.
+	 */
+	private record Rows(int[] offsets, int[] records) {
+		int start(int id) {
+			return id + 1 < this.offsets.length ? this.offsets[id] : 0;
+		}
+
+		int end(int id) {
+			return id + 1 < this.offsets.length ? this.offsets[id + 1] : 0;
+		}
+
+		int count(int id) {
+			return this.end(id) - this.start(id);
+		}
+
+		static Rows build(Table table, int keyCount) {
+			int[] offsets = new int[keyCount + 1];
+			for (int i = 0; i < table.size; i++) {
+				offsets[table.keys[i] + 1]++;
+			}
+
+			for (int id = 0; id < keyCount; id++) {
+				offsets[id + 1] += offsets[id];
+			}
+
+			// sort records by value within each row, keeping the first of any duplicates
+			long[] sorted = new long[table.size];
+			int[] positions = Arrays.copyOf(offsets, keyCount);
+			for (int i = 0; i < table.size; i++) {
+				sorted[positions[table.keys[i]]++] = (long) table.values[i] << 32 | i;
+			}
+
+			int size = 0;
+			int[] records = new int[table.size];
+			int[] compacted = new int[keyCount + 1];
+			for (int id = 0; id < keyCount; id++) {
+				int start = offsets[id];
+				int end = offsets[id + 1];
+				Arrays.sort(sorted, start, end);
+
+				compacted[id] = size;
+				for (int i = start; i < end; i++) {
+					if (i == start || (sorted[i] >>> 32) != (sorted[i - 1] >>> 32)) {
+						records[size++] = (int) sorted[i];
+					}
+				}
+			}
+
+			compacted[keyCount] = size;
+			return new Rows(compacted, size == records.length ? records : Arrays.copyOf(records, size));
+		}
+	}
+}
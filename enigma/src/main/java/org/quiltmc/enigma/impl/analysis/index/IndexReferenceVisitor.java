@@ -165,10 +165,10 @@ public class IndexReferenceVisitor extends ClassVisitor {
 
 					this.indexer.indexLambda(this.callerEntry, new Lambda(
 							invokeDynamicInsn.name,
-							new MethodDescriptor(invokeDynamicInsn.desc),
-							new MethodDescriptor(samMethodType.getDescriptor()),
+							MethodDescriptor.parse(invokeDynamicInsn.desc),
+							MethodDescriptor.parse(samMethodType.getDescriptor()),
 							getHandleEntry(implMethod),
-							new MethodDescriptor(instantiatedMethodType.getDescriptor())
+							MethodDescriptor.parse(instantiatedMethodType.getDescriptor())
 					), targetType);
 				}
 			}
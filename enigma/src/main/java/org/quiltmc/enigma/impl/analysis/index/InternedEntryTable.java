@@ -0,0 +1,199 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import javax.annotation.Nullable;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An insertion-ordered set of entries, which assigns each entry a dense {@code int} id.
+ * <br>
+ * Entries are kept in a single array indexed by id, and looked up through an open-addressed table of ids,
+ * so that no hash nodes or boxed keys are allocated per entry. Ids are never reused, since entries cannot be removed.
+ * <br>
+ * Like {@link java.util.HashMap}, this table is not safe to modify from multiple threads,
+ * but may be read concurrently once it is no longer modified.
+ *
+ * @param <E> the type of entries in the table
+ */
+public final class InternedEntryTable<E extends Entry<?>> extends AbstractCollection<E> {
+	private static final int EMPTY = -1;
+	private static final int INITIAL_CAPACITY = 16;
+
+	private Object[] entries = new Object[INITIAL_CAPACITY];
+	/**
+	 * Open-addressed table of entry ids, using linear probing. Always at most half full.
+	 */
+	private int[] slots = newSlots(INITIAL_CAPACITY * 2);
+	private int size;
+
+	private static int[] newSlots(int capacity) {
+		int[] slots = new int[capacity];
+		Arrays.fill(slots, EMPTY);
+		return slots;
+	}
+
+	private static int mix(int hash) {
+		// spread the upper bits, since entry hashes are mostly string hashes
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Gets the id of an entry in this table.
+	 *
+	 * @param entry the entry to look up
+	 * @return the entry's id, or {@code -1} if it isn't in this table
+	 */
+	public int indexOf(@Nullable Object entry) {
+		if (entry == null) {
+			return EMPTY;
+		}
+
+		int mask = this.slots.length - 1;
+		for (int slot = mix(entry.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+			int id = this.slots[slot];
+			if (id == EMPTY || entry.equals(this.entries[id])) {
+				return id;
+			}
+		}
+	}
+
+	/**
+	 * Adds an entry to this table, if an equal entry isn't already present.
+	 *
+	 * @param entry the entry to add
+	 * @return the id of the entry, or of the equal entry that was already present
+	 */
+	public int intern(E entry) {
+		return this.insert(entry, false);
+	}
+
+	/**
+	 * Adds an entry to this table, replacing any equal entry while keeping its id.
+	 * This is useful for definition entries, which are equal to other definitions of the same entry.
+	 *
+	 * @param entry the entry to add
+	 * @return the id of the entry
+	 */
+	public int put(E entry) {
+		return this.insert(entry, true);
+	}
+
+	private int insert(E entry, boolean replace) {
+		int mask = this.slots.length - 1;
+		int slot = mix(entry.hashCode()) & mask;
+		for (; this.slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+			int id = this.slots[slot];
+			if (entry.equals(this.entries[id])) {
+				if (replace) {
+					this.entries[id] = entry;
+				}
+
+				return id;
+			}
+		}
+
+		int id = this.size++;
+		if (id == this.entries.length) {
+			this.entries = Arrays.copyOf(this.entries, id * 2);
+		}
+
+		this.entries[id] = entry;
+		this.slots[slot] = id;
+
+		if (this.size * 2 > this.slots.length) {
+			this.rehash(this.slots.length * 2);
+		}
+
+		return id;
+	}
+
+	private void rehash(int capacity) {
+		int[] slots = newSlots(capacity);
+		int mask = capacity - 1;
+		for (int id = 0; id < this.size; id++) {
+			int slot = mix(this.entries[id].hashCode()) & mask;
+			while (slots[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+
+			slots[slot] = id;
+		}
+
+		this.slots = slots;
+	}
+
+	/**
+	 * Gets the entry with the provided id.
+	 *
+	 * @param id an id returned by this table
+	 * @return the entry
+	 */
+	@SuppressWarnings("unchecked")
+	public E get(int id) {
+		if (id < 0 || id >= this.size) {
+			throw new IndexOutOfBoundsException(id);
+		}
+
+		return (E) this.entries[id];
+	}
+
+	/**
+	 * Gets the entry in this table that is equal to the provided entry.
+	 *
+	 * @param entry the entry to look up
+	 * @return the stored entry, or {@code null} if no equal entry is present
+	 */
+	@Nullable
+	public E find(@Nullable Object entry) {
+		int id = this.indexOf(entry);
+		return id == EMPTY ? null : this.get(id);
+	}
+
+	@Override
+	public boolean contains(Object entry) {
+		return this.indexOf(entry) != EMPTY;
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<>() {
+			private final int expectedSize = InternedEntryTable.this.size;
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return this.next < this.expectedSize;
+			}
+
+			@Override
+			public E next() {
+				if (InternedEntryTable.this.size != this.expectedSize) {
+					throw new ConcurrentModificationException();
+				} else if (!this.hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				return InternedEntryTable.this.get(this.next++);
+			}
+		};
+	}
+
+	/**
+	 * Adding through the collection interface is not supported, use {@link #intern(Entry)} or {@link #put(Entry)} instead.
+	 */
+	@Override
+	public boolean add(E entry) {
+		throw new UnsupportedOperationException();
+	}
+}
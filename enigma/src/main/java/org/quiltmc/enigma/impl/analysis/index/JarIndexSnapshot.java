@@ -0,0 +1,476 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndexer;
+import org.quiltmc.enigma.api.translation.representation.ArgumentDescriptor;
+import org.quiltmc.enigma.api.translation.representation.Lambda;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.ParameterAccessFlags;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A binary snapshot of every callback made while indexing a jar.
+ * Replaying a snapshot into a {@link JarIndexer} produces exactly the same state as visiting the jar's bytecode,
+ * which lets an index be rebuilt without reading or analysing any classes.
+ * <br>
+ * Snapshots are keyed by the {@link org.quiltmc.enigma.util.Utils#zipSha1(Path) checksum} of the indexed jar and a key describing
+ * what indexed it, such as the version of Enigma and the indexers in use, and are considered stale if either doesn't match.
+ * A snapshot ends with a CRC32 of everything before it, which is checked when it's read, so replaying it never fails halfway through.
+ * <br>
+ * Only the callbacks are recorded, not the state the indexers derive from them once the jar has been visited:
+ * {@link JarIndexer#processIndex(org.quiltmc.enigma.api.analysis.index.jar.JarIndex) processing} is still run after replaying.
+ * Processing includes indexers supplied by plugins, whose processed state has no format to be stored in,
+ * and costs far less than reading and visiting the jar's classes, which is what the snapshot saves.
+ *
+ * <p>The format is a header, followed by a table of every distinct string, followed by the recorded callbacks and the CRC32.
+ * Callbacks reference strings by their index in the table, using {@code -1} for {@code null}.
+ */
+public final class JarIndexSnapshot {
+	private static final int MAGIC = 0x454E4958; // "ENIX"
+	private static final int FORMAT_VERSION = 3;
+	private static final int CHECKSUM_LENGTH = 20;
+
+	private static final byte CLASS = 0;
+	private static final byte FIELD = 1;
+	private static final byte METHOD = 2;
+	private static final byte CLASS_REFERENCE = 3;
+	private static final byte METHOD_REFERENCE = 4;
+	private static final byte FIELD_REFERENCE = 5;
+	private static final byte LAMBDA = 6;
+	private static final byte ENCLOSING_METHOD = 7;
+
+	private static final byte TARGET_NONE = 0;
+	private static final byte TARGET_UNINITIALIZED = 1;
+	private static final byte TARGET_CLASS = 2;
+
+	private final String[] strings;
+	private final ByteBuffer callbacks;
+	private final int callbackCount;
+	private final ClassEntry[] classCache;
+
+	private JarIndexSnapshot(String[] strings, ByteBuffer callbacks, int callbackCount) {
+		this.strings = strings;
+		this.callbacks = callbacks;
+		this.callbackCount = callbackCount;
+		this.classCache = new ClassEntry[strings.length];
+	}
+
+	/**
+	 * Reads the snapshot at the provided path into memory, closing the file before returning.
+	 * @param path the snapshot file
+	 * @param jarChecksum the checksum of the jar that is about to be indexed
+	 * @param key the key of the index that is about to be indexed
+	 * @return the snapshot, or {@code null} if there is no snapshot at the path or it was written for a different jar or key
+	 * @throws IOException if the snapshot could not be read, or is corrupt
+	 */
+	@Nullable
+	public static JarIndexSnapshot read(Path path, byte[] jarChecksum, String key) throws IOException {
+		if (!Files.isRegularFile(path)) {
+			return null;
+		}
+
+		// the file isn't mapped, so that it can be replaced as soon as it's been read
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Index snapshot " + path + " is too large");
+			}
+
+			buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+				// keep reading until the whole file is in the buffer
+			}
+
+			buffer.flip();
+		}
+
+		if (buffer.remaining() < Integer.BYTES * 3 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+			return null;
+		}
+
+		try {
+			if (!key.equals(readUtf(buffer))) {
+				return null;
+			}
+
+			byte[] checksum = new byte[CHECKSUM_LENGTH];
+			buffer.get(checksum);
+			if (!Arrays.equals(checksum, jarChecksum)) {
+				return null;
+			}
+
+			int end = buffer.limit() - Integer.BYTES;
+			CRC32 crc = new CRC32();
+			crc.update(buffer.array(), 0, end);
+			if ((int) crc.getValue() != buffer.getInt(end)) {
+				throw new IllegalStateException("Index snapshot checksum mismatch");
+			}
+
+			buffer.limit(end);
+
+			String[] strings = new String[checkLength(buffer, buffer.getInt(), Integer.BYTES)];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = readUtf(buffer);
+			}
+
+			int callbackCount = buffer.getInt();
+			return new JarIndexSnapshot(strings, buffer.slice(), callbackCount);
+		} catch (RuntimeException e) {
+			throw new IOException("Corrupt index snapshot " + path, e);
+		}
+	}
+
+	private static String readUtf(ByteBuffer buffer) {
+		byte[] bytes = new byte[checkLength(buffer, buffer.getInt(), 1)];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Checks that a length read from the snapshot fits in what's left of it, so a corrupt length can't allocate a huge array.
+	 */
+	private static int checkLength(ByteBuffer buffer, int length, int elementSize) {
+		if (length < 0 || length > buffer.remaining() / elementSize) {
+			throw new IllegalStateException("Invalid length " + length + " in index snapshot");
+		}
+
+		return length;
+	}
+
+	/**
+	 * Sends every recorded callback to the provided indexer, in the order they were originally made.
+	 * @param indexer the indexer to replay the snapshot into
+	 */
+	public void replay(JarIndexer indexer) {
+		ByteBuffer buffer = this.callbacks.duplicate();
+		for (int i = 0; i < this.callbackCount; i++) {
+			byte type = buffer.get();
+			switch (type) {
+				case CLASS -> indexer.indexClass(this.readClassDef(buffer));
+				case FIELD -> {
+					ClassEntry owner = this.readClass(buffer);
+					int access = buffer.getInt();
+					indexer.indexField(FieldDefEntry.parse(owner, access, this.readString(buffer), this.readString(buffer), this.readString(buffer)));
+				}
+				case METHOD -> {
+					MethodDefEntry entry = this.readMethodDef(buffer);
+					List<ArgumentDescriptor> arguments = entry.getDesc().getArgumentDescs();
+					for (ArgumentDescriptor argument : arguments) {
+						int flags = buffer.getInt();
+						if (flags != ParameterAccessFlags.DEFAULT.getFlags()) {
+							argument.setAccess(new ParameterAccessFlags(flags));
+						}
+					}
+
+					indexer.indexMethod(entry);
+				}
+				case CLASS_REFERENCE -> indexer.indexClassReference(this.readMethodDef(buffer), this.readClass(buffer), this.readTargetType(buffer));
+				case METHOD_REFERENCE -> indexer.indexMethodReference(this.readMethodDef(buffer), this.readMethod(buffer), this.readTargetType(buffer));
+				case FIELD_REFERENCE -> indexer.indexFieldReference(this.readMethodDef(buffer), this.readField(buffer), this.readTargetType(buffer));
+				case LAMBDA -> {
+					MethodDefEntry caller = this.readMethodDef(buffer);
+					String invokedName = this.readString(buffer);
+					MethodDescriptor invokedType = MethodDescriptor.parse(this.readString(buffer));
+					MethodDescriptor samMethodType = MethodDescriptor.parse(this.readString(buffer));
+					ParentedEntry<?> implMethod = buffer.get() == METHOD ? this.readMethod(buffer) : this.readField(buffer);
+					MethodDescriptor instantiatedMethodType = MethodDescriptor.parse(this.readString(buffer));
+					indexer.indexLambda(caller, new Lambda(invokedName, invokedType, samMethodType, implMethod, instantiatedMethodType), this.readTargetType(buffer));
+				}
+				case ENCLOSING_METHOD -> {
+					ClassDefEntry classEntry = this.readClassDef(buffer);
+					indexer.indexEnclosingMethod(classEntry, new JarIndexer.EnclosingMethodData(this.readString(buffer), this.readString(buffer), this.readString(buffer)));
+				}
+				default -> throw new IllegalStateException("Unknown snapshot callback type " + type);
+			}
+		}
+	}
+
+	@Nullable
+	private String readString(ByteBuffer buffer) {
+		int index = buffer.getInt();
+		return index == -1 ? null : this.strings[index];
+	}
+
+	private ClassEntry readClass(ByteBuffer buffer) {
+		int index = buffer.getInt();
+		ClassEntry entry = this.classCache[index];
+		if (entry == null) {
+			entry = new ClassEntry(this.strings[index]);
+			this.classCache[index] = entry;
+		}
+
+		return entry;
+	}
+
+	private ClassDefEntry readClassDef(ByteBuffer buffer) {
+		int access = buffer.getInt();
+		String name = this.readString(buffer);
+		String signature = this.readString(buffer);
+		String superName = this.readString(buffer);
+		String[] interfaces = new String[buffer.getInt()];
+		for (int i = 0; i < interfaces.length; i++) {
+			interfaces[i] = this.readString(buffer);
+		}
+
+		return ClassDefEntry.parse(access, name, signature, superName, interfaces);
+	}
+
+	private MethodDefEntry readMethodDef(ByteBuffer buffer) {
+		ClassEntry owner = this.readClass(buffer);
+		int access = buffer.getInt();
+		return MethodDefEntry.parse(owner, access, this.readString(buffer), this.readString(buffer), this.readString(buffer));
+	}
+
+	private MethodEntry readMethod(ByteBuffer buffer) {
+		return new MethodEntry(this.readClass(buffer), this.readString(buffer), MethodDescriptor.parse(this.readString(buffer)));
+	}
+
+	private FieldEntry readField(ByteBuffer buffer) {
+		return new FieldEntry(this.readClass(buffer), this.readString(buffer), TypeDescriptor.parse(this.readString(buffer)));
+	}
+
+	private ReferenceTargetType readTargetType(ByteBuffer buffer) {
+		byte kind = buffer.get();
+		return switch (kind) {
+			case TARGET_NONE -> ReferenceTargetType.none();
+			case TARGET_UNINITIALIZED -> ReferenceTargetType.uninitialized();
+			case TARGET_CLASS -> ReferenceTargetType.classType(this.readClass(buffer));
+			default -> throw new IllegalStateException("Unknown snapshot reference target type " + kind);
+		};
+	}
+
+	/**
+	 * Records every callback it receives, to be written as a snapshot once indexing is complete.
+	 */
+	public static final class Writer implements JarIndexer {
+		private final Map<String, Integer> stringIndices = new HashMap<>();
+		private final List<String> strings = new ArrayList<>();
+		private final ByteArrayDataOutput callbacks = ByteStreams.newDataOutput();
+		private int callbackCount;
+
+		/**
+		 * Writes the recorded callbacks to the provided path, replacing any existing snapshot.
+		 * @param path the snapshot file
+		 * @param jarChecksum the checksum of the indexed jar
+		 * @param key the key of the index, see {@link #read(Path, byte[], String)}
+		 * @throws IOException if the snapshot could not be written
+		 */
+		public void write(Path path, byte[] jarChecksum, String key) throws IOException {
+			if (jarChecksum.length != CHECKSUM_LENGTH) {
+				throw new IllegalArgumentException("Jar checksum must be a SHA-1 hash");
+			}
+
+			if (path.getParent() != null) {
+				Files.createDirectories(path.getParent());
+			}
+
+			Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+			CRC32 crc = new CRC32();
+			try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(tempPath))) {
+				DataOutputStream out = new DataOutputStream(new CheckedOutputStream(file, crc));
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				writeUtf(out, key);
+				out.write(jarChecksum);
+
+				out.writeInt(this.strings.size());
+				for (String string : this.strings) {
+					writeUtf(out, string);
+				}
+
+				out.writeInt(this.callbackCount);
+				out.write(this.callbacks.toByteArray());
+				out.flush();
+
+				new DataOutputStream(file).writeInt((int) crc.getValue());
+			}
+
+			Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		private static void writeUtf(DataOutputStream out, String string) throws IOException {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		private void startCallback(byte type) {
+			this.callbacks.writeByte(type);
+			this.callbackCount++;
+		}
+
+		private void writeString(@Nullable String string) {
+			if (string == null) {
+				this.callbacks.writeInt(-1);
+				return;
+			}
+
+			Integer index = this.stringIndices.get(string);
+			if (index == null) {
+				index = this.strings.size();
+				this.strings.add(string);
+				this.stringIndices.put(string, index);
+			}
+
+			this.callbacks.writeInt(index);
+		}
+
+		private void writeClass(ClassEntry entry) {
+			this.writeString(entry.getFullName());
+		}
+
+		private void writeClassDef(ClassDefEntry entry) {
+			this.callbacks.writeInt(entry.getAccess().getFlags());
+			this.writeString(entry.getFullName());
+			this.writeString(entry.getSignature().getSignature());
+			this.writeString(entry.getSuperClass() != null ? entry.getSuperClass().getFullName() : null);
+			this.callbacks.writeInt(entry.getInterfaces().length);
+			for (ClassEntry interfaceEntry : entry.getInterfaces()) {
+				this.writeClass(interfaceEntry);
+			}
+		}
+
+		private void writeMethodDef(MethodDefEntry entry) {
+			this.writeClass(entry.getParent());
+			this.callbacks.writeInt(entry.getAccess().getFlags());
+			this.writeString(entry.getName());
+			this.writeString(entry.getDesc().toString());
+			this.writeString(entry.getSignature().getSignature());
+		}
+
+		private void writeMethod(MethodEntry entry) {
+			this.writeClass(entry.getParent());
+			this.writeString(entry.getName());
+			this.writeString(entry.getDesc().toString());
+		}
+
+		private void writeField(FieldEntry entry) {
+			this.writeClass(entry.getParent());
+			this.writeString(entry.getName());
+			this.writeString(entry.getDesc().toString());
+		}
+
+		private void writeTargetType(ReferenceTargetType targetType) {
+			switch (targetType.getKind()) {
+				case NONE -> this.callbacks.writeByte(TARGET_NONE);
+				case UNINITIALIZED -> this.callbacks.writeByte(TARGET_UNINITIALIZED);
+				case CLASS_TYPE -> {
+					this.callbacks.writeByte(TARGET_CLASS);
+					this.writeClass(((ReferenceTargetType.ClassType) targetType).getEntry());
+				}
+			}
+		}
+
+		@Override
+		public synchronized void indexClass(ClassDefEntry classEntry) {
+			this.startCallback(CLASS);
+			this.writeClassDef(classEntry);
+		}
+
+		@Override
+		public synchronized void indexField(FieldDefEntry fieldEntry) {
+			this.startCallback(FIELD);
+			this.writeClass(fieldEntry.getParent());
+			this.callbacks.writeInt(fieldEntry.getAccess().getFlags());
+			this.writeString(fieldEntry.getName());
+			this.writeString(fieldEntry.getDesc().toString());
+			this.writeString(fieldEntry.getSignature().getSignature());
+		}
+
+		@Override
+		public synchronized void indexMethod(MethodDefEntry methodEntry) {
+			this.startCallback(METHOD);
+			this.writeMethodDef(methodEntry);
+			for (ArgumentDescriptor argument : methodEntry.getDesc().getArgumentDescs()) {
+				this.callbacks.writeInt(argument.getAccess().getFlags());
+			}
+		}
+
+		@Override
+		public synchronized void indexClassReference(MethodDefEntry callerEntry, ClassEntry referencedEntry, ReferenceTargetType targetType) {
+			this.startCallback(CLASS_REFERENCE);
+			this.writeMethodDef(callerEntry);
+			this.writeClass(referencedEntry);
+			this.writeTargetType(targetType);
+		}
+
+		@Override
+		public synchronized void indexMethodReference(MethodDefEntry callerEntry, MethodEntry referencedEntry, ReferenceTargetType targetType) {
+			this.startCallback(METHOD_REFERENCE);
+			this.writeMethodDef(callerEntry);
+			this.writeMethod(referencedEntry);
+			this.writeTargetType(targetType);
+		}
+
+		@Override
+		public synchronized void indexFieldReference(MethodDefEntry callerEntry, FieldEntry referencedEntry, ReferenceTargetType targetType) {
+			this.startCallback(FIELD_REFERENCE);
+			this.writeMethodDef(callerEntry);
+			this.writeField(referencedEntry);
+			this.writeTargetType(targetType);
+		}
+
+		@Override
+		public synchronized void indexLambda(MethodDefEntry callerEntry, Lambda lambda, ReferenceTargetType targetType) {
+			this.startCallback(LAMBDA);
+			this.writeMethodDef(callerEntry);
+			this.writeString(lambda.invokedName());
+			this.writeString(lambda.invokedType().toString());
+			this.writeString(lambda.samMethodType().toString());
+			if (lambda.implMethod() instanceof MethodEntry method) {
+				this.callbacks.writeByte(METHOD);
+				this.writeMethod(method);
+			} else {
+				this.callbacks.writeByte(FIELD);
+				this.writeField((FieldEntry) lambda.implMethod());
+			}
+
+			this.writeString(lambda.instantiatedMethodType().toString());
+			this.writeTargetType(targetType);
+		}
+
+		@Override
+		public synchronized void indexEnclosingMethod(ClassDefEntry classEntry, EnclosingMethodData enclosingMethodData) {
+			this.startCallback(ENCLOSING_METHOD);
+			this.writeClassDef(classEntry);
+			this.writeString(enclosingMethodData.owner());
+			this.writeString(enclosingMethodData.name());
+			this.writeString(enclosingMethodData.descriptor());
+		}
+
+		@Override
+		public String getTranslationKey() {
+			return "progress.jar.indexing.snapshot";
+		}
+	}
+}
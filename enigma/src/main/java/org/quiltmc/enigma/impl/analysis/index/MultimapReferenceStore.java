@@ -0,0 +1,233 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.SetMultimap;
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Stores references as {@link EntryReference} objects in hash multimaps, which are rebuilt when resolving.
+ */
+public class MultimapReferenceStore implements ReferenceStore {
+	private final References<MethodEntry, MethodEntry> methodReferences = new References<>(method -> method, MultimapReferenceStore::remap);
+
+	private final References<MethodEntry, EntryReference<MethodEntry, MethodDefEntry>> referencesToMethods = References.to();
+	private final References<ClassEntry, EntryReference<ClassEntry, MethodDefEntry>> referencesToClasses = References.to();
+	private final References<FieldEntry, EntryReference<FieldEntry, MethodDefEntry>> referencesToFields = References.to();
+	private final References<ClassEntry, EntryReference<ClassEntry, FieldDefEntry>> fieldTypeReferences = References.to();
+	private final References<ClassEntry, EntryReference<ClassEntry, MethodDefEntry>> methodTypeReferences = References.to();
+
+	@Override
+	public void addMethodReference(MethodDefEntry caller, MethodEntry referenced, ReferenceTargetType targetType) {
+		this.referencesToMethods.put(referenced, new EntryReference<>(referenced, referenced.getName(), caller, targetType));
+		this.methodReferences.put(caller, referenced);
+	}
+
+	@Override
+	public void addClassReference(MethodDefEntry caller, ClassEntry referenced, ReferenceTargetType targetType) {
+		this.referencesToClasses.put(referenced, new EntryReference<>(referenced, referenced.getName(), caller, targetType));
+	}
+
+	@Override
+	public void addFieldReference(MethodDefEntry caller, FieldEntry referenced, ReferenceTargetType targetType) {
+		this.referencesToFields.put(referenced, new EntryReference<>(referenced, referenced.getName(), caller, targetType));
+	}
+
+	@Override
+	public void addFieldTypeReference(FieldDefEntry field, ClassEntry referenced) {
+		this.fieldTypeReferences.put(referenced, new EntryReference<>(referenced, referenced.getName(), field));
+	}
+
+	@Override
+	public void addMethodTypeReference(MethodDefEntry method, ClassEntry referenced) {
+		this.methodTypeReferences.put(referenced, new EntryReference<>(referenced, referenced.getName(), method));
+	}
+
+	@Override
+	public ReferenceStore fork() {
+		return new MultimapReferenceStore();
+	}
+
+	@Override
+	public void merge(ReferenceStore fork) {
+		MultimapReferenceStore store = (MultimapReferenceStore) fork;
+		this.methodReferences.putAll(store.methodReferences);
+		this.referencesToMethods.putAll(store.referencesToMethods);
+		this.referencesToClasses.putAll(store.referencesToClasses);
+		this.referencesToFields.putAll(store.referencesToFields);
+		this.fieldTypeReferences.putAll(store.fieldTypeReferences);
+		this.methodTypeReferences.putAll(store.methodTypeReferences);
+	}
+
+	@Override
+	public void resolve(EntryResolver resolver) {
+		this.methodReferences.resolve(resolver);
+		this.referencesToMethods.resolve(resolver);
+		this.referencesToClasses.resolve(resolver);
+		this.referencesToFields.resolve(resolver);
+		this.fieldTypeReferences.resolve(resolver);
+		this.methodTypeReferences.resolve(resolver);
+	}
+
+	@Override
+	public void resolve(EntryResolver resolver, Set<ClassEntry> classes) {
+		this.methodReferences.resolve(resolver, classes);
+		this.referencesToMethods.resolve(resolver, classes);
+		this.referencesToClasses.resolve(resolver, classes);
+		this.referencesToFields.resolve(resolver, classes);
+		this.fieldTypeReferences.resolve(resolver, classes);
+		this.methodTypeReferences.resolve(resolver, classes);
+	}
+
+	private static <E extends Entry<?>> E remap(EntryResolver resolver, E entry) {
+		return resolver.resolveFirstEntry(entry, ResolutionStrategy.RESOLVE_CLOSEST);
+	}
+
+	private static <E extends Entry<?>, C extends Entry<?>> EntryReference<E, C> remap(EntryResolver resolver, EntryReference<E, C> reference) {
+		return resolver.resolveFirstReference(reference, ResolutionStrategy.RESOLVE_CLOSEST);
+	}
+
+	@Override
+	public Collection<MethodEntry> getMethodsReferencedBy(MethodEntry entry) {
+		return this.methodReferences.get(entry);
+	}
+
+	@Override
+	public Collection<EntryReference<FieldEntry, MethodDefEntry>> getReferencesToField(FieldEntry entry) {
+		return this.referencesToFields.get(entry);
+	}
+
+	@Override
+	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getReferencesToClass(ClassEntry entry) {
+		return this.referencesToClasses.get(entry);
+	}
+
+	@Override
+	public Collection<EntryReference<MethodEntry, MethodDefEntry>> getReferencesToMethod(MethodEntry entry) {
+		return this.referencesToMethods.get(entry);
+	}
+
+	@Override
+	public Collection<EntryReference<ClassEntry, FieldDefEntry>> getFieldTypeReferencesToClass(ClassEntry entry) {
+		return this.fieldTypeReferences.get(entry);
+	}
+
+	@Override
+	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getMethodTypeReferencesToClass(ClassEntry entry) {
+		return this.methodTypeReferences.get(entry);
+	}
+
+	@Override
+	public Set<ClassEntry> getReferencedClasses() {
+		Set<ClassEntry> classes = new HashSet<>();
+		classes.addAll(this.referencesToClasses.keySet());
+		classes.addAll(this.fieldTypeReferences.keySet());
+		classes.addAll(this.methodTypeReferences.keySet());
+		this.referencesToMethods.keySet().forEach(method -> classes.add(method.getParent()));
+		this.referencesToFields.keySet().forEach(field -> classes.add(field.getParent()));
+		return classes;
+	}
+
+	/**
+	 * The references keyed by one kind of entry.
+	 * <br>
+	 * Once a few classes have been resolved on their own, the keys of the references made from or to each class
+	 * are indexed as well, so that resolving more classes doesn't walk every reference.
+	 * Keys are never removed from that index, since a key that no longer has any references is simply skipped.
+	 */
+	private static final class References<K extends Entry<?>, V> {
+		private final Function<V, Entry<?>> context;
+		private final BiFunction<EntryResolver, V, V> remap;
+		private Multimap<K, V> references = HashMultimap.create();
+		@Nullable
+		private SetMultimap<ClassEntry, K> keysByClass;
+
+		private References(Function<V, Entry<?>> context, BiFunction<EntryResolver, V, V> remap) {
+			this.context = context;
+			this.remap = remap;
+		}
+
+		static <K extends Entry<?>, C extends Entry<?>> References<K, EntryReference<K, C>> to() {
+			return new References<>(reference -> reference.context, MultimapReferenceStore::remap);
+		}
+
+		void put(K key, V value) {
+			this.references.put(key, value);
+			if (this.keysByClass != null) {
+				this.indexKey(key, value);
+			}
+		}
+
+		void putAll(References<K, V> other) {
+			other.references.forEach(this::put);
+		}
+
+		Collection<V> get(K key) {
+			return this.references.get(key);
+		}
+
+		Set<K> keySet() {
+			return this.references.keySet();
+		}
+
+		private void indexKey(K key, V value) {
+			this.keysByClass.put(key.getContainingClass(), key);
+			this.keysByClass.put(this.context.apply(value).getContainingClass(), key);
+		}
+
+		private boolean isStale(Set<ClassEntry> classes, K key, V value) {
+			return classes.contains(key.getContainingClass()) || classes.contains(this.context.apply(value).getContainingClass());
+		}
+
+		void resolve(EntryResolver resolver) {
+			final int keySetSize = this.references.keySet().size();
+			Multimap<K, V> resolved = HashMultimap.create(keySetSize, keySetSize == 0 ? 0 : this.references.size() / keySetSize);
+			for (Map.Entry<K, V> entry : this.references.entries()) {
+				resolved.put(remap(resolver, entry.getKey()), this.remap.apply(resolver, entry.getValue()));
+			}
+
+			this.references = resolved;
+			this.keysByClass = null;
+		}
+
+		void resolve(EntryResolver resolver, Set<ClassEntry> classes) {
+			if (this.keysByClass == null) {
+				this.keysByClass = HashMultimap.create();
+				this.references.forEach(this::indexKey);
+			}
+
+			Set<Map.Entry<K, V>> stale = new LinkedHashSet<>();
+			for (ClassEntry classEntry : classes) {
+				for (K key : this.keysByClass.get(classEntry)) {
+					for (V value : this.references.get(key)) {
+						if (this.isStale(classes, key, value)) {
+							stale.add(Map.entry(key, value));
+						}
+					}
+				}
+			}
+
+			// remove every stale reference first, since a remapped reference may be equal to one that's still stale
+			stale.forEach(entry -> this.references.remove(entry.getKey(), entry.getValue()));
+			stale.forEach(entry -> this.put(remap(resolver, entry.getKey()), this.remap.apply(resolver, entry.getValue())));
+		}
+	}
+}
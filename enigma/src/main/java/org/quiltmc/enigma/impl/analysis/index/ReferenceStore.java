@@ -0,0 +1,68 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * The storage backing a {@link ReferenceIndex}.
+ *
+ * @see MultimapReferenceStore
+ * @see CompactReferenceStore
+ */
+public interface ReferenceStore {
+	void addMethodReference(MethodDefEntry caller, MethodEntry referenced, ReferenceTargetType targetType);
+
+	void addClassReference(MethodDefEntry caller, ClassEntry referenced, ReferenceTargetType targetType);
+
+	void addFieldReference(MethodDefEntry caller, FieldEntry referenced, ReferenceTargetType targetType);
+
+	void addFieldTypeReference(FieldDefEntry field, ClassEntry referenced);
+
+	void addMethodTypeReference(MethodDefEntry method, ClassEntry referenced);
+
+	/**
+	 * Creates an empty store of the same kind, to collect the references found by a single worker.
+	 */
+	ReferenceStore fork();
+
+	/**
+	 * Adds all references collected by a store created by {@link #fork()} to this store.
+	 */
+	void merge(ReferenceStore fork);
+
+	/**
+	 * Replaces every referenced entry and reference context with its closest resolved entry.
+	 */
+	void resolve(EntryResolver resolver);
+
+	/**
+	 * Resolves the references made from, or to, entries of the provided classes, like {@link #resolve(EntryResolver)}.
+	 * Once more classes are indexed into a resolved store, theirs are the only references that can resolve differently,
+	 * since the classes indexed before them already had all of their ancestors indexed.
+	 */
+	void resolve(EntryResolver resolver, Set<ClassEntry> classes);
+
+	Collection<MethodEntry> getMethodsReferencedBy(MethodEntry entry);
+
+	Collection<EntryReference<FieldEntry, MethodDefEntry>> getReferencesToField(FieldEntry entry);
+
+	Collection<EntryReference<ClassEntry, MethodDefEntry>> getReferencesToClass(ClassEntry entry);
+
+	Collection<EntryReference<MethodEntry, MethodDefEntry>> getReferencesToMethod(MethodEntry entry);
+
+	Collection<EntryReference<ClassEntry, FieldDefEntry>> getFieldTypeReferencesToClass(ClassEntry entry);
+
+	Collection<EntryReference<ClassEntry, MethodDefEntry>> getMethodTypeReferencesToClass(ClassEntry entry);
+
+	Set<ClassEntry> getReferencedClasses();
+}
@@ -19,11 +19,11 @@ public class AsmObjectTranslator {
 				return Type.getObjectType(translator.translate(classEntry).getFullName());
 			}
 			case Type.ARRAY -> {
-				TypeDescriptor descriptor = new TypeDescriptor(descString);
+				TypeDescriptor descriptor = TypeDescriptor.parse(descString);
 				return Type.getType(translator.translate(descriptor).toString());
 			}
 			case Type.METHOD -> {
-				MethodDescriptor descriptor = new MethodDescriptor(descString);
+				MethodDescriptor descriptor = MethodDescriptor.parse(descString);
 				return Type.getMethodType(translator.translate(descriptor).toString());
 			}
 		}
@@ -37,14 +37,14 @@ public class AsmObjectTranslator {
 	}
 
 	private static Handle translateMethodHandle(Translator translator, Handle handle) {
-		MethodEntry entry = new MethodEntry(new ClassEntry(handle.getOwner()), handle.getName(), new MethodDescriptor(handle.getDesc()));
+		MethodEntry entry = new MethodEntry(new ClassEntry(handle.getOwner()), handle.getName(), MethodDescriptor.parse(handle.getDesc()));
 		MethodEntry translatedMethod = translator.translate(entry);
 		ClassEntry ownerClass = translatedMethod.getParent();
 		return new Handle(handle.getTag(), ownerClass.getFullName(), translatedMethod.getName(), translatedMethod.getDesc().toString(), handle.isInterface());
 	}
 
 	private static Handle translateFieldHandle(Translator translator, Handle handle) {
-		FieldEntry entry = new FieldEntry(new ClassEntry(handle.getOwner()), handle.getName(), new TypeDescriptor(handle.getDesc()));
+		FieldEntry entry = new FieldEntry(new ClassEntry(handle.getOwner()), handle.getName(), TypeDescriptor.parse(handle.getDesc()));
 		FieldEntry translatedMethod = translator.translate(entry);
 		ClassEntry ownerClass = translatedMethod.getParent();
 		return new Handle(handle.getTag(), ownerClass.getFullName(), translatedMethod.getName(), translatedMethod.getDesc().toString(), handle.isInterface());
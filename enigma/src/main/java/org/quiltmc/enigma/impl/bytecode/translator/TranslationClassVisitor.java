@@ -79,7 +79,7 @@ public class TranslationClassVisitor extends ClassVisitor {
 	@Override
 	public void visitOuterClass(String owner, String name, String desc) {
 		if (desc != null) {
-			MethodEntry translatedEntry = this.translator.translate(new MethodEntry(new ClassEntry(owner), name, new MethodDescriptor(desc)));
+			MethodEntry translatedEntry = this.translator.translate(new MethodEntry(new ClassEntry(owner), name, MethodDescriptor.parse(desc)));
 			super.visitOuterClass(translatedEntry.getParent().getFullName(), translatedEntry.getName(), translatedEntry.getDesc().toString());
 		} else {
 			super.visitOuterClass(owner, name, desc);
@@ -88,14 +88,14 @@ public class TranslationClassVisitor extends ClassVisitor {
 
 	@Override
 	public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
-		TypeDescriptor translatedDesc = this.translator.translate(new TypeDescriptor(desc));
+		TypeDescriptor translatedDesc = this.translator.translate(TypeDescriptor.parse(desc));
 		AnnotationVisitor av = super.visitAnnotation(translatedDesc.toString(), visible);
 		return new TranslationAnnotationVisitor(this.translator, translatedDesc.getTypeEntry(), this.api, av);
 	}
 
 	@Override
 	public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String desc, boolean visible) {
-		TypeDescriptor translatedDesc = this.translator.translate(new TypeDescriptor(desc));
+		TypeDescriptor translatedDesc = this.translator.translate(TypeDescriptor.parse(desc));
 		AnnotationVisitor av = super.visitTypeAnnotation(typeRef, typePath, translatedDesc.toString(), visible);
 		return new TranslationAnnotationVisitor(this.translator, translatedDesc.getTypeEntry(), this.api, av);
 	}
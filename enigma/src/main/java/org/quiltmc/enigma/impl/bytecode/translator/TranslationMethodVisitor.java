@@ -41,14 +41,14 @@ public class TranslationMethodVisitor extends MethodVisitor {
 
 	@Override
 	public void visitFieldInsn(int opcode, String owner, String name, String desc) {
-		FieldEntry entry = new FieldEntry(new ClassEntry(owner), name, new TypeDescriptor(desc));
+		FieldEntry entry = new FieldEntry(new ClassEntry(owner), name, TypeDescriptor.parse(desc));
 		FieldEntry translatedEntry = this.translator.translate(entry);
 		super.visitFieldInsn(opcode, translatedEntry.getParent().getFullName(), translatedEntry.getName(), translatedEntry.getDesc().toString());
 	}
 
 	@Override
 	public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
-		MethodEntry entry = new MethodEntry(new ClassEntry(owner), name, new MethodDescriptor(desc));
+		MethodEntry entry = new MethodEntry(new ClassEntry(owner), name, MethodDescriptor.parse(desc));
 		MethodEntry translatedEntry = this.translator.translate(entry);
 		super.visitMethodInsn(opcode, translatedEntry.getParent().getFullName(), translatedEntry.getName(), translatedEntry.getDesc().toString(), itf);
 	}
@@ -77,21 +77,21 @@ public class TranslationMethodVisitor extends MethodVisitor {
 
 	@Override
 	public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
-		TypeDescriptor typeDesc = this.translator.translate(new TypeDescriptor(desc));
+		TypeDescriptor typeDesc = this.translator.translate(TypeDescriptor.parse(desc));
 		AnnotationVisitor av = super.visitAnnotation(typeDesc.toString(), visible);
 		return new TranslationAnnotationVisitor(this.translator, typeDesc.getTypeEntry(), this.api, av);
 	}
 
 	@Override
 	public AnnotationVisitor visitParameterAnnotation(int parameter, String desc, boolean visible) {
-		TypeDescriptor typeDesc = this.translator.translate(new TypeDescriptor(desc));
+		TypeDescriptor typeDesc = this.translator.translate(TypeDescriptor.parse(desc));
 		AnnotationVisitor av = super.visitParameterAnnotation(parameter, typeDesc.toString(), visible);
 		return new TranslationAnnotationVisitor(this.translator, typeDesc.getTypeEntry(), this.api, av);
 	}
 
 	@Override
 	public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String desc, boolean visible) {
-		TypeDescriptor typeDesc = this.translator.translate(new TypeDescriptor(desc));
+		TypeDescriptor typeDesc = this.translator.translate(TypeDescriptor.parse(desc));
 		AnnotationVisitor av = super.visitTypeAnnotation(typeRef, typePath, typeDesc.toString(), visible);
 		return new TranslationAnnotationVisitor(this.translator, typeDesc.getTypeEntry(), this.api, av);
 	}
@@ -104,7 +104,7 @@ public class TranslationMethodVisitor extends MethodVisitor {
 
 	@Override
 	public void visitInvokeDynamicInsn(String name, String desc, Handle bsm, Object... bsmArgs) {
-		MethodDescriptor translatedMethodDesc = this.translator.translate(new MethodDescriptor(desc));
+		MethodDescriptor translatedMethodDesc = this.translator.translate(MethodDescriptor.parse(desc));
 		Object[] translatedBsmArgs = new Object[bsmArgs.length];
 		for (int i = 0; i < bsmArgs.length; i++) {
 			translatedBsmArgs[i] = AsmObjectTranslator.translateValue(this.translator, bsmArgs[i]);
@@ -120,7 +120,7 @@ public class TranslationMethodVisitor extends MethodVisitor {
 
 	@Override
 	public void visitMultiANewArrayInsn(String desc, int dims) {
-		super.visitMultiANewArrayInsn(this.translator.translate(new TypeDescriptor(desc)).toString(), dims);
+		super.visitMultiANewArrayInsn(this.translator.translate(TypeDescriptor.parse(desc)).toString(), dims);
 	}
 
 	@Override
@@ -137,7 +137,7 @@ public class TranslationMethodVisitor extends MethodVisitor {
 	public void visitLocalVariable(String name, String desc, String signature, Label start, Label end, int index) {
 		signature = this.translator.translate(Signature.createTypedSignature(signature)).toString();
 		name = this.translateVariableName(index, name);
-		desc = this.translator.translate(new TypeDescriptor(desc)).toString();
+		desc = this.translator.translate(TypeDescriptor.parse(desc)).toString();
 
 		super.visitLocalVariable(name, desc, signature, start, end, index);
 	}
@@ -16,14 +16,14 @@ public class TranslationRecordComponentVisitor extends RecordComponentVisitor {
 
 	@Override
 	public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
-		TypeDescriptor typeDesc = this.translator.translate(new TypeDescriptor(desc));
+		TypeDescriptor typeDesc = this.translator.translate(TypeDescriptor.parse(desc));
 		AnnotationVisitor av = super.visitAnnotation(typeDesc.toString(), visible);
 		return new TranslationAnnotationVisitor(this.translator, typeDesc.getTypeEntry(), this.api, av);
 	}
 
 	@Override
 	public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String desc, boolean visible) {
-		TypeDescriptor typeDesc = this.translator.translate(new TypeDescriptor(desc));
+		TypeDescriptor typeDesc = this.translator.translate(TypeDescriptor.parse(desc));
 		AnnotationVisitor av = super.visitAnnotation(typeDesc.toString(), visible);
 		return new TranslationAnnotationVisitor(this.translator, typeDesc.getTypeEntry(), this.api, av);
 	}
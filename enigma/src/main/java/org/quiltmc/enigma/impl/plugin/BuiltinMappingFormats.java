@@ -3,6 +3,8 @@ package org.quiltmc.enigma.impl.plugin;
 import org.quiltmc.enigma.api.EnigmaPluginContext;
 import org.quiltmc.enigma.api.service.ReadWriteService;
 import org.quiltmc.enigma.api.translation.mapping.serde.FileType;
+import org.quiltmc.enigma.api.translation.mapping.serde.binary.BinaryMappingsReader;
+import org.quiltmc.enigma.api.translation.mapping.serde.binary.BinaryMappingsWriter;
 import org.quiltmc.enigma.api.translation.mapping.serde.enigma.EnigmaMappingsReader;
 import org.quiltmc.enigma.api.translation.mapping.serde.enigma.EnigmaMappingsWriter;
 import org.quiltmc.enigma.api.translation.mapping.serde.proguard.ProguardMappingsReader;
@@ -32,5 +34,8 @@ public class BuiltinMappingFormats {
 		ctx.registerService(ReadWriteService.TYPE,
 				ctx1 -> ReadWriteService.create(ProguardMappingsReader.INSTANCE, null, new FileType.File("txt"), "enigma:proguard")
 		);
+		ctx.registerService(ReadWriteService.TYPE,
+				ctx1 -> ReadWriteService.create(BinaryMappingsReader.INSTANCE, BinaryMappingsWriter.INSTANCE, new FileType.File("enigmabin"), "enigma:binary")
+		);
 	}
 }
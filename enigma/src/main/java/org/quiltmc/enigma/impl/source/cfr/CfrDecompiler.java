@@ -5,14 +5,12 @@ import org.quiltmc.enigma.api.source.Decompiler;
 import org.quiltmc.enigma.api.source.Source;
 import org.quiltmc.enigma.api.source.SourceSettings;
 import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
-import org.quiltmc.enigma.util.AsmUtil;
 import org.benf.cfr.reader.apiunreleased.ClassFileSource2;
 import org.benf.cfr.reader.apiunreleased.JarContent;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.Pair;
 import org.benf.cfr.reader.util.AnalysisType;
 import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.OptionsImpl;
-import org.objectweb.asm.tree.ClassNode;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
@@ -57,13 +55,13 @@ public class CfrDecompiler implements Decompiler {
 
 		@Override
 		public Pair<byte[], String> getClassFileContent(String path) {
-			ClassNode node = this.classProvider.get(path.substring(0, path.lastIndexOf('.')));
+			byte[] bytes = this.classProvider.getClassBytes(path.substring(0, path.lastIndexOf('.')));
 
-			if (node == null) {
+			if (bytes == null) {
 				return null;
 			}
 
-			return new Pair<>(AsmUtil.nodeToBytes(node), path);
+			return new Pair<>(bytes, path);
 		}
 	}
 }
@@ -24,8 +24,6 @@ import org.quiltmc.enigma.impl.source.procyon.transformer.ObfuscatedEnumSwitchRe
 import org.quiltmc.enigma.impl.source.procyon.transformer.RemoveObjectCasts;
 import org.quiltmc.enigma.impl.source.procyon.transformer.VarargsFixer;
 import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
-import org.quiltmc.enigma.util.AsmUtil;
-import org.objectweb.asm.tree.ClassNode;
 
 import javax.annotation.Nullable;
 
@@ -36,13 +34,12 @@ public class ProcyonDecompiler implements Decompiler {
 
 	public ProcyonDecompiler(ClassProvider classProvider, SourceSettings settings) {
 		ITypeLoader typeLoader = (name, buffer) -> {
-			ClassNode node = classProvider.get(name);
+			byte[] data = classProvider.getClassBytes(name);
 
-			if (node == null) {
+			if (data == null) {
 				return false;
 			}
 
-			byte[] data = AsmUtil.nodeToBytes(node);
 			buffer.reset(data.length);
 			System.arraycopy(data, 0, buffer.array(), buffer.position(), data.length);
 			buffer.position(0);
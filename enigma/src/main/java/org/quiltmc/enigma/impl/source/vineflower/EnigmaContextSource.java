@@ -2,10 +2,8 @@ package org.quiltmc.enigma.impl.source.vineflower;
 
 import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
 import org.quiltmc.enigma.api.class_provider.ClassProvider;
-import org.quiltmc.enigma.util.AsmUtil;
 import org.jetbrains.java.decompiler.main.extern.IContextSource;
 import org.jetbrains.java.decompiler.main.extern.IResultSaver;
-import org.objectweb.asm.tree.ClassNode;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -62,13 +60,13 @@ public class EnigmaContextSource implements IContextSource {
 
 	@Override
 	public InputStream getInputStream(String resource) {
-		ClassNode node = this.classProvider.get(resource.substring(0, resource.lastIndexOf(".")));
+		byte[] bytes = this.classProvider.getClassBytes(resource.substring(0, resource.lastIndexOf(".")));
 
-		if (node == null) {
+		if (bytes == null) {
 			return null;
 		}
 
-		return new ByteArrayInputStream(AsmUtil.nodeToBytes(node));
+		return new ByteArrayInputStream(bytes);
 	}
 
 	@Override
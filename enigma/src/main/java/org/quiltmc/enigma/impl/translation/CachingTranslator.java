@@ -0,0 +1,275 @@
+package org.quiltmc.enigma.impl.translation;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import org.quiltmc.enigma.api.translation.Translatable;
+import org.quiltmc.enigma.api.translation.TranslateResult;
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMap;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.representation.ArgumentDescriptor;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.ParameterAccessFlags;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import javax.annotation.Nullable;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * A mapping translator that remembers the results of translating entries and descriptors.
+ * <br>
+ * While translating, every mapping lookup is recorded as a dependency of the result, including the lookups made
+ * for nested translations, such as of a method's owner or descriptor. {@link #invalidate(Entry)} then only drops
+ * the results that looked up the changed entry.
+ * <br>
+ * At most {@link #MAXIMUM_SIZE} results are kept, and a result's dependencies are forgotten along with it,
+ * so translating every entry of a large jar doesn't keep all of them alive.
+ * <br>
+ * Method descriptors are equal regardless of their {@linkplain ArgumentDescriptor#getAccess() parameter access},
+ * which is carried over into their translations, so results are keyed by those flags as well.
+ */
+public class CachingTranslator implements Translator {
+	public static final int MAXIMUM_SIZE = 1 << 16;
+
+	private final EntryResolver resolver;
+	private final EntryMap<EntryMapping> mappings;
+
+	private final Cache<Object, Cached> cache = CacheBuilder.newBuilder()
+			.maximumSize(MAXIMUM_SIZE)
+			.removalListener(this::onRemoval)
+			.build();
+	/**
+	 * The cached translations that depend on each entry, by key.
+	 * Each entry's translations are only modified while computing its mapping, so that adding to them and dropping them once empty are atomic.
+	 */
+	private final ConcurrentMap<Entry<?>, Map<Object, Cached>> dependents = new ConcurrentHashMap<>();
+	private final ThreadLocal<Set<Entry<?>>> dependencies = new ThreadLocal<>();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	public CachingTranslator(EntryMap<EntryMapping> mappings, EntryResolver resolver) {
+		this.resolver = resolver;
+		this.mappings = new RecordingEntryMap(mappings);
+	}
+
+	private static boolean isCacheable(Translatable translatable) {
+		// local variables are equal by index alone, but fall back to their own name and descriptor when unmapped,
+		// so a slot that's reused by differently named variables would always get the first cached result
+		if (translatable instanceof LocalVariableEntry) {
+			return false;
+		}
+
+		return translatable instanceof Entry<?> || translatable instanceof TypeDescriptor || translatable instanceof MethodDescriptor;
+	}
+
+	/**
+	 * {@return the key to cache the translation of the given translatable under}
+	 * This is the translatable itself, unless it has arguments with parameter access flags.
+	 */
+	private static Object getKey(Translatable translatable) {
+		List<ArgumentDescriptor> arguments;
+		if (translatable instanceof ArgumentDescriptor argument) {
+			arguments = List.of(argument);
+		} else if (translatable instanceof MethodDescriptor descriptor) {
+			arguments = descriptor.getArgumentDescs();
+		} else if (translatable instanceof MethodEntry methodEntry) {
+			arguments = methodEntry.getDesc().getArgumentDescs();
+		} else {
+			return translatable;
+		}
+
+		if (arguments.stream().allMatch(argument -> argument.getAccess().getFlags() == ParameterAccessFlags.DEFAULT.getFlags())) {
+			return translatable;
+		}
+
+		return new FlaggedKey(translatable, arguments.stream().map(argument -> argument.getAccess().getFlags()).toList());
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends Translatable> TranslateResult<T> extendedTranslate(@Nullable T translatable) {
+		if (translatable == null) {
+			return null;
+		} else if (!isCacheable(translatable)) {
+			return (TranslateResult<T>) translatable.extendedTranslate(this, this.resolver, this.mappings);
+		}
+
+		Set<Entry<?>> outerDependencies = this.dependencies.get();
+		Object key = getKey(translatable);
+
+		// entries of different types may be equal, such as a class entry and its definition
+		Cached previous = this.cache.getIfPresent(key);
+		if (previous != null && previous.type == translatable.getClass()) {
+			if (outerDependencies != null) {
+				outerDependencies.addAll(previous.dependencies);
+			}
+
+			return (TranslateResult<T>) previous.result;
+		}
+
+		long invalidations = this.invalidations.get();
+		Set<Entry<?>> dependencies = new HashSet<>();
+		TranslateResult<T> result;
+
+		this.dependencies.set(dependencies);
+		try {
+			result = (TranslateResult<T>) translatable.extendedTranslate(this, this.resolver, this.mappings);
+		} finally {
+			this.dependencies.set(outerDependencies);
+		}
+
+		if (outerDependencies != null) {
+			outerDependencies.addAll(dependencies);
+		}
+
+		Cached cached = new Cached(translatable.getClass(), result, dependencies);
+		for (Entry<?> dependency : dependencies) {
+			this.dependents.compute(dependency, (e, dependents) -> {
+				Map<Object, Cached> translations = dependents != null ? dependents : new ConcurrentHashMap<>();
+				translations.put(key, cached);
+				return translations;
+			});
+		}
+
+		this.cache.put(key, cached);
+
+		// a mapping may have changed while translating, after its dependents were already dropped
+		if (this.invalidations.get() != invalidations) {
+			this.cache.invalidate(key);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Forgets a translation that was dropped from the cache, whether it was invalidated or evicted,
+	 * as a dependent of each of its dependencies.
+	 */
+	private void onRemoval(RemovalNotification<Object, Cached> notification) {
+		Cached cached = notification.getValue();
+		Object key = notification.getKey();
+		if (cached == null || key == null) {
+			return;
+		}
+
+		for (Entry<?> dependency : cached.dependencies) {
+			this.dependents.computeIfPresent(dependency, (e, dependents) -> {
+				// the translation may already have been cached again, which mustn't be forgotten
+				if (dependents.get(key) == cached) {
+					dependents.remove(key);
+				}
+
+				return dependents.isEmpty() ? null : dependents;
+			});
+		}
+	}
+
+	/**
+	 * Drops every cached translation that depends on the mapping of the given entry.
+	 *
+	 * @param entry the entry whose mapping changed
+	 */
+	public void invalidate(Entry<?> entry) {
+		this.invalidations.incrementAndGet();
+
+		Map<Object, Cached> dependents = this.dependents.get(entry);
+		if (dependents != null) {
+			// removing each translation also removes it from this map, through the removal listener
+			this.cache.invalidateAll(List.copyOf(dependents.keySet()));
+		}
+	}
+
+	public void invalidateAll() {
+		this.invalidations.incrementAndGet();
+
+		this.cache.invalidateAll();
+		this.dependents.clear();
+	}
+
+	/**
+	 * {@return the number of translations that are currently cached}
+	 */
+	public long size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * {@return the number of entries that cached translations currently depend on}
+	 */
+	public int getDependencyCount() {
+		return this.dependents.size();
+	}
+
+	private record Cached(Class<?> type, TranslateResult<?> result, Set<Entry<?>> dependencies) {
+	}
+
+	/**
+	 * A key for a translatable that has parameter access flags, which its own equality ignores.
+	 */
+	private record FlaggedKey(Translatable translatable, List<Integer> flags) {
+	}
+
+	/**
+	 * Records each entry that is looked up as a dependency of the translation in progress.
+	 */
+	private final class RecordingEntryMap implements EntryMap<EntryMapping> {
+		private final EntryMap<EntryMapping> delegate;
+
+		private RecordingEntryMap(EntryMap<EntryMapping> delegate) {
+			this.delegate = delegate;
+		}
+
+		private void record(Entry<?> entry) {
+			Set<Entry<?>> dependencies = CachingTranslator.this.dependencies.get();
+			if (dependencies != null) {
+				dependencies.add(entry);
+			}
+		}
+
+		@Override
+		public void insert(Entry<?> entry, EntryMapping value) {
+			this.delegate.insert(entry, value);
+		}
+
+		@Nullable
+		@Override
+		public EntryMapping remove(Entry<?> entry) {
+			return this.delegate.remove(entry);
+		}
+
+		@Nullable
+		@Override
+		public EntryMapping get(Entry<?> entry) {
+			this.record(entry);
+			return this.delegate.get(entry);
+		}
+
+		@Override
+		public boolean contains(Entry<?> entry) {
+			this.record(entry);
+			return this.delegate.contains(entry);
+		}
+
+		@Override
+		public Stream<Entry<?>> getAllEntries() {
+			return this.delegate.getAllEntries();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return this.delegate.isEmpty();
+		}
+	}
+}
@@ -7,6 +7,7 @@ import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
@@ -45,6 +46,84 @@ public class MappingsChecker {
 		return dropped;
 	}
 
+	/**
+	 * Drops both broken and empty mappings, as if by {@link #dropBrokenMappings(ProgressListener)}
+	 * followed by {@link #dropEmptyMappings(ProgressListener)}, but in a single pass over the mappings.
+	 * <br>
+	 * Each top-level class is checked in parallel, and nothing is dropped until every class has been checked.
+	 *
+	 * @param progress a progress listener, stepped once per top-level class
+	 * @return the dropped broken and empty mappings
+	 */
+	public DroppedMappings dropInvalidMappings(ProgressListener progress) {
+		List<? extends EntryTreeNode<EntryMapping>> roots = this.mappings.getRootNodes().toList();
+
+		// lazily indexed classes must not be indexed while other threads are reading the index
+		for (EntryTreeNode<EntryMapping> root : roots) {
+			if (root.getEntry() instanceof ClassEntry classEntry) {
+				this.index.ensureIndexed(classEntry);
+			}
+		}
+
+		progress.init(roots.size(), "Checking for dropped mappings");
+
+		List<DroppedMappings> checked = roots.parallelStream()
+				.map(root -> {
+					DroppedMappings dropped = new DroppedMappings(new Dropped(), new Dropped());
+					this.checkNode(root, false, dropped);
+					return dropped;
+				})
+				.toList();
+
+		// progress is only reported from the calling thread, once each class has been checked
+		DroppedMappings dropped = new DroppedMappings(new Dropped(), new Dropped());
+		for (int i = 0; i < checked.size(); i++) {
+			progress.step(i, roots.get(i).getEntry().toString());
+
+			DroppedMappings classDropped = checked.get(i);
+			dropped.broken().droppedMappings.putAll(classDropped.broken().droppedMappings);
+			dropped.empty().droppedMappings.putAll(classDropped.empty().droppedMappings);
+		}
+
+		dropped.broken().apply(this.mappings);
+		dropped.empty().apply(this.mappings);
+
+		return dropped;
+	}
+
+	/**
+	 * Checks a node and all of its descendants.
+	 *
+	 * @param node the node to check
+	 * @param dropping whether an ancestor of the node is dropped as broken, which drops the node along with it
+	 * @param dropped the mappings dropped so far
+	 * @return whether the node is left in the tree once broken mappings are dropped
+	 */
+	private boolean checkNode(EntryTreeNode<EntryMapping> node, boolean dropping, DroppedMappings dropped) {
+		Entry<?> entry = node.getEntry();
+		EntryMapping mapping = node.getValue();
+		if (mapping != null && this.shouldDropBrokenEntry(entry)) {
+			dropped.broken().drop(entry, mapping);
+			dropping = true;
+		}
+
+		boolean hasChildren = false;
+		for (EntryTreeNode<EntryMapping> child : node.getChildNodes()) {
+			hasChildren |= this.checkNode(child, dropping, dropped);
+		}
+
+		if (dropping) {
+			return false;
+		}
+
+		// like dropEmptyMappings, only look at the children that are left after dropping broken mappings
+		if (mapping != null && !hasChildren && mapping.targetName() == null && mapping.javadoc() == null) {
+			dropped.empty().drop(entry, mapping);
+		}
+
+		return mapping != null || hasChildren;
+	}
+
 	public Dropped dropBrokenMappings(ProgressListener progress) {
 		return this.dropMappings(progress, this::tryDropBrokenEntry);
 	}
@@ -104,6 +183,9 @@ public class MappingsChecker {
 		return false;
 	}
 
+	public record DroppedMappings(Dropped broken, Dropped empty) {
+	}
+
 	public static class Dropped {
 		private final Map<Entry<?>, String> droppedMappings = new HashMap<>();
 
@@ -0,0 +1,272 @@
+package org.quiltmc.enigma.impl.translation.mapping.serde;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Reads tab-separated lines from a character stream, one line at a time, without creating a string for each line.
+ * <br>
+ * Lines are scanned in place in a reusable buffer, and each line is split into its leading tabs, which make up its indentation,
+ * and the tab-separated columns that follow. Columns are only turned into strings when asked for, and {@link #column(int)}
+ * returns the same string for every column with the same contents, so repeated names and descriptors are only stored once.
+ */
+public final class TabSeparatedLineReader {
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final Reader reader;
+	private char[] buffer = new char[BUFFER_SIZE];
+	/**
+	 * The position after the last character read into the buffer.
+	 */
+	private int limit;
+	/**
+	 * The position where the next line starts.
+	 */
+	private int position;
+	private long charsRead;
+	private boolean endOfInput;
+
+	private int indentation;
+	private int columnCount;
+	private int[] columnStarts = new int[8];
+	private int[] columnEnds = new int[8];
+
+	private String[] names = new String[1024];
+	private int nameCount;
+
+	public TabSeparatedLineReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Advances to the next line.
+	 *
+	 * @return whether there was another line
+	 * @throws IOException if the line couldn't be read
+	 */
+	public boolean nextLine() throws IOException {
+		int end = this.findLineEnd();
+		if (end < 0) {
+			return false;
+		}
+
+		int start = this.position;
+		this.position = end < this.limit && this.buffer[end] == '\r' && end + 1 < this.limit && this.buffer[end + 1] == '\n' ? end + 2 : end + 1;
+		this.split(start, end);
+		return true;
+	}
+
+	/**
+	 * Finds the end of the line at the current position, reading more input as needed.
+	 *
+	 * @return the position of the line's terminator, which may be the end of the input, or {@code -1} if there are no more lines
+	 */
+	private int findLineEnd() throws IOException {
+		int i = this.position;
+		while (true) {
+			for (; i < this.limit; i++) {
+				char c = this.buffer[i];
+				if (c == '\n') {
+					return i;
+				} else if (c == '\r') {
+					// a carriage return ending the buffer may be followed by a line feed
+					if (i + 1 < this.limit || this.endOfInput) {
+						return i;
+					}
+
+					break;
+				}
+			}
+
+			if (this.endOfInput) {
+				return this.position < this.limit ? this.limit : -1;
+			}
+
+			int scanned = i - this.position;
+			this.fill();
+			i = this.position + scanned;
+		}
+	}
+
+	/**
+	 * Moves the current line to the start of the buffer, growing it if the line fills it, and reads more input after it.
+	 */
+	private void fill() throws IOException {
+		int remaining = this.limit - this.position;
+		if (remaining == this.buffer.length) {
+			this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+		} else {
+			System.arraycopy(this.buffer, this.position, this.buffer, 0, remaining);
+		}
+
+		this.position = 0;
+		this.limit = remaining;
+
+		int read = this.reader.read(this.buffer, this.limit, this.buffer.length - this.limit);
+		if (read < 0) {
+			this.endOfInput = true;
+		} else {
+			this.limit += read;
+			this.charsRead += read;
+		}
+	}
+
+	private void split(int start, int end) {
+		int i = start;
+		while (i < end && this.buffer[i] == '\t') {
+			i++;
+		}
+
+		this.indentation = i - start;
+		this.columnCount = 0;
+		if (i == end) {
+			return;
+		}
+
+		int columnStart = i;
+		for (; i <= end; i++) {
+			if (i == end || this.buffer[i] == '\t') {
+				if (this.columnCount == this.columnStarts.length) {
+					this.columnStarts = Arrays.copyOf(this.columnStarts, this.columnCount * 2);
+					this.columnEnds = Arrays.copyOf(this.columnEnds, this.columnCount * 2);
+				}
+
+				this.columnStarts[this.columnCount] = columnStart;
+				this.columnEnds[this.columnCount] = i;
+				this.columnCount++;
+				columnStart = i + 1;
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of tabs at the start of the current line.
+	 */
+	public int getIndentation() {
+		return this.indentation;
+	}
+
+	/**
+	 * Gets the number of columns on the current line, which is zero if the line is empty after its indentation.
+	 */
+	public int getColumnCount() {
+		return this.columnCount;
+	}
+
+	/**
+	 * Gets the number of characters read from the underlying reader so far.
+	 */
+	public long getCharsRead() {
+		return this.charsRead;
+	}
+
+	/**
+	 * Checks whether a column of the current line has the given contents, without creating a string for it.
+	 *
+	 * @param column the index of the column
+	 * @param value the expected contents
+	 * @return whether the column matches
+	 */
+	public boolean columnEquals(int column, String value) {
+		this.checkColumn(column);
+		int start = this.columnStarts[column];
+		int length = this.columnEnds[column] - start;
+		if (length != value.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if (this.buffer[start + i] != value.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets a column of the current line as an interned string, which is shared with every other column read with the same contents.
+	 *
+	 * @param column the index of the column
+	 * @return the contents of the column
+	 */
+	public String column(int column) {
+		this.checkColumn(column);
+		int start = this.columnStarts[column];
+		int end = this.columnEnds[column];
+
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + this.buffer[i];
+		}
+
+		int mask = this.names.length - 1;
+		for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+			String name = this.names[slot];
+			if (name == null) {
+				name = new String(this.buffer, start, end - start);
+				this.names[slot] = name;
+				if (++this.nameCount * 2 > this.names.length) {
+					this.growNames();
+				}
+
+				return name;
+			} else if (name.hashCode() == hash && this.matches(name, start, end)) {
+				return name;
+			}
+		}
+	}
+
+	/**
+	 * Gets a column of the current line as a new string, for text that's unlikely to repeat, such as comments.
+	 *
+	 * @param column the index of the column
+	 * @return the contents of the column
+	 */
+	public String text(int column) {
+		this.checkColumn(column);
+		return new String(this.buffer, this.columnStarts[column], this.columnEnds[column] - this.columnStarts[column]);
+	}
+
+	private void checkColumn(int column) {
+		if (column < 0 || column >= this.columnCount) {
+			throw new IndexOutOfBoundsException("Column " + column + " out of bounds for " + this.columnCount + " columns");
+		}
+	}
+
+	private boolean matches(String name, int start, int end) {
+		if (name.length() != end - start) {
+			return false;
+		}
+
+		for (int i = start; i < end; i++) {
+			if (this.buffer[i] != name.charAt(i - start)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private void growNames() {
+		String[] names = new String[this.names.length * 2];
+		int mask = names.length - 1;
+		for (String name : this.names) {
+			if (name != null) {
+				int slot = mix(name.hashCode()) & mask;
+				while (names[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+
+				names[slot] = name;
+			}
+		}
+
+		this.names = names;
+	}
+
+	private static int mix(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+}
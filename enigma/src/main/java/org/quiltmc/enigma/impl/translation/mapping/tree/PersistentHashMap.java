@@ -0,0 +1,332 @@
+package org.quiltmc.enigma.impl.translation.mapping.tree;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A hash array mapped trie, whose versions share all the structure they have in common.
+ * <br>
+ * Every update returns a new map and leaves the original untouched, copying only the nodes along the changed path.
+ * When updates are made under an owner token, nodes created under that same token are modified in place instead,
+ * which makes a run of updates as cheap as with a mutable map. An owner must therefore stop using a token as soon as
+ * any version created under it is shared.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class PersistentHashMap<K, V> {
+	private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	/**
+	 * Nodes at or past this shift have used up all the hash bits and hold colliding keys in a flat list.
+	 */
+	private static final int COLLISION_SHIFT = 32;
+
+	private final Node root;
+	private final int size;
+
+	private PersistentHashMap(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentHashMap<K, V> empty() {
+		return (PersistentHashMap<K, V>) EMPTY;
+	}
+
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		return this.root == null ? null : (V) this.root.get(key, hash(key), 0);
+	}
+
+	/**
+	 * Associates the key with the value.
+	 *
+	 * @param key the key
+	 * @param value the value, which must not be null
+	 * @param owner the token of the caller, allowing it to modify nodes it created in place
+	 * @return the updated map
+	 */
+	public PersistentHashMap<K, V> put(K key, V value, Object owner) {
+		Change change = new Change();
+		Node root = this.root == null ? new Node(owner, 0, Node.EMPTY_ARRAY) : this.root;
+		Node updated = root.put(owner, key, hash(key), value, 0, change);
+		if (updated == this.root && change.sizeDelta == 0) {
+			return this;
+		}
+
+		return new PersistentHashMap<>(updated, this.size + change.sizeDelta);
+	}
+
+	/**
+	 * Removes the key from the map.
+	 *
+	 * @param key the key
+	 * @param owner the token of the caller, allowing it to modify nodes it created in place
+	 * @return the updated map
+	 */
+	public PersistentHashMap<K, V> remove(Object key, Object owner) {
+		if (this.root == null) {
+			return this;
+		}
+
+		Change change = new Change();
+		Node updated = this.root.remove(owner, key, hash(key), 0, change);
+		if (updated == this.root && change.sizeDelta == 0) {
+			return this;
+		}
+
+		return updated == null ? empty() : new PersistentHashMap<>(updated, this.size + change.sizeDelta);
+	}
+
+	public Iterator<K> keyIterator() {
+		return new TrieIterator<>(this.root, 0);
+	}
+
+	public Iterator<V> valueIterator() {
+		return new TrieIterator<>(this.root, 1);
+	}
+
+	/**
+	 * Records how an update changed the size of the map, since nodes modified in place can't tell by their identity.
+	 */
+	private static final class Change {
+		private int sizeDelta;
+	}
+
+	/**
+	 * A trie node. Its array holds a key and a value for each entry, or {@code null} and a child node
+	 * for each branch. Below {@link #COLLISION_SHIFT}, the bitmap tells which hash fragments are present.
+	 */
+	private static final class Node {
+		private static final Object[] EMPTY_ARRAY = new Object[0];
+
+		private final Object owner;
+		private int bitmap;
+		private Object[] array;
+
+		private Node(Object owner, int bitmap, Object[] array) {
+			this.owner = owner;
+			this.bitmap = bitmap;
+			this.array = array;
+		}
+
+		private Node editable(Object owner) {
+			return owner != null && owner == this.owner ? this : new Node(owner, this.bitmap, this.array.clone());
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(this.bitmap & (bit - 1));
+		}
+
+		private Object get(Object key, int hash, int shift) {
+			if (shift >= COLLISION_SHIFT) {
+				for (int i = 0; i < this.array.length; i += 2) {
+					if (key.equals(this.array[i])) {
+						return this.array[i + 1];
+					}
+				}
+
+				return null;
+			}
+
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((this.bitmap & bit) == 0) {
+				return null;
+			}
+
+			int i = this.index(bit) * 2;
+			Object storedKey = this.array[i];
+			if (storedKey == null) {
+				return ((Node) this.array[i + 1]).get(key, hash, shift + BITS);
+			}
+
+			return key.equals(storedKey) ? this.array[i + 1] : null;
+		}
+
+		private Node put(Object owner, Object key, int hash, Object value, int shift, Change change) {
+			if (shift >= COLLISION_SHIFT) {
+				for (int i = 0; i < this.array.length; i += 2) {
+					if (key.equals(this.array[i])) {
+						return this.withValue(owner, i + 1, value);
+					}
+				}
+
+				return this.withEntry(owner, this.array.length, 0, key, value, change);
+			}
+
+			int bit = 1 << ((hash >>> shift) & MASK);
+			int i = this.index(bit) * 2;
+			if ((this.bitmap & bit) == 0) {
+				return this.withEntry(owner, i, bit, key, value, change);
+			}
+
+			Object storedKey = this.array[i];
+			if (storedKey == null) {
+				Node child = (Node) this.array[i + 1];
+				return this.withValue(owner, i + 1, child.put(owner, key, hash, value, shift + BITS, change));
+			} else if (key.equals(storedKey)) {
+				return this.withValue(owner, i + 1, value);
+			}
+
+			// push both entries down into a new branch
+			Node branch = new Node(owner, 0, EMPTY_ARRAY)
+					.put(owner, storedKey, PersistentHashMap.hash(storedKey), this.array[i + 1], shift + BITS, new Change())
+					.put(owner, key, hash, value, shift + BITS, change);
+			Node edited = this.editable(owner);
+			edited.array[i] = null;
+			edited.array[i + 1] = branch;
+			return edited;
+		}
+
+		private Node withValue(Object owner, int i, Object value) {
+			if (this.array[i] == value) {
+				return this;
+			}
+
+			Node edited = this.editable(owner);
+			edited.array[i] = value;
+			return edited;
+		}
+
+		private Node withEntry(Object owner, int i, int bit, Object key, Object value, Change change) {
+			Object[] array = new Object[this.array.length + 2];
+			System.arraycopy(this.array, 0, array, 0, i);
+			array[i] = key;
+			array[i + 1] = value;
+			System.arraycopy(this.array, i, array, i + 2, this.array.length - i);
+			change.sizeDelta = 1;
+
+			if (owner != null && owner == this.owner) {
+				this.bitmap |= bit;
+				this.array = array;
+				return this;
+			}
+
+			return new Node(owner, this.bitmap | bit, array);
+		}
+
+		private Node withoutEntry(Object owner, int i, int bit, Change change) {
+			change.sizeDelta = -1;
+			if (this.array.length == 2) {
+				return null;
+			}
+
+			Object[] array = new Object[this.array.length - 2];
+			System.arraycopy(this.array, 0, array, 0, i);
+			System.arraycopy(this.array, i + 2, array, i, array.length - i);
+
+			if (owner != null && owner == this.owner) {
+				this.bitmap &= ~bit;
+				this.array = array;
+				return this;
+			}
+
+			return new Node(owner, this.bitmap & ~bit, array);
+		}
+
+		private Node remove(Object owner, Object key, int hash, int shift, Change change) {
+			if (shift >= COLLISION_SHIFT) {
+				for (int i = 0; i < this.array.length; i += 2) {
+					if (key.equals(this.array[i])) {
+						return this.withoutEntry(owner, i, 0, change);
+					}
+				}
+
+				return this;
+			}
+
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((this.bitmap & bit) == 0) {
+				return this;
+			}
+
+			int i = this.index(bit) * 2;
+			Object storedKey = this.array[i];
+			if (storedKey == null) {
+				Node child = (Node) this.array[i + 1];
+				Node updated = child.remove(owner, key, hash, shift + BITS, change);
+				if (updated == child && change.sizeDelta == 0) {
+					return this;
+				}
+
+				return updated == null ? this.withoutEntry(owner, i, bit, new Change()) : this.withValue(owner, i + 1, updated);
+			}
+
+			return key.equals(storedKey) ? this.withoutEntry(owner, i, bit, change) : this;
+		}
+	}
+
+	/**
+	 * Walks the trie depth-first, returning either the keys or the values of its entries.
+	 */
+	private static final class TrieIterator<T> implements Iterator<T> {
+		private final Deque<Node> nodes = new ArrayDeque<>();
+		private final Deque<Integer> positions = new ArrayDeque<>();
+		private final int offset;
+
+		private Node node;
+		private int position;
+		private boolean ready;
+
+		private TrieIterator(Node root, int offset) {
+			this.node = root;
+			this.offset = offset;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.ready) {
+				return true;
+			}
+
+			while (this.node != null) {
+				if (this.position >= this.node.array.length) {
+					this.node = this.nodes.pollLast();
+					this.position = this.node == null ? 0 : this.positions.pollLast();
+				} else if (this.node.array[this.position] == null) {
+					Node child = (Node) this.node.array[this.position + 1];
+					this.nodes.addLast(this.node);
+					this.positions.addLast(this.position + 2);
+					this.node = child;
+					this.position = 0;
+				} else {
+					this.ready = true;
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			T next = (T) this.node.array[this.position + this.offset];
+			this.position += 2;
+			this.ready = false;
+			return next;
+		}
+	}
+}
@@ -3,6 +3,7 @@ package org.quiltmc.enigma.util;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
 
 public class AsmUtil {
 	public static byte[] nodeToBytes(ClassNode node) {
@@ -17,4 +18,20 @@ public class AsmUtil {
 		r.accept(node, 0);
 		return node;
 	}
+
+	/**
+	 * Roughly estimates the amount of memory used by a class node, in bytes.
+	 * This is only meant to weigh nodes against each other, for example when bounding a cache.
+	 */
+	public static int estimateSize(ClassNode node) {
+		int size = 256 + node.fields.size() * 96;
+		for (MethodNode method : node.methods) {
+			size += 128 + method.instructions.size() * 48;
+			if (method.localVariables != null) {
+				size += method.localVariables.size() * 64;
+			}
+		}
+
+		return size;
+	}
 }
@@ -4,6 +4,7 @@ import com.google.gson.JsonSyntaxException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.quiltmc.enigma.api.EnigmaProfile;
+import org.quiltmc.enigma.api.class_provider.ObfuscationFixClassProvider;
 import org.quiltmc.enigma.api.service.JarIndexerService;
 import org.quiltmc.enigma.api.service.NameProposalService;
 import org.quiltmc.enigma.api.service.DecompilerService;
@@ -75,6 +76,21 @@ public class EnigmaProfileTest {
 		Assertions.assertTrue(fooService.getArgument("example").map(Either::isLeft).orElse(false));
 	}
 
+	@Test
+	public void testClassCacheParameters() {
+		Assertions.assertEquals(ObfuscationFixClassProvider.DEFAULT_PARAMETERS, EnigmaProfile.EMPTY.getClassCacheParameters());
+
+		Reader r = new StringReader("""
+				{
+					"class_cache_parameters": {
+						"maximum_weight": 1024
+					}
+				}""");
+		EnigmaProfile profile = EnigmaProfile.parse(r);
+
+		Assertions.assertEquals(1024, profile.getClassCacheParameters().maximumWeight());
+	}
+
 	@Test
 	public void testMalformedJson() {
 		Reader r = new StringReader("""
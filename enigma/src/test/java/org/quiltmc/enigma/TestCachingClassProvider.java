@@ -0,0 +1,61 @@
+package org.quiltmc.enigma;
+
+import com.google.common.cache.CacheStats;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.ClassCacheParameters;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestCachingClassProvider {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	@Test
+	public void testStats() throws Exception {
+		CachingClassProvider provider = new CachingClassProvider(new JarClassProvider(JAR));
+		String name = provider.getClassNames().iterator().next();
+
+		assertSame(provider.get(name), provider.get(name));
+		assertSame(provider.getClassBytes(name), provider.getClassBytes(name));
+		assertNull(provider.get("does/not/Exist"));
+
+		CacheStats stats = provider.getCacheStats();
+		assertEquals(2, stats.hitCount());
+		assertEquals(3, stats.missCount());
+		assertTrue(stats.totalLoadTime() > 0);
+	}
+
+	@Test
+	public void testMaximumSize() throws Exception {
+		CachingClassProvider provider = new CachingClassProvider(new JarClassProvider(JAR), new ClassCacheParameters(8, 0, 0, 4));
+		provider.getClassNames().forEach(provider::get);
+
+		assertEquals(provider.getClassNames().size() - 8, provider.getCacheStats().evictionCount());
+	}
+
+	@Test
+	public void testMaximumWeight() throws Exception {
+		CachingClassProvider provider = new CachingClassProvider(new JarClassProvider(JAR), new ClassCacheParameters(0, 4096, 0, 0));
+		provider.getClassNames().forEach(provider::getClassBytes);
+
+		// far fewer than all of the classes fit in 4 KiB
+		assertTrue(provider.getCacheStats().evictionCount() > provider.getClassNames().size() / 2);
+	}
+
+	@Test
+	public void testSharedBudget() throws Exception {
+		CachingClassProvider provider = new CachingClassProvider(new JarClassProvider(JAR), new ClassCacheParameters(1, 0, 0, 1));
+		String name = provider.getClassNames().iterator().next();
+
+		// a class's node and bytes count against the same limit
+		provider.get(name);
+		provider.getClassBytes(name);
+		assertEquals(1, provider.getCacheStats().evictionCount());
+	}
+}
@@ -0,0 +1,82 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.CombiningClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.ObfuscationFixClassProvider;
+import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.impl.analysis.ClassLoaderClassProvider;
+import org.quiltmc.enigma.util.AsmUtil;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.nio.file.Files;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TestClassProviderBytes {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	@Test
+	public void testRawBytes() throws Exception {
+		ClassProvider provider = new CombiningClassProvider(new CachingClassProvider(new JarClassProvider(JAR)), new ClassLoaderClassProvider(ClassLoader.getSystemClassLoader()));
+
+		try (FileSystem fs = FileSystems.newFileSystem(JAR)) {
+			for (String name : new JarClassProvider(JAR).getClassNames()) {
+				assertArrayEquals(Files.readAllBytes(fs.getPath(name + ".class")), provider.getClassBytes(name));
+			}
+		}
+
+		assertNotNull(provider.getClassBytes("java.lang.Object"));
+		assertNull(provider.getClassBytes("does/not/Exist"));
+	}
+
+	@Test
+	public void testFixedBytes() throws Exception {
+		ClassProvider jarProvider = new CachingClassProvider(new JarClassProvider(JAR));
+		JarIndex index = MainJarIndex.empty();
+		index.indexJar(new ProjectClassProvider(jarProvider, null), ProgressListener.createEmpty());
+
+		ObfuscationFixClassProvider fixed = new ObfuscationFixClassProvider(jarProvider, index);
+		for (String name : jarProvider.getClassNames()) {
+			byte[] bytes = fixed.getClassBytes(name);
+			assertArrayEquals(AsmUtil.nodeToBytes(fixed.get(name)), bytes);
+
+			// fixed bytes are cached
+			assertSame(bytes, fixed.getClassBytes(name));
+		}
+	}
+
+	@Test
+	public void testFixedClassCache() throws Exception {
+		ClassProvider jarProvider = new CachingClassProvider(new JarClassProvider(JAR));
+		JarIndex index = MainJarIndex.empty();
+
+		// like when opening a jar, the fixing provider exists before the index is built
+		ObfuscationFixClassProvider fixed = new ObfuscationFixClassProvider(jarProvider, index);
+		assertSame(fixed, ObfuscationFixClassProvider.of(fixed, index));
+
+		String name = jarProvider.getClassNames().iterator().next();
+		long modificationCount = index.getModificationCount();
+		index.indexJar(new ProjectClassProvider(fixed, null), ProgressListener.createEmpty());
+		assertNotEquals(modificationCount, index.getModificationCount());
+
+		// classes fixed while indexing are outdated once it's done
+		long hits = fixed.getCacheStats().hitCount();
+		ClassNode node = fixed.get(name);
+		assertSame(node, fixed.get(name));
+		assertEquals(hits + 1, fixed.getCacheStats().hitCount());
+	}
+}
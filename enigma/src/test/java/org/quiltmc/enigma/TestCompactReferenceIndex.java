@@ -0,0 +1,92 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.index.AbstractJarIndex;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class TestCompactReferenceIndex {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	private final JarIndex expected;
+	private final JarIndex compact;
+	private final JarIndex compactParallel;
+
+	public TestCompactReferenceIndex() throws Exception {
+		this.expected = index(false, false);
+		this.compact = index(true, false);
+		this.compactParallel = index(true, true);
+	}
+
+	private static JarIndex index(boolean compact, boolean parallel) throws Exception {
+		JarIndex index = MainJarIndex.empty(compact);
+		((AbstractJarIndex) index).setParallel(parallel);
+		index.indexJar(new ProjectClassProvider(new CachingClassProvider(new JarClassProvider(JAR)), null), ProgressListener.createEmpty());
+		return index;
+	}
+
+	@Test
+	public void testReferences() {
+		this.assertReferencesMatch(this.compact);
+	}
+
+	@Test
+	public void testParallelReferences() {
+		this.assertReferencesMatch(this.compactParallel);
+	}
+
+	private void assertReferencesMatch(JarIndex actualIndex) {
+		ReferenceIndex expected = this.expected.getIndex(ReferenceIndex.class);
+		ReferenceIndex actual = actualIndex.getIndex(ReferenceIndex.class);
+		EntryIndex entries = this.expected.getIndex(EntryIndex.class);
+
+		Set<ClassEntry> classes = new HashSet<>(expected.getReferencedClasses());
+		assertFalse(classes.isEmpty());
+		assertEquals(classes, actual.getReferencedClasses());
+		classes.addAll(entries.getClasses());
+
+		for (ClassEntry entry : classes) {
+			assertEquals(describe(expected.getReferencesToClass(entry)), describe(actual.getReferencesToClass(entry)), entry.toString());
+			assertEquals(describe(expected.getFieldTypeReferencesToClass(entry)), describe(actual.getFieldTypeReferencesToClass(entry)), entry.toString());
+			assertEquals(describe(expected.getMethodTypeReferencesToClass(entry)), describe(actual.getMethodTypeReferencesToClass(entry)), entry.toString());
+		}
+
+		for (MethodEntry entry : entries.getMethods()) {
+			assertEquals(describe(expected.getReferencesToMethod(entry)), describe(actual.getReferencesToMethod(entry)), entry.toString());
+			assertEquals(new HashSet<>(expected.getMethodsReferencedBy(entry)), new HashSet<>(actual.getMethodsReferencedBy(entry)), entry.toString());
+
+			for (MethodEntry referenced : expected.getMethodsReferencedBy(entry)) {
+				assertEquals(describe(expected.getReferencesToMethod(referenced)), describe(actual.getReferencesToMethod(referenced)), referenced.toString());
+			}
+		}
+
+		for (FieldEntry entry : entries.getFields()) {
+			assertEquals(describe(expected.getReferencesToField(entry)), describe(actual.getReferencesToField(entry)), entry.toString());
+		}
+	}
+
+	private static Set<String> describe(Collection<? extends EntryReference<?, ?>> references) {
+		return references.stream()
+				.map(reference -> reference.entry + " <- " + reference.context + " " + reference.targetType + " " + reference.isNamed())
+				.collect(Collectors.toSet());
+	}
+}
@@ -0,0 +1,129 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.translation.representation.AccessFlags;
+import org.quiltmc.enigma.api.translation.representation.ParameterAccessFlags;
+import org.quiltmc.enigma.api.translation.representation.Signature;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.index.InternedEntryTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestInternedEntryTable {
+	@Test
+	public void testIds() {
+		InternedEntryTable<ClassEntry> table = new InternedEntryTable<>();
+		List<ClassEntry> entries = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			ClassEntry entry = TestEntryFactory.newClass("a/C" + i);
+			entries.add(entry);
+			assertEquals(i, table.intern(entry));
+		}
+
+		assertEquals(entries, new ArrayList<>(table));
+		for (int i = 0; i < entries.size(); i++) {
+			assertEquals(i, table.indexOf(TestEntryFactory.newClass("a/C" + i)));
+			assertSame(entries.get(i), table.get(i));
+		}
+
+		assertEquals(-1, table.indexOf(TestEntryFactory.newClass("a/Missing")));
+		assertFalse(table.contains(null));
+	}
+
+	@Test
+	public void testPutReplaces() {
+		InternedEntryTable<ClassEntry> table = new InternedEntryTable<>();
+		ClassEntry plain = TestEntryFactory.newClass("a");
+		ClassDefEntry definition = newClassDef("a", null);
+
+		int id = table.intern(plain);
+		assertEquals(id, table.intern(definition));
+		assertSame(plain, table.get(id));
+
+		assertEquals(id, table.put(definition));
+		assertSame(definition, table.find(plain));
+		assertEquals(1, table.size());
+	}
+
+	@Test
+	public void testInheritance() {
+		InheritanceIndex index = new InheritanceIndex(new EntryIndex());
+		ClassEntry base = TestEntryFactory.newClass("a");
+		ClassEntry iface = TestEntryFactory.newClass("b");
+		ClassEntry sub = TestEntryFactory.newClass("c");
+
+		index.indexClass(newClassDef("a", null));
+		index.indexClass(newClassDef("c", base, iface));
+
+		assertEquals(Set.of(base, iface), Set.copyOf(index.getParents(sub)));
+		assertEquals(Set.of(base, iface), index.getAncestors(sub));
+		assertTrue(index.isParent(iface));
+		assertFalse(index.hasParents(base));
+
+		// indexing a class again neither duplicates its edges nor misses new ones
+		index.indexClass(newClassDef("c", base, iface));
+		index.indexClass(newClassDef("d", sub));
+		assertEquals(2, index.getParents(sub).size());
+		assertEquals(Set.of(sub, TestEntryFactory.newClass("d")), index.getDescendants(base));
+		assertTrue(index.getChildren(TestEntryFactory.newClass("unknown")).isEmpty());
+	}
+
+	@Test
+	public void testMemberDefinitions() {
+		EntryIndex index = new EntryIndex();
+		ClassEntry owner = TestEntryFactory.newClass("a");
+		MethodDefEntry method = MethodDefEntry.parse(owner, Opcodes.ACC_PUBLIC, "a", "(ILjava/lang/String;)V", "<T:Ljava/lang/Object;>(ITT;)V");
+		method.getDesc().getArgumentDescs().get(1).setAccess(new ParameterAccessFlags(Opcodes.ACC_FINAL));
+		FieldDefEntry field = FieldDefEntry.parse(owner, Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, "b", "I", null);
+
+		index.indexMethod(method);
+		index.indexMethod(MethodDefEntry.parse(owner, Opcodes.ACC_STATIC, "c", "()V", null));
+		index.indexField(field);
+
+		MethodEntry plainMethod = TestEntryFactory.newMethod(owner, "a", "(ILjava/lang/String;)V");
+		MethodDefEntry definition = index.getDefinition(plainMethod);
+		assertEquals(method, definition);
+		assertEquals(Opcodes.ACC_PUBLIC, definition.getAccess().getFlags());
+		assertEquals(method.getSignature().getSignature(), definition.getSignature().getSignature());
+		assertEquals(0, definition.getDesc().getArgumentDescs().get(0).getAccess().getFlags());
+		assertTrue(definition.getDesc().getArgumentDescs().get(1).getAccess().isFinal());
+		assertEquals(Opcodes.ACC_PUBLIC, index.getMethodAccess(plainMethod).getFlags());
+
+		FieldDefEntry fieldDefinition = index.getDefinition(TestEntryFactory.newField(owner, "b", "I"));
+		assertTrue(fieldDefinition.getAccess().isStatic());
+		assertTrue(fieldDefinition.getAccess().isPrivate());
+		assertNull(fieldDefinition.getSignature().getSignature());
+
+		// the collections still yield definitions, in the order they were indexed
+		List<MethodEntry> methods = new ArrayList<>(index.getMethods());
+		assertEquals(List.of(plainMethod, TestEntryFactory.newMethod(owner, "c", "()V")), methods);
+		assertTrue(methods.get(1) instanceof MethodDefEntry def && def.getAccess().isStatic());
+		assertTrue(index.getFields().iterator().next() instanceof FieldDefEntry);
+		assertNull(index.getMethodAccess(TestEntryFactory.newMethod(owner, "missing", "()V")));
+
+		// definitions are only built once, and the raw flags don't need them at all
+		assertSame(definition, index.getDefinition(plainMethod));
+		assertSame(definition.getAccess(), index.getMethodAccess(plainMethod));
+		assertEquals(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, index.getFieldAccessFlags(TestEntryFactory.newField(owner, "b", "I")));
+		assertEquals(-1, index.getMethodAccessFlags(TestEntryFactory.newMethod(owner, "missing", "()V")));
+	}
+
+	private static ClassDefEntry newClassDef(String name, ClassEntry superClass, ClassEntry... interfaces) {
+		return new ClassDefEntry(name, Signature.createSignature(null), new AccessFlags(0), superClass, interfaces);
+	}
+}
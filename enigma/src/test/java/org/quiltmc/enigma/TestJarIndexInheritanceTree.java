@@ -78,6 +78,25 @@ public class TestJarIndexInheritanceTree {
 		assertThat(index.getChildren(SUB_CLASS_B), is(empty()));
 	}
 
+	@Test
+	public void ancestry() {
+		InheritanceIndex index = this.index.getIndex(InheritanceIndex.class);
+
+		assertThat(index.isAncestor(SUB_CLASS_AA, BASE_CLASS), is(true));
+		assertThat(index.isAncestor(SUB_CLASS_AA, SUB_CLASS_A), is(true));
+		assertThat(index.isAncestor(BASE_CLASS, SUB_CLASS_AA), is(false));
+		assertThat(index.isAncestor(SUB_CLASS_B, SUB_CLASS_A), is(false));
+		assertThat(index.isAncestor(SUB_CLASS_AA, SUB_CLASS_AA), is(false));
+
+		// closures are memoised, but the returned sets can still be modified by the caller
+		index.getAncestors(SUB_CLASS_AA).clear();
+		assertThat(index.getAncestors(SUB_CLASS_AA), containsInAnyOrder(SUB_CLASS_A, BASE_CLASS));
+		assertThat(index.getDescendants(BASE_CLASS), containsInAnyOrder(SUB_CLASS_A, SUB_CLASS_AA, SUB_CLASS_B));
+
+		assertThat(index.computeClassRelation(SUB_CLASS_AA, BASE_CLASS), is(InheritanceIndex.Relation.RELATED));
+		assertThat(index.computeClassRelation(SUB_CLASS_B, SUB_CLASS_A), is(InheritanceIndex.Relation.UNRELATED));
+	}
+
 	@Test
 	public void access() {
 		assertThat(this.index.getIndex(EntryIndex.class).getFieldAccess(NAME_FIELD), is(new AccessFlags(Opcodes.ACC_PRIVATE)));
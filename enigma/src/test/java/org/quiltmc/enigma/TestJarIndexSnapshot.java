@@ -0,0 +1,170 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.BridgeMethodIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.LambdaIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.index.AbstractJarIndex;
+import org.quiltmc.enigma.impl.analysis.index.JarIndexSnapshot;
+import org.quiltmc.enigma.util.Utils;
+import org.objectweb.asm.tree.ClassNode;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestJarIndexSnapshot {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	@TempDir
+	Path tempDir;
+
+	private static JarIndex index(@Nullable Path snapshot, ClassProvider classProvider) throws Exception {
+		return index(snapshot, classProvider, List.of());
+	}
+
+	private static JarIndex index(@Nullable Path snapshot, ClassProvider classProvider, List<String> configuration) throws Exception {
+		JarIndex index = MainJarIndex.empty();
+		((AbstractJarIndex) index).setSnapshot(snapshot, Utils.zipSha1(JAR), configuration);
+		index.indexJar(new ProjectClassProvider(classProvider, null), ProgressListener.createEmpty());
+		return index;
+	}
+
+	private static String key(JarIndex index) {
+		return ((AbstractJarIndex) index).getSnapshotKey();
+	}
+
+	private static ClassProvider failingProvider(ClassProvider jarProvider) {
+		return new ClassProvider() {
+			@Override
+			public Collection<String> getClassNames() {
+				return jarProvider.getClassNames();
+			}
+
+			@Nullable
+			@Override
+			public ClassNode get(String name) {
+				throw new AssertionError("Class " + name + " was requested while replaying a snapshot");
+			}
+		};
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Path snapshot = this.tempDir.resolve("complete.enigma-index");
+		ClassProvider jarProvider = new CachingClassProvider(new JarClassProvider(JAR));
+
+		JarIndex expected = index(snapshot, jarProvider);
+		assertTrue(Files.exists(snapshot));
+		assertNotNull(JarIndexSnapshot.read(snapshot, Utils.zipSha1(JAR), key(expected)));
+
+		// a replayed index must never need to look at bytecode
+		JarIndex actual = index(snapshot, failingProvider(jarProvider));
+
+		assertIndexesEqual(expected, actual);
+	}
+
+	@Test
+	public void testCorruptSnapshot() throws Exception {
+		Path snapshot = this.tempDir.resolve("complete.enigma-index");
+		ClassProvider jarProvider = new CachingClassProvider(new JarClassProvider(JAR));
+		JarIndex expected = index(snapshot, jarProvider);
+
+		// cut the snapshot off partway through its callbacks
+		byte[] bytes = Files.readAllBytes(snapshot);
+		Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - bytes.length / 4));
+		assertThrows(IOException.class, () -> JarIndexSnapshot.read(snapshot, Utils.zipSha1(JAR), key(expected)));
+
+		// the jar is indexed from its bytecode instead, without any of the truncated snapshot
+		assertIndexesEqual(expected, index(snapshot, jarProvider));
+
+		// a snapshot that's the right length but has a changed byte fails its checksum
+		bytes = Files.readAllBytes(snapshot);
+		bytes[bytes.length / 2] ^= 1;
+		Files.write(snapshot, bytes);
+		assertThrows(IOException.class, () -> JarIndexSnapshot.read(snapshot, Utils.zipSha1(JAR), key(expected)));
+	}
+
+	@Test
+	public void testConfigurationMismatch() throws Exception {
+		Path snapshot = this.tempDir.resolve("complete.enigma-index");
+		ClassProvider jarProvider = new CachingClassProvider(new JarClassProvider(JAR));
+		JarIndex expected = index(snapshot, jarProvider, List.of("compact_references=false"));
+
+		JarIndex compact = MainJarIndex.empty(true);
+		((AbstractJarIndex) compact).setSnapshot(snapshot, Utils.zipSha1(JAR), List.of("compact_references=true"));
+		assertNull(JarIndexSnapshot.read(snapshot, Utils.zipSha1(JAR), key(compact)));
+
+		// a snapshot written with the same configuration is still replayed
+		assertIndexesEqual(expected, index(snapshot, failingProvider(jarProvider), List.of("compact_references=false")));
+	}
+
+	@Test
+	public void testChecksumMismatch() throws Exception {
+		Path snapshot = this.tempDir.resolve("complete.enigma-index");
+		index(snapshot, new CachingClassProvider(new JarClassProvider(JAR)));
+
+		String key = key(MainJarIndex.empty());
+		assertNull(JarIndexSnapshot.read(snapshot, new byte[20], key));
+		assertNull(JarIndexSnapshot.read(this.tempDir.resolve("missing.enigma-index"), Utils.zipSha1(JAR), key));
+	}
+
+	private static void assertIndexesEqual(JarIndex expected, JarIndex actual) {
+		EntryIndex expectedEntries = expected.getIndex(EntryIndex.class);
+		EntryIndex actualEntries = actual.getIndex(EntryIndex.class);
+		assertEquals(new HashSet<>(expectedEntries.getClasses()), new HashSet<>(actualEntries.getClasses()));
+		assertEquals(new HashSet<>(expectedEntries.getMethods()), new HashSet<>(actualEntries.getMethods()));
+		assertEquals(new HashSet<>(expectedEntries.getFields()), new HashSet<>(actualEntries.getFields()));
+		assertEquals(expected.getChildrenByClass(), actual.getChildrenByClass());
+
+		for (MethodEntry method : expectedEntries.getMethods()) {
+			assertEquals(expectedEntries.getMethodAccess(method), actualEntries.getMethodAccess(method));
+		}
+
+		InheritanceIndex expectedInheritance = expected.getIndex(InheritanceIndex.class);
+		InheritanceIndex actualInheritance = actual.getIndex(InheritanceIndex.class);
+		ReferenceIndex expectedReferences = expected.getIndex(ReferenceIndex.class);
+		ReferenceIndex actualReferences = actual.getIndex(ReferenceIndex.class);
+		for (ClassEntry entry : expectedEntries.getClasses()) {
+			assertEquals(new HashSet<>(expectedInheritance.getParents(entry)), new HashSet<>(actualInheritance.getParents(entry)));
+			assertEquals(new HashSet<>(expectedReferences.getReferencesToClass(entry)), new HashSet<>(actualReferences.getReferencesToClass(entry)));
+		}
+
+		for (MethodEntry entry : expectedEntries.getMethods()) {
+			assertEquals(new HashSet<>(expectedReferences.getReferencesToMethod(entry)), new HashSet<>(actualReferences.getReferencesToMethod(entry)));
+			assertEquals(expected.getIndex(LambdaIndex.class).getInternalLambdas(entry), actual.getIndex(LambdaIndex.class).getInternalLambdas(entry));
+		}
+
+		for (FieldEntry entry : expectedEntries.getFields()) {
+			assertEquals(new HashSet<>(expectedReferences.getReferencesToField(entry)), new HashSet<>(actualReferences.getReferencesToField(entry)));
+		}
+
+		Set<?> expectedBridges = expected.getIndex(BridgeMethodIndex.class).getBridgeToSpecialized().entrySet();
+		assertEquals(expectedBridges, actual.getIndex(BridgeMethodIndex.class).getBridgeToSpecialized().entrySet());
+	}
+}
@@ -0,0 +1,138 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.LibrariesJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MethodFamilyIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.CombiningClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.ClassLoaderClassProvider;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.IntStream;
+
+import static org.quiltmc.enigma.TestEntryFactory.newClass;
+import static org.quiltmc.enigma.TestEntryFactory.newMethod;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestLazyLibraryIndex {
+	public static final Path JAR = TestUtil.obfJar("inheritance_tree");
+	public static final Path LIBRARY = TestUtil.obfJar("complete");
+
+	private final JarIndex libIndex;
+
+	public TestLazyLibraryIndex() throws Exception {
+		JarIndex mainIndex = MainJarIndex.empty();
+		this.libIndex = LibrariesJarIndex.onDemand(mainIndex);
+
+		CombiningClassProvider libraries = new CombiningClassProvider(new ClassLoaderClassProvider(ClassLoader.getSystemClassLoader()), new CachingClassProvider(new JarClassProvider(LIBRARY)));
+		ProjectClassProvider classProvider = new ProjectClassProvider(new CachingClassProvider(new JarClassProvider(JAR)), libraries);
+		mainIndex.indexJar(classProvider, ProgressListener.createEmpty());
+		this.libIndex.indexJar(classProvider, ProgressListener.createEmpty());
+	}
+
+	@Test
+	public void testReachableClasses() {
+		assertThat(this.libIndex.isIndexed("java/lang/Object"), is(true));
+		assertThat(this.libIndex.isIndexed("java/lang/Record"), is(true));
+
+		// other jre classes are looked up through reflection
+		assertThat(this.libIndex.isIndexed("java/lang/String"), is(false));
+
+		// the main jar doesn't use anything from the library
+		assertThat(this.libIndex.isIndexed("l"), is(false));
+		assertThat(this.libIndex.isIndexed("o"), is(false));
+	}
+
+	@Test
+	public void testFaultIn() {
+		assertThat(this.libIndex.ensureIndexed(newClass("o")), is(true));
+		assertThat(this.libIndex.getIndex(EntryIndex.class).hasClass(newClass("o")), is(true));
+
+		// ancestors are indexed along with the class
+		assertThat(this.libIndex.isIndexed("m"), is(true));
+		assertThat(this.libIndex.isIndexed("l"), is(true));
+		assertThat(this.libIndex.getIndex(InheritanceIndex.class).getAncestors(newClass("o")), is(Set.of(newClass("m"), newClass("l"))));
+
+		// but unrelated classes aren't
+		assertThat(this.libIndex.isIndexed("n"), is(false));
+
+		assertThat(this.libIndex.ensureIndexed(newClass("does/not/Exist")), is(false));
+	}
+
+	@Test
+	public void testResolverFaultIn() {
+		assertThat(this.libIndex.getEntryResolver().resolveEntry(newMethod("m", "a", "()V"), ResolutionStrategy.RESOLVE_ROOT), contains(newMethod("l", "a", "()V")));
+		assertThat(this.libIndex.isIndexed("m"), is(true));
+	}
+
+	@Test
+	public void testFaultInWhileReading() {
+		Lock lock = this.libIndex.getReadLock();
+		lock.lock();
+		try {
+			// the class can't be indexed while this thread is reading, which is reported instead of leaving it missing
+			assertThrows(IllegalStateException.class, () -> this.libIndex.ensureIndexed(newClass("o")));
+			assertThat(this.libIndex.ensureIndexed(newClass("java/lang/Object")), is(true));
+			assertThat(this.libIndex.ensureIndexed(newClass("java/lang/String")), is(false));
+		} finally {
+			lock.unlock();
+		}
+
+		// indexes that never index classes on demand aren't locked
+		assertThat(MainJarIndex.empty().getReadLock(), is(nullValue()));
+	}
+
+	@Test
+	public void testIncrementalProcessing() {
+		JarIndex eagerIndex = LibrariesJarIndex.empty();
+		eagerIndex.indexJar(new ProjectClassProvider(null, new CachingClassProvider(new JarClassProvider(LIBRARY))), ProgressListener.createEmpty());
+
+		// faulting classes in one at a time only processes the new ones, which should give the same result as processing everything
+		this.libIndex.ensureIndexed(newClass("m"));
+		this.libIndex.ensureIndexed(newClass("o"));
+		this.libIndex.ensureIndexed(newClass("n"));
+
+		MethodFamilyIndex lazyFamilies = this.libIndex.getIndex(MethodFamilyIndex.class);
+		MethodFamilyIndex eagerFamilies = eagerIndex.getIndex(MethodFamilyIndex.class);
+		for (String className : new String[] {"l", "m", "n", "o"}) {
+			for (MethodEntry method : eagerIndex.getIndex(EntryIndex.class).getMethods()) {
+				if (method.getParent().getFullName().equals(className)) {
+					assertThat(lazyFamilies.getFamily(method), is(eagerFamilies.getFamily(method)));
+				}
+			}
+		}
+
+		assertThat(Set.copyOf(this.libIndex.getIndex(InheritanceIndex.class).getChildren(newClass("l"))), is(Set.copyOf(eagerIndex.getIndex(InheritanceIndex.class).getChildren(newClass("l")))));
+	}
+
+	@Test
+	public void testConcurrentFaultIn() {
+		// classes are faulted in from several threads at once, while others resolve against the classes faulted in so far
+		List<String> classes = List.of("l", "m", "n", "o");
+		IntStream.range(0, 64).parallel().forEach(i -> {
+			if (i % 2 == 0) {
+				assertThat(this.libIndex.ensureIndexed(newClass(classes.get(i / 2 % classes.size()))), is(true));
+			} else {
+				assertThat(this.libIndex.getEntryResolver().resolveFirstEntry(newMethod("m", "a", "()V"), ResolutionStrategy.RESOLVE_ROOT), is(newMethod("l", "a", "()V")));
+			}
+		});
+
+		assertThat(this.libIndex.getIndex(InheritanceIndex.class).getAncestors(newClass("o")), is(Set.of(newClass("m"), newClass("l"))));
+	}
+}
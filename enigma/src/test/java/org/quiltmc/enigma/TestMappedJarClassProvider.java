@@ -0,0 +1,130 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.MappedJarClassProvider;
+import org.quiltmc.enigma.util.AsmUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestMappedJarClassProvider {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testDeflated() throws Exception {
+		try (JarClassProvider expected = new JarClassProvider(JAR); MappedJarClassProvider actual = new MappedJarClassProvider(JAR)) {
+			assertEquals(expected.getClassNames(), actual.getClassNames());
+			assertBytesMatch(JAR, actual);
+
+			for (String name : expected.getClassNames()) {
+				assertArrayEquals(AsmUtil.nodeToBytes(expected.get(name)), AsmUtil.nodeToBytes(actual.get(name)));
+			}
+
+			assertNull(actual.get("does/not/Exist"));
+			assertNull(actual.getClassBytes("does/not/Exist"));
+		}
+	}
+
+	@Test
+	public void testStored() throws Exception {
+		Path storedJar = this.tempDir.resolve("stored.jar");
+		try (FileSystem fs = FileSystems.newFileSystem(JAR); ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(storedJar))) {
+			try (var paths = Files.walk(fs.getPath("/"))) {
+				for (Path path : paths.filter(Files::isRegularFile).toList()) {
+					byte[] bytes = Files.readAllBytes(path);
+					CRC32 crc = new CRC32();
+					crc.update(bytes);
+
+					ZipEntry entry = new ZipEntry(path.toString().substring(1));
+					entry.setMethod(ZipEntry.STORED);
+					entry.setSize(bytes.length);
+					entry.setCrc(crc.getValue());
+					out.putNextEntry(entry);
+					out.write(bytes);
+					out.closeEntry();
+				}
+			}
+		}
+
+		try (MappedJarClassProvider provider = new MappedJarClassProvider(storedJar)) {
+			assertFalse(provider.getClassNames().isEmpty());
+			assertBytesMatch(JAR, provider);
+
+			String name = provider.getClassNames().iterator().next();
+			ByteBuffer buffer = provider.getClassBuffer(name);
+			assertTrue(buffer.isReadOnly());
+			assertTrue(buffer.isDirect(), "stored entries should be slices of the mapped jar");
+		}
+	}
+
+	@Test
+	public void testZip64ExtraField() throws Exception {
+		byte[] data = {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 1, 2, 3};
+		byte[] name = "a.class".getBytes(StandardCharsets.UTF_8);
+		CRC32 crc = new CRC32();
+		crc.update(data);
+
+		ByteBuffer zip = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+		zip.putInt(0x04034b50).putShort((short) 45).putShort((short) 0).putShort((short) 0).putInt(0)
+				.putInt((int) crc.getValue()).putInt(data.length).putInt(data.length)
+				.putShort((short) name.length).putShort((short) 0).put(name).put(data);
+
+		// the central directory only has the magic values, leaving the real ones to the zip64 extra field
+		int directory = zip.position();
+		zip.putInt(0x02014b50).putShort((short) 45).putShort((short) 45).putShort((short) 0).putShort((short) 0).putInt(0)
+				.putInt((int) crc.getValue()).putInt(0xFFFFFFFF).putInt(0xFFFFFFFF)
+				.putShort((short) name.length).putShort((short) 28).putShort((short) 0)
+				.putShort((short) 0).putShort((short) 0).putInt(0).putInt(0xFFFFFFFF).put(name)
+				.putShort((short) 0x0001).putShort((short) 24).putLong(data.length).putLong(data.length).putLong(0);
+
+		int directorySize = zip.position() - directory;
+		zip.putInt(0x06054b50).putShort((short) 0).putShort((short) 0).putShort((short) 1).putShort((short) 1)
+				.putInt(directorySize).putInt(directory).putShort((short) 0);
+
+		Path jar = this.tempDir.resolve("zip64.jar");
+		Files.write(jar, Arrays.copyOf(zip.array(), zip.position()));
+
+		MappedJarClassProvider provider = new MappedJarClassProvider(jar);
+		assertEquals(Set.of("a"), provider.getClassNames());
+		assertArrayEquals(data, provider.getClassBytes("a"));
+
+		provider.close();
+		assertThrows(IllegalStateException.class, () -> provider.getClassBytes("a"));
+	}
+
+	private static void assertBytesMatch(Path jar, MappedJarClassProvider provider) throws Exception {
+		try (FileSystem fs = FileSystems.newFileSystem(jar)) {
+			for (String name : provider.getClassNames()) {
+				byte[] expected = Files.readAllBytes(fs.getPath(name + ".class"));
+				assertArrayEquals(expected, provider.getClassBytes(name));
+
+				ByteBuffer buffer = provider.getClassBuffer(name);
+				byte[] actual = new byte[buffer.remaining()];
+				buffer.get(actual);
+				assertArrayEquals(expected, actual);
+			}
+		}
+	}
+}
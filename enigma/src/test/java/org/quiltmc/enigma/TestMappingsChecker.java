@@ -0,0 +1,90 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.impl.translation.mapping.MappingsChecker;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TestMappingsChecker {
+	public static final Path JAR = TestUtil.obfJar("interface_union");
+
+	private static final ClassEntry MISSING_CLASS = TestEntryFactory.newClass("zz");
+	private static final ClassEntry EMPTY_CLASS = TestEntryFactory.newClass("f");
+	private static final ClassEntry EMPTIED_CLASS = TestEntryFactory.newClass("b");
+
+	private static EnigmaProject project;
+
+	@BeforeAll
+	public static void beforeAll() throws Exception {
+		project = Enigma.create().openJar(JAR, new ClasspathClassProvider(), ProgressListener.createEmpty());
+	}
+
+	private static EntryTree<EntryMapping> createMappings() {
+		EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+		mappings.insert(TestEntryFactory.newClass("a"), new EntryMapping("pkg/A"));
+		mappings.insert(TestEntryFactory.newMethod("a", "a", "()V"), new EntryMapping(null, "Documented."));
+
+		// not the root of its method
+		mappings.insert(TestEntryFactory.newMethod("e", "a", "()V"), new EntryMapping("foo"));
+
+		mappings.insert(MISSING_CLASS, new EntryMapping("Missing"));
+		mappings.insert(TestEntryFactory.newField(MISSING_CLASS, "a", "I"), new EntryMapping("field"));
+
+		mappings.insert(EMPTY_CLASS, EntryMapping.OBFUSCATED);
+
+		// empty once its broken child is dropped
+		mappings.insert(EMPTIED_CLASS, EntryMapping.OBFUSCATED);
+		mappings.insert(TestEntryFactory.newMethod(EMPTIED_CLASS, "zz", "()V"), new EntryMapping("missing"));
+		return mappings;
+	}
+
+	private static Set<Entry<?>> entries(EntryTree<EntryMapping> mappings) {
+		return mappings.getAllEntries().collect(Collectors.toSet());
+	}
+
+	@Test
+	public void testDropInvalidMappings() {
+		EntryTree<EntryMapping> mappings = createMappings();
+		MappingsChecker.DroppedMappings dropped = new MappingsChecker(project.getJarIndex(), mappings).dropInvalidMappings(ProgressListener.createEmpty());
+
+		assertEquals(Set.of(
+				TestEntryFactory.newMethod("e", "a", "()V"),
+				MISSING_CLASS,
+				TestEntryFactory.newField(MISSING_CLASS, "a", "I"),
+				TestEntryFactory.newMethod(EMPTIED_CLASS, "zz", "()V")
+		), dropped.broken().getDroppedMappings().keySet());
+		assertEquals(Set.of(EMPTY_CLASS, EMPTIED_CLASS), dropped.empty().getDroppedMappings().keySet());
+		assertEquals(Set.of(TestEntryFactory.newClass("a"), TestEntryFactory.newMethod("a", "a", "()V")), entries(mappings));
+	}
+
+	@Test
+	public void testMatchesSeparatePasses() {
+		EntryTree<EntryMapping> separateMappings = createMappings();
+		MappingsChecker separateChecker = new MappingsChecker(project.getJarIndex(), separateMappings);
+		MappingsChecker.Dropped broken = separateChecker.dropBrokenMappings(ProgressListener.createEmpty());
+		MappingsChecker.Dropped empty = separateChecker.dropEmptyMappings(ProgressListener.createEmpty());
+
+		EntryTree<EntryMapping> mappings = createMappings();
+		MappingsChecker.DroppedMappings dropped = new MappingsChecker(project.getJarIndex(), mappings).dropInvalidMappings(ProgressListener.createEmpty());
+
+		assertEquals(broken.getDroppedMappings(), dropped.broken().getDroppedMappings());
+		assertEquals(empty.getDroppedMappings(), dropped.empty().getDroppedMappings());
+		assertEquals(entries(separateMappings), entries(mappings));
+		assertNull(mappings.findNode(MISSING_CLASS));
+	}
+}
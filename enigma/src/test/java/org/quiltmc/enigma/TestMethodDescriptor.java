@@ -244,4 +244,18 @@ public class TestMethodDescriptor {
 		assertThat(new MethodDescriptor("([I)V").toString(), is("([I)V"));
 		assertThat(new MethodDescriptor("([[D[[[J)V").toString(), is("([[D[[[J)V"));
 	}
+
+	@Test
+	public void pooled() {
+		MethodDescriptor pooled = MethodDescriptor.parse("(LFoo;[LBar;)LFoo;");
+		assertThat(MethodDescriptor.parse("(LFoo;[LBar;)LFoo;"), is(sameInstance(pooled)));
+		assertThat(pooled.getReturnDesc(), is(sameInstance(TypeDescriptor.parse("LFoo;"))));
+		assertThat(pooled.getArgumentDescs().get(1).getTypeEntry(), is(sameInstance(TypeDescriptor.parse("LBar;").getTypeEntry())));
+
+		// descriptors created by the constructor have their own arguments, whose access can be set
+		MethodDescriptor copy = new MethodDescriptor("(LFoo;[LBar;)LFoo;");
+		assertThat(copy, is(pooled));
+		assertThat(copy.getArgumentDescs().get(0), is(not(sameInstance(pooled.getArgumentDescs().get(0)))));
+		assertThat(copy.getArgumentDescs().get(0).getTypeEntry(), is(sameInstance(pooled.getArgumentDescs().get(0).getTypeEntry())));
+	}
 }
@@ -0,0 +1,136 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MethodFamilyIndex;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.test.bytecode.ClassNodeBuilder;
+import org.quiltmc.enigma.test.bytecode.MethodNodeBuilder;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TestMethodFamilyIndex {
+	private static final Map<String, ClassNode> CLASSES = new HashMap<>();
+	private static final ClassProvider CLASS_PROVIDER = new ClassProvider() {
+		@Nullable
+		@Override
+		public ClassNode get(String name) {
+			return CLASSES.get(name);
+		}
+
+		@Override
+		public Collection<String> getClassNames() {
+			return CLASSES.keySet();
+		}
+	};
+
+	private static final ClassEntry INTERFACE = TestEntryFactory.newClass("I");
+	private static final ClassEntry BASE = TestEntryFactory.newClass("Base");
+	private static final ClassEntry SUB = TestEntryFactory.newClass("Sub");
+	private static final ClassEntry OTHER = TestEntryFactory.newClass("Other");
+	private static final ClassEntry FINAL_SUB = TestEntryFactory.newClass("FinalSub");
+
+	private static JarIndex index;
+
+	@BeforeAll
+	public static void beforeAll() {
+		index = MainJarIndex.empty();
+		index.indexJar(new ProjectClassProvider(CLASS_PROVIDER, null), ProgressListener.createEmpty());
+	}
+
+	private static MethodEntry foo(ClassEntry owner) {
+		return TestEntryFactory.newMethod(owner, "foo", "()V");
+	}
+
+	@Test
+	public void testFamilies() {
+		MethodFamilyIndex families = index.getIndex(MethodFamilyIndex.class);
+
+		// Joined inherits foo from both Base and I, which ties Sub's override to the interface method
+		Set<MethodEntry> expected = Set.of(foo(INTERFACE), foo(BASE), foo(SUB));
+		assertEquals(expected, families.getFamily(foo(INTERFACE)));
+		assertEquals(expected, families.getFamily(foo(SUB)));
+		assertEquals(expected, index.getEntryResolver().resolveEquivalentMethods(foo(BASE)));
+
+		assertEquals(Set.of(foo(OTHER)), families.getFamily(foo(OTHER)));
+
+		MethodEntry privateMethod = TestEntryFactory.newMethod(BASE, "bar", "()V");
+		assertEquals(Set.of(privateMethod), families.getFamily(privateMethod));
+		assertEquals(Set.of(TestEntryFactory.newMethod(SUB, "bar", "()V")), families.getFamily(TestEntryFactory.newMethod(SUB, "bar", "()V")));
+
+		// final methods are kept on their own, even when they override a method
+		assertEquals(Set.of(foo(FINAL_SUB)), families.getFamily(foo(FINAL_SUB)));
+	}
+
+	@Test
+	public void testRenameFamily() {
+		EntryRemapper remapper = EntryRemapper.empty(index, List.of());
+		remapper.putMapping(TestUtil.newVC(), foo(SUB), new EntryMapping("renamed"));
+
+		// both roots of the family are renamed, even though Joined isn't a descendant of Sub
+		assertEquals("renamed", remapper.getMapping(foo(BASE)).targetName());
+		assertEquals("renamed", remapper.getMapping(foo(INTERFACE)).targetName());
+		assertNull(remapper.getMapping(foo(OTHER)).targetName());
+	}
+
+	private static void clazz(ClassNode classNode) {
+		CLASSES.put(classNode.name, classNode);
+	}
+
+	static {
+		clazz(ClassNodeBuilder.create(Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT, "I", null, "java/lang/Object", null)
+				.method(MethodNodeBuilder.create(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, "foo", "()V").build())
+				.build());
+		clazz(ClassNodeBuilder.create("Base")
+				.superInit()
+				.method(MethodNodeBuilder.create("foo", "()V")
+					.insn(Opcodes.RETURN)
+					.build())
+				.method(MethodNodeBuilder.create(Opcodes.ACC_PRIVATE, "bar", "()V")
+					.insn(Opcodes.RETURN)
+					.build())
+				.build());
+		clazz(ClassNodeBuilder.create(Opcodes.ACC_PUBLIC, "Joined", null, "Base", new String[] {"I"})
+				.superInit()
+				.build());
+		clazz(ClassNodeBuilder.create("Sub", "Base")
+				.superInit()
+				.method(MethodNodeBuilder.create("foo", "()V")
+					.insn(Opcodes.RETURN)
+					.build())
+				.method(MethodNodeBuilder.create(Opcodes.ACC_PRIVATE, "bar", "()V")
+					.insn(Opcodes.RETURN)
+					.build())
+				.build());
+		clazz(ClassNodeBuilder.create("FinalSub", "Base")
+				.superInit()
+				.method(MethodNodeBuilder.create(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, "foo", "()V")
+					.insn(Opcodes.RETURN)
+					.build())
+				.build());
+		clazz(ClassNodeBuilder.create("Other")
+				.superInit()
+				.method(MethodNodeBuilder.create("foo", "()V")
+					.insn(Opcodes.RETURN)
+					.build())
+				.build());
+	}
+}
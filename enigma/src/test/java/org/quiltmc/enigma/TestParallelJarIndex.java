@@ -0,0 +1,98 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.BridgeMethodIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.LambdaIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.index.AbstractJarIndex;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestParallelJarIndex {
+	public static final Path JAR = TestUtil.obfJar("complete");
+
+	private final JarIndex sequential;
+	private final JarIndex parallel;
+
+	public TestParallelJarIndex() throws Exception {
+		this.sequential = index(false);
+		this.parallel = index(true);
+	}
+
+	private static JarIndex index(boolean parallel) throws Exception {
+		JarClassProvider jcp = new JarClassProvider(JAR);
+		JarIndex index = MainJarIndex.empty();
+		((AbstractJarIndex) index).setParallel(parallel);
+		index.indexJar(new ProjectClassProvider(new CachingClassProvider(jcp), null), ProgressListener.createEmpty());
+		return index;
+	}
+
+	@Test
+	public void testEntries() {
+		EntryIndex expected = this.sequential.getIndex(EntryIndex.class);
+		EntryIndex actual = this.parallel.getIndex(EntryIndex.class);
+
+		assertEquals(new HashSet<>(expected.getClasses()), new HashSet<>(actual.getClasses()));
+		assertEquals(new HashSet<>(expected.getMethods()), new HashSet<>(actual.getMethods()));
+		assertEquals(new HashSet<>(expected.getFields()), new HashSet<>(actual.getFields()));
+		assertEquals(this.sequential.getChildrenByClass(), this.parallel.getChildrenByClass());
+	}
+
+	@Test
+	public void testInheritance() {
+		InheritanceIndex expected = this.sequential.getIndex(InheritanceIndex.class);
+		InheritanceIndex actual = this.parallel.getIndex(InheritanceIndex.class);
+
+		for (ClassEntry entry : this.sequential.getIndex(EntryIndex.class).getClasses()) {
+			assertEquals(new HashSet<>(expected.getParents(entry)), new HashSet<>(actual.getParents(entry)));
+			assertEquals(new HashSet<>(expected.getChildren(entry)), new HashSet<>(actual.getChildren(entry)));
+		}
+	}
+
+	@Test
+	public void testReferences() {
+		ReferenceIndex expected = this.sequential.getIndex(ReferenceIndex.class);
+		ReferenceIndex actual = this.parallel.getIndex(ReferenceIndex.class);
+		EntryIndex entryIndex = this.sequential.getIndex(EntryIndex.class);
+
+		for (MethodEntry entry : entryIndex.getMethods()) {
+			assertEquals(new HashSet<>(expected.getReferencesToMethod(entry)), new HashSet<>(actual.getReferencesToMethod(entry)));
+			assertEquals(new HashSet<>(expected.getMethodsReferencedBy(entry)), new HashSet<>(actual.getMethodsReferencedBy(entry)));
+		}
+
+		for (FieldEntry entry : entryIndex.getFields()) {
+			assertEquals(new HashSet<>(expected.getReferencesToField(entry)), new HashSet<>(actual.getReferencesToField(entry)));
+		}
+
+		for (ClassEntry entry : entryIndex.getClasses()) {
+			assertEquals(new HashSet<>(expected.getReferencesToClass(entry)), new HashSet<>(actual.getReferencesToClass(entry)));
+			assertEquals(new HashSet<>(expected.getFieldTypeReferencesToClass(entry)), new HashSet<>(actual.getFieldTypeReferencesToClass(entry)));
+			assertEquals(new HashSet<>(expected.getMethodTypeReferencesToClass(entry)), new HashSet<>(actual.getMethodTypeReferencesToClass(entry)));
+		}
+	}
+
+	@Test
+	public void testDerivedIndexes() {
+		assertEquals(this.sequential.getIndex(BridgeMethodIndex.class).getBridgeToSpecialized(), this.parallel.getIndex(BridgeMethodIndex.class).getBridgeToSpecialized());
+
+		LambdaIndex expected = this.sequential.getIndex(LambdaIndex.class);
+		LambdaIndex actual = this.parallel.getIndex(LambdaIndex.class);
+		for (MethodEntry entry : this.sequential.getIndex(EntryIndex.class).getMethods()) {
+			assertEquals(expected.getInternalLambdas(entry), actual.getInternalLambdas(entry));
+		}
+	}
+}
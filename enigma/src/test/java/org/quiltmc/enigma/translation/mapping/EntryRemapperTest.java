@@ -9,14 +9,25 @@ import org.quiltmc.enigma.TestUtil;
 import org.quiltmc.enigma.api.Enigma;
 import org.quiltmc.enigma.api.EnigmaProject;
 import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.mapping.ClassNameIndex;
+import org.quiltmc.enigma.api.analysis.index.mapping.MappingsIndex;
 import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.FlatEntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.ParameterAccessFlags;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.impl.translation.CachingTranslator;
+import org.objectweb.asm.Opcodes;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
 
 public class EntryRemapperTest {
 	public static final Path JAR = TestUtil.obfJar("interface_union");
@@ -100,4 +111,135 @@ public class EntryRemapperTest {
 		assertName(TestEntryFactory.newMethod("d", "a", "()F"), name);
 		assertName(TestEntryFactory.newMethod("c", "a", "()F"), name);
 	}
+
+	@Test
+	public void testCachedTranslationsUpdate() {
+		var method = TestEntryFactory.newMethod("a", "a", "()V");
+		var field = TestEntryFactory.newField("b", "a", "La;");
+
+		// translate first, so that the results are cached before any mapping changes
+		assertName(method, "a");
+		Assertions.assertEquals("a", remapper.deobfuscate(field).getDesc().getTypeEntry().getName());
+
+		remapper.putMapping(TestUtil.newVC(), TestEntryFactory.newMethod("e", "a", "()V"), new EntryMapping("unionAB"));
+		assertName(method, "unionAB");
+
+		remapper.putMapping(TestUtil.newVC(), TestEntryFactory.newClass("a"), new EntryMapping("A"));
+		Assertions.assertEquals("A", remapper.deobfuscate(method).getParent().getName());
+		Assertions.assertEquals("A", remapper.deobfuscate(field).getDesc().getTypeEntry().getName());
+
+		remapper.putMapping(TestUtil.newVC(), TestEntryFactory.newClass("a"), EntryMapping.OBFUSCATED);
+		Assertions.assertEquals("a", remapper.deobfuscate(method).getParent().getName());
+		Assertions.assertEquals("a", remapper.deobfuscate(field).getDesc().getTypeEntry().getName());
+	}
+
+	@Test
+	public void testReloadMappings() {
+		var classA = TestEntryFactory.newClass("a");
+		var classB = TestEntryFactory.newClass("b");
+		var method = TestEntryFactory.newMethod("a", "a", "()V");
+
+		EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+		mappings.insert(classA, new EntryMapping("pkg/A"));
+		mappings.insert(classB, new EntryMapping("pkg/B"));
+		project.setMappings(mappings, ProgressListener.createEmpty());
+		remapper = project.getRemapper();
+		assertName(method, "a");
+
+		EntryTree<EntryMapping> reloaded = new HashEntryTree<>();
+		reloaded.insert(classA, new EntryMapping("other/A"));
+		reloaded.insert(method, new EntryMapping("foo"));
+		project.setMappings(reloaded, ProgressListener.createEmpty());
+		remapper = project.getRemapper();
+
+		// the remapper is rebuilt around the reloaded mappings instead of copying them
+		Assertions.assertSame(reloaded, remapper.getDeobfMappings());
+		assertName(classA, "other/A");
+		assertName(classB, "b");
+		assertName(method, "foo");
+		Assertions.assertEquals("other/A", remapper.deobfuscate(method).getParent().getName());
+		Assertions.assertEquals(Set.of(classA), project.getMappingsIndex().getIndex(ClassNameIndex.class).getClasses("other/A"));
+		Assertions.assertTrue(project.getMappingsIndex().getIndex(ClassNameIndex.class).getClasses("pkg/B").isEmpty());
+		Assertions.assertFalse(remapper.isDirty());
+	}
+
+	@Test
+	public void testReusedLocalVariableSlot() {
+		var method = TestEntryFactory.newMethod("a", "a", "()V");
+
+		// both variables use the same slot, so they're equal, but unmapped variables keep their own names
+		assertName(new LocalVariableEntry(method, 1, "first", false, null), "first");
+		assertName(new LocalVariableEntry(method, 1, "second", false, null), "second");
+	}
+
+	@Test
+	public void testCacheBounded() {
+		CachingTranslator translator = new CachingTranslator(new HashEntryTree<>(), project.getJarIndex().getEntryResolver());
+		for (int i = 0; i < CachingTranslator.MAXIMUM_SIZE * 2; i++) {
+			translator.translate(new ClassEntry("class" + i));
+		}
+
+		Assertions.assertTrue(translator.size() <= CachingTranslator.MAXIMUM_SIZE);
+		Assertions.assertTrue(translator.getDependencyCount() <= translator.size());
+
+		translator.invalidateAll();
+		ClassEntry classEntry = new ClassEntry("x");
+		translator.translate(classEntry);
+		Assertions.assertEquals(1, translator.getDependencyCount());
+
+		// invalidating a translation forgets it as a dependent of everything it depends on
+		translator.invalidate(classEntry);
+		Assertions.assertEquals(0, translator.size());
+		Assertions.assertEquals(0, translator.getDependencyCount());
+	}
+
+	@Test
+	public void testCachedParameterAccess() {
+		CachingTranslator translator = new CachingTranslator(new HashEntryTree<>(), project.getJarIndex().getEntryResolver());
+		MethodDescriptor plain = new MethodDescriptor("(I)V");
+		MethodDescriptor synthetic = new MethodDescriptor("(I)V");
+		synthetic.getArgumentDescs().get(0).setAccess(new ParameterAccessFlags(Opcodes.ACC_SYNTHETIC));
+
+		// the descriptors are equal, but their translations keep their own parameter access
+		Assertions.assertFalse(translator.translate(plain).getArgumentDescs().get(0).getAccess().isSynthetic());
+		Assertions.assertTrue(translator.translate(synthetic).getArgumentDescs().get(0).getAccess().isSynthetic());
+		Assertions.assertFalse(translator.translate(plain).getArgumentDescs().get(0).getAccess().isSynthetic());
+	}
+
+	@Test
+	public void testProposedTreeFactory() {
+		ClassEntry classA = TestEntryFactory.newClass("a");
+		EntryTree<EntryMapping> jarProposed = new HashEntryTree<>();
+		jarProposed.insert(classA, new EntryMapping("proposed/A"));
+
+		EntryRemapper flat = EntryRemapper.mapped(project.getJarIndex(), project.getMappingsIndex(), jarProposed, new HashEntryTree<>(), List.of(), FlatEntryTree::new);
+		Assertions.assertInstanceOf(FlatEntryTree.class, flat.getProposedMappings());
+		Assertions.assertEquals("proposed/A", flat.deobfuscate(classA).getName());
+
+		// the proposals are copied, so the jar-proposed mappings are left alone
+		flat.getProposedMappings().insert(TestEntryFactory.newClass("b"), new EntryMapping("proposed/B"));
+		Assertions.assertNull(jarProposed.get(TestEntryFactory.newClass("b")));
+	}
+
+	@Test
+	public void testRemovedMappingReindexesProposedName() {
+		ClassEntry classA = TestEntryFactory.newClass("a");
+		EntryTree<EntryMapping> jarProposed = new HashEntryTree<>();
+		jarProposed.insert(classA, new EntryMapping("proposed/A"));
+
+		MappingsIndex mappingsIndex = MappingsIndex.empty();
+		mappingsIndex.indexMappings(jarProposed, ProgressListener.createEmpty());
+		EntryRemapper proposed = EntryRemapper.mapped(project.getJarIndex(), mappingsIndex, jarProposed, new HashEntryTree<>(), List.of());
+		ClassNameIndex classNames = mappingsIndex.getIndex(ClassNameIndex.class);
+
+		proposed.putMapping(TestUtil.newVC(), classA, new EntryMapping("manual/A"));
+		Assertions.assertEquals(Set.of(classA), Set.copyOf(classNames.getClasses("manual/A")));
+		Assertions.assertTrue(classNames.getClasses("proposed/A").isEmpty());
+
+		// removing the manual name brings the proposed one back into effect
+		proposed.putMapping(TestUtil.newVC(), classA, EntryMapping.OBFUSCATED);
+		Assertions.assertEquals("proposed/A", proposed.deobfuscate(classA).getFullName());
+		Assertions.assertEquals(Set.of(classA), Set.copyOf(classNames.getClasses("proposed/A")));
+		Assertions.assertTrue(classNames.getClasses("manual/A").isEmpty());
+	}
 }
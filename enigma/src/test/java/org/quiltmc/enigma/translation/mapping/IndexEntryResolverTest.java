@@ -16,13 +16,16 @@ import org.quiltmc.enigma.api.translation.mapping.IndexEntryResolver;
 import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma.test.bytecode.ClassNodeBuilder;
 import org.quiltmc.enigma.test.bytecode.MethodNodeBuilder;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -193,6 +196,42 @@ public class IndexEntryResolverTest {
 		assertResolveIdentity(entry);
 	}
 
+	@Test
+	public void testResolveAll() {
+		var entryIndex = index.getIndex(EntryIndex.class);
+		List<Entry<?>> entries = new ArrayList<>(entryIndex.getMethods());
+		entries.addAll(entryIndex.getFields());
+		entries.add(TestEntryFactory.newMethod(TestEntryFactory.newClass("Sub1BSub1"), "foo", "()LSub1B;"));
+
+		for (ResolutionStrategy strategy : ResolutionStrategy.values()) {
+			// resolve everything twice, so the second pass is answered from the cache
+			Map<Entry<?>, Collection<Entry<?>>> resolved = resolver.resolveAll(entries, strategy);
+			Map<Entry<?>, Collection<Entry<?>>> cached = resolver.resolveAll(entries, strategy);
+			IndexEntryResolver uncachedResolver = new IndexEntryResolver(index);
+
+			Assertions.assertEquals(List.copyOf(new LinkedHashSet<>(entries)), List.copyOf(resolved.keySet()));
+			for (Entry<?> entry : entries) {
+				Collection<Entry<?>> expected = uncachedResolver.resolveEntry(entry, strategy);
+				Assertions.assertIterableEquals(expected, resolved.get(entry), "wrong resolution of " + entry);
+				Assertions.assertIterableEquals(expected, cached.get(entry), "wrong cached resolution of " + entry);
+			}
+		}
+	}
+
+	@Test
+	public void testCachedDefinitions() {
+		var sub1B = TestEntryFactory.newClass("Sub1B");
+		var baseB = TestEntryFactory.newClass("BaseB");
+
+		// resolving a plain entry first mustn't make definitions resolve to plain entries
+		resolver.resolveEntry(TestEntryFactory.newMethod(sub1B, "foo", "()LBaseB;"), ResolutionStrategy.RESOLVE_ROOT);
+		var definition = index.getIndex(EntryIndex.class).getDefinition(TestEntryFactory.newMethod(sub1B, "foo", "()LBaseB;"));
+		Collection<MethodDefEntry> resolved = resolver.resolveEntry(definition, ResolutionStrategy.RESOLVE_ROOT);
+
+		Assertions.assertIterableEquals(List.of(TestEntryFactory.newMethod(baseB, "foo", "()LBaseB;")), resolved);
+		Assertions.assertInstanceOf(MethodDefEntry.class, resolved.iterator().next());
+	}
+
 	private static void clazz(ClassNode classNode) {
 		CLASSES.put(classNode.name, classNode);
 	}
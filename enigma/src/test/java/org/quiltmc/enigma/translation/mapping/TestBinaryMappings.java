@@ -0,0 +1,142 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.quiltmc.enigma.TestEntryFactory;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.source.TokenType;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingFileNameFormat;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
+import org.quiltmc.enigma.api.translation.mapping.serde.binary.BinaryMappingsFile;
+import org.quiltmc.enigma.api.translation.mapping.serde.binary.BinaryMappingsReader;
+import org.quiltmc.enigma.api.translation.mapping.serde.binary.BinaryMappingsWriter;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestBinaryMappings {
+	private static final MappingSaveParameters PARAMETERS = new MappingSaveParameters(MappingFileNameFormat.BY_DEOBF, false, null, null);
+
+	private static final ClassEntry CLASS_A = TestEntryFactory.newClass("a");
+	private static final ClassEntry CLASS_B = TestEntryFactory.newClass("b/c");
+	private static final ClassEntry INNER = TestEntryFactory.newClass("b/c$d");
+
+	@TempDir
+	Path directory;
+
+	private static EntryTree<EntryMapping> createMappings() {
+		EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+		mappings.insert(CLASS_A, new EntryMapping("pkg/A", "A class.\nWith two lines."));
+		mappings.insert(TestEntryFactory.newField(CLASS_A, "a", "Ljava/lang/String;"), new EntryMapping("name"));
+		mappings.insert(TestEntryFactory.newMethod(CLASS_A, "a", "(ILb/c;)V"), new EntryMapping(null, "Only documented."));
+		mappings.insert(TestEntryFactory.newParameter(TestEntryFactory.newMethod(CLASS_A, "a", "(ILb/c;)V"), 2), new EntryMapping("other"));
+		mappings.insert(TestEntryFactory.newMethod(CLASS_A, "b", "()V"), new EntryMapping("proposed", null, TokenType.JAR_PROPOSED, "enigma:test"));
+
+		// the outer class isn't mapped, but its inner class is
+		mappings.insert(INNER, new EntryMapping("Inner"));
+		mappings.insert(TestEntryFactory.newField(INNER, "a", "I"), new EntryMapping("ünïcödé"));
+		return mappings;
+	}
+
+	private static Set<Entry<?>> entries(EntryTree<EntryMapping> mappings) {
+		return mappings.getAllEntries().collect(Collectors.toSet());
+	}
+
+	private Path write(EntryTree<EntryMapping> mappings) {
+		Path path = this.directory.resolve("mappings.enigmabin");
+		BinaryMappingsWriter.INSTANCE.write(mappings, path, ProgressListener.createEmpty(), PARAMETERS);
+		return path;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException, MappingParseException {
+		EntryTree<EntryMapping> mappings = createMappings();
+		EntryTree<EntryMapping> read = BinaryMappingsReader.INSTANCE.read(this.write(mappings));
+
+		assertEquals(entries(mappings), entries(read));
+		for (Entry<?> entry : entries(mappings)) {
+			assertEquals(mappings.get(entry), read.get(entry), entry.toString());
+		}
+	}
+
+	@Test
+	public void testDeterministic() throws IOException {
+		byte[] first = Files.readAllBytes(this.write(createMappings()));
+
+		// insert in a different order
+		EntryTree<EntryMapping> reversed = new HashEntryTree<>();
+		EntryTree<EntryMapping> mappings = createMappings();
+		entries(mappings).stream().sorted((a, b) -> b.toString().compareTo(a.toString())).forEach(entry -> reversed.insert(entry, mappings.get(entry)));
+
+		assertArrayEquals(first, Files.readAllBytes(this.write(reversed)));
+	}
+
+	@Test
+	public void testReadClass() throws IOException, MappingParseException {
+		BinaryMappingsFile file = BinaryMappingsFile.open(this.write(createMappings()));
+		assertTrue(file.hasClassIndex());
+		assertEquals(Set.of(CLASS_A, CLASS_B), file.getClasses());
+
+		EntryTree<EntryMapping> read = new HashEntryTree<>();
+		assertTrue(file.readClass(CLASS_B, read));
+		assertEquals(Set.of(INNER, TestEntryFactory.newField(INNER, "a", "I")), entries(read));
+		assertEquals("ünïcödé", read.get(TestEntryFactory.newField(INNER, "a", "I")).targetName());
+
+		assertFalse(file.readClass(TestEntryFactory.newClass("missing"), read));
+	}
+
+	@Test
+	public void testOverwrite() throws IOException, MappingParseException {
+		Path path = this.write(createMappings());
+		BinaryMappingsFile file = BinaryMappingsFile.open(path);
+
+		EntryTree<EntryMapping> replaced = new HashEntryTree<>();
+		replaced.insert(CLASS_A, new EntryMapping("pkg/Replaced"));
+		this.write(replaced);
+
+		// the new file is moved over the old one, which the opened file keeps reading
+		EntryTree<EntryMapping> read = new HashEntryTree<>();
+		assertTrue(file.readClass(CLASS_A, read));
+		assertEquals("pkg/A", read.get(CLASS_A).targetName());
+		assertEquals("pkg/Replaced", BinaryMappingsReader.INSTANCE.read(path).get(CLASS_A).targetName());
+
+		try (var files = Files.list(this.directory)) {
+			assertEquals(Set.of(path), files.collect(Collectors.toSet()));
+		}
+	}
+
+	@Test
+	public void testWriteFailure() {
+		Path path = this.directory.resolve("missing").resolve("mappings.enigmabin");
+		assertThrows(UncheckedIOException.class, () -> BinaryMappingsWriter.INSTANCE.write(createMappings(), path, ProgressListener.createEmpty(), PARAMETERS));
+	}
+
+	@Test
+	public void testMalformed() throws IOException {
+		Path path = this.write(createMappings());
+		byte[] bytes = Files.readAllBytes(path);
+
+		Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+		assertThrows(MappingParseException.class, () -> BinaryMappingsReader.INSTANCE.read(path));
+
+		Files.writeString(path, "CLASS a b");
+		assertThrows(MappingParseException.class, () -> BinaryMappingsReader.INSTANCE.read(path));
+	}
+}
@@ -0,0 +1,195 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.quiltmc.enigma.TestEntryFactory;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
+import org.quiltmc.enigma.api.translation.mapping.serde.enigma.EnigmaMappingsReader;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.LazyEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestEnigmaMappingsReader {
+	private static final int CLASSES = 200;
+
+	@TempDir
+	Path directory;
+
+	private List<Path> writeClasses() throws IOException {
+		List<Path> files = new ArrayList<>();
+		for (int i = 0; i < CLASSES; i++) {
+			Path file = this.directory.resolve("pkg").resolve("C" + i + ".mapping");
+			Files.createDirectories(file.getParent());
+			Files.writeString(file, "CLASS c" + i + " pkg/C" + i + "\n"
+					+ "\tCOMMENT Class " + i + "\n"
+					+ "\tFIELD a value I\n"
+					+ "\tMETHOD a run (I)V\n"
+					+ "\t\tARG 1 count\n");
+			files.add(file);
+		}
+
+		return files;
+	}
+
+	@Test
+	public void testReadDirectory() throws IOException, MappingParseException {
+		List<Path> files = this.writeClasses();
+
+		EntryTree<EntryMapping> mappings = EnigmaMappingsReader.DIRECTORY.read(this.directory);
+		for (int i = 0; i < CLASSES; i++) {
+			ClassEntry classEntry = TestEntryFactory.newClass("c" + i);
+			assertEquals("pkg/C" + i, mappings.get(classEntry).targetName());
+			assertEquals("Class " + i, mappings.get(classEntry).javadoc());
+			assertEquals("value", mappings.get(TestEntryFactory.newField(classEntry, "a", "I")).targetName());
+			assertEquals("run", mappings.get(TestEntryFactory.newMethod(classEntry, "a", "(I)V")).targetName());
+		}
+
+		EntryTree<EntryMapping> sequential = EnigmaMappingsReader.FILE.read(files.get(0));
+		for (Path file : files.subList(1, files.size())) {
+			EnigmaMappingsReader.FILE.read(file).forEach(node -> {
+				if (node.hasValue()) {
+					sequential.insert(node.getEntry(), node.getValue());
+				}
+			});
+		}
+
+		assertEquals(sequential.getAllEntries().toList().size(), mappings.getAllEntries().toList().size());
+		sequential.getAllEntries().forEach(entry -> assertEquals(sequential.get(entry), mappings.get(entry)));
+	}
+
+	@Test
+	public void testReadDirectoryLazily() throws IOException, MappingParseException {
+		this.writeClasses();
+
+		EntryTree<EntryMapping> eager = EnigmaMappingsReader.DIRECTORY.read(this.directory);
+		LazyEntryTree<EntryMapping> mappings = (LazyEntryTree<EntryMapping>) EnigmaMappingsReader.DIRECTORY.readLazily(this.directory, ProgressListener.createEmpty());
+		this.assertLoadedLazily(eager, mappings);
+	}
+
+	@Test
+	public void testReadZipLazily() throws IOException, MappingParseException {
+		this.writeClasses();
+
+		Path zip = this.directory.resolve("mappings.zip");
+		try (FileSystem fs = FileSystems.newFileSystem(zip, Map.of("create", "true"))) {
+			for (int i = 0; i < CLASSES; i++) {
+				Path file = fs.getPath("pkg", "C" + i + ".mapping");
+				Files.createDirectories(file.getParent());
+				Files.copy(this.directory.resolve("pkg").resolve("C" + i + ".mapping"), file);
+			}
+		}
+
+		EntryTree<EntryMapping> eager = EnigmaMappingsReader.ZIP.read(zip);
+		LazyEntryTree<EntryMapping> mappings = (LazyEntryTree<EntryMapping>) EnigmaMappingsReader.ZIP.readLazily(zip, ProgressListener.createEmpty());
+		this.assertLoadedLazily(eager, mappings);
+	}
+
+	private void assertLoadedLazily(EntryTree<EntryMapping> eager, LazyEntryTree<EntryMapping> mappings) {
+		ClassEntry first = TestEntryFactory.newClass("c0");
+		ClassEntry second = TestEntryFactory.newClass("c1");
+
+		// the class's own mapping is read up front
+		assertEquals("pkg/C0", mappings.get(first).targetName());
+		assertEquals("Class 0", mappings.get(first).javadoc());
+		assertFalse(mappings.isLoaded(first));
+		assertEquals(CLASSES - 1, mappings.getSiblings(first).size());
+		assertFalse(mappings.isLoaded(first));
+
+		assertEquals(2, mappings.getChildren(first).size());
+		assertTrue(mappings.isLoaded(first));
+		assertFalse(mappings.isLoaded(second));
+
+		assertEquals("count", mappings.get(TestEntryFactory.newParameter(TestEntryFactory.newMethod(second, "a", "(I)V"), 1)).targetName());
+		assertTrue(mappings.isLoaded(second));
+		assertFalse(mappings.isLoaded(TestEntryFactory.newClass("c2")));
+
+		// changes aren't overridden by loading the class
+		FieldEntry field = TestEntryFactory.newField("c2", "a", "I");
+		mappings.insert(field, new EntryMapping("changed"));
+		assertEquals("changed", mappings.get(field).targetName());
+		eager.insert(field, new EntryMapping("changed"));
+
+		assertEquals(eager.getAllEntries().toList().size(), mappings.getAllEntries().toList().size());
+		eager.getAllEntries().forEach(entry -> assertEquals(eager.get(entry), mappings.get(entry)));
+	}
+
+	@Test
+	public void testLazyParseFailure() throws IOException, MappingParseException {
+		this.writeClasses();
+		Files.writeString(this.directory.resolve("broken.mapping"), "CLASS a A\n\n\tUNKNOWN a\n");
+
+		EntryTree<EntryMapping> mappings = EnigmaMappingsReader.DIRECTORY.readLazily(this.directory, ProgressListener.createEmpty());
+		assertEquals("A", mappings.get(TestEntryFactory.newClass("a")).targetName());
+
+		IllegalStateException exception = assertThrows(IllegalStateException.class, () -> mappings.getChildren(TestEntryFactory.newClass("a")));
+		assertTrue(exception.getCause() instanceof MappingParseException);
+
+		// the failure is reported on every access, rather than exposing the partly loaded class
+		assertFalse(((LazyEntryTree<EntryMapping>) mappings).isLoaded(TestEntryFactory.newClass("a")));
+		assertThrows(IllegalStateException.class, () -> mappings.get(TestEntryFactory.newField("a", "a", "I")));
+		assertThrows(IllegalStateException.class, mappings::getAllEntries);
+	}
+
+	@Test
+	public void testLazyNodesAreLive() {
+		ClassEntry classEntry = TestEntryFactory.newClass("a");
+		FieldEntry field = TestEntryFactory.newField(classEntry, "a", "I");
+		LazyEntryTree<EntryMapping> mappings = new LazyEntryTree<>();
+		mappings.addClass(classEntry, null, tree -> tree.insert(field, new EntryMapping("field")));
+
+		EntryTreeNode<EntryMapping> node = mappings.findNode(classEntry);
+		assertEquals(List.of(field), List.copyOf(node.getChildren()));
+		mappings.insert(TestEntryFactory.newField(classEntry, "b", "I"), new EntryMapping("other"));
+
+		// nodes aren't copied, so they read through to the loaded tree
+		assertEquals(2, node.getChildNodes().size());
+		assertEquals(2, mappings.findNode(classEntry).getChildNodes().size());
+
+		// snapshots come from the loaded tree, so a persistent tree keeps them cheap
+		LazyEntryTree<EntryMapping> persistent = new LazyEntryTree<>(PersistentEntryTree::new);
+		persistent.addClass(classEntry, null, tree -> tree.insert(field, new EntryMapping("field")));
+		assertInstanceOf(PersistentEntryTree.class, persistent.snapshot());
+		assertTrue(persistent.isLoaded(classEntry));
+	}
+
+	@Test
+	public void testLaterFilesOverride() throws IOException, MappingParseException {
+		Path first = this.directory.resolve("first.mapping");
+		Path second = this.directory.resolve("second.mapping");
+		Files.writeString(first, "CLASS a First\n\tFIELD a first I\n");
+		Files.writeString(second, "CLASS a Second\n");
+
+		EntryTree<EntryMapping> mappings = EnigmaMappingsReader.readFiles(ProgressListener.createEmpty(), first, second);
+		assertEquals("Second", mappings.get(TestEntryFactory.newClass("a")).targetName());
+		assertEquals("first", mappings.get(TestEntryFactory.newField("a", "a", "I")).targetName());
+	}
+
+	@Test
+	public void testParseFailure() throws IOException {
+		this.writeClasses();
+		Files.writeString(this.directory.resolve("broken.mapping"), "CLASS a A\n\n\tUNKNOWN a\n");
+
+		MappingParseException exception = assertThrows(MappingParseException.class, () -> EnigmaMappingsReader.DIRECTORY.read(this.directory));
+		assertTrue(exception.getMessage().startsWith("Line 2:"));
+	}
+}
@@ -0,0 +1,148 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.quiltmc.enigma.TestEntryFactory;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.FlatEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Behavior every {@link EntryTree} implementation shares.
+ * Tests for what's specific to one implementation live in that implementation's own test class.
+ */
+public class TestEntryTreeContract {
+	static final ClassEntry OUTER = TestEntryFactory.newClass("a");
+	static final ClassEntry INNER = TestEntryFactory.newClass("a$b");
+	static final MethodEntry METHOD = TestEntryFactory.newMethod(INNER, "c", "(I)V");
+	static final LocalVariableEntry PARAMETER = new LocalVariableEntry(METHOD, 1, "d", true, null);
+
+	private static Stream<Named<Supplier<EntryTree<EntryMapping>>>> provideTrees() {
+		return Stream.of(
+				tree("HashEntryTree", HashEntryTree::new),
+				tree("FlatEntryTree", FlatEntryTree::new),
+				tree("PersistentEntryTree", PersistentEntryTree::new)
+		);
+	}
+
+	private static Named<Supplier<EntryTree<EntryMapping>>> tree(String name, Supplier<EntryTree<EntryMapping>> factory) {
+		return Named.of(name, factory);
+	}
+
+	@ParameterizedTest
+	@MethodSource("provideTrees")
+	public void testInsertAndRemove(Supplier<EntryTree<EntryMapping>> factory) {
+		EntryTree<EntryMapping> tree = factory.get();
+		tree.insert(PARAMETER, new EntryMapping("param"));
+
+		assertEquals(new EntryMapping("param"), tree.get(PARAMETER));
+		assertNull(tree.get(METHOD));
+		assertEquals(OUTER, tree.findNode(OUTER).getEntry());
+		assertEquals(Set.of(METHOD), Set.copyOf(tree.getChildren(INNER)));
+
+		tree.insert(INNER, new EntryMapping("inner"));
+		assertEquals(new EntryMapping("param"), tree.remove(PARAMETER));
+
+		// the nodes between the removed entry and the next mapped one are dropped
+		assertNull(tree.findNode(METHOD));
+		assertEquals(new EntryMapping("inner"), tree.get(INNER));
+
+		// inserting null removes the mapping
+		tree.insert(INNER, null);
+		assertTrue(tree.isEmpty());
+		assertNull(tree.remove(INNER));
+	}
+
+	@ParameterizedTest
+	@MethodSource("provideTrees")
+	public void testMatchesModel(Supplier<EntryTree<EntryMapping>> factory) {
+		Random random = new Random(42);
+		List<Entry<?>> entries = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			ClassEntry classEntry = TestEntryFactory.newClass("c" + i / 4 + (i % 4 == 0 ? "" : "$" + i));
+			MethodEntry methodEntry = TestEntryFactory.newMethod(classEntry, "m" + i, "()V");
+			entries.add(classEntry);
+			entries.add(methodEntry);
+			entries.add(TestEntryFactory.newField(classEntry, "f" + i, "I"));
+			entries.add(new LocalVariableEntry(methodEntry, 0, "p", true, null));
+		}
+
+		EntryTree<EntryMapping> tree = factory.get();
+		Map<Entry<?>, EntryMapping> model = new HashMap<>();
+		List<EntryTree<EntryMapping>> snapshots = new ArrayList<>();
+		List<Map<Entry<?>, EntryMapping>> models = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			Entry<?> entry = entries.get(random.nextInt(entries.size()));
+			EntryMapping mapping = random.nextInt(3) == 0 ? null : new EntryMapping("m" + i);
+			tree.insert(entry, mapping);
+			if (mapping == null) {
+				model.remove(entry);
+			} else {
+				model.put(entry, mapping);
+			}
+
+			assertEquals(model.get(entry), tree.get(entry));
+
+			if (i % 500 == 0) {
+				snapshots.add(tree.snapshot());
+				models.add(new HashMap<>(model));
+			}
+		}
+
+		snapshots.add(tree);
+		models.add(model);
+
+		// snapshots keep showing the tree as it was when they were taken
+		for (int i = 0; i < snapshots.size(); i++) {
+			assertMatches(models.get(i), snapshots.get(i), entries);
+		}
+	}
+
+	private static void assertMatches(Map<Entry<?>, EntryMapping> model, EntryTree<EntryMapping> tree, List<Entry<?>> entries) {
+		// every mapped entry has a node, as do its ancestors, and no other node is kept
+		Set<Entry<?>> nodes = new HashSet<>();
+		for (Entry<?> entry : model.keySet()) {
+			nodes.addAll(entry.getAncestry());
+		}
+
+		for (Entry<?> entry : entries) {
+			assertEquals(model.get(entry), tree.get(entry), entry.toString());
+			assertEquals(nodes.contains(entry), tree.findNode(entry) != null, entry.toString());
+
+			Set<Entry<?>> children = nodes.stream().filter(node -> entry.equals(node.getParent())).collect(Collectors.toSet());
+			assertEquals(children, new HashSet<>(tree.getChildren(entry)), entry.toString());
+		}
+
+		assertEquals(nodes, entrySet(tree));
+		assertEquals(model.keySet(), tree.getAllEntries().collect(Collectors.toSet()));
+		assertEquals(model.isEmpty(), tree.isEmpty());
+	}
+
+	static Set<Entry<?>> entrySet(EntryTree<?> tree) {
+		return StreamSupport.stream(tree.spliterator(), false).map(EntryTreeNode::getEntry).collect(Collectors.toSet());
+	}
+}
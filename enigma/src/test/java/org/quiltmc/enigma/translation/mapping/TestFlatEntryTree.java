@@ -0,0 +1,84 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.TestEntryFactory;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.serde.enigma.EnigmaMappingsReader;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.FlatEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.INNER;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.METHOD;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.OUTER;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.PARAMETER;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.entrySet;
+
+public class TestFlatEntryTree {
+	@Test
+	public void testInsertionOrder() {
+		FlatEntryTree<EntryMapping> tree = new FlatEntryTree<>();
+		tree.insert(PARAMETER, new EntryMapping("param"));
+
+		// nodes are iterated in the order they were added, parents first
+		assertEquals(List.of(OUTER, INNER, METHOD, PARAMETER), StreamSupport.stream(tree.spliterator(), false).map(EntryTreeNode::getEntry).toList());
+
+		tree.insert(INNER, new EntryMapping("inner"));
+		EntryTreeNode<EntryMapping> method = tree.findNode(METHOD);
+		tree.remove(PARAMETER);
+
+		// nodes that were dropped from the tree read as empty
+		assertTrue(method.isEmpty());
+
+		// until an equal entry is inserted again
+		tree.insert(TestEntryFactory.newMethod(INNER, "c", "(I)V"), new EntryMapping("method"));
+		assertEquals(new EntryMapping("method"), method.getValue());
+	}
+
+	@Test
+	public void testCopy() {
+		HashEntryTree<EntryMapping> hash = new HashEntryTree<>();
+		hash.insert(PARAMETER, new EntryMapping("param"));
+		hash.insert(OUTER, new EntryMapping("outer"));
+
+		FlatEntryTree<EntryMapping> copy = new FlatEntryTree<>(hash);
+		assertEquals(entrySet(hash), entrySet(copy));
+		assertEquals(new EntryMapping("param"), copy.get(PARAMETER));
+		assertEquals(new EntryMapping("outer"), copy.get(OUTER));
+	}
+
+	@Test
+	public void testModificationDuringIteration() {
+		FlatEntryTree<EntryMapping> tree = new FlatEntryTree<>();
+		tree.insert(OUTER, new EntryMapping("outer"));
+		tree.insert(METHOD, new EntryMapping("method"));
+
+		Iterator<EntryTreeNode<EntryMapping>> iterator = tree.iterator();
+		iterator.next();
+		tree.remove(METHOD);
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+	}
+
+	@Test
+	public void testReadIntoFlatTree() throws Exception {
+		EntryTree<EntryMapping> expected = EnigmaMappingsReader.DIRECTORY.read(TestTinyV2InnerClasses.MAPPINGS);
+		EntryTree<EntryMapping> actual = EnigmaMappingsReader.DIRECTORY.read(TestTinyV2InnerClasses.MAPPINGS, ProgressListener.createEmpty(), FlatEntryTree::new);
+
+		assertInstanceOf(FlatEntryTree.class, actual);
+		assertEquals(entrySet(expected), entrySet(actual));
+		for (EntryTreeNode<EntryMapping> node : expected) {
+			assertEquals(node.getValue(), actual.get(node.getEntry()), node.getEntry().toString());
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.source.TokenType;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.MappingDelta;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingFileNameFormat;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingsWriter;
+import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.FilteredEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.MergedEntryMappingTree;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.INNER;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.METHOD;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.OUTER;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.PARAMETER;
+
+public class TestHashEntryTree {
+	@Test
+	public void testMergedTree() {
+		HashEntryTree<EntryMapping> main = new HashEntryTree<>();
+		HashEntryTree<EntryMapping> secondary = new HashEntryTree<>();
+		MergedEntryMappingTree merged = new MergedEntryMappingTree(main, secondary);
+
+		main.insert(OUTER, EntryMapping.OBFUSCATED);
+		assertEquals(EntryMapping.OBFUSCATED, merged.get(OUTER));
+
+		secondary.insert(OUTER, new EntryMapping("proposed"));
+		secondary.insert(METHOD, new EntryMapping("method"));
+		assertEquals(new EntryMapping("proposed"), merged.get(OUTER));
+		assertEquals(new EntryMapping("method"), merged.get(METHOD));
+	}
+
+	@Test
+	public void testFilteredTree() {
+		HashEntryTree<EntryMapping> tree = new HashEntryTree<>();
+		tree.insert(OUTER, new EntryMapping("outer"));
+		tree.insert(INNER, new EntryMapping("inner", null, TokenType.JAR_PROPOSED, "test:plugin"));
+		tree.insert(METHOD, new EntryMapping("method", null, TokenType.JAR_PROPOSED, "test:plugin"));
+		tree.insert(PARAMETER, new EntryMapping("param", "Docs", TokenType.JAR_PROPOSED, "test:plugin"));
+
+		MappingSaveParameters parameters = new MappingSaveParameters(MappingFileNameFormat.BY_DEOBF, false, null, null);
+		EntryTree<EntryMapping> filtered = MappingsWriter.filterMappings(tree, parameters);
+
+		// proposed names are hidden, but their nodes stay visible while they have a visible child
+		assertNull(filtered.get(INNER));
+		assertEquals(OUTER, filtered.findNode(OUTER).getEntry());
+		assertEquals(1, filtered.getChildren(METHOD).size());
+		assertEquals(new EntryMapping(null, "Docs"), filtered.get(PARAMETER));
+		assertEquals(Set.of(OUTER, PARAMETER), filtered.getAllEntries().collect(Collectors.toSet()));
+
+		// the view follows the original tree, which is left unmodified
+		tree.insert(PARAMETER, new EntryMapping("param", null, TokenType.JAR_PROPOSED, "test:plugin"));
+		assertNull(filtered.findNode(INNER));
+		assertEquals(Set.of(OUTER), filtered.getAllEntries().collect(Collectors.toSet()));
+		assertEquals(new EntryMapping("inner", null, TokenType.JAR_PROPOSED, "test:plugin"), tree.get(INNER));
+
+		MappingDelta<EntryMapping> delta = MappingDelta.added(tree);
+		assertEquals(4, delta.getChanges().getAllEntries().count());
+		assertEquals(List.of(OUTER), delta.getChangedRoots().toList());
+
+		// iterating the view filters each value once, however deep it is
+		AtomicInteger filterCalls = new AtomicInteger();
+		FilteredEntryTree<EntryMapping, EntryMapping> counted = new FilteredEntryTree<>(tree, mapping -> {
+			filterCalls.incrementAndGet();
+			return mapping;
+		});
+		assertEquals(4, counted.getAllEntries().count());
+		assertEquals(4, filterCalls.get());
+	}
+
+	@Test
+	public void testDeltaTracking() {
+		DeltaTrackingTree<EntryMapping> tree = new DeltaTrackingTree<>();
+		tree.insert(METHOD, new EntryMapping("first"));
+		tree.insert(METHOD, new EntryMapping("second"));
+
+		assertEquals(1, tree.takeDelta().getChanges().getAllEntries().count());
+		assertEquals(new EntryMapping("second"), tree.get(METHOD));
+	}
+}
@@ -175,6 +175,27 @@ public class TestMappingValidator {
 		assertMessages(vc, Message.NON_UNIQUE_NAME_CLASS);
 	}
 
+	@RepeatedTest(value = 2, name = REPEATED_TEST_NAME)
+	public void nonUniqueClasses() {
+		remapper.putMapping(TestUtil.newVC(), TestEntryFactory.newClass("a"), new EntryMapping("Foo"));
+
+		ValidationContext vc = TestUtil.newVC();
+		remapper.validatePutMapping(vc, TestEntryFactory.newClass("b"), new EntryMapping("Foo"));
+		assertMessages(vc, Message.NON_UNIQUE_NAME);
+
+		// the name is free again once the class is renamed
+		remapper.putMapping(TestUtil.newVC(), TestEntryFactory.newClass("a"), new EntryMapping("Bar"));
+
+		vc = TestUtil.newVC();
+		remapper.validatePutMapping(vc, TestEntryFactory.newClass("b"), new EntryMapping("Foo"));
+		assertMessages(vc);
+
+		// obfuscated names are still taken
+		vc = TestUtil.newVC();
+		remapper.validatePutMapping(vc, TestEntryFactory.newClass("b"), new EntryMapping("a"));
+		assertMessages(vc, Message.NON_UNIQUE_NAME);
+	}
+
 	@RepeatedTest(value = 2, name = REPEATED_TEST_NAME)
 	public void testParameterNames() {
 		MethodEntry method = TestEntryFactory.newMethod("a", "a", "(II)I");
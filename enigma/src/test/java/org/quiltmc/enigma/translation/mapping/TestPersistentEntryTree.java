@@ -0,0 +1,116 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.MappingDelta;
+import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.impl.translation.mapping.tree.PersistentHashMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.INNER;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.METHOD;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.OUTER;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.PARAMETER;
+import static org.quiltmc.enigma.translation.mapping.TestEntryTreeContract.entrySet;
+
+public class TestPersistentEntryTree {
+	@Test
+	public void testSnapshots() {
+		PersistentEntryTree<EntryMapping> tree = new PersistentEntryTree<>();
+		tree.insert(PARAMETER, new EntryMapping("param"));
+		tree.insert(OUTER, new EntryMapping("outer"));
+
+		PersistentEntryTree<EntryMapping> snapshot = tree.snapshot();
+		tree.insert(OUTER, new EntryMapping("changed"));
+		tree.remove(PARAMETER);
+		snapshot.insert(INNER, new EntryMapping("inner"));
+
+		assertEquals(new EntryMapping("changed"), tree.get(OUTER));
+		assertNull(tree.findNode(INNER));
+		assertEquals(new EntryMapping("outer"), snapshot.get(OUTER));
+		assertEquals(new EntryMapping("param"), snapshot.get(PARAMETER));
+		assertEquals(new EntryMapping("inner"), snapshot.get(INNER));
+
+		tree.remove(OUTER);
+		assertTrue(tree.isEmpty());
+		assertEquals(Set.of(OUTER, INNER, METHOD, PARAMETER), entrySet(snapshot));
+	}
+
+	@Test
+	public void testModificationDuringIteration() {
+		PersistentEntryTree<EntryMapping> tree = new PersistentEntryTree<>();
+		tree.insert(OUTER, new EntryMapping("outer"));
+		tree.insert(METHOD, new EntryMapping("method"));
+
+		// nodes show the tree as it was when iteration started
+		List<Entry<?>> visited = new ArrayList<>();
+		for (EntryTreeNode<EntryMapping> node : tree) {
+			visited.add(node.getEntry());
+			tree.remove(node.getEntry());
+		}
+
+		assertEquals(List.of(OUTER, INNER, METHOD), visited);
+		assertTrue(tree.isEmpty());
+	}
+
+	@Test
+	public void testDeltaReference() {
+		PersistentEntryTree<EntryMapping> mappings = new PersistentEntryTree<>();
+		mappings.insert(OUTER, new EntryMapping("outer"));
+
+		DeltaTrackingTree<EntryMapping> tree = new DeltaTrackingTree<>(mappings);
+		tree.insert(OUTER, new EntryMapping("changed"));
+
+		MappingDelta<EntryMapping> delta = tree.takeDelta();
+		assertEquals(new EntryMapping("outer"), delta.getBaseMappings().get(OUTER));
+		assertEquals(Set.of(OUTER), entrySet(delta.getChanges()));
+	}
+
+	@Test
+	public void testHashCollisions() {
+		Object owner = new Object();
+		PersistentHashMap<CollidingKey, Integer> map = PersistentHashMap.empty();
+		Map<CollidingKey, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			CollidingKey key = new CollidingKey(i, i % 3);
+			map = map.put(key, i, owner);
+			expected.put(key, i);
+		}
+
+		PersistentHashMap<CollidingKey, Integer> snapshot = map;
+		for (int i = 0; i < 100; i += 2) {
+			map = map.remove(new CollidingKey(i, i % 3), null);
+			expected.remove(new CollidingKey(i, i % 3));
+		}
+
+		assertEquals(50, map.size());
+		assertEquals(100, snapshot.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(expected.get(new CollidingKey(i, i % 3)), map.get(new CollidingKey(i, i % 3)));
+			assertEquals(i, snapshot.get(new CollidingKey(i, i % 3)));
+		}
+
+		Set<CollidingKey> keys = new HashSet<>();
+		map.keyIterator().forEachRemaining(keys::add);
+		assertEquals(expected.keySet(), keys);
+	}
+
+	private record CollidingKey(int id, int hash) {
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+	}
+}
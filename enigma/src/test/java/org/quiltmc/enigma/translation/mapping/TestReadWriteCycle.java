@@ -185,6 +185,11 @@ public class TestReadWriteCycle {
 		this.testReadWriteCycle(this.getService(file -> file.getExtensions().contains("tiny")), ".tiny");
 	}
 
+	@Test
+	public void testBinary() throws IOException, MappingParseException {
+		this.testReadWriteCycle(this.getService(file -> file.getExtensions().contains("enigmabin")), ".enigmabin");
+	}
+
 	@SuppressWarnings("all")
 	private ReadWriteService getService(Predicate<FileType> predicate) {
 		return this.enigma.getReadWriteService(this.enigma.getSupportedFileTypes().stream().filter(predicate).findFirst().get()).get();
@@ -0,0 +1,76 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.impl.translation.mapping.serde.TabSeparatedLineReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestTabSeparatedLineReader {
+	@Test
+	public void testColumns() throws IOException {
+		TabSeparatedLineReader reader = new TabSeparatedLineReader(new StringReader("c\ta\tA\r\n\tf\tI\ta\t\n\t\tp\t1\n"));
+
+		assertTrue(reader.nextLine());
+		assertEquals(0, reader.getIndentation());
+		assertEquals(3, reader.getColumnCount());
+		assertTrue(reader.columnEquals(0, "c"));
+		assertEquals("A", reader.column(2));
+
+		assertTrue(reader.nextLine());
+		assertEquals(1, reader.getIndentation());
+		assertEquals(4, reader.getColumnCount());
+		assertEquals("a", reader.column(2));
+		assertEquals("", reader.column(3));
+
+		assertTrue(reader.nextLine());
+		assertEquals(2, reader.getIndentation());
+		assertEquals(2, reader.getColumnCount());
+		assertFalse(reader.columnEquals(1, "10"));
+
+		assertFalse(reader.nextLine());
+	}
+
+	@Test
+	public void testInterning() throws IOException {
+		TabSeparatedLineReader reader = new TabSeparatedLineReader(new StringReader("Ljava/lang/String;\tname\nLjava/lang/String;\tname\n"));
+
+		reader.nextLine();
+		String descriptor = reader.column(0);
+		String name = reader.column(1);
+		reader.nextLine();
+		assertSame(descriptor, reader.column(0));
+		assertSame(name, reader.column(1));
+		assertEquals("name", reader.text(1));
+	}
+
+	@Test
+	public void testLongLines() throws IOException {
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 3000; i++) {
+			input.append("c\t").append("a".repeat(i % 50)).append('\t').append(i).append(i % 2 == 0 ? "\n" : "\r\n");
+		}
+
+		String longName = "b".repeat(200_000);
+		input.append('\t').append(longName).append("\tend");
+
+		TabSeparatedLineReader reader = new TabSeparatedLineReader(new StringReader(input.toString()));
+		for (int i = 0; i < 3000; i++) {
+			assertTrue(reader.nextLine());
+			assertEquals(3, reader.getColumnCount());
+			assertEquals(String.valueOf(i), reader.column(2));
+		}
+
+		assertTrue(reader.nextLine());
+		assertEquals(1, reader.getIndentation());
+		assertEquals(longName, reader.column(0));
+		assertEquals("end", reader.column(1));
+		assertFalse(reader.nextLine());
+		assertEquals(input.length(), reader.getCharsRead());
+	}
+}